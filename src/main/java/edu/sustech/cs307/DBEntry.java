@@ -4,8 +4,11 @@ import edu.sustech.cs307.exception.DBException;
 import edu.sustech.cs307.exception.ExceptionTypes;
 import edu.sustech.cs307.http.HttpServer;
 import edu.sustech.cs307.logicalOperator.LogicalOperator;
+import edu.sustech.cs307.logicalOperator.dml.CopyExecutor;
+import edu.sustech.cs307.logicalOperator.dml.VacuumExecutor;
 import edu.sustech.cs307.meta.ColumnMeta;
 import edu.sustech.cs307.meta.MetaManager;
+import edu.sustech.cs307.meta.TableMeta;
 import edu.sustech.cs307.optimizer.LogicalPlanner;
 import edu.sustech.cs307.optimizer.PhysicalPlanner;
 import edu.sustech.cs307.physicalOperator.PhysicalOperator;
@@ -37,6 +40,9 @@ public class DBEntry {
         Logger.info("Type 'exit' to exit the program.");
         Logger.info("Type 'help' to see this message again.");
         Logger.info("Type 'SHOW BTREE <table_name> <column_name>;' to display B+ Tree structure.");
+        Logger.info("Type 'COPY <table_name> FROM '<file.csv>' [HEADER];' to bulk load a CSV file.");
+        Logger.info("Type 'VACUUM [table_name];' to compact tables and reclaim space.");
+        Logger.info("Type 'CHECKPOINT;' to flush all pages and save index snapshots.");
         Logger.info("HTTP API is available at http://localhost:" + HTTP_PORT + "?sql=<your_sql_query>");
     }
 
@@ -74,6 +80,72 @@ public class DBEntry {
         }
     }
 
+    /**
+     * 处理COPY批量装载命令
+     */
+    private static void handleCopyCommand(DBManager dbManager, String sql) {
+        try {
+            long startTime = System.nanoTime();
+
+            CopyExecutor executor = new CopyExecutor(sql, dbManager);
+            executor.execute();
+            Logger.info(String.format("%d rows copied", executor.getLoadedRows()));
+
+            long endTime = System.nanoTime();
+            double executionTimeMs = (endTime - startTime) / 1_000_000.0;
+            Logger.info(String.format("Execution completed in %.2f ms", executionTimeMs));
+
+        } catch (DBException e) {
+            Logger.error("Database error: " + e.getMessage());
+        } catch (Exception e) {
+            Logger.error("Error copying data: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 处理VACUUM表压缩命令
+     */
+    private static void handleVacuumCommand(DBManager dbManager, String sql) {
+        try {
+            long startTime = System.nanoTime();
+
+            VacuumExecutor executor = new VacuumExecutor(sql, dbManager);
+            executor.execute();
+            Logger.info(String.format("%d records moved, %d pages reclaimed", executor.getMovedRecords(),
+                    executor.getReleasedPages()));
+
+            long endTime = System.nanoTime();
+            double executionTimeMs = (endTime - startTime) / 1_000_000.0;
+            Logger.info(String.format("Execution completed in %.2f ms", executionTimeMs));
+
+        } catch (DBException e) {
+            Logger.error("Database error: " + e.getMessage());
+        } catch (Exception e) {
+            Logger.error("Error vacuuming table: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 执行不经过 SQL 解析器的命令：SHOW BTREE、COPY、VACUUM 和 CHECKPOINT。
+     *
+     * @return 如果 sql 是这些命令之一并已处理返回 true，调用方不应再把它交给 {@link LogicalPlanner}
+     * @throws DBException 如果检查点失败
+     */
+    public static boolean handleUtilityCommand(DBManager dbManager, String sql) throws DBException {
+        if (sql.trim().toUpperCase().startsWith("SHOW BTREE ")) {
+            handleShowBTreeCommand(dbManager, sql);
+        } else if (CopyExecutor.isCopyCommand(sql)) {
+            handleCopyCommand(dbManager, sql);
+        } else if (VacuumExecutor.isVacuumCommand(sql)) {
+            handleVacuumCommand(dbManager, sql);
+        } else if (DBManager.isCheckpointCommand(sql)) {
+            Logger.info(String.format("Checkpoint completed, %d index snapshots saved", dbManager.checkpoint()));
+        } else {
+            return false;
+        }
+        return true;
+    }
+
     public static void main(String[] args) throws DBException {
         Logger.getConfiguration().formatPattern("{date: HH:mm:ss.SSS} {level}: {message}").activate();
 
@@ -89,6 +161,20 @@ public class DBEntry {
             RecordManager recordManager = new RecordManager(diskManager, bufferPool);
             MetaManager metaManager = new MetaManager(DB_NAME + "/meta");
             dbManager = new DBManager(diskManager, bufferPool, recordManager, metaManager);
+            // -Dautovacuum=true 开启 DELETE 后的自动压缩
+            dbManager.getTableCompactor().setAutoVacuum(Boolean.getBoolean("autovacuum"));
+            // -Dindexstorage=disk 让主键索引和未指定 USING 的索引默认使用页式 B+ 树
+            if ("disk".equalsIgnoreCase(System.getProperty("indexstorage"))) {
+                dbManager.getIndexManager().setDefaultIndexType(TableMeta.IndexType.DISK_BTREE);
+            }
+            // -Dindexfillfactor=0.7 调整批量构建索引时节点的填充因子
+            if (System.getProperty("indexfillfactor") != null) {
+                dbManager.getIndexManager().setFillFactor(Double.parseDouble(System.getProperty("indexfillfactor")));
+            }
+            // -Dbloomfilter=false 关闭索引列上的布隆过滤器
+            if ("false".equalsIgnoreCase(System.getProperty("bloomfilter"))) {
+                dbManager.getIndexManager().setBloomFiltersEnabled(false);
+            }
 
             try {
                 Logger.info("Loading existing indexes...");
@@ -198,8 +284,7 @@ public class DBEntry {
                     } else if (sql.equalsIgnoreCase("help;")) {
                         printHelp();
                         continue;
-                    } else if (sql.trim().toUpperCase().startsWith("SHOW BTREE ")) {
-                        handleShowBTreeCommand(dbManager, sql);
+                    } else if (handleUtilityCommand(dbManager, sql)) {
                         continue;
                     }
                 } catch (Exception e) {
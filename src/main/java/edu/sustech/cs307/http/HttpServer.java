@@ -3,6 +3,8 @@ package edu.sustech.cs307.http;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.sustech.cs307.exception.DBException;
 import edu.sustech.cs307.logicalOperator.LogicalOperator;
+import edu.sustech.cs307.logicalOperator.dml.CopyExecutor;
+import edu.sustech.cs307.logicalOperator.dml.VacuumExecutor;
 import edu.sustech.cs307.meta.ColumnMeta;
 import edu.sustech.cs307.optimizer.LogicalPlanner;
 import edu.sustech.cs307.optimizer.PhysicalPlanner;
@@ -352,6 +354,17 @@ public class HttpServer {
         private Map<String, Object> parseAndExecuteSql(String sql) {
             Map<String, Object> response = new LinkedHashMap<>();
 
+            // COPY、VACUUM 和 CHECKPOINT 不是 JSQLParser 支持的语法，先于解析处理
+            if (CopyExecutor.isCopyCommand(sql)) {
+                return handleCopy(sql);
+            }
+            if (VacuumExecutor.isVacuumCommand(sql)) {
+                return handleVacuum(sql);
+            }
+            if (DBManager.isCheckpointCommand(sql)) {
+                return handleCheckpoint();
+            }
+
             try {
                 JSqlParser parser = new CCJSqlParserManager();
                 Statement stmt = parser.parse(new StringReader(sql));
@@ -414,6 +427,9 @@ public class HttpServer {
                             "- DESC <table_name>; - Describe table structure\n" +
                             "- EXPLAIN <query>; - Show query execution plan\n" +
                             "- SHOW BTREE <table_name> <column_name>; - Display B+ Tree structure\n" +
+                            "- COPY <table_name> FROM '<file.csv>' [HEADER]; - Bulk load a CSV file\n" +
+                            "- VACUUM [table_name]; - Compact tables and reclaim space\n" +
+                            "- CHECKPOINT; - Flush all pages and save index snapshots\n" +
                             "- SELECT/INSERT/UPDATE/DELETE statements\n" +
                             "- CREATE/DROP TABLE statements");
             return response;
@@ -676,6 +692,81 @@ public class HttpServer {
             return response;
         }
 
+        /**
+         * 处理COPY批量装载命令
+         */
+        private Map<String, Object> handleCopy(String sql) {
+            Map<String, Object> response = new LinkedHashMap<>();
+
+            try {
+                CopyExecutor executor = new CopyExecutor(sql, dbManager);
+                executor.execute();
+
+                response.put("status", "success");
+                response.put("message", executor.getLoadedRows() + " rows copied");
+                response.put("data", new ArrayList<>());
+                response.put("rowCount", executor.getLoadedRows());
+
+            } catch (DBException e) {
+                response.put("status", "error");
+                response.put("message", "Database error: " + e.getMessage());
+            } catch (Exception e) {
+                response.put("status", "error");
+                response.put("message", "Error copying data: " + e.getMessage());
+            }
+
+            return response;
+        }
+
+        /**
+         * 处理VACUUM表压缩命令
+         */
+        private Map<String, Object> handleVacuum(String sql) {
+            Map<String, Object> response = new LinkedHashMap<>();
+
+            try {
+                VacuumExecutor executor = new VacuumExecutor(sql, dbManager);
+                executor.execute();
+
+                response.put("status", "success");
+                response.put("message", executor.getMovedRecords() + " records moved, "
+                        + executor.getReleasedPages() + " pages reclaimed");
+                response.put("data", new ArrayList<>());
+                response.put("rowCount", 0);
+
+            } catch (DBException e) {
+                response.put("status", "error");
+                response.put("message", "Database error: " + e.getMessage());
+            } catch (Exception e) {
+                response.put("status", "error");
+                response.put("message", "Error vacuuming table: " + e.getMessage());
+            }
+
+            return response;
+        }
+
+        /**
+         * 处理CHECKPOINT命令
+         */
+        private Map<String, Object> handleCheckpoint() {
+            Map<String, Object> response = new LinkedHashMap<>();
+
+            try {
+                int snapshots = dbManager.checkpoint();
+
+                response.put("status", "success");
+                response.put("message", "Checkpoint completed, " + snapshots + " index snapshots saved");
+                response.put("data", new ArrayList<>());
+                response.put("rowCount", 0);
+
+            } catch (DBException e) {
+                response.put("status", "error");
+                response.put("message", "Database error: " + e.getMessage());
+            }
+
+            return response;
+        }
+
         private void sendJsonResponse(ChannelHandlerContext ctx, Map<String, Object> data, HttpResponseStatus status) {
             try {
                 String json = objectMapper.writeValueAsString(data);
@@ -1,6 +1,7 @@
 package edu.sustech.cs307.index;
 
 import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.exception.ExceptionTypes;
 import edu.sustech.cs307.record.RID;
 import edu.sustech.cs307.value.Value;
 import edu.sustech.cs307.value.ValueComparer;
@@ -11,8 +12,25 @@ import java.util.List;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.AbstractMap;
-
-public class BPlusTreeIndex implements Index {
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 通用的内存 B+ 树索引，键为任意可比较的 {@link Value}。
+ *
+ * <p>
+ * 节点用 ArrayList 存放键，删除时会借键或合并节点，一次结构调整可能波及多个节点，
+ * 因此用一把读写锁保护整棵树：查询和遍历共享读锁，插入、删除独占写锁。
+ * 数值键使用读者不加锁的 {@link PrimitiveBPlusTreeIndex}。
+ * </p>
+ *
+ * <p>
+ * 每个不同的键在叶子中只存一次，它的全部 RID 放在一个有序的 {@link RidPostingList} 中。
+ * 重复度高的列（如状态、类别）不会因为同一个键占满多个叶子而加深树，删除某个 RID 也只需沿一条路径下降。
+ * </p>
+ */
+public class BPlusTreeIndex implements MemoryIndex {
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
     private BPlusTreeNode root;
     private final int degree;
     private final String tableName;
@@ -31,52 +49,82 @@ public class BPlusTreeIndex implements Index {
 
     @Override
     public List<RID> search(Value key) throws DBException {
+        lock.readLock().lock();
+        try {
+            return searchInternal(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<RID> searchInternal(Value key) throws DBException {
         if (root == null) {
             return new ArrayList<>();
         }
-        return searchRecursive(root, key);
+        // 每个键在树中只出现一次，它的全部 RID 都在同一个集合里
+        List<RID> resultRIDs = new ArrayList<>();
+        BPlusTreeNode leaf = findLeafNodeForKey(root, key);
+        int i = leaf.findKeyIndex(key);
+        if (i >= 0) {
+            leaf.postings.get(i).addAllTo(resultRIDs);
+        }
+        return resultRIDs;
     }
 
-    private List<RID> searchRecursive(BPlusTreeNode node, Value key) throws DBException {
-        if (node.isLeaf) {
+    /**
+     * 在一次读锁内按升序查找多个键。下一个键不大于当前叶子的最后一个键时仍在这个叶子里，
+     * 或者沿叶子链表在后面不远处，否则才从根重新下降。
+     */
+    @Override
+    public List<RID> searchAll(List<Value> sortedKeys) throws DBException {
+        lock.readLock().lock();
+        try {
             List<RID> resultRIDs = new ArrayList<>();
-            int keyIndex = node.findKeyIndex(key);
-            if (keyIndex >= 0) {
-                // Found exact match
-                resultRIDs.add(node.rids.get(keyIndex));
-
-                // Check for duplicate keys (same value, different RIDs)
-                // Scan left for duplicates
-                for (int i = keyIndex - 1; i >= 0; i--) {
-                    if (ValueComparer.compare(node.keys.get(i), key) == 0) {
-                        resultRIDs.add(0, node.rids.get(i)); // Add at beginning to maintain order
-                    } else {
-                        break;
-                    }
+            if (root == null) {
+                return resultRIDs;
+            }
+            BPlusTreeNode leaf = null;
+            Value previous = null;
+            for (Value key : sortedKeys) {
+                if (leaf == null || ValueComparer.compare(key, previous) < 0) {
+                    leaf = findLeafNodeForKey(root, key);
                 }
-
-                // Scan right for duplicates
-                for (int i = keyIndex + 1; i < node.keys.size(); i++) {
-                    if (ValueComparer.compare(node.keys.get(i), key) == 0) {
-                        resultRIDs.add(node.rids.get(i));
-                    } else {
+                while (leaf.nextLeaf != null && endsBefore(leaf, key)) {
+                    // 键落在下一个叶子之后时不必沿链表逐个走过去
+                    BPlusTreeNode next = leaf.nextLeaf;
+                    if (!next.keys.isEmpty() && endsBefore(next, key)) {
+                        leaf = findLeafNodeForKey(root, key);
                         break;
                     }
+                    leaf = next;
                 }
+                int i = leaf.findKeyIndex(key);
+                if (i >= 0) {
+                    leaf.postings.get(i).addAllTo(resultRIDs);
+                }
+                previous = key;
             }
             return resultRIDs;
-        } else {
-            // Internal node: find the child to traverse
-            int childPointerIndex = node.findChildPointerIndex(key);
-            if (childPointerIndex >= node.children.size() || childPointerIndex < 0) {
-                return new ArrayList<>();
-            }
-            return searchRecursive(node.children.get(childPointerIndex), key);
+        } finally {
+            lock.readLock().unlock();
         }
     }
 
+    private static boolean endsBefore(BPlusTreeNode leaf, Value key) throws DBException {
+        return leaf.keys.isEmpty() || ValueComparer.compare(leaf.keys.get(leaf.keys.size() - 1), key) < 0;
+    }
+
     @Override
     public void insert(Value key, RID rid) throws DBException {
+        lock.writeLock().lock();
+        try {
+            insertInternal(key, rid);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void insertInternal(Value key, RID rid) throws DBException {
         if (root == null) {
             root = new BPlusTreeNode(true, degree);
             root.insertIntoLeaf(key, rid);
@@ -95,6 +143,146 @@ public class BPlusTreeIndex implements Index {
         }
     }
 
+    /**
+     * 自底向上批量构建空树：按顺序把条目装满叶子，再逐层为上一层的节点构建内部节点。
+     * 每个节点按填充因子装入条目，为之后的插入留出空间，不发生任何分裂。
+     *
+     * @param sortedEntries 按键升序排列的条目
+     * @param fillFactor    节点填充因子，取值 (0, 1]
+     * @return 装入的条目数
+     * @throws DBException 如果树不为空
+     */
+    @Override
+    public long bulkLoad(Iterator<Map.Entry<Value, RID>> sortedEntries, double fillFactor) throws DBException {
+        lock.writeLock().lock();
+        try {
+            return bulkLoadInternal(sortedEntries, fillFactor);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private long bulkLoadInternal(Iterator<Map.Entry<Value, RID>> sortedEntries, double fillFactor) throws DBException {
+        if (root != null) {
+            throw new DBException(ExceptionTypes.InvalidOperation(
+                    String.format("Bulk load requires an empty index on %s.%s", tableName, columnName)));
+        }
+        int maxKeys = degree - 1;
+        int minKeys = Math.max(1, maxKeys / 2);
+        int perNode = Math.max(minKeys, Math.min(maxKeys, (int) Math.round(maxKeys * fillFactor)));
+
+        // 叶子层
+        List<BPlusTreeNode> level = new ArrayList<>();
+        BPlusTreeNode leaf = null;
+        long count = 0;
+        while (sortedEntries.hasNext()) {
+            Map.Entry<Value, RID> entry = sortedEntries.next();
+            // 与上一个条目的键相同时并入它的 RID 集合，同一个键不会跨越两个叶子
+            if (leaf != null && ValueComparer.compare(leaf.keys.get(leaf.keys.size() - 1), entry.getKey()) == 0) {
+                leaf.postings.get(leaf.postings.size() - 1).add(entry.getValue());
+                count++;
+                continue;
+            }
+            if (leaf == null || leaf.keys.size() == perNode) {
+                BPlusTreeNode next = new BPlusTreeNode(true, degree);
+                if (leaf != null) {
+                    leaf.nextLeaf = next;
+                }
+                leaf = next;
+                level.add(leaf);
+            }
+            RidPostingList posting = new RidPostingList();
+            posting.add(entry.getValue());
+            leaf.keys.add(entry.getKey());
+            leaf.postings.add(posting);
+            count++;
+        }
+        if (level.isEmpty()) {
+            return 0;
+        }
+        balanceLastLeaves(level, maxKeys, minKeys);
+
+        // 内部节点层，分隔键为右侧子树的最小键
+        List<Value> minKeysOfLevel = new ArrayList<>();
+        for (BPlusTreeNode node : level) {
+            minKeysOfLevel.add(node.keys.get(0));
+        }
+        while (level.size() > 1) {
+            List<BPlusTreeNode> parents = new ArrayList<>();
+            List<Value> parentMinKeys = new ArrayList<>();
+            List<int[]> groups = groupChildren(level.size(), perNode + 1, minKeys + 1, maxKeys + 1);
+            for (int[] group : groups) {
+                BPlusTreeNode parent = new BPlusTreeNode(false, degree);
+                for (int i = group[0]; i < group[1]; i++) {
+                    BPlusTreeNode child = level.get(i);
+                    child.parent = parent;
+                    parent.children.add(child);
+                    if (i > group[0]) {
+                        parent.keys.add(minKeysOfLevel.get(i));
+                    }
+                }
+                parents.add(parent);
+                parentMinKeys.add(minKeysOfLevel.get(group[0]));
+            }
+            level = parents;
+            minKeysOfLevel = parentMinKeys;
+        }
+        root = level.get(0);
+        return count;
+    }
+
+    /**
+     * 最后一个叶子条目过少时，与前一个叶子合并或平分，保证每个非根节点满足最小键数。
+     */
+    private void balanceLastLeaves(List<BPlusTreeNode> leaves, int maxKeys, int minKeys) {
+        int n = leaves.size();
+        if (n < 2 || leaves.get(n - 1).keys.size() >= minKeys) {
+            return;
+        }
+        BPlusTreeNode prev = leaves.get(n - 2);
+        BPlusTreeNode last = leaves.get(n - 1);
+        List<Value> keys = new ArrayList<>(prev.keys);
+        keys.addAll(last.keys);
+        List<RidPostingList> postings = new ArrayList<>(prev.postings);
+        postings.addAll(last.postings);
+        int keep = keys.size() <= maxKeys ? keys.size() : keys.size() - keys.size() / 2;
+        prev.keys = new ArrayList<>(keys.subList(0, keep));
+        prev.postings = new ArrayList<>(postings.subList(0, keep));
+        if (keep == keys.size()) {
+            prev.nextLeaf = null;
+            leaves.remove(n - 1);
+        } else {
+            last.keys = new ArrayList<>(keys.subList(keep, keys.size()));
+            last.postings = new ArrayList<>(postings.subList(keep, postings.size()));
+        }
+    }
+
+    /**
+     * 把 n 个子节点按每组 perGroup 个划分，最后一组不足 minGroup 个时与前一组合并或平分。
+     *
+     * @return 每组的 [起始下标, 结束下标)
+     */
+    static List<int[]> groupChildren(int n, int perGroup, int minGroup, int maxGroup) {
+        List<int[]> groups = new ArrayList<>();
+        for (int start = 0; start < n; start += perGroup) {
+            groups.add(new int[] { start, Math.min(n, start + perGroup) });
+        }
+        int last = groups.size() - 1;
+        if (last > 0 && groups.get(last)[1] - groups.get(last)[0] < minGroup) {
+            int start = groups.get(last - 1)[0];
+            int total = n - start;
+            if (total <= maxGroup) {
+                groups.remove(last);
+                groups.get(last - 1)[1] = n;
+            } else {
+                int split = start + total - total / 2;
+                groups.get(last - 1)[1] = split;
+                groups.get(last)[0] = split;
+            }
+        }
+        return groups;
+    }
+
     // Helper class to handle split results
     private static class InsertResult {
         Value newKey;
@@ -113,7 +301,8 @@ public class BPlusTreeIndex implements Index {
 
     private InsertResult insertRecursive(BPlusTreeNode node, Value key, RID rid) throws DBException {
         if (node.isLeaf) {
-            if (!node.isFull()) {
+            // 键已存在时只是加入它的 RID 集合，叶子的键数不变，不需要分裂
+            if (!node.isFull() || node.findKeyIndex(key) >= 0) {
                 node.insertIntoLeaf(key, rid);
                 return new InsertResult(); // No split occurred
             } else {
@@ -122,10 +311,7 @@ public class BPlusTreeIndex implements Index {
             }
         } else {
             // Internal node: find child to traverse
-            int childIndex = findChildIndexForKey(node, key);
-            if (childIndex >= node.children.size()) {
-                childIndex = node.children.size() - 1; // Use last child
-            }
+            int childIndex = node.findChildPointerIndex(key);
 
             BPlusTreeNode child = node.children.get(childIndex);
             InsertResult childResult = insertRecursive(child, key, rid);
@@ -146,114 +332,66 @@ public class BPlusTreeIndex implements Index {
     }
 
     private InsertResult splitLeafNode(BPlusTreeNode leaf, Value newKey, RID newRid) throws DBException {
-        BPlusTreeNode newLeaf = new BPlusTreeNode(true, degree);
-
-        // Collect all keys and RIDs
-        List<Value> allKeys = new ArrayList<>(leaf.keys);
-        List<RID> allRids = new ArrayList<>(leaf.rids);
+        // 先按二分查找的位置插入，叶子暂时多出一个条目，再把后一半整体移到新叶子
+        leaf.insertIntoLeaf(newKey, newRid);
+        int splitPoint = leaf.keys.size() / 2;
 
-        // Find insertion position
-        int insertPos = 0;
-        while (insertPos < allKeys.size() && ValueComparer.compare(allKeys.get(insertPos), newKey) < 0) {
-            insertPos++;
-        }
-        allKeys.add(insertPos, newKey);
-        allRids.add(insertPos, newRid);
-
-        // Split point - first half stays in original, second half goes to new
-        int splitPoint = allKeys.size() / 2;
-
-        // Clear original leaf and fill with first half
-        leaf.keys.clear();
-        leaf.rids.clear();
-        for (int i = 0; i < splitPoint; i++) {
-            leaf.keys.add(allKeys.get(i));
-            leaf.rids.add(allRids.get(i));
-        }
-
-        // Fill new leaf with second half
-        for (int i = splitPoint; i < allKeys.size(); i++) {
-            newLeaf.keys.add(allKeys.get(i));
-            newLeaf.rids.add(allRids.get(i));
-        }
+        BPlusTreeNode newLeaf = new BPlusTreeNode(true, degree);
+        moveTail(leaf.keys, splitPoint, newLeaf.keys);
+        moveTail(leaf.postings, splitPoint, newLeaf.postings);
 
         // Update leaf pointers
         newLeaf.nextLeaf = leaf.nextLeaf;
         leaf.nextLeaf = newLeaf;
 
         // The key to propagate up is the first key of the new leaf
-        Value keyToPropagate = newLeaf.keys.get(0);
-
-        return new InsertResult(keyToPropagate, newLeaf);
+        return new InsertResult(newLeaf.keys.get(0), newLeaf);
     }
 
-    private void insertIntoInternalNode(BPlusTreeNode node, Value key, int childIndex, BPlusTreeNode newChild)
-            throws DBException {
-        // Find insertion position for the key
-        int keyPos = 0;
-        while (keyPos < node.keys.size() && ValueComparer.compare(node.keys.get(keyPos), key) < 0) {
-            keyPos++;
-        }
-
-        node.keys.add(keyPos, key);
+    /**
+     * 子节点 childIndex 分裂出的新节点紧挨在它右边，分隔键就放在 childIndex 处，不需要再比较查找位置。
+     */
+    private void insertIntoInternalNode(BPlusTreeNode node, Value key, int childIndex, BPlusTreeNode newChild) {
+        node.keys.add(childIndex, key);
         // New child goes to the right of the inserted key
-        node.children.add(keyPos + 1, newChild);
+        node.children.add(childIndex + 1, newChild);
     }
 
-    private InsertResult splitInternalNode(BPlusTreeNode node, Value newKey, int childIndex, BPlusTreeNode newChild)
-            throws DBException {
-        BPlusTreeNode newInternal = new BPlusTreeNode(false, degree);
-
-        // Collect all keys and children
-        List<Value> allKeys = new ArrayList<>(node.keys);
-        List<BPlusTreeNode> allChildren = new ArrayList<>(node.children);
+    private InsertResult splitInternalNode(BPlusTreeNode node, Value newKey, int childIndex, BPlusTreeNode newChild) {
+        insertIntoInternalNode(node, newKey, childIndex, newChild);
 
-        // Find insertion position for new key
-        int keyPos = 0;
-        while (keyPos < allKeys.size() && ValueComparer.compare(allKeys.get(keyPos), newKey) < 0) {
-            keyPos++;
-        }
-        allKeys.add(keyPos, newKey);
-        allChildren.add(keyPos + 1, newChild);
+        // 中间的键上移到父节点，右侧的键和子节点移到新节点
+        int splitPoint = node.keys.size() / 2;
+        Value middleKey = node.keys.get(splitPoint);
 
-        // Split point
-        int splitPoint = allKeys.size() / 2;
-        Value middleKey = allKeys.get(splitPoint);
-
-        // Clear original node and fill with first half
-        node.keys.clear();
-        node.children.clear();
-        for (int i = 0; i < splitPoint; i++) {
-            node.keys.add(allKeys.get(i));
-        }
-        for (int i = 0; i <= splitPoint; i++) {
-            node.children.add(allChildren.get(i));
-        }
-
-        // Fill new internal node with second half
-        for (int i = splitPoint + 1; i < allKeys.size(); i++) {
-            newInternal.keys.add(allKeys.get(i));
-        }
-        for (int i = splitPoint + 1; i < allChildren.size(); i++) {
-            newInternal.children.add(allChildren.get(i));
-        }
+        BPlusTreeNode newInternal = new BPlusTreeNode(false, degree);
+        moveTail(node.keys, splitPoint + 1, newInternal.keys);
+        moveTail(node.children, splitPoint + 1, newInternal.children);
+        node.keys.remove(splitPoint);
 
         return new InsertResult(middleKey, newInternal);
     }
 
-    private int findChildIndexForKey(BPlusTreeNode node, Value key) throws DBException {
-        if (node.isLeaf) {
-            throw new IllegalStateException("Cannot find child index in a leaf node.");
-        }
-        int i = 0;
-        while (i < node.keys.size() && ValueComparer.compare(node.keys.get(i), key) <= 0) {
-            i++;
-        }
-        return i;
+    /**
+     * 把 from 中从 start 开始的元素整体移到 to 的末尾。
+     */
+    private static <T> void moveTail(List<T> from, int start, List<T> to) {
+        List<T> tail = from.subList(start, from.size());
+        to.addAll(tail);
+        tail.clear();
     }
 
     @Override
     public void delete(Value key, RID rid) throws DBException {
+        lock.writeLock().lock();
+        try {
+            deleteInternal(key, rid);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void deleteInternal(Value key, RID rid) throws DBException {
         if (root == null) {
             Logger.warn("Attempting to delete from empty B+ Tree");
             return;
@@ -290,31 +428,16 @@ public class BPlusTreeIndex implements Index {
     private boolean deleteRecursive(BPlusTreeNode node, Value key, RID rid) throws DBException {
         if (node.isLeaf) {
             // 在叶子节点中查找并删除键值对
-            for (int i = 0; i < node.keys.size(); i++) {
-                if (ValueComparer.compare(node.keys.get(i), key) == 0 &&
-                        node.rids.get(i).equals(rid)) {
-                    node.keys.remove(i);
-                    node.rids.remove(i);
-                    return true;
-                }
-            }
-            return false;
+            return node.removeFromLeaf(key, rid);
         } else {
-            // 内部节点：查找要遍历的子节点
+            // 内部节点：每个键只在一个叶子中，沿唯一的路径向下
             int childIndex = node.findChildPointerIndex(key);
-            if (childIndex >= node.children.size()) {
-                childIndex = node.children.size() - 1;
-            }
-
-            BPlusTreeNode child = node.children.get(childIndex);
-            boolean deleted = deleteRecursive(child, key, rid);
-
-            if (deleted) {
+            if (deleteRecursive(node.children.get(childIndex), key, rid)) {
                 // 删除成功后，检查子节点是否需要清理
                 handleNodeAfterDeletion(node, childIndex);
+                return true;
             }
-
-            return deleted;
+            return false;
         }
     }
 
@@ -415,12 +538,12 @@ public class BPlusTreeIndex implements Index {
         BPlusTreeNode leftSibling = parent.children.get(nodeIndex - 1);
 
         if (node.isLeaf) {
-            // 叶子节点：直接移动键和RID
+            // 叶子节点：直接移动键和它的RID集合
             Value borrowedKey = leftSibling.keys.remove(leftSibling.keys.size() - 1);
-            RID borrowedRid = leftSibling.rids.remove(leftSibling.rids.size() - 1);
+            RidPostingList borrowedPosting = leftSibling.postings.remove(leftSibling.postings.size() - 1);
 
             node.keys.add(0, borrowedKey);
-            node.rids.add(0, borrowedRid);
+            node.postings.add(0, borrowedPosting);
 
             // 更新父节点的分隔键
             parent.keys.set(nodeIndex - 1, borrowedKey);
@@ -445,12 +568,12 @@ public class BPlusTreeIndex implements Index {
         BPlusTreeNode rightSibling = parent.children.get(nodeIndex + 1);
 
         if (node.isLeaf) {
-            // 叶子节点：直接移动键和RID
+            // 叶子节点：直接移动键和它的RID集合
             Value borrowedKey = rightSibling.keys.remove(0);
-            RID borrowedRid = rightSibling.rids.remove(0);
+            RidPostingList borrowedPosting = rightSibling.postings.remove(0);
 
             node.keys.add(borrowedKey);
-            node.rids.add(borrowedRid);
+            node.postings.add(borrowedPosting);
 
             // 更新父节点的分隔键
             if (!rightSibling.keys.isEmpty()) {
@@ -479,7 +602,7 @@ public class BPlusTreeIndex implements Index {
         if (node.isLeaf) {
             // 叶子节点合并
             leftSibling.keys.addAll(node.keys);
-            leftSibling.rids.addAll(node.rids);
+            leftSibling.postings.addAll(node.postings);
             leftSibling.nextLeaf = node.nextLeaf;
         } else {
             // 内部节点合并
@@ -503,7 +626,7 @@ public class BPlusTreeIndex implements Index {
         if (node.isLeaf) {
             // 叶子节点合并
             node.keys.addAll(rightSibling.keys);
-            node.rids.addAll(rightSibling.rids);
+            node.postings.addAll(rightSibling.postings);
             node.nextLeaf = rightSibling.nextLeaf;
         } else {
             // 内部节点合并
@@ -520,10 +643,15 @@ public class BPlusTreeIndex implements Index {
     @Override
     public List<RID> searchRange(Value startKey, Value endKey, boolean startInclusive, boolean endInclusive)
             throws DBException {
-        if (root == null) {
-            return new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (root == null) {
+                return new ArrayList<>();
+            }
+            return searchRangeIterative(startKey, endKey, startInclusive, endInclusive);
+        } finally {
+            lock.readLock().unlock();
         }
-        return searchRangeIterative(startKey, endKey, startInclusive, endInclusive);
     }
 
     private List<RID> searchRangeIterative(Value startKey, Value endKey, boolean startInclusive, boolean endInclusive)
@@ -537,11 +665,11 @@ public class BPlusTreeIndex implements Index {
         if (currentLeaf == null)
             return resultRIDs;
 
-        // Scan leaf nodes
-        while (currentLeaf != null) {
-            for (int i = 0; i < currentLeaf.keys.size(); i++) {
+        // Scan leaf nodes, starting from the first key >= startKey
+        int i = currentLeaf.lowerBound(startKey);
+        for (; currentLeaf != null; currentLeaf = currentLeaf.nextLeaf, i = 0) {
+            for (; i < currentLeaf.keys.size(); i++) {
                 Value currentKey = currentLeaf.keys.get(i);
-                RID currentRid = currentLeaf.rids.get(i);
 
                 // Check if we've gone past the end key
                 int cmpWithEndKey = ValueComparer.compare(currentKey, endKey);
@@ -552,25 +680,23 @@ public class BPlusTreeIndex implements Index {
                 // Check if we're within the start key boundary
                 int cmpWithStartKey = ValueComparer.compare(currentKey, startKey);
                 if (cmpWithStartKey > 0 || (cmpWithStartKey == 0 && startInclusive)) {
-                    resultRIDs.add(currentRid);
+                    currentLeaf.postings.get(i).addAllTo(resultRIDs);
                 }
             }
-            currentLeaf = currentLeaf.nextLeaf;
         }
         return resultRIDs;
     }
 
+    /**
+     * 找到可能含有 key 的叶子。分隔键是右侧子树的最小键，等于 key 时走右侧子树。
+     */
     private BPlusTreeNode findLeafNodeForKey(BPlusTreeNode node, Value key) throws DBException {
         if (node == null)
             return null;
 
         BPlusTreeNode current = node;
         while (!current.isLeaf) {
-            int childIndex = current.findChildPointerIndex(key);
-            if (childIndex >= current.children.size()) {
-                childIndex = current.children.size() - 1;
-            }
-            current = current.children.get(childIndex);
+            current = current.children.get(current.findChildPointerIndex(key));
         }
         return current;
     }
@@ -590,6 +716,11 @@ public class BPlusTreeIndex implements Index {
         return new BPlusTreeIterator(this, low, high, leftEqual, rightEqual);
     }
 
+    @Override
+    public Iterator<Map.Entry<Value, RID>> iterator() {
+        return new BPlusTreeIterator(this, null, null, true, true);
+    }
+
     @Override
     public RID EqualTo(Value value) {
         try {
@@ -623,6 +754,10 @@ public class BPlusTreeIndex implements Index {
 
         private BPlusTreeNode currentLeaf;
         private int currentIndex;
+        // 正在输出的键及其 RID 的快照，取完后再读下一个键
+        private Value currentKey;
+        private long[] currentRids;
+        private int ridIndex;
         private Map.Entry<Value, RID> nextEntry;
         private boolean hasNextCached;
 
@@ -637,11 +772,14 @@ public class BPlusTreeIndex implements Index {
             this.currentIndex = 0;
             this.hasNextCached = false;
 
+            index.lock.readLock().lock();
             try {
                 initializeIterator();
             } catch (DBException e) {
                 Logger.error("Error initializing B+ Tree iterator: " + e.getMessage());
                 this.currentLeaf = null;
+            } finally {
+                index.lock.readLock().unlock();
             }
         }
 
@@ -658,21 +796,15 @@ public class BPlusTreeIndex implements Index {
             } else {
                 // Find the leaf that should contain the start key
                 currentLeaf = index.findLeafNodeForKey(index.root, startKey);
-                if (currentLeaf != null) {
-                    // Find the first position >= startKey
-                    currentIndex = 0;
-                    while (currentIndex < currentLeaf.keys.size()) {
-                        int cmp = ValueComparer.compare(currentLeaf.keys.get(currentIndex), startKey);
-                        if (cmp > 0 || (cmp == 0 && startInclusive)) {
-                            break;
-                        }
-                        currentIndex++;
-                    }
-
-                    // If we've gone past all keys in this leaf, move to next leaf
-                    if (currentIndex >= currentLeaf.keys.size()) {
-                        moveToNextLeaf();
+                // Find the first position >= startKey (or > startKey), skipping leaves that hold only
+                // smaller keys or an exclusive start key
+                while (currentLeaf != null) {
+                    currentIndex = startInclusive ? currentLeaf.lowerBound(startKey)
+                            : currentLeaf.upperBound(startKey);
+                    if (currentIndex < currentLeaf.keys.size()) {
+                        break;
                     }
+                    moveToNextLeaf();
                 }
             }
         }
@@ -697,17 +829,29 @@ public class BPlusTreeIndex implements Index {
                 return nextEntry != null;
             }
 
-            nextEntry = computeNext();
+            // 每取一个条目持有一次读锁，遍历期间允许写入穿插进来
+            index.lock.readLock().lock();
+            try {
+                nextEntry = computeNext();
+            } finally {
+                index.lock.readLock().unlock();
+            }
             hasNextCached = true;
             return nextEntry != null;
         }
 
         private Map.Entry<Value, RID> computeNext() {
-            while (currentLeaf != null) {
-                // Check if we have more entries in current leaf
+            while (true) {
+                if (currentRids != null && ridIndex < currentRids.length) {
+                    return new AbstractMap.SimpleEntry<>(currentKey, RidPostingList.unpack(currentRids[ridIndex++]));
+                }
+                currentRids = null;
+                if (currentLeaf == null) {
+                    return null;
+                }
+                // Check if we have more keys in current leaf
                 if (currentIndex < currentLeaf.keys.size()) {
                     Value key = currentLeaf.keys.get(currentIndex);
-                    RID rid = currentLeaf.rids.get(currentIndex);
 
                     // Check if we've exceeded the end boundary
                     if (endKey != null) {
@@ -722,14 +866,15 @@ public class BPlusTreeIndex implements Index {
                         }
                     }
 
+                    currentKey = key;
+                    currentRids = currentLeaf.postings.get(currentIndex).toArray();
+                    ridIndex = 0;
                     currentIndex++;
-                    return new AbstractMap.SimpleEntry<>(key, rid);
                 } else {
                     // Move to next leaf
                     moveToNextLeaf();
                 }
             }
-            return null;
         }
 
         @Override
@@ -749,6 +894,15 @@ public class BPlusTreeIndex implements Index {
      * Debug method to print tree structure
      */
     public void printTree() {
+        lock.readLock().lock();
+        try {
+            printTreeInternal();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void printTreeInternal() {
         if (root == null) {
             System.out.println("Empty tree");
             return;
@@ -762,8 +916,8 @@ public class BPlusTreeIndex implements Index {
 
         for (int i = 0; i < node.keys.size(); i++) {
             System.out.print(node.keys.get(i));
-            if (node.isLeaf && i < node.rids.size()) {
-                System.out.print("(" + node.rids.get(i) + ")");
+            if (node.isLeaf && i < node.postings.size()) {
+                System.out.print(node.postings.get(i));
             }
             if (i < node.keys.size() - 1) {
                 System.out.print(", ");
@@ -781,7 +935,17 @@ public class BPlusTreeIndex implements Index {
     /**
      * 获取树结构的字符串表示
      */
+    @Override
     public String getTreeString() {
+        lock.readLock().lock();
+        try {
+            return getTreeStringInternal();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private String getTreeStringInternal() {
         if (root == null) {
             return "Empty tree";
         }
@@ -808,8 +972,8 @@ public class BPlusTreeIndex implements Index {
         // 显示键值
         for (int i = 0; i < node.keys.size(); i++) {
             result.append(node.keys.get(i));
-            if (node.isLeaf && node.rids != null && i < node.rids.size()) {
-                result.append("(").append(node.rids.get(i)).append(")");
+            if (node.isLeaf && node.postings != null && i < node.postings.size()) {
+                result.append(node.postings.get(i));
             }
             if (i < node.keys.size() - 1) {
                 result.append(", ");
@@ -832,7 +996,17 @@ public class BPlusTreeIndex implements Index {
     /**
      * Validate tree structure integrity
      */
+    @Override
     public boolean validateTree() {
+        lock.readLock().lock();
+        try {
+            return validateTreeInternal();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean validateTreeInternal() {
         if (root == null)
             return true;
 
@@ -948,7 +1122,17 @@ public class BPlusTreeIndex implements Index {
      * 清理 B+Tree 的所有内部结构和资源
      * 用于索引删除时的完整生命周期管理
      */
+    @Override
     public void clear() {
+        lock.writeLock().lock();
+        try {
+            clearInternal();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void clearInternal() {
         if (root != null) {
             clearNodeRecursively(root);
             root = null;
@@ -976,8 +1160,8 @@ public class BPlusTreeIndex implements Index {
         if (node.keys != null) {
             node.keys.clear();
         }
-        if (node.rids != null) {
-            node.rids.clear();
+        if (node.postings != null) {
+            node.postings.clear();
         }
 
         // 断开节点之间的链接
@@ -18,7 +18,8 @@ public class BPlusTreeNode {
     boolean isLeaf;
     List<Value> keys;
     List<BPlusTreeNode> children; // For internal nodes
-    List<RID> rids; // For leaf nodes
+    // 叶子节点中与 keys 一一对应的 RID 集合；叶子内的键互不相同，重复键的 RID 都在同一个集合里
+    List<RidPostingList> postings;
     BPlusTreeNode nextLeaf; // For leaf nodes, to link to the next leaf node
     BPlusTreeNode parent; // Reference to parent node for easier tree operations
 
@@ -29,15 +30,16 @@ public class BPlusTreeNode {
     public BPlusTreeNode(boolean isLeaf, int degree) {
         this.isLeaf = isLeaf;
         this.degree = degree;
-        this.keys = new ArrayList<>();
+        // 预留一个节点最多容纳的条目数（分裂前会短暂多出一个），避免插入过程中反复扩容
+        this.keys = new ArrayList<>(degree);
         this.parent = null;
 
         if (isLeaf) {
-            this.rids = new ArrayList<>();
+            this.postings = new ArrayList<>(degree);
             this.children = null;
         } else {
-            this.children = new ArrayList<>();
-            this.rids = null;
+            this.children = new ArrayList<>(degree + 1);
+            this.postings = null;
         }
         this.nextLeaf = null;
     }
@@ -60,6 +62,7 @@ public class BPlusTreeNode {
 
     /**
      * Inserts a key-RID pair into a leaf node in sorted order.
+     * 键已存在时只把 RID 加入它的集合，不增加键的个数。
      * Assumes node is not full.
      */
     public int insertIntoLeaf(Value key, RID rid) throws DBException {
@@ -68,8 +71,14 @@ public class BPlusTreeNode {
         }
 
         int insertPos = findInsertionPosition(key);
+        if (insertPos < keys.size() && ValueComparer.compare(keys.get(insertPos), key) == 0) {
+            postings.get(insertPos).add(rid);
+            return insertPos;
+        }
+        RidPostingList posting = new RidPostingList();
+        posting.add(rid);
         keys.add(insertPos, key);
-        rids.add(insertPos, rid);
+        postings.add(insertPos, posting);
         return insertPos;
     }
 
@@ -77,11 +86,41 @@ public class BPlusTreeNode {
      * Finds the position where a key should be inserted to maintain sorted order.
      */
     private int findInsertionPosition(Value key) throws DBException {
-        int pos = 0;
-        while (pos < keys.size() && ValueComparer.compare(keys.get(pos), key) < 0) {
-            pos++;
+        return lowerBound(key);
+    }
+
+    /**
+     * 二分查找第一个不小于 key 的键的位置，所有键都小于 key 时返回键的个数。
+     */
+    public int lowerBound(Value key) throws DBException {
+        int low = 0;
+        int high = keys.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ValueComparer.compare(keys.get(mid), key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 二分查找第一个大于 key 的键的位置，所有键都不大于 key 时返回键的个数。
+     */
+    public int upperBound(Value key) throws DBException {
+        int low = 0;
+        int high = keys.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ValueComparer.compare(keys.get(mid), key) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
         }
-        return pos;
+        return low;
     }
 
     /**
@@ -132,16 +171,8 @@ public class BPlusTreeNode {
             throw new IllegalStateException("Cannot find child pointer index in a leaf node.");
         }
 
-        int childIndex = 0;
-        for (int i = 0; i < keys.size(); i++) {
-            if (ValueComparer.compare(key, keys.get(i)) < 0) {
-                break;
-            }
-            childIndex++;
-        }
-
         // Ensure we don't go out of bounds
-        return Math.min(childIndex, children.size() - 1);
+        return Math.min(upperBound(key), children.size() - 1);
     }
 
     /**
@@ -152,14 +183,15 @@ public class BPlusTreeNode {
             throw new IllegalStateException("Cannot remove RID from an internal node.");
         }
 
-        for (int i = 0; i < keys.size(); i++) {
-            if (ValueComparer.compare(keys.get(i), key) == 0 && rids.get(i).equals(rid)) {
-                keys.remove(i);
-                rids.remove(i);
-                return true;
-            }
+        int i = findKeyIndex(key);
+        if (i < 0 || !postings.get(i).remove(rid)) {
+            return false;
         }
-        return false;
+        if (postings.get(i).isEmpty()) {
+            keys.remove(i);
+            postings.remove(i);
+        }
+        return true;
     }
 
     /**
@@ -227,12 +259,12 @@ public class BPlusTreeNode {
             // For leaf nodes, copy the second half to new node
             for (int i = splitPoint; i < keys.size(); i++) {
                 newNode.keys.add(keys.get(i));
-                newNode.rids.add(rids.get(i));
+                newNode.postings.add(postings.get(i));
             }
 
             // Remove the second half from current node
             keys.subList(splitPoint, keys.size()).clear();
-            rids.subList(splitPoint, rids.size()).clear();
+            postings.subList(splitPoint, postings.size()).clear();
 
             // Update leaf links
             newNode.nextLeaf = this.nextLeaf;
@@ -268,9 +300,9 @@ public class BPlusTreeNode {
         }
 
         if (isLeaf) {
-            // For leaf nodes, simply append all keys and RIDs
+            // For leaf nodes, simply append all keys and posting lists
             keys.addAll(rightSibling.keys);
-            rids.addAll(rightSibling.rids);
+            postings.addAll(rightSibling.postings);
 
             // Update leaf links
             this.nextLeaf = rightSibling.nextLeaf;
@@ -290,7 +322,7 @@ public class BPlusTreeNode {
         // Clear the right sibling
         rightSibling.keys.clear();
         if (rightSibling.isLeaf) {
-            rightSibling.rids.clear();
+            rightSibling.postings.clear();
         } else {
             rightSibling.children.clear();
         }
@@ -306,13 +338,13 @@ public class BPlusTreeNode {
         }
 
         if (isLeaf) {
-            // Borrow the last key-RID pair from left sibling
+            // Borrow the last key and its posting list from left sibling
             Value borrowedKey = leftSibling.keys.remove(leftSibling.keys.size() - 1);
-            RID borrowedRID = leftSibling.rids.remove(leftSibling.rids.size() - 1);
+            RidPostingList borrowedPosting = leftSibling.postings.remove(leftSibling.postings.size() - 1);
 
             // Add to beginning of current node
             keys.add(0, borrowedKey);
-            rids.add(0, borrowedRID);
+            postings.add(0, borrowedPosting);
 
             // Update separator in parent
             if (parent != null && separatorIndex < parent.keys.size()) {
@@ -346,13 +378,13 @@ public class BPlusTreeNode {
         }
 
         if (isLeaf) {
-            // Borrow the first key-RID pair from right sibling
+            // Borrow the first key and its posting list from right sibling
             Value borrowedKey = rightSibling.keys.remove(0);
-            RID borrowedRID = rightSibling.rids.remove(0);
+            RidPostingList borrowedPosting = rightSibling.postings.remove(0);
 
             // Add to end of current node
             keys.add(borrowedKey);
-            rids.add(borrowedRID);
+            postings.add(borrowedPosting);
 
             // Update separator in parent
             if (parent != null && separatorIndex < parent.keys.size()) {
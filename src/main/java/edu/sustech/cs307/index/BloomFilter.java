@@ -0,0 +1,131 @@
+package edu.sustech.cs307.index;
+
+import edu.sustech.cs307.value.Value;
+import edu.sustech.cs307.value.ValueType;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 单列的布隆过滤器，用来在查索引或扫描表之前判断一个键“一定不存在”。
+ *
+ * <p>
+ * 按预计的键数和 {@link #DEFAULT_FALSE_POSITIVE_RATE} 计算位数 m = -n ln p / (ln 2)^2 和哈希函数个数
+ * k = m / n · ln 2，用双重哈希 h1 + i·h2 得到 k 个位置。数值键与 {@link HashIndex} 一样按位模式哈希，
+ * CHAR 键使用 {@link Value#hashCode()}，两者都经过 fmix64 打散。
+ * 只能添加不能删除：删除行或修改键后旧键仍会被判为“可能存在”，只影响误判率，不影响正确性；
+ * 添加的键数超过预计值后 {@link #isSaturated()} 返回 true，由调用方按表中现有数据重建。
+ * 位数组使用 {@link AtomicLongArray}，并发添加不会丢失已置位的位。
+ * </p>
+ */
+public class BloomFilter {
+    public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+    // 表很小时也至少按这么多键分配，避免刚建表后很快饱和
+    public static final long MIN_EXPECTED_KEYS = 1024;
+    private static final int MAX_HASH_FUNCTIONS = 16;
+
+    private final ValueType keyType;
+    private final long expectedKeys;
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashFunctions;
+    private final AtomicLong added = new AtomicLong();
+
+    public BloomFilter(ValueType keyType, long expectedKeys) {
+        this(keyType, expectedKeys, DEFAULT_FALSE_POSITIVE_RATE);
+    }
+
+    public BloomFilter(ValueType keyType, long expectedKeys, double falsePositiveRate) {
+        this.keyType = keyType;
+        this.expectedKeys = Math.max(MIN_EXPECTED_KEYS, expectedKeys);
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-this.expectedKeys * Math.log(falsePositiveRate) / (ln2 * ln2));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (m + 63) >>> 6);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words << 6;
+        long k = Math.round((double) bitCount / this.expectedKeys * ln2);
+        this.hashFunctions = (int) Math.max(1, Math.min(MAX_HASH_FUNCTIONS, k));
+    }
+
+    public ValueType getKeyType() {
+        return keyType;
+    }
+
+    public void add(Value key) {
+        if (!hashable(key)) {
+            return;
+        }
+        long hash = mix(bitsOf(key));
+        long h1 = hash >>> 32;
+        long h2 = (hash & 0xffffffffL) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+        added.incrementAndGet();
+    }
+
+    /**
+     * @return false 表示该键一定没有被添加过；true 表示可能添加过。
+     *         类型与过滤器不一致或值为 NULL 的键无法判断，总是返回 true。
+     */
+    public boolean mightContain(Value key) {
+        if (!hashable(key)) {
+            return true;
+        }
+        long hash = mix(bitsOf(key));
+        long h1 = hash >>> 32;
+        long h2 = (hash & 0xffffffffL) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return 添加过的键数，重复的键按次数计算
+     */
+    public long size() {
+        return added.get();
+    }
+
+    /**
+     * @return 添加的键数是否已超过构建时预计的键数，此时误判率高于设定值
+     */
+    public boolean isSaturated() {
+        return added.get() > expectedKeys;
+    }
+
+    private boolean hashable(Value key) {
+        return key != null && key.type == keyType && key.value != null;
+    }
+
+    private long bitsOf(Value key) {
+        return switch (keyType) {
+            case INTEGER -> (Long) key.value;
+            case FLOAT -> Float.floatToIntBits((Float) key.value);
+            case DOUBLE -> Double.doubleToLongBits((Double) key.value);
+            default -> key.hashCode();
+        };
+    }
+
+    /**
+     * MurmurHash3 的 fmix64，高 32 位和低 32 位分别作为双重哈希的两个哈希值。
+     */
+    private static long mix(long bits) {
+        bits ^= bits >>> 33;
+        bits *= 0xff51afd7ed558ccdL;
+        bits ^= bits >>> 33;
+        bits *= 0xc4ceb9fe1a85ec53L;
+        bits ^= bits >>> 33;
+        return bits;
+    }
+}
@@ -0,0 +1,217 @@
+package edu.sustech.cs307.index;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.exception.ExceptionTypes;
+import edu.sustech.cs307.meta.ColumnMeta;
+import edu.sustech.cs307.meta.TableMeta;
+import edu.sustech.cs307.record.RID;
+import edu.sustech.cs307.record.Record;
+import edu.sustech.cs307.value.Value;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * 常驻内存的多列索引，条目按 ({@link CompositeKey}, RID) 有序存放，允许重复键。
+ *
+ * <p>
+ * 支持"前若干列等值 + 下一列范围"的查找：先定位到满足等值前缀和范围下界的第一个条目，
+ * 再顺序向后扫描直到前缀不再相同或超过范围上界。条目存放在跳表中，读写可以并发进行。
+ * </p>
+ *
+ * <p>
+ * 建索引时可以用 INCLUDE 指定附带的列，这些列的值随条目一起存放但不参与排序。
+ * 查询只用到键列和 INCLUDE 列时，可以直接从条目生成结果而不回表读取记录。
+ * </p>
+ */
+public class CompositeIndex {
+    private static final Comparator<RID> RID_ORDER = Comparator.nullsFirst(
+            Comparator.<RID>comparingInt(rid -> rid.pageNum).thenComparingInt(rid -> rid.slotNum));
+    private static final Comparator<Entry> ENTRY_ORDER = Comparator.comparing(Entry::key)
+            .thenComparing(Entry::rid, RID_ORDER);
+
+    private static final Value[] NO_INCLUDES = new Value[0];
+
+    /**
+     * 索引中的一个条目。RID 为 null 的条目只用于定位，排在相同键的所有条目之前。
+     * {@code included} 按 INCLUDE 列的顺序存放附带的列值，不参与比较。
+     */
+    public record Entry(CompositeKey key, RID rid, Value[] included) {
+    }
+
+    private final String tableName;
+    private final String indexName;
+    private final List<String> columns;
+    private final List<String> includes;
+    private final NavigableSet<Entry> entries = new ConcurrentSkipListSet<>(ENTRY_ORDER);
+
+    public CompositeIndex(String tableName, String indexName, List<String> columns) {
+        this(tableName, indexName, columns, List.of());
+    }
+
+    public CompositeIndex(String tableName, String indexName, List<String> columns, List<String> includes) {
+        this.tableName = tableName;
+        this.indexName = indexName;
+        this.columns = List.copyOf(columns);
+        this.includes = List.copyOf(includes);
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    /**
+     * 索引列，按建索引时给出的顺序排列。
+     */
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * INCLUDE 列，没有时为空列表。
+     */
+    public List<String> getIncludedColumns() {
+        return includes;
+    }
+
+    /**
+     * 判断给定的列是否都能从索引条目中取得，即都是键列或 INCLUDE 列。
+     */
+    public boolean covers(Collection<String> columnNames) {
+        for (String columnName : columnNames) {
+            if (!columns.contains(columnName) && !includes.contains(columnName)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 从记录中按索引列的顺序解码出键。
+     *
+     * @throws DBException 如果索引列已不在表中
+     */
+    public CompositeKey keyOf(TableMeta tableMeta, Record record) throws DBException {
+        return new CompositeKey(decode(tableMeta, record, columns));
+    }
+
+    /**
+     * 从记录中按 INCLUDE 列的顺序解码出附带的列值。
+     *
+     * @throws DBException 如果 INCLUDE 列已不在表中
+     */
+    public Value[] includedOf(TableMeta tableMeta, Record record) throws DBException {
+        return includes.isEmpty() ? NO_INCLUDES : decode(tableMeta, record, includes);
+    }
+
+    private static Value[] decode(TableMeta tableMeta, Record record, List<String> columnNames) throws DBException {
+        Value[] values = new Value[columnNames.size()];
+        for (int i = 0; i < values.length; i++) {
+            ColumnMeta columnMeta = tableMeta.getColumnMeta(columnNames.get(i));
+            if (columnMeta == null) {
+                throw new DBException(ExceptionTypes.ColumnDoesNotExist(columnNames.get(i)));
+            }
+            values[i] = columnMeta.decode(record.GetColumnValue(columnMeta.offset, columnMeta.len));
+        }
+        return values;
+    }
+
+    public void insert(CompositeKey key, RID rid) {
+        insert(key, rid, NO_INCLUDES);
+    }
+
+    /**
+     * 插入条目，(键, RID) 已存在时保留原条目。
+     */
+    public void insert(CompositeKey key, RID rid, Value[] included) {
+        entries.add(new Entry(key, new RID(rid), included));
+    }
+
+    public boolean delete(CompositeKey key, RID rid) {
+        return entries.remove(new Entry(key, rid, NO_INCLUDES));
+    }
+
+    public long size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * 查找前 {@code eqPrefix.size()} 列分别等于给定值、下一列落在 [low, high] 内的条目。
+     *
+     * @param eqPrefix  前若干列的等值条件，可以为空
+     * @param low       下一列的下界，null 表示不限
+     * @param lowInc    是否包含下界
+     * @param high      下一列的上界，null 表示不限
+     * @param highInc   是否包含上界
+     * @return 按 (键, RID) 顺序排列的 RID
+     */
+    public List<RID> scan(List<Value> eqPrefix, Value low, boolean lowInc, Value high, boolean highInc) {
+        List<Entry> matched = scanEntries(eqPrefix, low, lowInc, high, highInc);
+        List<RID> result = new ArrayList<>(matched.size());
+        for (Entry entry : matched) {
+            result.add(entry.rid());
+        }
+        return result;
+    }
+
+    /**
+     * 与 {@link #scan} 的条件相同，但返回完整的条目，供只读索引的扫描使用。
+     *
+     * @return 按 (键, RID) 顺序排列的条目
+     */
+    public List<Entry> scanEntries(List<Value> eqPrefix, Value low, boolean lowInc, Value high, boolean highInc) {
+        int k = eqPrefix.size();
+        if (k > columns.size() || (k == columns.size() && (low != null || high != null))) {
+            throw new IllegalArgumentException("Too many key columns for index " + indexName);
+        }
+        List<Value> seek = new ArrayList<>(eqPrefix);
+        if (low != null) {
+            seek.add(low);
+        }
+        List<Entry> result = new ArrayList<>();
+        for (Entry entry : entries.tailSet(new Entry(new CompositeKey(seek), null, NO_INCLUDES), true)) {
+            CompositeKey key = entry.key();
+            if (!hasPrefix(key, eqPrefix)) {
+                break;
+            }
+            if (low != null && !lowInc && key.get(k).compareTo(low) == 0) {
+                continue;
+            }
+            if (high != null) {
+                int c = key.get(k).compareTo(high);
+                if (c > 0 || (c == 0 && !highInc)) {
+                    break;
+                }
+            }
+            result.add(entry);
+        }
+        return result;
+    }
+
+    private static boolean hasPrefix(CompositeKey key, List<Value> prefix) {
+        for (int i = 0; i < prefix.size(); i++) {
+            if (key.get(i).compareTo(prefix.get(i)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        String definition = String.format("%s ON %s (%s)", indexName, tableName, String.join(", ", columns));
+        return includes.isEmpty() ? definition : definition + " INCLUDE (" + String.join(", ", includes) + ")";
+    }
+}
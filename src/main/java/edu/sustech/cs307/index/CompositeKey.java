@@ -0,0 +1,72 @@
+package edu.sustech.cs307.index;
+
+import edu.sustech.cs307.value.Value;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 多列索引的键：按列顺序排列的若干 {@link Value}，按字典序比较。
+ *
+ * <p>
+ * 一个键是另一个键的前缀时较短的排在前面，因此只给出前几列的键可以用来定位
+ * 以这些列值开头的第一个条目。
+ * </p>
+ */
+public final class CompositeKey implements Comparable<CompositeKey> {
+    private final Value[] values;
+
+    public CompositeKey(Value... values) {
+        this.values = values.clone();
+    }
+
+    public CompositeKey(List<Value> values) {
+        this.values = values.toArray(new Value[0]);
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public Value get(int i) {
+        return values[i];
+    }
+
+    @Override
+    public int compareTo(CompositeKey o) {
+        int n = Math.min(values.length, o.values.length);
+        for (int i = 0; i < n; i++) {
+            int c = values[i].compareTo(o.values[i]);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return Integer.compare(values.length, o.values.length);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof CompositeKey other))
+            return false;
+        return Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("(");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(values[i]);
+        }
+        return sb.append(')').toString();
+    }
+}
@@ -0,0 +1,853 @@
+package edu.sustech.cs307.index;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.exception.ExceptionTypes;
+import edu.sustech.cs307.record.RID;
+import edu.sustech.cs307.storage.BufferPool;
+import edu.sustech.cs307.storage.DiskManager;
+import edu.sustech.cs307.storage.Page;
+import edu.sustech.cs307.storage.PagePosition;
+import edu.sustech.cs307.value.Value;
+import edu.sustech.cs307.value.ValueComparer;
+import edu.sustech.cs307.value.ValueType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.pmw.tinylog.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * 页式 B+ 树索引，节点存放在表目录下独立的索引文件 index_列名 中，通过 {@link BufferPool} 读写。
+ *
+ * <p>
+ * 索引大小只受磁盘限制，常驻内存的只有缓冲池中的热点页面；重启时读取文件头即可使用，不需要扫描表重建。
+ * </p>
+ *
+ * <p>
+ * 文件布局：第 0 页为文件头，记录键类型、键长度、根节点页号、页面数、条目数和表版本号；其余每页一个节点。
+ * 叶子节点按 (键, RID) 有序存放定长条目，并通过 nextLeaf 串成链表；内部节点存放 child0 以及
+ * (分隔键, 分隔 RID, 右子节点) 条目。条目按 (键, RID) 整体排序，因此重复键可以跨叶子存放，
+ * 删除时可以直接定位到具体的 RID。删除不合并节点，空叶子保留在链表中，由 VACUUM 之后的重建回收。
+ * </p>
+ *
+ * <p>
+ * 表版本号由检查点通过 {@link #setTableVersion(long)} 写入，记录索引与哪个版本的数据文件一致；
+ * 之后的任何插入或删除都会把它清为 {@link #NO_VERSION}。重启时只有版本号与数据文件一致的索引才能直接使用。
+ * </p>
+ */
+public class DiskBPlusTreeIndex implements Index {
+    public static final int MAGIC = 0x44425452; // "DBTR"
+
+    // 文件头字段偏移
+    private static final int MAGIC_OFFSET = 0;
+    private static final int KEY_TYPE_OFFSET = 4;
+    private static final int KEY_SIZE_OFFSET = 8;
+    private static final int ROOT_OFFSET = 12;
+    private static final int PAGE_COUNT_OFFSET = 16;
+    private static final int ENTRY_COUNT_OFFSET = 20;
+    private static final int TABLE_VERSION_OFFSET = 28;
+
+    // 索引自上次检查点以来被修改过，或从未经过检查点
+    public static final long NO_VERSION = -1;
+
+    // 节点页头字段偏移
+    private static final int LEAF_FLAG_OFFSET = 0;
+    private static final int COUNT_OFFSET = 4;
+    private static final int NEXT_LEAF_OFFSET = 8;
+    private static final int NODE_HEADER_SIZE = 16;
+
+    private static final int RID_SIZE = 8;
+    private static final int CHILD_SIZE = 4;
+    // 第 0 页是文件头，不会作为节点，用来表示空指针
+    private static final int NO_PAGE = 0;
+
+    private final DiskManager diskManager;
+    private final BufferPool bufferPool;
+    private final String filename;
+    private final String tableName;
+    private final String columnName;
+    private final ValueType keyType;
+    private final int keySize;
+    private final int leafCapacity;
+    private final int internalCapacity;
+
+    private int rootPage;
+    private long entryCount;
+    private long tableVersion;
+
+    // 节点分裂后需要插入父节点的分隔条目
+    private record Split(byte[] key, int pageNum, int slotNum, int rightPage) {
+    }
+
+    // 插入的 (键, RID) 已经存在
+    private static final Split DUPLICATE = new Split(null, 0, 0, NO_PAGE);
+
+    private DiskBPlusTreeIndex(DiskManager diskManager, BufferPool bufferPool, String tableName,
+            String columnName, ValueType keyType) {
+        this.diskManager = diskManager;
+        this.bufferPool = bufferPool;
+        this.filename = indexFileName(tableName, columnName);
+        this.tableName = tableName;
+        this.columnName = columnName;
+        this.keyType = keyType;
+        this.keySize = keySize(keyType);
+        this.leafCapacity = (Page.DEFAULT_PAGE_SIZE - NODE_HEADER_SIZE) / (keySize + RID_SIZE);
+        this.internalCapacity = (Page.DEFAULT_PAGE_SIZE - NODE_HEADER_SIZE - CHILD_SIZE)
+                / (keySize + RID_SIZE + CHILD_SIZE);
+        this.rootPage = NO_PAGE;
+        this.entryCount = 0;
+        this.tableVersion = NO_VERSION;
+    }
+
+    /**
+     * 索引文件名，位于表目录下。
+     */
+    public static String indexFileName(String tableName, String columnName) {
+        return String.format("%s/index_%s", tableName, columnName);
+    }
+
+    private static int keySize(ValueType type) {
+        return switch (type) {
+            case INTEGER -> Value.INT_SIZE;
+            case FLOAT -> Value.FLOAT_SIZE;
+            case DOUBLE -> Value.DOUBLE_SIZE;
+            default -> Value.CHAR_SIZE;
+        };
+    }
+
+    /**
+     * 创建一个空的索引文件，已存在的同名文件会被删除。
+     *
+     * @param diskManager 磁盘管理器
+     * @param bufferPool  缓冲池
+     * @param tableName   表名
+     * @param columnName  列名
+     * @param keyType     列类型
+     * @return 空索引
+     * @throws DBException 如果创建或写入文件失败
+     */
+    public static DiskBPlusTreeIndex create(DiskManager diskManager, BufferPool bufferPool, String tableName,
+            String columnName, ValueType keyType) throws DBException {
+        DiskBPlusTreeIndex index = new DiskBPlusTreeIndex(diskManager, bufferPool, tableName, columnName, keyType);
+        index.destroy();
+        diskManager.CreateFile(index.filename);
+        index.writeHeader();
+        return index;
+    }
+
+    /**
+     * 打开已有的索引文件，只读取文件头。
+     *
+     * @return 索引；文件不存在、文件头无效或键类型不一致时返回 null
+     * @throws DBException 如果读取文件失败
+     */
+    public static DiskBPlusTreeIndex open(DiskManager diskManager, BufferPool bufferPool, String tableName,
+            String columnName, ValueType keyType) throws DBException {
+        DiskBPlusTreeIndex index = new DiskBPlusTreeIndex(diskManager, bufferPool, tableName, columnName, keyType);
+        if (!diskManager.fileExists(index.filename)
+                || diskManager.GetFileSize(index.filename) < Page.DEFAULT_PAGE_SIZE) {
+            return null;
+        }
+        Page header = index.fetch(0);
+        try {
+            ByteBuf buf = header.data;
+            if (buf.getInt(MAGIC_OFFSET) != MAGIC || buf.getInt(KEY_TYPE_OFFSET) != keyType.ordinal()
+                    || buf.getInt(KEY_SIZE_OFFSET) != index.keySize) {
+                return null;
+            }
+            index.rootPage = buf.getInt(ROOT_OFFSET);
+            index.entryCount = buf.getLong(ENTRY_COUNT_OFFSET);
+            index.tableVersion = buf.getLong(TABLE_VERSION_OFFSET);
+            // 磁盘管理器的页面计数可能没有随上次关闭保存，以文件头和文件长度为准
+            int pageCount = Math.max(buf.getInt(PAGE_COUNT_OFFSET),
+                    (int) (diskManager.GetFileSize(index.filename) / Page.DEFAULT_PAGE_SIZE));
+            diskManager.filePages.merge(index.filename, pageCount, Math::max);
+        } finally {
+            bufferPool.unpin_page(header.position, false);
+        }
+        return index;
+    }
+
+    /**
+     * 删除索引文件并丢弃缓冲池中的页面。
+     *
+     * @throws DBException 如果删除文件失败
+     */
+    public synchronized void destroy() throws DBException {
+        bufferPool.DeleteAllPages(filename);
+        diskManager.DeleteFile(filename);
+        rootPage = NO_PAGE;
+        entryCount = 0;
+        tableVersion = NO_VERSION;
+    }
+
+    /**
+     * 将索引文件的脏页写回磁盘。
+     */
+    public synchronized void flush() throws DBException {
+        bufferPool.FlushAllPages(filename);
+    }
+
+    /**
+     * @return 索引中的条目数
+     */
+    public synchronized long size() {
+        return entryCount;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    /**
+     * @return 文件头中记录的表版本号；自上次检查点以来修改过时为 {@link #NO_VERSION}
+     */
+    public synchronized long getTableVersion() {
+        return tableVersion;
+    }
+
+    /**
+     * 在文件头中记下与索引内容一致的表版本号，由检查点在写回页面之前调用。
+     *
+     * @throws DBException 如果读取文件头失败
+     */
+    public synchronized void setTableVersion(long tableVersion) throws DBException {
+        this.tableVersion = tableVersion;
+        writeHeader();
+    }
+
+    // ---------------------------------------------------------------- 页面访问
+
+    private Page fetch(int pageNum) throws DBException {
+        Page page = bufferPool.FetchPage(new PagePosition(filename, pageNum * Page.DEFAULT_PAGE_SIZE));
+        if (page == null) {
+            throw new DBException(ExceptionTypes.BadIOError(
+                    String.format("No free frame in buffer pool for index page %s:%d", filename, pageNum)));
+        }
+        return page;
+    }
+
+    private void unpin(Page page, boolean dirty) {
+        bufferPool.unpin_page(page.position, dirty);
+    }
+
+    private Page allocateNode(boolean leaf) throws DBException {
+        Page page = bufferPool.NewPage(filename);
+        if (page == null) {
+            throw new DBException(ExceptionTypes.BadIOError(
+                    String.format("No free frame in buffer pool for new index page of %s", filename)));
+        }
+        page.data.setInt(LEAF_FLAG_OFFSET, leaf ? 1 : 0);
+        page.data.setInt(COUNT_OFFSET, 0);
+        page.data.setInt(NEXT_LEAF_OFFSET, NO_PAGE);
+        return page;
+    }
+
+    private void writeHeader() throws DBException {
+        Page header = fetch(0);
+        ByteBuf buf = header.data;
+        buf.setInt(MAGIC_OFFSET, MAGIC);
+        buf.setInt(KEY_TYPE_OFFSET, keyType.ordinal());
+        buf.setInt(KEY_SIZE_OFFSET, keySize);
+        buf.setInt(ROOT_OFFSET, rootPage);
+        buf.setInt(PAGE_COUNT_OFFSET, diskManager.getPageCount(filename));
+        buf.setLong(ENTRY_COUNT_OFFSET, entryCount);
+        buf.setLong(TABLE_VERSION_OFFSET, tableVersion);
+        unpin(header, true);
+    }
+
+    private static boolean isLeaf(ByteBuf buf) {
+        return buf.getInt(LEAF_FLAG_OFFSET) == 1;
+    }
+
+    private static int count(ByteBuf buf) {
+        return buf.getInt(COUNT_OFFSET);
+    }
+
+    private int leafEntryOffset(int i) {
+        return NODE_HEADER_SIZE + i * (keySize + RID_SIZE);
+    }
+
+    private int internalEntryOffset(int i) {
+        return NODE_HEADER_SIZE + CHILD_SIZE + i * (keySize + RID_SIZE + CHILD_SIZE);
+    }
+
+    /**
+     * 内部节点第 i 个子节点，0 为 child0，i 为第 i-1 个分隔条目右侧的子节点。
+     */
+    private int child(ByteBuf buf, int i) {
+        if (i == 0) {
+            return buf.getInt(NODE_HEADER_SIZE);
+        }
+        return buf.getInt(internalEntryOffset(i - 1) + keySize + RID_SIZE);
+    }
+
+    // ---------------------------------------------------------------- 键的编码与比较
+
+    private void writeKey(ByteBuf buf, int off, Value key) throws DBException {
+        switch (keyType) {
+            case INTEGER -> buf.setLong(off, ((Number) key.value).longValue());
+            case FLOAT -> buf.setFloat(off, ((Number) key.value).floatValue());
+            case DOUBLE -> buf.setDouble(off, ((Number) key.value).doubleValue());
+            default -> {
+                byte[] bytes = key.toString().getBytes(StandardCharsets.UTF_8);
+                if (bytes.length > keySize) {
+                    throw new DBException(ExceptionTypes.InvalidOperation(String.format(
+                            "Index key of %s.%s exceeds %d bytes", tableName, columnName, keySize)));
+                }
+                buf.setBytes(off, bytes);
+                buf.setZero(off + bytes.length, keySize - bytes.length);
+            }
+        }
+    }
+
+    private Value readKey(ByteBuf buf, int off) {
+        return switch (keyType) {
+            case INTEGER -> new Value(buf.getLong(off));
+            case FLOAT -> new Value(buf.getFloat(off));
+            case DOUBLE -> new Value(buf.getDouble(off));
+            default -> new Value(readString(buf, off));
+        };
+    }
+
+    private String readString(ByteBuf buf, int off) {
+        int len = 0;
+        while (len < keySize && buf.getByte(off + len) != 0) {
+            len++;
+        }
+        return buf.toString(off, len, StandardCharsets.UTF_8).trim();
+    }
+
+    private static RID readRid(ByteBuf buf, int off) {
+        return new RID(buf.getInt(off), buf.getInt(off + 4));
+    }
+
+    /**
+     * 比较页面中 off 处的键与给定键。类型一致时直接比较原始值，否则交给 {@link ValueComparer}。
+     */
+    private int compareKey(ByteBuf buf, int off, Value key) throws DBException {
+        if (key.type == keyType) {
+            return switch (keyType) {
+                case INTEGER -> Long.compare(buf.getLong(off), ((Number) key.value).longValue());
+                case FLOAT -> Float.compare(buf.getFloat(off), ((Number) key.value).floatValue());
+                case DOUBLE -> Double.compare(buf.getDouble(off), ((Number) key.value).doubleValue());
+                default -> readString(buf, off).compareTo(key.toString());
+            };
+        }
+        return ValueComparer.compare(readKey(buf, off), key);
+    }
+
+    /**
+     * 按 (键, RID) 比较页面中 off 处的条目与给定条目，rid 为 null 时视为小于该键的所有 RID。
+     */
+    private int compareEntry(ByteBuf buf, int off, Value key, RID rid) throws DBException {
+        int cmp = compareKey(buf, off, key);
+        if (cmp != 0) {
+            return cmp;
+        }
+        if (rid == null) {
+            return 1;
+        }
+        cmp = Integer.compare(buf.getInt(off + keySize), rid.pageNum);
+        return cmp != 0 ? cmp : Integer.compare(buf.getInt(off + keySize + 4), rid.slotNum);
+    }
+
+    /**
+     * 叶子中第一个不小于 (key, rid) 的条目下标。
+     */
+    private int leafLowerBound(ByteBuf buf, Value key, RID rid) throws DBException {
+        int low = 0;
+        int high = count(buf);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareEntry(buf, leafEntryOffset(mid), key, rid) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 内部节点中不大于 (key, rid) 的分隔条目个数，即应当进入的子节点下标。
+     */
+    private int childIndex(ByteBuf buf, Value key, RID rid) throws DBException {
+        int low = 0;
+        int high = count(buf);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareEntry(buf, internalEntryOffset(mid), key, rid) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 从根节点下降到 (key, rid) 所在的叶子，path 不为 null 时按顺序压入经过的内部节点。
+     */
+    private int findLeaf(Value key, RID rid, Deque<Integer> path) throws DBException {
+        int pageNum = rootPage;
+        while (true) {
+            Page page = fetch(pageNum);
+            ByteBuf buf = page.data;
+            if (isLeaf(buf)) {
+                unpin(page, false);
+                return pageNum;
+            }
+            int next = child(buf, childIndex(buf, key, rid));
+            unpin(page, false);
+            if (path != null) {
+                path.push(pageNum);
+            }
+            pageNum = next;
+        }
+    }
+
+    // ---------------------------------------------------------------- 查询
+
+    @Override
+    public synchronized List<RID> search(Value key) throws DBException {
+        List<RID> result = new ArrayList<>();
+        Iterator<Map.Entry<Value, RID>> it = new LeafIterator(key, key, true, true);
+        while (it.hasNext()) {
+            result.add(it.next().getValue());
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized List<RID> searchRange(Value startKey, Value endKey, boolean startInclusive,
+            boolean endInclusive) throws DBException {
+        List<RID> result = new ArrayList<>();
+        Iterator<Map.Entry<Value, RID>> it = new LeafIterator(startKey, endKey, startInclusive, endInclusive);
+        while (it.hasNext()) {
+            result.add(it.next().getValue());
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized RID EqualTo(Value value) {
+        try {
+            Iterator<Map.Entry<Value, RID>> it = new LeafIterator(value, value, true, true);
+            return it.hasNext() ? it.next().getValue() : null;
+        } catch (DBException e) {
+            Logger.error("Error in EqualTo search: " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public Iterator<Map.Entry<Value, RID>> LessThan(Value value, boolean isEqual) {
+        return iterator(null, value, true, isEqual);
+    }
+
+    @Override
+    public Iterator<Map.Entry<Value, RID>> MoreThan(Value value, boolean isEqual) {
+        return iterator(value, null, isEqual, true);
+    }
+
+    @Override
+    public Iterator<Map.Entry<Value, RID>> Range(Value low, Value high, boolean leftEqual, boolean rightEqual) {
+        return iterator(low, high, leftEqual, rightEqual);
+    }
+
+    private synchronized Iterator<Map.Entry<Value, RID>> iterator(Value low, Value high, boolean leftEqual,
+            boolean rightEqual) {
+        try {
+            return new LeafIterator(low, high, leftEqual, rightEqual);
+        } catch (DBException e) {
+            Logger.error("Error initializing disk B+ Tree iterator: " + e.getMessage());
+            return Collections.emptyIterator();
+        }
+    }
+
+    // ---------------------------------------------------------------- 插入
+
+    @Override
+    public synchronized void insert(Value key, RID rid) throws DBException {
+        if (rootPage == NO_PAGE) {
+            Page root = allocateNode(true);
+            rootPage = page(root);
+            unpin(root, true);
+        }
+        Deque<Integer> path = new ArrayDeque<>();
+        int leaf = findLeaf(key, rid, path);
+        Split split = insertIntoLeaf(leaf, key, rid);
+        if (split == DUPLICATE) {
+            return;
+        }
+        while (split != null) {
+            if (path.isEmpty()) {
+                Page root = allocateNode(false);
+                ByteBuf buf = root.data;
+                buf.setInt(NODE_HEADER_SIZE, rootPage);
+                writeSeparator(buf, 0, split);
+                buf.setInt(COUNT_OFFSET, 1);
+                rootPage = page(root);
+                unpin(root, true);
+                break;
+            }
+            split = insertIntoInternal(path.pop(), split);
+        }
+        entryCount++;
+        tableVersion = NO_VERSION;
+        writeHeader();
+    }
+
+    private static int page(Page page) {
+        return page.position.offset / Page.DEFAULT_PAGE_SIZE;
+    }
+
+    private Split insertIntoLeaf(int leafNum, Value key, RID rid) throws DBException {
+        Page page = fetch(leafNum);
+        ByteBuf buf = page.data;
+        int pos = leafLowerBound(buf, key, rid);
+        if (pos < count(buf) && compareEntry(buf, leafEntryOffset(pos), key, rid) == 0) {
+            unpin(page, false);
+            return DUPLICATE;
+        }
+        if (count(buf) < leafCapacity) {
+            insertLeafEntry(buf, pos, key, rid);
+            unpin(page, true);
+            return null;
+        }
+
+        // 叶子已满：后一半移入新叶子，再把条目插入所属的一半
+        Page right = allocateNode(true);
+        ByteBuf rightBuf = right.data;
+        int n = count(buf);
+        int mid = n / 2;
+        int entrySize = keySize + RID_SIZE;
+        rightBuf.setBytes(leafEntryOffset(0), buf, leafEntryOffset(mid), (n - mid) * entrySize);
+        rightBuf.setInt(COUNT_OFFSET, n - mid);
+        rightBuf.setInt(NEXT_LEAF_OFFSET, buf.getInt(NEXT_LEAF_OFFSET));
+        buf.setInt(COUNT_OFFSET, mid);
+        buf.setInt(NEXT_LEAF_OFFSET, page(right));
+        if (pos <= mid) {
+            insertLeafEntry(buf, pos, key, rid);
+        } else {
+            insertLeafEntry(rightBuf, pos - mid, key, rid);
+        }
+
+        byte[] separator = new byte[keySize];
+        rightBuf.getBytes(leafEntryOffset(0), separator);
+        Split split = new Split(separator, rightBuf.getInt(leafEntryOffset(0) + keySize),
+                rightBuf.getInt(leafEntryOffset(0) + keySize + 4), page(right));
+        unpin(right, true);
+        unpin(page, true);
+        return split;
+    }
+
+    private void insertLeafEntry(ByteBuf buf, int pos, Value key, RID rid) throws DBException {
+        int n = count(buf);
+        int entrySize = keySize + RID_SIZE;
+        int off = leafEntryOffset(pos);
+        buf.setBytes(off + entrySize, buf, off, (n - pos) * entrySize);
+        writeKey(buf, off, key);
+        buf.setInt(off + keySize, rid.pageNum);
+        buf.setInt(off + keySize + 4, rid.slotNum);
+        buf.setInt(COUNT_OFFSET, n + 1);
+    }
+
+    private Split insertIntoInternal(int pageNum, Split entry) throws DBException {
+        Page page = fetch(pageNum);
+        ByteBuf buf = page.data;
+        Value key = readKey(wrapKey(entry.key), 0);
+        RID rid = new RID(entry.pageNum, entry.slotNum);
+        if (count(buf) < internalCapacity) {
+            insertInternalEntry(buf, childIndex(buf, key, rid), entry);
+            unpin(page, true);
+            return null;
+        }
+
+        // 内部节点已满：中间条目上移，其右子节点成为新节点的 child0
+        Page right = allocateNode(false);
+        ByteBuf rightBuf = right.data;
+        int n = count(buf);
+        int mid = n / 2;
+        int entrySize = keySize + RID_SIZE + CHILD_SIZE;
+        int midOff = internalEntryOffset(mid);
+        byte[] promotedKey = new byte[keySize];
+        buf.getBytes(midOff, promotedKey);
+        Split promoted = new Split(promotedKey, buf.getInt(midOff + keySize), buf.getInt(midOff + keySize + 4),
+                page(right));
+        rightBuf.setInt(NODE_HEADER_SIZE, buf.getInt(midOff + keySize + RID_SIZE));
+        rightBuf.setBytes(internalEntryOffset(0), buf, internalEntryOffset(mid + 1), (n - mid - 1) * entrySize);
+        rightBuf.setInt(COUNT_OFFSET, n - mid - 1);
+        buf.setInt(COUNT_OFFSET, mid);
+
+        if (compareEntry(buf, midOff, key, rid) > 0) {
+            insertInternalEntry(buf, childIndex(buf, key, rid), entry);
+        } else {
+            insertInternalEntry(rightBuf, childIndex(rightBuf, key, rid), entry);
+        }
+        unpin(right, true);
+        unpin(page, true);
+        return promoted;
+    }
+
+    private void insertInternalEntry(ByteBuf buf, int pos, Split entry) {
+        int n = count(buf);
+        int entrySize = keySize + RID_SIZE + CHILD_SIZE;
+        int off = internalEntryOffset(pos);
+        buf.setBytes(off + entrySize, buf, off, (n - pos) * entrySize);
+        writeSeparator(buf, pos, entry);
+        buf.setInt(COUNT_OFFSET, n + 1);
+    }
+
+    private void writeSeparator(ByteBuf buf, int pos, Split entry) {
+        int off = internalEntryOffset(pos);
+        buf.setBytes(off, entry.key);
+        buf.setInt(off + keySize, entry.pageNum);
+        buf.setInt(off + keySize + 4, entry.slotNum);
+        buf.setInt(off + keySize + RID_SIZE, entry.rightPage);
+    }
+
+    private static ByteBuf wrapKey(byte[] key) {
+        return Unpooled.wrappedBuffer(key);
+    }
+
+    // ---------------------------------------------------------------- 删除
+
+    @Override
+    public synchronized void delete(Value key, RID rid) throws DBException {
+        if (rootPage == NO_PAGE) {
+            return;
+        }
+        int leaf = findLeaf(key, rid, null);
+        Page page = fetch(leaf);
+        ByteBuf buf = page.data;
+        int pos = leafLowerBound(buf, key, rid);
+        int n = count(buf);
+        if (pos >= n || compareEntry(buf, leafEntryOffset(pos), key, rid) != 0) {
+            unpin(page, false);
+            return;
+        }
+        int entrySize = keySize + RID_SIZE;
+        int off = leafEntryOffset(pos);
+        buf.setBytes(off, buf, off + entrySize, (n - pos - 1) * entrySize);
+        buf.setInt(COUNT_OFFSET, n - 1);
+        unpin(page, true);
+        entryCount--;
+        tableVersion = NO_VERSION;
+        writeHeader();
+    }
+
+    @Override
+    public String getTableName() {
+        return tableName;
+    }
+
+    @Override
+    public String getColumnName() {
+        return columnName;
+    }
+
+    // ---------------------------------------------------------------- 遍历
+
+    /**
+     * 沿叶子链表顺序遍历，每次读入一整页叶子的条目后立即取消固定，不长期占用缓冲池。
+     */
+    private class LeafIterator implements Iterator<Map.Entry<Value, RID>> {
+        private final Value endKey;
+        private final boolean endInclusive;
+        private final List<Map.Entry<Value, RID>> batch = new ArrayList<>();
+        private int batchIndex;
+        private int nextLeaf;
+        private boolean finished;
+
+        LeafIterator(Value startKey, Value endKey, boolean startInclusive, boolean endInclusive)
+                throws DBException {
+            this.endKey = endKey;
+            this.endInclusive = endInclusive;
+            if (rootPage == NO_PAGE) {
+                finished = true;
+                return;
+            }
+            int leaf = startKey == null ? leftmostLeaf() : findLeaf(startKey, null, null);
+            Page page = fetch(leaf);
+            try {
+                ByteBuf buf = page.data;
+                int start = 0;
+                if (startKey != null) {
+                    start = leafLowerBound(buf, startKey, null);
+                }
+                load(buf, start);
+            } finally {
+                unpin(page, false);
+            }
+            if (startKey != null && !startInclusive) {
+                skipEqual(startKey);
+            }
+        }
+
+        private int leftmostLeaf() throws DBException {
+            int pageNum = rootPage;
+            while (true) {
+                Page page = fetch(pageNum);
+                boolean leaf = isLeaf(page.data);
+                int next = leaf ? pageNum : child(page.data, 0);
+                unpin(page, false);
+                if (leaf) {
+                    return pageNum;
+                }
+                pageNum = next;
+            }
+        }
+
+        private void load(ByteBuf buf, int start) throws DBException {
+            batch.clear();
+            batchIndex = 0;
+            int n = count(buf);
+            for (int i = start; i < n; i++) {
+                int off = leafEntryOffset(i);
+                if (endKey != null) {
+                    int cmp = compareKey(buf, off, endKey);
+                    if (cmp > 0 || (cmp == 0 && !endInclusive)) {
+                        finished = true;
+                        break;
+                    }
+                }
+                batch.add(new AbstractMap.SimpleEntry<>(readKey(buf, off), readRid(buf, off + keySize)));
+            }
+            nextLeaf = buf.getInt(NEXT_LEAF_OFFSET);
+        }
+
+        private void skipEqual(Value startKey) throws DBException {
+            while (hasNext()) {
+                if (ValueComparer.compare(batch.get(batchIndex).getKey(), startKey) != 0) {
+                    return;
+                }
+                batchIndex++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (batchIndex >= batch.size()) {
+                if (finished || nextLeaf == NO_PAGE) {
+                    return false;
+                }
+                try {
+                    synchronized (DiskBPlusTreeIndex.this) {
+                        Page page = fetch(nextLeaf);
+                        try {
+                            load(page.data, 0);
+                        } finally {
+                            unpin(page, false);
+                        }
+                    }
+                } catch (DBException e) {
+                    Logger.error("Error reading disk B+ Tree leaf: " + e.getMessage());
+                    finished = true;
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Map.Entry<Value, RID> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return batch.get(batchIndex++);
+        }
+    }
+
+    // ---------------------------------------------------------------- 调试
+
+    /**
+     * 获取树结构的字符串表示，每个节点显示页号和键。
+     */
+    public synchronized String getTreeString() throws DBException {
+        if (rootPage == NO_PAGE) {
+            return "Empty tree";
+        }
+        StringBuilder result = new StringBuilder();
+        appendNode(result, rootPage, 0);
+        return result.toString();
+    }
+
+    private void appendNode(StringBuilder result, int pageNum, int level) throws DBException {
+        String indent = "  ".repeat(level);
+        List<Integer> children = new ArrayList<>();
+        Page page = fetch(pageNum);
+        try {
+            ByteBuf buf = page.data;
+            boolean leaf = isLeaf(buf);
+            result.append(indent);
+            if (level == 0) {
+                result.append("🌳 Root ");
+            }
+            result.append(leaf ? "📄 Leaf" : "📁 Internal").append(" #").append(pageNum).append(": ");
+            int n = count(buf);
+            for (int i = 0; i < n; i++) {
+                int off = leaf ? leafEntryOffset(i) : internalEntryOffset(i);
+                result.append(readKey(buf, off));
+                if (leaf) {
+                    result.append("(").append(readRid(buf, off + keySize)).append(")");
+                }
+                if (i < n - 1) {
+                    result.append(", ");
+                }
+            }
+            result.append("\n");
+            if (!leaf) {
+                for (int i = 0; i <= n; i++) {
+                    children.add(child(buf, i));
+                }
+            }
+        } finally {
+            unpin(page, false);
+        }
+        for (int i = 0; i < children.size(); i++) {
+            result.append(indent).append("├─ Child ").append(i).append(":\n");
+            appendNode(result, children.get(i), level + 1);
+        }
+    }
+
+    /**
+     * 校验叶子链表中的条目按 (键, RID) 严格递增，且条目总数与文件头一致。
+     */
+    public synchronized boolean validateTree() throws DBException {
+        long seen = 0;
+        Value prevKey = null;
+        RID prevRid = null;
+        Iterator<Map.Entry<Value, RID>> it = new LeafIterator(null, null, true, true);
+        while (it.hasNext()) {
+            Map.Entry<Value, RID> entry = it.next();
+            if (prevKey != null) {
+                int cmp = ValueComparer.compare(prevKey, entry.getKey());
+                if (cmp > 0 || (cmp == 0 && (prevRid.pageNum > entry.getValue().pageNum
+                        || (prevRid.pageNum == entry.getValue().pageNum
+                                && prevRid.slotNum >= entry.getValue().slotNum)))) {
+                    Logger.error("Disk B+ Tree entries out of order at key {}", entry.getKey());
+                    return false;
+                }
+            }
+            prevKey = entry.getKey();
+            prevRid = entry.getValue();
+            seen++;
+        }
+        if (seen != entryCount) {
+            Logger.error("Disk B+ Tree holds {} entries but header records {}", seen, entryCount);
+            return false;
+        }
+        return true;
+    }
+}
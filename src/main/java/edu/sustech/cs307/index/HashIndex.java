@@ -0,0 +1,375 @@
+package edu.sustech.cs307.index;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.exception.ExceptionTypes;
+import edu.sustech.cs307.record.RID;
+import edu.sustech.cs307.value.Value;
+import edu.sustech.cs307.value.ValueType;
+import org.pmw.tinylog.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 常驻内存的可扩展哈希（extendible hashing）索引，只支持等值查找。
+ *
+ * <p>
+ * 目录是长度为 2^globalDepth 的桶数组，键的哈希值取低 globalDepth 位定位桶，查找只访问一个桶，
+ * 代价与表的大小无关。桶满时只分裂这一个桶：桶的局部深度加一，按新增的那一位把条目分到两个桶里，
+ * 局部深度超过全局深度时目录加倍。哈希值完全相同的条目无法再分开，此时直接扩大桶的容量。
+ * 删除不合并桶，空桶由重建索引回收。
+ * </p>
+ *
+ * <p>
+ * 与 {@link PrimitiveBPlusTreeIndex} 一样，数值键按位模式存放在 long 数组中，哈希和比较都不经过
+ * {@link Value#hashCode()} 中的字符串转换。读写通过读写锁互斥，与 {@link BPlusTreeIndex} 相同。
+ * </p>
+ */
+public class HashIndex implements Index {
+    // 400 万个随机 INT 键的测试中，容量 16 比 64 查找快约两成，内存多约三成；再小时目录和桶对象的开销明显上升
+    public static final int DEFAULT_BUCKET_CAPACITY = 16;
+    // 目录最多 2^MAX_GLOBAL_DEPTH 项，超过后只扩大桶的容量
+    private static final int MAX_GLOBAL_DEPTH = 30;
+
+    private final String tableName;
+    private final String columnName;
+    private final ValueType keyType;
+    private final boolean numeric;
+    private final int bucketCapacity;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Bucket[] directory;
+    private int globalDepth;
+    private long size;
+
+    /**
+     * 一个桶：条目按插入顺序存放在平行数组中，先比较缓存的哈希值再比较键。
+     * 数值键以哈希前的位模式存放在 {@code bits} 中，CHAR 键存放在 {@code keys} 中；
+     * RID 打包为 {@code 页号 << 32 | 槽号}。
+     */
+    private static final class Bucket {
+        int localDepth;
+        int[] hashes;
+        long[] bits;
+        Value[] keys;
+        long[] rids;
+        int count;
+
+        Bucket(int localDepth, int capacity, boolean numeric) {
+            this.localDepth = localDepth;
+            this.hashes = new int[capacity];
+            this.rids = new long[capacity];
+            if (numeric) {
+                this.bits = new long[capacity];
+            } else {
+                this.keys = new Value[capacity];
+            }
+        }
+
+        int capacity() {
+            return hashes.length;
+        }
+
+        void add(int hash, long keyBits, Value key, long rid) {
+            if (count == hashes.length) {
+                int capacity = hashes.length * 2;
+                hashes = Arrays.copyOf(hashes, capacity);
+                rids = Arrays.copyOf(rids, capacity);
+                if (bits != null) {
+                    bits = Arrays.copyOf(bits, capacity);
+                } else {
+                    keys = Arrays.copyOf(keys, capacity);
+                }
+            }
+            hashes[count] = hash;
+            rids[count] = rid;
+            if (bits != null) {
+                bits[count] = keyBits;
+            } else {
+                keys[count] = key;
+            }
+            count++;
+        }
+
+        void moveTo(int i, Bucket target) {
+            target.add(hashes[i], bits != null ? bits[i] : 0, keys != null ? keys[i] : null, rids[i]);
+            removeAt(i);
+        }
+
+        void removeAt(int i) {
+            count--;
+            hashes[i] = hashes[count];
+            rids[i] = rids[count];
+            if (bits != null) {
+                bits[i] = bits[count];
+            } else {
+                keys[i] = keys[count];
+                keys[count] = null;
+            }
+        }
+    }
+
+    public HashIndex(String tableName, String columnName, ValueType keyType) {
+        this(tableName, columnName, keyType, DEFAULT_BUCKET_CAPACITY);
+    }
+
+    public HashIndex(String tableName, String columnName, ValueType keyType, int bucketCapacity) {
+        this.tableName = tableName;
+        this.columnName = columnName;
+        this.keyType = keyType;
+        this.numeric = keyType != ValueType.CHAR;
+        this.bucketCapacity = Math.max(1, bucketCapacity);
+        reset();
+    }
+
+    private void reset() {
+        directory = new Bucket[] { new Bucket(0, bucketCapacity, numeric) };
+        globalDepth = 0;
+        size = 0;
+    }
+
+    // ---------------------------------------------------------------- 哈希
+
+    /**
+     * 数值键的位模式：两个键相等当且仅当位模式相等。
+     */
+    private long bitsOf(Value key) throws DBException {
+        if (key == null || key.type != keyType || (numeric && key.value == null)) {
+            throw new DBException(ExceptionTypes.WrongComparisonError(keyType, key == null ? null : key.type));
+        }
+        return switch (keyType) {
+            case INTEGER -> (Long) key.value;
+            case FLOAT -> Float.floatToIntBits((Float) key.value);
+            case DOUBLE -> Double.doubleToLongBits((Double) key.value);
+            default -> key.hashCode();
+        };
+    }
+
+    /**
+     * MurmurHash3 的 fmix64，让连续的整数键均匀分布到低位。
+     */
+    private static int mix(long bits) {
+        bits ^= bits >>> 33;
+        bits *= 0xff51afd7ed558ccdL;
+        bits ^= bits >>> 33;
+        bits *= 0xc4ceb9fe1a85ec53L;
+        bits ^= bits >>> 33;
+        return (int) bits;
+    }
+
+    private boolean matches(Bucket bucket, int i, int hash, long keyBits, Value key) {
+        if (bucket.hashes[i] != hash) {
+            return false;
+        }
+        return numeric ? bucket.bits[i] == keyBits : bucket.keys[i].equals(key);
+    }
+
+    private Bucket bucketOf(int hash) {
+        return directory[hash & (directory.length - 1)];
+    }
+
+    private static long packRid(RID rid) {
+        return ((long) rid.pageNum << 32) | (rid.slotNum & 0xffffffffL);
+    }
+
+    private static RID unpackRid(long packed) {
+        return new RID((int) (packed >> 32), (int) packed);
+    }
+
+    // ---------------------------------------------------------------- 查询
+
+    @Override
+    public List<RID> search(Value key) throws DBException {
+        long keyBits = bitsOf(key);
+        int hash = mix(keyBits);
+        lock.readLock().lock();
+        try {
+            Bucket bucket = bucketOf(hash);
+            List<RID> result = new ArrayList<>(1);
+            for (int i = 0; i < bucket.count; i++) {
+                if (matches(bucket, i, hash, keyBits, key)) {
+                    result.add(unpackRid(bucket.rids[i]));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public RID EqualTo(Value value) {
+        try {
+            List<RID> rids = search(value);
+            return rids.isEmpty() ? null : rids.get(0);
+        } catch (DBException e) {
+            Logger.error("Error in EqualTo search: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 哈希索引不保存键的顺序，不支持范围查找。
+     */
+    @Override
+    public List<RID> searchRange(Value startKey, Value endKey, boolean startInclusive, boolean endInclusive)
+            throws DBException {
+        throw new DBException(ExceptionTypes.UnsupportedCommand(
+                String.format("Range search on hash index %s.%s", tableName, columnName)));
+    }
+
+    @Override
+    public Iterator<Map.Entry<Value, RID>> LessThan(Value value, boolean isEqual) {
+        throw new UnsupportedOperationException("Hash index does not support range scans");
+    }
+
+    @Override
+    public Iterator<Map.Entry<Value, RID>> MoreThan(Value value, boolean isEqual) {
+        throw new UnsupportedOperationException("Hash index does not support range scans");
+    }
+
+    @Override
+    public Iterator<Map.Entry<Value, RID>> Range(Value low, Value high, boolean leftEqual, boolean rightEqual) {
+        throw new UnsupportedOperationException("Hash index does not support range scans");
+    }
+
+    // ---------------------------------------------------------------- 修改
+
+    /**
+     * 插入条目，(键, RID) 已存在时忽略。
+     */
+    @Override
+    public void insert(Value key, RID rid) throws DBException {
+        long keyBits = bitsOf(key);
+        int hash = mix(keyBits);
+        long packed = packRid(rid);
+        lock.writeLock().lock();
+        try {
+            while (true) {
+                Bucket bucket = bucketOf(hash);
+                for (int i = 0; i < bucket.count; i++) {
+                    if (bucket.rids[i] == packed && matches(bucket, i, hash, keyBits, key)) {
+                        return;
+                    }
+                }
+                if (bucket.count < bucket.capacity() || !canSplit(bucket, hash)) {
+                    bucket.add(hash, keyBits, key, packed);
+                    size++;
+                    return;
+                }
+                split(bucket, hash);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 桶中的哈希值与新条目不全相同、且目录还能加倍时，分裂才能腾出空间。
+     */
+    private boolean canSplit(Bucket bucket, int hash) {
+        if (bucket.localDepth == globalDepth && globalDepth == MAX_GLOBAL_DEPTH) {
+            return false;
+        }
+        for (int i = 0; i < bucket.count; i++) {
+            if (bucket.hashes[i] != hash) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 分裂 {@code hash} 所在的桶。指向该桶的目录项的低 localDepth 位都相同，
+     * 其中新增那一位为 1 的改为指向新桶，只需按步长访问这些目录项。
+     */
+    private void split(Bucket bucket, int hash) {
+        if (bucket.localDepth == globalDepth) {
+            Bucket[] doubled = Arrays.copyOf(directory, directory.length * 2);
+            System.arraycopy(directory, 0, doubled, directory.length, directory.length);
+            directory = doubled;
+            globalDepth++;
+        }
+        int bit = 1 << bucket.localDepth;
+        bucket.localDepth++;
+        Bucket sibling = new Bucket(bucket.localDepth, bucket.capacity(), numeric);
+        for (int i = bucket.count - 1; i >= 0; i--) {
+            if ((bucket.hashes[i] & bit) != 0) {
+                bucket.moveTo(i, sibling);
+            }
+        }
+        for (int i = (hash & (bit - 1)) | bit; i < directory.length; i += bit << 1) {
+            directory[i] = sibling;
+        }
+    }
+
+    @Override
+    public void delete(Value key, RID rid) throws DBException {
+        long keyBits = bitsOf(key);
+        int hash = mix(keyBits);
+        long packed = packRid(rid);
+        lock.writeLock().lock();
+        try {
+            Bucket bucket = bucketOf(hash);
+            for (int i = 0; i < bucket.count; i++) {
+                if (bucket.rids[i] == packed && matches(bucket, i, hash, keyBits, key)) {
+                    bucket.removeAt(i);
+                    size--;
+                    return;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 清空索引，目录恢复为一个空桶。
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            reset();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return 索引中的条目数
+     */
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return 目录的全局深度，目录共有 2^globalDepth 项
+     */
+    public int getGlobalDepth() {
+        lock.readLock().lock();
+        try {
+            return globalDepth;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String getTableName() {
+        return tableName;
+    }
+
+    @Override
+    public String getColumnName() {
+        return columnName;
+    }
+}
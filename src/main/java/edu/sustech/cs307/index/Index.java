@@ -4,6 +4,7 @@ import edu.sustech.cs307.exception.DBException;
 import edu.sustech.cs307.record.RID;
 import edu.sustech.cs307.value.Value;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map.Entry;
@@ -31,6 +32,22 @@ public interface Index {
     List<RID> searchRange(Value startKey, Value endKey, boolean startInclusive, boolean endInclusive)
             throws DBException;
 
+    /**
+     * 查找多个键的全部 RID，按键的顺序依次返回。默认逐个调用 {@link #search}；
+     * 有序索引可以利用键的顺序，从上一个键所在的叶子继续查找，而不是每个键都从根下降。
+     *
+     * @param sortedKeys 升序排列、不重复的键
+     * @return 各个键的 RID，同一个键的 RID 相邻
+     * @throws DBException If an error occurs during the search.
+     */
+    default List<RID> searchAll(List<Value> sortedKeys) throws DBException {
+        List<RID> result = new ArrayList<>();
+        for (Value key : sortedKeys) {
+            result.addAll(search(key));
+        }
+        return result;
+    }
+
     RID EqualTo(Value value);
 
     Iterator<Entry<Value, RID>> LessThan(Value value, boolean isEqual);
@@ -0,0 +1,355 @@
+package edu.sustech.cs307.index;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.exception.ExceptionTypes;
+import edu.sustech.cs307.record.RID;
+import edu.sustech.cs307.value.Value;
+import edu.sustech.cs307.value.ValueType;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 建索引时对 (键, RID) 条目排序的外部排序器。
+ *
+ * <p>
+ * 条目的键和 RID 分别缓存在两个平行数组中，攒满 runSize 条后并行排序并写成一个有序的临时文件（run），
+ * 最后对所有 run 和内存中剩余的条目做多路归并，按 (键, RID) 升序输出。
+ * 条目数不超过 runSize 时不会写任何文件。
+ * </p>
+ */
+public class IndexEntrySorter implements AutoCloseable {
+    public static final int DEFAULT_RUN_SIZE = 1 << 20;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final ValueType keyType;
+    private final int runSize;
+    private final Path spillDir;
+    private final List<Path> runs = new ArrayList<>();
+    private final List<DataInputStream> openRuns = new ArrayList<>();
+
+    private Value[] keys = new Value[INITIAL_CAPACITY];
+    private RID[] rids = new RID[INITIAL_CAPACITY];
+    private int buffered;
+    private long total;
+
+    /**
+     * @param keyType  键类型，用于读写临时文件
+     * @param runSize  内存中最多缓存的条目数
+     * @param spillDir 临时文件所在目录
+     */
+    public IndexEntrySorter(ValueType keyType, int runSize, Path spillDir) {
+        this.keyType = keyType;
+        this.runSize = Math.max(1, runSize);
+        this.spillDir = spillDir;
+    }
+
+    /**
+     * 添加一个条目，缓存满时排序并写出一个 run。
+     */
+    public void add(Value key, RID rid) throws DBException {
+        if (buffered == keys.length) {
+            int capacity = Math.min(runSize, keys.length * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            rids = Arrays.copyOf(rids, capacity);
+        }
+        keys[buffered] = key;
+        rids[buffered] = rid;
+        buffered++;
+        total++;
+        if (buffered == runSize) {
+            spill();
+        }
+    }
+
+    /**
+     * @return 已添加的条目数
+     */
+    public long size() {
+        return total;
+    }
+
+    /**
+     * @return 写出到临时文件的 run 数量
+     */
+    public int getSpilledRuns() {
+        return runs.size();
+    }
+
+    private void spill() throws DBException {
+        sortBuffer();
+        try {
+            Files.createDirectories(spillDir);
+            Path run = Files.createTempFile(spillDir, "index_sort_", ".run");
+            runs.add(run);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run)))) {
+                for (int i = 0; i < buffered; i++) {
+                    writeKey(out, keyType, keys[i]);
+                    out.writeInt(rids[i].pageNum);
+                    out.writeInt(rids[i].slotNum);
+                    keys[i] = null;
+                    rids[i] = null;
+                }
+            }
+        } catch (IOException e) {
+            throw new DBException(ExceptionTypes.BadIOError("Failed to spill index sort run: " + e.getMessage()));
+        }
+        buffered = 0;
+    }
+
+    /**
+     * 按键类型写出一个键，索引快照文件使用相同的格式。
+     */
+    static void writeKey(DataOutputStream out, ValueType keyType, Value key) throws IOException {
+        switch (keyType) {
+            case INTEGER -> out.writeLong(((Number) key.value).longValue());
+            case FLOAT -> out.writeFloat(((Number) key.value).floatValue());
+            case DOUBLE -> out.writeDouble(((Number) key.value).doubleValue());
+            default -> out.writeUTF(key.toString());
+        }
+    }
+
+    /**
+     * 读取 {@link #writeKey} 写出的键。
+     */
+    static Value readKey(DataInputStream in, ValueType keyType) throws IOException {
+        return switch (keyType) {
+            case INTEGER -> new Value(in.readLong());
+            case FLOAT -> new Value(in.readFloat());
+            case DOUBLE -> new Value(in.readDouble());
+            default -> new Value(in.readUTF());
+        };
+    }
+
+    /**
+     * 条目的顺序：先比较键，键相同时按 (页号, 槽号) 比较 RID。
+     */
+    private static int compare(Value key1, RID rid1, Value key2, RID rid2) {
+        int cmp = key1.compareTo(key2);
+        if (cmp != 0) {
+            return cmp;
+        }
+        cmp = Integer.compare(rid1.pageNum, rid2.pageNum);
+        return cmp != 0 ? cmp : Integer.compare(rid1.slotNum, rid2.slotNum);
+    }
+
+    private void sortBuffer() {
+        if (buffered > 1) {
+            new EntrySort(keys, rids, new Value[buffered], new RID[buffered], 0, buffered).invoke();
+        }
+    }
+
+    /**
+     * 对平行数组的 [from, to) 做归并排序，两个数组中同一下标的元素一起移动。
+     * 区间较大时左右两半在 ForkJoin 公共池中并行排序，很短的区间用插入排序。
+     */
+    private static class EntrySort extends RecursiveAction {
+        private static final int INSERTION_SORT_MAX = 32;
+        private static final int PARALLEL_MIN = 1 << 13;
+
+        private final Value[] keys;
+        private final RID[] rids;
+        private final Value[] keyBuffer;
+        private final RID[] ridBuffer;
+        private final int from;
+        private final int to;
+
+        EntrySort(Value[] keys, RID[] rids, Value[] keyBuffer, RID[] ridBuffer, int from, int to) {
+            this.keys = keys;
+            this.rids = rids;
+            this.keyBuffer = keyBuffer;
+            this.ridBuffer = ridBuffer;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= INSERTION_SORT_MAX) {
+                insertionSort();
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            EntrySort left = new EntrySort(keys, rids, keyBuffer, ridBuffer, from, mid);
+            EntrySort right = new EntrySort(keys, rids, keyBuffer, ridBuffer, mid, to);
+            if (to - from >= PARALLEL_MIN) {
+                invokeAll(left, right);
+            } else {
+                left.compute();
+                right.compute();
+            }
+            merge(mid);
+        }
+
+        private void insertionSort() {
+            for (int i = from + 1; i < to; i++) {
+                Value key = keys[i];
+                RID rid = rids[i];
+                int j = i - 1;
+                while (j >= from && compare(keys[j], rids[j], key, rid) > 0) {
+                    keys[j + 1] = keys[j];
+                    rids[j + 1] = rids[j];
+                    j--;
+                }
+                keys[j + 1] = key;
+                rids[j + 1] = rid;
+            }
+        }
+
+        /**
+         * 合并两个有序的半区，左半区先复制到缓冲区的相同位置，不同任务使用缓冲区中互不重叠的部分。
+         */
+        private void merge(int mid) {
+            if (compare(keys[mid - 1], rids[mid - 1], keys[mid], rids[mid]) <= 0) {
+                return;
+            }
+            System.arraycopy(keys, from, keyBuffer, from, mid - from);
+            System.arraycopy(rids, from, ridBuffer, from, mid - from);
+            int i = from;
+            int j = mid;
+            int k = from;
+            while (i < mid && j < to) {
+                if (compare(keyBuffer[i], ridBuffer[i], keys[j], rids[j]) <= 0) {
+                    keys[k] = keyBuffer[i];
+                    rids[k++] = ridBuffer[i++];
+                } else {
+                    keys[k] = keys[j];
+                    rids[k++] = rids[j++];
+                }
+            }
+            System.arraycopy(keyBuffer, i, keys, k, mid - i);
+            System.arraycopy(ridBuffer, i, rids, k, mid - i);
+        }
+    }
+
+    /**
+     * 结束添加，返回按 (键, RID) 升序排列的条目。只能调用一次。
+     */
+    public Iterator<Map.Entry<Value, RID>> sorted() throws DBException {
+        sortBuffer();
+        if (runs.isEmpty()) {
+            return new BufferIterator();
+        }
+        if (buffered > 0) {
+            spill();
+        }
+        return new MergeIterator();
+    }
+
+    /**
+     * 按顺序读出内存中已排序的条目。
+     */
+    private class BufferIterator implements Iterator<Map.Entry<Value, RID>> {
+        private int next;
+
+        @Override
+        public boolean hasNext() {
+            return next < buffered;
+        }
+
+        @Override
+        public Map.Entry<Value, RID> next() {
+            if (next >= buffered) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<Value, RID> entry = new AbstractMap.SimpleImmutableEntry<>(keys[next], rids[next]);
+            next++;
+            return entry;
+        }
+    }
+
+    /**
+     * 多路归并所有 run，每个 run 只在内存中保留一个条目。
+     */
+    private class MergeIterator implements Iterator<Map.Entry<Value, RID>> {
+        private record Head(Value key, RID rid, int run) {
+        }
+
+        private final PriorityQueue<Head> heap = new PriorityQueue<>(
+                (a, b) -> compare(a.key, a.rid, b.key, b.rid));
+
+        MergeIterator() throws DBException {
+            try {
+                for (int i = 0; i < runs.size(); i++) {
+                    DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(runs.get(i))));
+                    openRuns.add(in);
+                    Head first = readHead(in, i);
+                    if (first != null) {
+                        heap.add(first);
+                    }
+                }
+            } catch (IOException e) {
+                throw new DBException(ExceptionTypes.BadIOError("Failed to open index sort run: " + e.getMessage()));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heap.isEmpty();
+        }
+
+        @Override
+        public Map.Entry<Value, RID> next() {
+            Head head = heap.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            try {
+                Head following = readHead(openRuns.get(head.run), head.run);
+                if (following != null) {
+                    heap.add(following);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to read index sort run: " + e.getMessage(), e);
+            }
+            return new AbstractMap.SimpleImmutableEntry<>(head.key, head.rid);
+        }
+
+        private Head readHead(DataInputStream in, int run) throws IOException {
+            Value key;
+            try {
+                key = readKey(in, keyType);
+            } catch (EOFException e) {
+                return null;
+            }
+            return new Head(key, new RID(in.readInt(), in.readInt()), run);
+        }
+    }
+
+    /**
+     * 关闭并删除所有临时文件。
+     */
+    @Override
+    public void close() {
+        for (DataInputStream in : openRuns) {
+            try {
+                in.close();
+            } catch (IOException ignored) {
+            }
+        }
+        for (Path run : runs) {
+            try {
+                Files.deleteIfExists(run);
+            } catch (IOException ignored) {
+            }
+        }
+        openRuns.clear();
+        runs.clear();
+    }
+}
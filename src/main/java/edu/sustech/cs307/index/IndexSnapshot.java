@@ -0,0 +1,181 @@
+package edu.sustech.cs307.index;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.exception.ExceptionTypes;
+import edu.sustech.cs307.record.RID;
+import edu.sustech.cs307.value.Value;
+import edu.sustech.cs307.value.ValueType;
+import org.pmw.tinylog.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * 内存索引的快照文件。
+ *
+ * <p>
+ * 文件 {@code <table>/snapshot_<column>} 依次存放：魔数、格式版本、表的版本号、键类型、条目数，
+ * 然后按 (键, RID) 顺序存放全部叶子条目。启动时顺序读一遍即可自底向上重建索引，
+ * 不需要扫描表文件；表的版本号与数据文件头中的不一致时快照作废。
+ * </p>
+ */
+public class IndexSnapshot {
+    private static final int MAGIC = 0x49445853; // "IDXS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private IndexSnapshot() {
+    }
+
+    /**
+     * 快照文件名，相对数据库目录，与表数据放在同一目录下，删除表时一并删除。
+     */
+    public static String snapshotFileName(String tableName, String columnName) {
+        return String.format("%s/snapshot_%s", tableName, columnName);
+    }
+
+    /**
+     * 写出索引的快照。先写临时文件再改名，写到一半失败不会留下损坏的快照。
+     *
+     * @param file         快照文件路径
+     * @param index        要保存的索引
+     * @param keyType      键类型
+     * @param tableVersion 写快照时数据文件头中的表版本号
+     * @return 写出的条目数
+     * @throws DBException 如果写文件失败
+     */
+    public static long write(Path file, MemoryIndex index, ValueType keyType, long tableVersion)
+            throws DBException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        long count = 0;
+        try {
+            Files.createDirectories(file.getParent());
+            // 条目数写在文件头中，先遍历一遍计数
+            for (Iterator<Map.Entry<Value, RID>> it = index.iterator(); it.hasNext(); it.next()) {
+                count++;
+            }
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmp), BUFFER_SIZE))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(tableVersion);
+                out.writeInt(keyType.ordinal());
+                out.writeLong(count);
+                Iterator<Map.Entry<Value, RID>> it = index.iterator();
+                while (it.hasNext()) {
+                    Map.Entry<Value, RID> entry = it.next();
+                    IndexEntrySorter.writeKey(out, keyType, entry.getKey());
+                    out.writeInt(entry.getValue().pageNum);
+                    out.writeInt(entry.getValue().slotNum);
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException ignored) {
+            }
+            throw new DBException(ExceptionTypes.BadIOError("Failed to write index snapshot " + file + ": "
+                    + e.getMessage()));
+        }
+        return count;
+    }
+
+    /**
+     * 从快照批量构建索引。文件不存在、已损坏，或表版本号、条目数与期望不一致时返回 false，
+     * 此时目标索引保持为空，由调用方扫描表重建。
+     *
+     * @param file            快照文件路径
+     * @param keyType         键类型
+     * @param expectedVersion 数据文件头中当前的表版本号
+     * @param expectedCount   表中当前的有效记录数
+     * @param target          空的目标索引
+     * @param fillFactor      批量构建的填充因子
+     * @return 是否成功从快照构建
+     * @throws DBException 如果目标索引非空
+     */
+    public static boolean load(Path file, ValueType keyType, long expectedVersion, long expectedCount,
+            MemoryIndex target, double fillFactor) throws DBException {
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                Logger.warn("Index snapshot {} is not a valid snapshot file", file);
+                return false;
+            }
+            long version = in.readLong();
+            int keyOrdinal = in.readInt();
+            long count = in.readLong();
+            if (version != expectedVersion || keyOrdinal != keyType.ordinal() || count != expectedCount) {
+                Logger.info("Index snapshot {} is stale (version {} vs {}, {} entries vs {} rows)", file,
+                        version, expectedVersion, count, expectedCount);
+                return false;
+            }
+            target.bulkLoad(new EntryReader(in, keyType, count), fillFactor);
+            return true;
+        } catch (IOException | UncheckedIOException e) {
+            Logger.warn("Failed to read index snapshot {}: {}", file, e.getMessage());
+            target.clear();
+            return false;
+        }
+    }
+
+    /**
+     * 删除快照文件，文件不存在时忽略。
+     */
+    public static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            Logger.warn("Failed to delete index snapshot {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * 逐条读取快照中的条目，读取失败时抛出 {@link UncheckedIOException}。
+     */
+    private static class EntryReader implements Iterator<Map.Entry<Value, RID>> {
+        private final DataInputStream in;
+        private final ValueType keyType;
+        private long remaining;
+
+        EntryReader(DataInputStream in, ValueType keyType, long count) {
+            this.in = in;
+            this.keyType = keyType;
+            this.remaining = count;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public Map.Entry<Value, RID> next() {
+            if (remaining <= 0) {
+                throw new NoSuchElementException();
+            }
+            try {
+                Value key = IndexEntrySorter.readKey(in, keyType);
+                RID rid = new RID(in.readInt(), in.readInt());
+                remaining--;
+                return new AbstractMap.SimpleImmutableEntry<>(key, rid);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
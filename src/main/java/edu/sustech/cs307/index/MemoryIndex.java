@@ -0,0 +1,44 @@
+package edu.sustech.cs307.index;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.record.RID;
+import edu.sustech.cs307.value.Value;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * 常驻内存的 B+ 树索引：可以从有序条目批量构建、按顺序遍历全部条目并整体清空。
+ * 建索引、索引快照和 SHOW BTREE 通过这些操作处理各种内存索引。
+ */
+public interface MemoryIndex extends Index {
+    /**
+     * 自底向上批量构建空树。
+     *
+     * @param sortedEntries 按 (键, RID) 升序排列的条目
+     * @param fillFactor    节点填充因子，取值 (0, 1]
+     * @return 装入的条目数
+     * @throws DBException 如果树不为空
+     */
+    long bulkLoad(Iterator<Map.Entry<Value, RID>> sortedEntries, double fillFactor) throws DBException;
+
+    /**
+     * 按 (键, RID) 顺序遍历全部条目。
+     */
+    Iterator<Map.Entry<Value, RID>> iterator();
+
+    /**
+     * 清空索引，释放所有节点。
+     */
+    void clear();
+
+    /**
+     * 获取树结构的字符串表示
+     */
+    String getTreeString();
+
+    /**
+     * 校验树结构是否合法
+     */
+    boolean validateTree();
+}
@@ -0,0 +1,888 @@
+package edu.sustech.cs307.index;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.exception.ExceptionTypes;
+import edu.sustech.cs307.record.RID;
+import edu.sustech.cs307.value.Value;
+import edu.sustech.cs307.value.ValueType;
+import org.pmw.tinylog.Logger;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 数值键（INTEGER、FLOAT、DOUBLE）专用的内存 B+ 树索引。
+ *
+ * <p>
+ * 节点用基本类型数组存放条目：键编码为保序的 long，RID 打包为 {@code 页号 << 32 | 槽号} 的 long，
+ * 节点内用二分查找定位。条目不再是一个个 {@link Value} 和 {@link RID} 对象，比较也不经过
+ * {@link edu.sustech.cs307.value.ValueComparer}，大索引的内存占用和 GC 压力都小得多。
+ * 浮点键按位编码，编码后的大小顺序与 {@link Float#compare} / {@link Double#compare} 一致。
+ * </p>
+ *
+ * <p>
+ * 条目按 (键, RID) 整体排序，因此重复键可以跨叶子存放，删除时可以直接定位到具体的 RID。
+ * 删除不合并节点，空叶子保留在链表中，由重建索引回收。
+ * </p>
+ *
+ * <p>
+ * 并发控制采用乐观锁耦合（optimistic lock coupling）：每个节点带一个 {@link StampedLock} 作为版本号，
+ * 读者不加锁，读完节点后校验版本，版本变化说明读到了写到一半的节点，从根重试；向下走时先取得子节点的版本
+ * 再校验父节点，保证子节点指针有效。写者只在修改时把当前节点的乐观版本升级为写锁：插入只锁叶子，
+ * 下降途中遇到满节点时锁住父节点和该节点就地分裂后重试，因此分裂不会向上传播。节点从不合并或释放，
+ * 叶子分裂后右半部分挂在原叶子的 next 之后（B-link），正在遍历的迭代器从原叶子沿 next 继续即可，
+ * 不需要回到根。
+ * </p>
+ */
+public class PrimitiveBPlusTreeIndex implements MemoryIndex {
+    // 小于任何打包后的 RID，与键组合后定位该键的第一个条目
+    private static final long MIN_RID = Long.MIN_VALUE;
+    // 大于任何打包后的 RID，与键组合后定位该键之后的第一个条目
+    private static final long MAX_RID = Long.MAX_VALUE;
+
+    private final String tableName;
+    private final String columnName;
+    private final ValueType keyType;
+    private final int maxKeys;
+
+    // 根节点，空树为一个空叶子；根只在持有旧根写锁时被替换
+    private volatile Node root;
+    private final AtomicLong size = new AtomicLong();
+
+    /**
+     * 节点的条目数组多留一个位置，供批量构建时合并最后两个叶子。
+     */
+    private abstract static class Node {
+        // 乐观读的版本号，写者修改节点时持有写锁
+        final StampedLock lock = new StampedLock();
+        final long[] keys;
+        final long[] rids;
+        int count;
+
+        Node(int capacity) {
+            keys = new long[capacity];
+            rids = new long[capacity];
+        }
+    }
+
+    private static final class Leaf extends Node {
+        // 右侧兄弟（B-link），分裂时在写锁内更新
+        Leaf next;
+
+        Leaf(int capacity) {
+            super(capacity);
+        }
+    }
+
+    /**
+     * 内部节点：children[i] 中的条目都小于 (keys[i], rids[i])，children[i + 1] 中的条目都不小于它。
+     */
+    private static final class Inner extends Node {
+        final Node[] children;
+
+        Inner(int capacity) {
+            super(capacity);
+            children = new Node[capacity + 1];
+        }
+    }
+
+    public PrimitiveBPlusTreeIndex(String tableName, String columnName, ValueType keyType, int degree) {
+        if (!supports(keyType)) {
+            throw new IllegalArgumentException("Unsupported key type for primitive B+ tree: " + keyType);
+        }
+        this.tableName = tableName;
+        this.columnName = columnName;
+        this.keyType = keyType;
+        this.maxKeys = Math.max(4, degree) - 1;
+        this.root = new Leaf(maxKeys + 1);
+    }
+
+    /**
+     * 判断该类型的键能否编码为 long。
+     */
+    public static boolean supports(ValueType type) {
+        return type == ValueType.INTEGER || type == ValueType.FLOAT || type == ValueType.DOUBLE;
+    }
+
+    // ---------------------------------------------------------------- 编码
+
+    private long encode(Value key) throws DBException {
+        if (key == null || key.type != keyType || key.value == null) {
+            throw new DBException(ExceptionTypes.WrongComparisonError(keyType, key == null ? null : key.type));
+        }
+        Number number = (Number) key.value;
+        return switch (keyType) {
+            case INTEGER -> number.longValue();
+            case FLOAT -> {
+                int bits = Float.floatToIntBits(number.floatValue());
+                yield bits ^ ((bits >> 31) & 0x7fffffff);
+            }
+            default -> {
+                long bits = Double.doubleToLongBits(number.doubleValue());
+                yield bits ^ ((bits >> 63) & Long.MAX_VALUE);
+            }
+        };
+    }
+
+    private Value decode(long key) {
+        return switch (keyType) {
+            case INTEGER -> new Value(key);
+            case FLOAT -> {
+                int bits = (int) key;
+                yield new Value(Float.intBitsToFloat(bits ^ ((bits >> 31) & 0x7fffffff)));
+            }
+            default -> new Value(Double.longBitsToDouble(key ^ ((key >> 63) & Long.MAX_VALUE)));
+        };
+    }
+
+    private static long pack(RID rid) {
+        return ((long) rid.pageNum << 32) | (rid.slotNum & 0xffffffffL);
+    }
+
+    private static RID unpack(long rid) {
+        return new RID((int) (rid >>> 32), (int) rid);
+    }
+
+    private static int compare(long key1, long rid1, long key2, long rid2) {
+        int cmp = Long.compare(key1, key2);
+        return cmp != 0 ? cmp : Long.compare(rid1, rid2);
+    }
+
+    /**
+     * 节点中第一个不小于 (key, rid) 的条目位置。
+     */
+    private static int lowerBound(Node node, long key, long rid) {
+        int low = 0;
+        int high = node.count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(node.keys[mid], node.rids[mid], key, rid) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 节点中第一个大于 (key, rid) 的条目位置；对内部节点即应当下降的子节点：分隔条目不大于 (key, rid) 的个数。
+     * 乐观读时节点可能正被修改，返回值不超过读到的条目数，由调用方校验版本。
+     */
+    private static int upperBound(Node node, long key, long rid) {
+        int low = 0;
+        int high = node.count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(node.keys[mid], node.rids[mid], key, rid) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 乐观地找到 (key, rid) 所在的叶子，返回叶子和读到它时的版本；遇到正在修改的节点时返回 null，由调用方重试。
+     */
+    private LeafStamp findLeaf(long key, long rid) {
+        Node node = root;
+        long stamp = node.lock.tryOptimisticRead();
+        if (root != node) {
+            return null;
+        }
+        while (stamp != 0 && node instanceof Inner inner) {
+            Node child = inner.children[upperBound(inner, key, rid)];
+            long childStamp = child == null ? 0 : child.lock.tryOptimisticRead();
+            if (!inner.lock.validate(stamp)) {
+                return null;
+            }
+            node = child;
+            stamp = childStamp;
+        }
+        return stamp == 0 ? null : new LeafStamp((Leaf) node, stamp);
+    }
+
+    private record LeafStamp(Leaf leaf, long stamp) {
+    }
+
+    // ---------------------------------------------------------------- 插入
+
+    @Override
+    public void insert(Value key, RID rid) throws DBException {
+        long k = encode(key);
+        long r = pack(rid);
+        while (!tryInsert(k, r)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * 从根向下乐观地查找叶子并插入。途中遇到满节点时先把它分裂，再从根重试，
+     * 这样插入叶子时只需锁住叶子本身，分裂时父节点一定还有空位。
+     *
+     * @return 版本校验失败或刚做完一次分裂、需要重试时返回 false
+     */
+    private boolean tryInsert(long key, long rid) {
+        Node node = root;
+        long stamp = node.lock.tryOptimisticRead();
+        if (root != node) {
+            return false;
+        }
+        Inner parent = null;
+        long parentStamp = 0;
+        int indexInParent = 0;
+        while (true) {
+            if (stamp == 0) {
+                return false;
+            }
+            if (node.count >= maxKeys) {
+                splitFullNode(parent, parentStamp, indexInParent, node, stamp);
+                return false;
+            }
+            if (node instanceof Leaf leaf) {
+                long writeStamp = leaf.lock.tryConvertToWriteLock(stamp);
+                if (writeStamp == 0) {
+                    return false;
+                }
+                try {
+                    insertIntoLeaf(leaf, key, rid);
+                } finally {
+                    leaf.lock.unlockWrite(writeStamp);
+                }
+                return true;
+            }
+            Inner inner = (Inner) node;
+            int idx = upperBound(inner, key, rid);
+            Node child = inner.children[idx];
+            long childStamp = child == null ? 0 : child.lock.tryOptimisticRead();
+            if (!inner.lock.validate(stamp)) {
+                return false;
+            }
+            parent = inner;
+            parentStamp = stamp;
+            indexInParent = idx;
+            node = child;
+            stamp = childStamp;
+        }
+    }
+
+    private void insertIntoLeaf(Leaf leaf, long key, long rid) {
+        int pos = lowerBound(leaf, key, rid);
+        if (pos < leaf.count && leaf.keys[pos] == key && leaf.rids[pos] == rid) {
+            return;
+        }
+        System.arraycopy(leaf.keys, pos, leaf.keys, pos + 1, leaf.count - pos);
+        System.arraycopy(leaf.rids, pos, leaf.rids, pos + 1, leaf.count - pos);
+        leaf.keys[pos] = key;
+        leaf.rids[pos] = rid;
+        leaf.count++;
+        size.incrementAndGet();
+    }
+
+    /**
+     * 锁住父节点和满节点后分裂，分隔条目插入父节点；满节点是根时换上新根。
+     * 任何一把锁拿不到（版本已变）就放弃，由调用方重试。
+     */
+    private void splitFullNode(Inner parent, long parentStamp, int indexInParent, Node node, long stamp) {
+        long parentWrite = 0;
+        if (parent != null) {
+            parentWrite = parent.lock.tryConvertToWriteLock(parentStamp);
+            if (parentWrite == 0) {
+                return;
+            }
+        }
+        long nodeWrite = node.lock.tryConvertToWriteLock(stamp);
+        try {
+            // 没有父节点时它必须仍然是根，否则其他线程已经分裂过并换了根
+            if (nodeWrite == 0 || (parent == null && root != node)) {
+                return;
+            }
+            long[] separator = new long[2];
+            Node sibling = node instanceof Leaf leaf ? splitLeaf(leaf, separator) : splitInner((Inner) node, separator);
+            if (parent == null) {
+                Inner newRoot = new Inner(maxKeys + 1);
+                newRoot.children[0] = node;
+                newRoot.children[1] = sibling;
+                newRoot.keys[0] = separator[0];
+                newRoot.rids[0] = separator[1];
+                newRoot.count = 1;
+                root = newRoot;
+            } else {
+                int idx = indexInParent;
+                System.arraycopy(parent.keys, idx, parent.keys, idx + 1, parent.count - idx);
+                System.arraycopy(parent.rids, idx, parent.rids, idx + 1, parent.count - idx);
+                System.arraycopy(parent.children, idx + 1, parent.children, idx + 2, parent.count - idx);
+                parent.keys[idx] = separator[0];
+                parent.rids[idx] = separator[1];
+                parent.children[idx + 1] = sibling;
+                parent.count++;
+            }
+        } finally {
+            if (nodeWrite != 0) {
+                node.lock.unlockWrite(nodeWrite);
+            }
+            if (parentWrite != 0) {
+                parent.lock.unlockWrite(parentWrite);
+            }
+        }
+    }
+
+    /**
+     * 把叶子的后一半移到新的右侧兄弟，separator 中返回新兄弟的第一个条目。
+     */
+    private Leaf splitLeaf(Leaf leaf, long[] separator) {
+        int mid = leaf.count / 2;
+        Leaf right = new Leaf(maxKeys + 1);
+        right.count = leaf.count - mid;
+        System.arraycopy(leaf.keys, mid, right.keys, 0, right.count);
+        System.arraycopy(leaf.rids, mid, right.rids, 0, right.count);
+        right.next = leaf.next;
+        leaf.next = right;
+        leaf.count = mid;
+        separator[0] = right.keys[0];
+        separator[1] = right.rids[0];
+        return right;
+    }
+
+    /**
+     * 中间的分隔条目上移到父节点，separator 中返回该条目，其右侧的条目和子节点移到新节点。
+     */
+    private Inner splitInner(Inner inner, long[] separator) {
+        int mid = inner.count / 2;
+        Inner right = new Inner(maxKeys + 1);
+        right.count = inner.count - mid - 1;
+        System.arraycopy(inner.keys, mid + 1, right.keys, 0, right.count);
+        System.arraycopy(inner.rids, mid + 1, right.rids, 0, right.count);
+        System.arraycopy(inner.children, mid + 1, right.children, 0, right.count + 1);
+        for (int i = mid + 1; i <= inner.count; i++) {
+            inner.children[i] = null;
+        }
+        separator[0] = inner.keys[mid];
+        separator[1] = inner.rids[mid];
+        inner.count = mid;
+        return right;
+    }
+
+    // ---------------------------------------------------------------- 批量构建
+
+    /**
+     * 批量构建在索引对外可见之前进行，构建完成后一次性换上新根。
+     */
+    @Override
+    public synchronized long bulkLoad(Iterator<Map.Entry<Value, RID>> sortedEntries, double fillFactor)
+            throws DBException {
+        if (root.count != 0) {
+            throw new DBException(ExceptionTypes.InvalidOperation(
+                    String.format("Bulk load requires an empty index on %s.%s", tableName, columnName)));
+        }
+        int minKeys = Math.max(1, maxKeys / 2);
+        int perNode = Math.max(minKeys, Math.min(maxKeys, (int) Math.round(maxKeys * fillFactor)));
+
+        // 叶子层
+        List<Node> level = new ArrayList<>();
+        Leaf leaf = null;
+        long count = 0;
+        while (sortedEntries.hasNext()) {
+            Map.Entry<Value, RID> entry = sortedEntries.next();
+            if (leaf == null || leaf.count == perNode) {
+                Leaf next = new Leaf(maxKeys + 1);
+                if (leaf != null) {
+                    leaf.next = next;
+                }
+                leaf = next;
+                level.add(leaf);
+            }
+            leaf.keys[leaf.count] = encode(entry.getKey());
+            leaf.rids[leaf.count] = pack(entry.getValue());
+            leaf.count++;
+            count++;
+        }
+        if (level.isEmpty()) {
+            return 0;
+        }
+        balanceLastLeaves(level, minKeys);
+
+        // 内部节点层，分隔条目为右侧子树的最小条目
+        while (level.size() > 1) {
+            List<Node> parents = new ArrayList<>();
+            for (int[] group : BPlusTreeIndex.groupChildren(level.size(), perNode + 1, minKeys + 1, maxKeys + 1)) {
+                Inner parent = new Inner(maxKeys + 1);
+                for (int i = group[0]; i < group[1]; i++) {
+                    Node child = level.get(i);
+                    parent.children[i - group[0]] = child;
+                    if (i > group[0]) {
+                        Leaf first = firstLeaf(child);
+                        parent.keys[parent.count] = first.keys[0];
+                        parent.rids[parent.count] = first.rids[0];
+                        parent.count++;
+                    }
+                }
+                parents.add(parent);
+            }
+            level = parents;
+        }
+        size.set(count);
+        root = level.get(0);
+        return count;
+    }
+
+    private static Leaf firstLeaf(Node node) {
+        while (node instanceof Inner inner) {
+            node = inner.children[0];
+        }
+        return (Leaf) node;
+    }
+
+    /**
+     * 最后一个叶子条目过少时，与前一个叶子合并或平分，保证每个非根节点满足最小键数。
+     */
+    private void balanceLastLeaves(List<Node> leaves, int minKeys) {
+        int n = leaves.size();
+        if (n < 2 || leaves.get(n - 1).count >= minKeys) {
+            return;
+        }
+        Leaf prev = (Leaf) leaves.get(n - 2);
+        Leaf last = (Leaf) leaves.get(n - 1);
+        int total = prev.count + last.count;
+        if (total <= maxKeys) {
+            System.arraycopy(last.keys, 0, prev.keys, prev.count, last.count);
+            System.arraycopy(last.rids, 0, prev.rids, prev.count, last.count);
+            prev.count = total;
+            prev.next = null;
+            leaves.remove(n - 1);
+            return;
+        }
+        int keep = total - total / 2;
+        int moved = prev.count - keep;
+        System.arraycopy(last.keys, 0, last.keys, moved, last.count);
+        System.arraycopy(last.rids, 0, last.rids, moved, last.count);
+        System.arraycopy(prev.keys, keep, last.keys, 0, moved);
+        System.arraycopy(prev.rids, keep, last.rids, 0, moved);
+        prev.count = keep;
+        last.count = total - keep;
+    }
+
+    // ---------------------------------------------------------------- 删除
+
+    @Override
+    public void delete(Value key, RID rid) throws DBException {
+        long k = encode(key);
+        long r = pack(rid);
+        while (!tryDelete(k, r)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * @return 版本校验失败需要重试时返回 false
+     */
+    private boolean tryDelete(long key, long rid) {
+        LeafStamp found = findLeaf(key, rid);
+        if (found == null) {
+            return false;
+        }
+        Leaf leaf = found.leaf();
+        long writeStamp = leaf.lock.tryConvertToWriteLock(found.stamp());
+        if (writeStamp == 0) {
+            return false;
+        }
+        try {
+            int pos = lowerBound(leaf, key, rid);
+            if (pos < leaf.count && leaf.keys[pos] == key && leaf.rids[pos] == rid) {
+                System.arraycopy(leaf.keys, pos + 1, leaf.keys, pos, leaf.count - pos - 1);
+                System.arraycopy(leaf.rids, pos + 1, leaf.rids, pos, leaf.count - pos - 1);
+                leaf.count--;
+                size.decrementAndGet();
+            }
+        } finally {
+            leaf.lock.unlockWrite(writeStamp);
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized void clear() {
+        root = new Leaf(maxKeys + 1);
+        size.set(0);
+        Logger.debug("Cleared primitive B+Tree index for {}.{}", tableName, columnName);
+    }
+
+    /**
+     * @return 索引中的条目数
+     */
+    public long size() {
+        return size.get();
+    }
+
+    // ---------------------------------------------------------------- 查询
+
+    @Override
+    public List<RID> search(Value key) throws DBException {
+        return collect(new LeafIterator(key, key, true, true));
+    }
+
+    @Override
+    public List<RID> searchRange(Value startKey, Value endKey, boolean startInclusive,
+            boolean endInclusive) throws DBException {
+        return collect(new LeafIterator(startKey, endKey, startInclusive, endInclusive));
+    }
+
+    /**
+     * 用同一个迭代器依次定位各个键：下一个键仍在上一个键结束的叶子中时直接从这个叶子开始，不必从根下降。
+     */
+    @Override
+    public List<RID> searchAll(List<Value> sortedKeys) throws DBException {
+        List<RID> result = new ArrayList<>();
+        if (sortedKeys.isEmpty()) {
+            return result;
+        }
+        LeafIterator it = new LeafIterator(sortedKeys.get(0), sortedKeys.get(0), true, true);
+        for (int i = 0;;) {
+            while (it.hasNext()) {
+                result.add(it.nextRid());
+            }
+            if (++i == sortedKeys.size()) {
+                return result;
+            }
+            it.seekEqual(encode(sortedKeys.get(i)));
+        }
+    }
+
+    private static List<RID> collect(LeafIterator it) {
+        List<RID> result = new ArrayList<>();
+        while (it.hasNext()) {
+            result.add(it.nextRid());
+        }
+        return result;
+    }
+
+    @Override
+    public RID EqualTo(Value value) {
+        try {
+            LeafIterator it = new LeafIterator(value, value, true, true);
+            return it.hasNext() ? it.nextRid() : null;
+        } catch (DBException e) {
+            Logger.error("Error in EqualTo search: " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public Iterator<Map.Entry<Value, RID>> LessThan(Value value, boolean isEqual) {
+        return iterator(null, value, true, isEqual);
+    }
+
+    @Override
+    public Iterator<Map.Entry<Value, RID>> MoreThan(Value value, boolean isEqual) {
+        return iterator(value, null, isEqual, true);
+    }
+
+    @Override
+    public Iterator<Map.Entry<Value, RID>> Range(Value low, Value high, boolean leftEqual, boolean rightEqual) {
+        return iterator(low, high, leftEqual, rightEqual);
+    }
+
+    @Override
+    public Iterator<Map.Entry<Value, RID>> iterator() {
+        return iterator(null, null, true, true);
+    }
+
+    private Iterator<Map.Entry<Value, RID>> iterator(Value low, Value high, boolean leftEqual,
+            boolean rightEqual) {
+        try {
+            return new LeafIterator(low, high, leftEqual, rightEqual);
+        } catch (DBException e) {
+            Logger.error("Error initializing primitive B+ Tree iterator: " + e.getMessage());
+            return Collections.emptyIterator();
+        }
+    }
+
+    @Override
+    public String getTableName() {
+        return tableName;
+    }
+
+    @Override
+    public String getColumnName() {
+        return columnName;
+    }
+
+    // ---------------------------------------------------------------- 遍历
+
+    /**
+     * 沿叶子链表顺序遍历 [startKey, endKey] 范围内的条目，跳过删除后留下的空叶子。
+     *
+     * <p>
+     * 每次在版本校验通过的前提下把一个叶子中剩余的范围内条目复制到缓冲区，之后不再持有对叶子内容的引用。
+     * 缓冲区取完后从同一个叶子重新定位到上一个返回条目之后：叶子期间分裂过时，剩余条目已经移到右侧兄弟，
+     * 沿 next 找到即可，已返回的条目不会重复。
+     * </p>
+     */
+    private class LeafIterator implements Iterator<Map.Entry<Value, RID>> {
+        private boolean bounded;
+        private long endKey;
+        private long endRid;
+        // 当前叶子中复制出来、尚未返回的条目
+        private long[] bufferKeys = new long[0];
+        private long[] bufferRids = new long[0];
+        private int bufferCount;
+        private int bufferPos;
+        // 下一次复制的叶子，为 null 时遍历结束
+        private Leaf leaf;
+        // 下一次复制从第一个大于（seekAfter 为 true 时）或不小于 (seekKey, seekRid) 的条目开始
+        private long seekKey;
+        private long seekRid;
+        private boolean seekAfter;
+        // 最近一次成功复制的叶子，供 seekEqual 判断下一个键是否仍在其中
+        private Leaf lastLeaf;
+
+        LeafIterator(Value startKey, Value endKey, boolean startInclusive, boolean endInclusive)
+                throws DBException {
+            this.bounded = endKey != null;
+            this.endKey = bounded ? encode(endKey) : 0;
+            this.endRid = endInclusive ? MAX_RID : MIN_RID;
+            if (startKey == null) {
+                seekKey = Long.MIN_VALUE;
+                seekRid = MIN_RID;
+            } else {
+                seekKey = encode(startKey);
+                seekRid = startInclusive ? MIN_RID : MAX_RID;
+            }
+            leaf = locate(seekKey, seekRid);
+        }
+
+        private Leaf locate(long key, long rid) {
+            LeafStamp found;
+            while ((found = findLeaf(key, rid)) == null) {
+                Thread.onSpinWait();
+            }
+            return found.leaf();
+        }
+
+        /**
+         * 改为遍历等于 key 的条目，丢弃缓冲区中尚未返回的条目。
+         * key 大于上一次的终点且上一次结束的叶子中仍有不小于它的条目时，从这个叶子开始复制：
+         * 它左侧的条目都小于上一次的终点；否则从根重新定位。
+         */
+        void seekEqual(long key) {
+            boolean forward = bounded && key > endKey;
+            seekKey = key;
+            seekRid = MIN_RID;
+            seekAfter = false;
+            bounded = true;
+            endKey = key;
+            endRid = MAX_RID;
+            bufferPos = 0;
+            bufferCount = 0;
+            leaf = forward && reaches(lastLeaf, key) ? lastLeaf : locate(key, MIN_RID);
+        }
+
+        private static boolean reaches(Leaf candidate, long key) {
+            if (candidate == null) {
+                return false;
+            }
+            long stamp = candidate.lock.tryOptimisticRead();
+            int count = candidate.count;
+            boolean reaches = count > 0 && count <= candidate.keys.length
+                    && compare(candidate.keys[count - 1], candidate.rids[count - 1], key, MIN_RID) >= 0;
+            return stamp != 0 && candidate.lock.validate(stamp) && reaches;
+        }
+
+        /**
+         * 从 leaf 开始复制下一批条目，直到缓冲区非空或遍历结束。
+         */
+        private void fill() {
+            bufferPos = 0;
+            bufferCount = 0;
+            while (leaf != null) {
+                long stamp = leaf.lock.tryOptimisticRead();
+                if (stamp == 0) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                int count = leaf.count;
+                int from = Math.min(count, seekAfter ? upperBound(leaf, seekKey, seekRid)
+                        : lowerBound(leaf, seekKey, seekRid));
+                // 范围的终点落在这个叶子内时，复制完就不必再往右走
+                int to = bounded ? Math.min(count, lowerBound(leaf, endKey, endRid)) : count;
+                int n = Math.max(0, to - from);
+                if (bufferKeys.length < n) {
+                    bufferKeys = new long[count];
+                    bufferRids = new long[count];
+                }
+                System.arraycopy(leaf.keys, from, bufferKeys, 0, n);
+                System.arraycopy(leaf.rids, from, bufferRids, 0, n);
+                Leaf next = leaf.next;
+                if (!leaf.lock.validate(stamp)) {
+                    continue;
+                }
+                bufferCount = n;
+                lastLeaf = leaf;
+                if (to < count) {
+                    leaf = null;
+                } else if (n == 0) {
+                    leaf = next;
+                }
+                if (n > 0 || leaf == null) {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (bufferPos >= bufferCount) {
+                fill();
+            }
+            return bufferPos < bufferCount;
+        }
+
+        /**
+         * 只取 RID，不构造键对象。
+         */
+        RID nextRid() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return unpack(advance());
+        }
+
+        @Override
+        public Map.Entry<Value, RID> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            long key = bufferKeys[bufferPos];
+            return new AbstractMap.SimpleEntry<>(decode(key), unpack(advance()));
+        }
+
+        /**
+         * 取出缓冲区中的下一个条目，记下它作为之后重新定位的起点，返回打包后的 RID。
+         */
+        private long advance() {
+            seekKey = bufferKeys[bufferPos];
+            seekRid = bufferRids[bufferPos];
+            seekAfter = true;
+            return bufferRids[bufferPos++];
+        }
+    }
+
+    // ---------------------------------------------------------------- 调试
+
+    /**
+     * 调试用，调用时不应有并发写入。
+     */
+    @Override
+    public String getTreeString() {
+        if (size.get() == 0 && root instanceof Leaf) {
+            return "Empty tree";
+        }
+        StringBuilder result = new StringBuilder();
+        appendNode(result, root, 0);
+        return result.toString();
+    }
+
+    private void appendNode(StringBuilder result, Node node, int level) {
+        String indent = "  ".repeat(level);
+        result.append(indent);
+        if (level == 0) {
+            result.append("🌳 Root ");
+        }
+        boolean leaf = node instanceof Leaf;
+        result.append(leaf ? "📄 Leaf: " : "📁 Internal: ");
+        for (int i = 0; i < node.count; i++) {
+            result.append(decode(node.keys[i]));
+            if (leaf) {
+                result.append("(").append(unpack(node.rids[i])).append(")");
+            }
+            if (i < node.count - 1) {
+                result.append(", ");
+            }
+        }
+        result.append("\n");
+        if (node instanceof Inner inner) {
+            for (int i = 0; i <= inner.count; i++) {
+                result.append(indent).append("├─ Child ").append(i).append(":\n");
+                appendNode(result, inner.children[i], level + 1);
+            }
+        }
+    }
+
+    /**
+     * 校验每个节点内的条目严格递增且落在父节点分隔条目划定的范围内，所有叶子深度相同，
+     * 叶子链表覆盖全部条目。删除不合并节点，因此不检查最小键数。调试用，调用时不应有并发写入。
+     */
+    @Override
+    public boolean validateTree() {
+        List<Leaf> leaves = new ArrayList<>();
+        if (!validateNode(root, null, null, 0, new int[] { -1 }, leaves)) {
+            return false;
+        }
+        long seen = 0;
+        Leaf expected = leaves.get(0);
+        for (Leaf leaf : leaves) {
+            if (leaf != expected) {
+                Logger.error("Primitive B+ Tree leaf chain does not follow tree order");
+                return false;
+            }
+            seen += leaf.count;
+            expected = leaf.next;
+        }
+        if (expected != null || seen != size.get()) {
+            Logger.error("Primitive B+ Tree leaf chain holds {} entries but size is {}", seen, size);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param low  子树条目的下界（含），null 表示无下界
+     * @param high 子树条目的上界（不含），null 表示无上界
+     */
+    private boolean validateNode(Node node, long[] low, long[] high, int depth, int[] leafDepth,
+            List<Leaf> leaves) {
+        if (node.count > maxKeys || (node instanceof Inner && node.count == 0)) {
+            Logger.error("Primitive B+ Tree node has {} keys", node.count);
+            return false;
+        }
+        for (int i = 0; i < node.count; i++) {
+            if (i > 0 && compare(node.keys[i - 1], node.rids[i - 1], node.keys[i], node.rids[i]) >= 0) {
+                Logger.error("Primitive B+ Tree keys not in ascending order within node");
+                return false;
+            }
+            if ((low != null && compare(node.keys[i], node.rids[i], low[0], low[1]) < 0)
+                    || (high != null && compare(node.keys[i], node.rids[i], high[0], high[1]) >= 0)) {
+                Logger.error("Primitive B+ Tree node violates separator bounds");
+                return false;
+            }
+        }
+        if (node instanceof Leaf leaf) {
+            if (leafDepth[0] == -1) {
+                leafDepth[0] = depth;
+            } else if (leafDepth[0] != depth) {
+                Logger.error("Primitive B+ Tree leaves at different depths");
+                return false;
+            }
+            leaves.add(leaf);
+            return true;
+        }
+        Inner inner = (Inner) node;
+        for (int i = 0; i <= inner.count; i++) {
+            long[] childLow = i == 0 ? low : new long[] { inner.keys[i - 1], inner.rids[i - 1] };
+            long[] childHigh = i == inner.count ? high : new long[] { inner.keys[i], inner.rids[i] };
+            if (!validateNode(inner.children[i], childLow, childHigh, depth + 1, leafDepth, leaves)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
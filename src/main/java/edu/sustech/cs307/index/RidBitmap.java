@@ -0,0 +1,208 @@
+package edu.sustech.cs307.index;
+
+import edu.sustech.cs307.record.RID;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 按页分组的 RID 位图，用于合并多个索引的查找结果。
+ *
+ * <p>
+ * 页号升序存放在数组中，每页一个槽位位图，与 {@link RidPostingList} 的位图形式相同。
+ * 交集和并集按页号归并两个位图，同一页内逐个 long 做按位与、或；遍历按 (页号, 槽号) 升序，
+ * 回表时每个页面只访问一次。位图创建后不再修改。
+ * </p>
+ */
+public final class RidBitmap implements Iterable<RID> {
+    private static final RidBitmap EMPTY = new RidBitmap(new int[0], new long[0][], 0);
+
+    private final int[] pages;
+    private final long[][] slots;
+    private final int pageCount;
+
+    private RidBitmap(int[] pages, long[][] slots, int pageCount) {
+        this.pages = pages;
+        this.slots = slots;
+        this.pageCount = pageCount;
+    }
+
+    public static RidBitmap empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param rids 任意顺序的 RID，可以有重复
+     */
+    public static RidBitmap of(Collection<RID> rids) {
+        long[] packed = new long[rids.size()];
+        int n = 0;
+        for (RID rid : rids) {
+            packed[n++] = RidPostingList.pack(rid);
+        }
+        Arrays.sort(packed);
+        int[] pages = new int[Math.max(1, rids.size())];
+        long[][] slots = new long[pages.length][];
+        int pageCount = 0;
+        for (int i = 0; i < n;) {
+            int page = (int) (packed[i] >>> 32);
+            int end = i;
+            while (end < n && (int) (packed[end] >>> 32) == page) {
+                end++;
+            }
+            long[] bits = new long[((int) packed[end - 1] >>> 6) + 1];
+            for (int j = i; j < end; j++) {
+                int slot = (int) packed[j];
+                bits[slot >>> 6] |= 1L << slot;
+            }
+            pages[pageCount] = page;
+            slots[pageCount] = bits;
+            pageCount++;
+            i = end;
+        }
+        return new RidBitmap(pages, slots, pageCount);
+    }
+
+    /**
+     * @return 同时出现在两个位图中的 RID
+     */
+    public RidBitmap and(RidBitmap other) {
+        int[] resultPages = new int[Math.min(pageCount, other.pageCount)];
+        long[][] resultSlots = new long[resultPages.length][];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < pageCount && j < other.pageCount) {
+            if (pages[i] < other.pages[j]) {
+                i++;
+            } else if (pages[i] > other.pages[j]) {
+                j++;
+            } else {
+                long[] a = slots[i];
+                long[] b = other.slots[j];
+                long[] bits = new long[Math.min(a.length, b.length)];
+                boolean any = false;
+                for (int w = 0; w < bits.length; w++) {
+                    bits[w] = a[w] & b[w];
+                    any |= bits[w] != 0;
+                }
+                if (any) {
+                    resultPages[count] = pages[i];
+                    resultSlots[count] = bits;
+                    count++;
+                }
+                i++;
+                j++;
+            }
+        }
+        return new RidBitmap(resultPages, resultSlots, count);
+    }
+
+    /**
+     * @return 出现在任一位图中的 RID
+     */
+    public RidBitmap or(RidBitmap other) {
+        int[] resultPages = new int[pageCount + other.pageCount];
+        long[][] resultSlots = new long[resultPages.length][];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < pageCount || j < other.pageCount) {
+            if (j == other.pageCount || (i < pageCount && pages[i] < other.pages[j])) {
+                resultPages[count] = pages[i];
+                resultSlots[count++] = slots[i++];
+            } else if (i == pageCount || pages[i] > other.pages[j]) {
+                resultPages[count] = other.pages[j];
+                resultSlots[count++] = other.slots[j++];
+            } else {
+                long[] a = slots[i].length >= other.slots[j].length ? slots[i] : other.slots[j];
+                long[] b = a == slots[i] ? other.slots[j] : slots[i];
+                long[] bits = Arrays.copyOf(a, a.length);
+                for (int w = 0; w < b.length; w++) {
+                    bits[w] |= b[w];
+                }
+                resultPages[count] = pages[i];
+                resultSlots[count++] = bits;
+                i++;
+                j++;
+            }
+        }
+        return new RidBitmap(resultPages, resultSlots, count);
+    }
+
+    public boolean contains(RID rid) {
+        int i = Arrays.binarySearch(pages, 0, pageCount, rid.pageNum);
+        if (i < 0) {
+            return false;
+        }
+        int word = rid.slotNum >>> 6;
+        return word < slots[i].length && (slots[i][word] & (1L << rid.slotNum)) != 0;
+    }
+
+    public long size() {
+        long size = 0;
+        for (int i = 0; i < pageCount; i++) {
+            for (long word : slots[i]) {
+                size += Long.bitCount(word);
+            }
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return pageCount == 0;
+    }
+
+    /**
+     * @return 含有至少一个 RID 的页面数，即回表时需要读取的页面数
+     */
+    public int pageCount() {
+        return pageCount;
+    }
+
+    /**
+     * 按 (页号, 槽号) 升序遍历。
+     */
+    @Override
+    public Iterator<RID> iterator() {
+        return new Iterator<>() {
+            private int page;
+            private int word;
+            private long bits = pageCount > 0 ? slots[0][0] : 0;
+
+            @Override
+            public boolean hasNext() {
+                while (bits == 0) {
+                    if (page == pageCount) {
+                        return false;
+                    }
+                    if (++word == slots[page].length) {
+                        word = 0;
+                        if (++page == pageCount) {
+                            return false;
+                        }
+                    }
+                    bits = slots[page][word];
+                }
+                return true;
+            }
+
+            @Override
+            public RID next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int slot = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                return new RID(pages[page], slot);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "RidBitmap(" + size() + " rids on " + pageCount + " pages)";
+    }
+}
@@ -0,0 +1,268 @@
+package edu.sustech.cs307.index;
+
+import edu.sustech.cs307.record.RID;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link BPlusTreeIndex} 叶子中一个键对应的 RID 集合，按 (页号, 槽号) 升序存放，不含重复。
+ *
+ * <p>
+ * RID 较少时存为差值编码的变长字节序列：每个 RID 先写与上一个 RID 的页号差，页号相同时再写槽号差，
+ * 否则写槽号本身，同一页内的相邻记录通常只占两个字节。修改时整体解码再重新编码，条目数不超过
+ * {@link #BITMAP_THRESHOLD}，代价是常数。
+ * </p>
+ *
+ * <p>
+ * 超过阈值后改为按页分组的位图：页号有序存放在数组中，每页一个槽位位图。查找和删除只需二分查找页号再读写一位，
+ * 代价为 O(log n)；删除后变空的页保留到 RID 数降到阈值一半、转回字节序列时再回收。
+ * 状态、类别这类取值很少的列，同一页中往往有大量相同的键，位图每条只占一位。
+ * </p>
+ */
+final class RidPostingList {
+    // 超过该数量时由差值编码转为位图
+    static final int BITMAP_THRESHOLD = 64;
+
+    // 差值编码形式，bitmap 模式下为 null
+    private byte[] bytes = new byte[8];
+    private int byteLength;
+
+    // 位图形式：pages[0, pageCount) 升序，slots[i] 是 pages[i] 页的槽位位图
+    private int[] pages;
+    private long[][] slots;
+    private int pageCount;
+
+    private int size;
+
+    static long pack(RID rid) {
+        return ((long) rid.pageNum << 32) | (rid.slotNum & 0xffffffffL);
+    }
+
+    static RID unpack(long rid) {
+        return new RID((int) (rid >>> 32), (int) rid);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean isBitmap() {
+        return pages != null;
+    }
+
+    /**
+     * @return RID 原先不存在时返回 true
+     */
+    boolean add(RID rid) {
+        if (isBitmap()) {
+            if (!bitmapAdd(rid.pageNum, rid.slotNum)) {
+                return false;
+            }
+            size++;
+            return true;
+        }
+        long packed = pack(rid);
+        long[] rids = decode();
+        int pos = Arrays.binarySearch(rids, packed);
+        if (pos >= 0) {
+            return false;
+        }
+        pos = -pos - 1;
+        long[] updated = new long[size + 1];
+        System.arraycopy(rids, 0, updated, 0, pos);
+        updated[pos] = packed;
+        System.arraycopy(rids, pos, updated, pos + 1, size - pos);
+        size++;
+        if (size > BITMAP_THRESHOLD) {
+            toBitmap(updated);
+        } else {
+            encode(updated);
+        }
+        return true;
+    }
+
+    /**
+     * @return RID 存在并被删除时返回 true
+     */
+    boolean remove(RID rid) {
+        if (isBitmap()) {
+            int i = Arrays.binarySearch(pages, 0, pageCount, rid.pageNum);
+            if (i < 0 || !testBit(slots[i], rid.slotNum)) {
+                return false;
+            }
+            slots[i][rid.slotNum >>> 6] &= ~(1L << rid.slotNum);
+            size--;
+            if (size < BITMAP_THRESHOLD / 2) {
+                encode(toArray());
+                pages = null;
+                slots = null;
+                pageCount = 0;
+            }
+            return true;
+        }
+        long[] rids = decode();
+        int pos = Arrays.binarySearch(rids, pack(rid));
+        if (pos < 0) {
+            return false;
+        }
+        long[] updated = new long[size - 1];
+        System.arraycopy(rids, 0, updated, 0, pos);
+        System.arraycopy(rids, pos + 1, updated, pos, size - pos - 1);
+        size--;
+        encode(updated);
+        return true;
+    }
+
+    /**
+     * 按升序把全部 RID 追加到 {@code out}。
+     */
+    void addAllTo(List<RID> out) {
+        for (long rid : toArray()) {
+            out.add(unpack(rid));
+        }
+    }
+
+    /**
+     * @return 升序排列的打包 RID
+     */
+    long[] toArray() {
+        if (!isBitmap()) {
+            return decode();
+        }
+        long[] result = new long[size];
+        int n = 0;
+        for (int i = 0; i < pageCount; i++) {
+            long[] bits = slots[i];
+            for (int w = 0; w < bits.length; w++) {
+                long word = bits[w];
+                while (word != 0) {
+                    int slot = (w << 6) + Long.numberOfTrailingZeros(word);
+                    result[n++] = ((long) pages[i] << 32) | slot;
+                    word &= word - 1;
+                }
+            }
+        }
+        return result;
+    }
+
+    // ---------------------------------------------------------------- 差值编码
+
+    private long[] decode() {
+        long[] rids = new long[size];
+        int pos = 0;
+        long page = 0;
+        long slot = 0;
+        // 每个 RID 两个变长字段：页号差、槽号（差）
+        long[] fields = new long[2];
+        for (int n = 0; n < size; n++) {
+            for (int f = 0; f < 2; f++) {
+                long value = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = bytes[pos++];
+                    value |= (long) (b & 0x7f) << shift;
+                    shift += 7;
+                } while (b < 0);
+                fields[f] = value;
+            }
+            page += fields[0];
+            slot = (n == 0 || fields[0] != 0) ? fields[1] : slot + fields[1];
+            rids[n] = (page << 32) | slot;
+        }
+        return rids;
+    }
+
+    private void encode(long[] rids) {
+        if (bytes == null) {
+            bytes = new byte[Math.max(8, rids.length * 2)];
+        }
+        byteLength = 0;
+        long prevPage = 0;
+        long prevSlot = 0;
+        for (int n = 0; n < rids.length; n++) {
+            long page = rids[n] >>> 32;
+            long slot = rids[n] & 0xffffffffL;
+            writeVarLong(page - prevPage);
+            writeVarLong((n == 0 || page != prevPage) ? slot : slot - prevSlot);
+            prevPage = page;
+            prevSlot = slot;
+        }
+        if (bytes.length > 2 * Math.max(8, byteLength)) {
+            bytes = Arrays.copyOf(bytes, Math.max(8, byteLength));
+        }
+    }
+
+    private void writeVarLong(long value) {
+        if (byteLength + 10 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, byteLength + 10));
+        }
+        while ((value & ~0x7fL) != 0) {
+            bytes[byteLength++] = (byte) ((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        bytes[byteLength++] = (byte) value;
+    }
+
+    // ---------------------------------------------------------------- 位图
+
+    private void toBitmap(long[] rids) {
+        pages = new int[8];
+        slots = new long[8][];
+        pageCount = 0;
+        for (long rid : rids) {
+            bitmapAdd((int) (rid >>> 32), (int) rid);
+        }
+        bytes = null;
+        byteLength = 0;
+    }
+
+    private boolean bitmapAdd(int page, int slot) {
+        int i = Arrays.binarySearch(pages, 0, pageCount, page);
+        if (i < 0) {
+            i = -i - 1;
+            if (pageCount == pages.length) {
+                pages = Arrays.copyOf(pages, pageCount * 2);
+                slots = Arrays.copyOf(slots, pageCount * 2);
+            }
+            System.arraycopy(pages, i, pages, i + 1, pageCount - i);
+            System.arraycopy(slots, i, slots, i + 1, pageCount - i);
+            pages[i] = page;
+            slots[i] = new long[(slot >>> 6) + 1];
+            pageCount++;
+        } else if (testBit(slots[i], slot)) {
+            return false;
+        }
+        if ((slot >>> 6) >= slots[i].length) {
+            slots[i] = Arrays.copyOf(slots[i], (slot >>> 6) + 1);
+        }
+        slots[i][slot >>> 6] |= 1L << slot;
+        return true;
+    }
+
+    private static boolean testBit(long[] bits, int slot) {
+        int word = slot >>> 6;
+        return word < bits.length && (bits[word] & (1L << slot)) != 0;
+    }
+
+    @Override
+    public String toString() {
+        long[] rids = toArray();
+        StringBuilder sb = new StringBuilder("(");
+        for (int i = 0; i < Math.min(rids.length, 8); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(unpack(rids[i]));
+        }
+        if (rids.length > 8) {
+            sb.append(", ... ").append(rids.length).append(" rids");
+        }
+        return sb.append(')').toString();
+    }
+}
@@ -4,7 +4,8 @@ import edu.sustech.cs307.exception.DBException;
 import edu.sustech.cs307.exception.ExceptionTypes;
 import edu.sustech.cs307.meta.ColumnMeta;
 import edu.sustech.cs307.meta.TableMeta;
-import edu.sustech.cs307.physicalOperator.SeqScanOperator;
+import edu.sustech.cs307.record.RecordFileHandle;
+import edu.sustech.cs307.record.RecordPageCursor;
 import edu.sustech.cs307.system.DBManager;
 import edu.sustech.cs307.system.IndexSynchronizer;
 import edu.sustech.cs307.tuple.TableTuple;
@@ -173,7 +174,7 @@ public class AlterTableExecutor implements DMLExecutor {
             if (tableMeta.getIndexes() == null) {
                 tableMeta.setIndexes(new java.util.HashMap<>());
             }
-            tableMeta.getIndexes().put(columnName, TableMeta.IndexType.BTREE);
+            tableMeta.getIndexes().put(columnName, dbManager.getIndexManager().getDefaultIndexType());
             dbManager.getIndexManager().createIndex(tableName, columnName);
             syncManagerStates(tableName);
 
@@ -227,14 +228,13 @@ public class AlterTableExecutor implements DMLExecutor {
         Logger.info("Scanning table {} for duplicate values in column {}", tableName, columnName);
 
         Set<Value> seenValues = new HashSet<>();
-        SeqScanOperator scanner = new SeqScanOperator(tableName, dbManager);
+        TableMeta tableMeta = dbManager.getMetaManager().getTable(tableName);
+        RecordFileHandle fileHandle = dbManager.getRecordManager().OpenFile(tableName);
+        RecordPageCursor cursor = fileHandle.openCursor();
 
         try {
-            scanner.Begin();
-
-            while (scanner.hasNext()) {
-                scanner.Next();
-                TableTuple tuple = (TableTuple) scanner.Current();
+            while (cursor.next()) {
+                TableTuple tuple = new TableTuple(tableName, tableMeta, cursor.getRecord(), cursor.getRID());
 
                 if (tuple != null) {
                     Value value = tuple.getValue(new edu.sustech.cs307.meta.TabCol(tableName, columnName));
@@ -251,7 +251,8 @@ public class AlterTableExecutor implements DMLExecutor {
                 }
             }
         } finally {
-            scanner.Close();
+            cursor.close();
+            dbManager.getRecordManager().CloseFile(fileHandle);
         }
 
         Logger.info("No duplicate values found in column {}. Safe to add primary key constraint.", columnName);
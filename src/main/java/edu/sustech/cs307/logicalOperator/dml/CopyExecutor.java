@@ -0,0 +1,392 @@
+package edu.sustech.cs307.logicalOperator.dml;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.exception.ExceptionTypes;
+import edu.sustech.cs307.index.BloomFilter;
+import edu.sustech.cs307.meta.ColumnMeta;
+import edu.sustech.cs307.meta.TabCol;
+import edu.sustech.cs307.meta.TableMeta;
+import edu.sustech.cs307.record.RID;
+import edu.sustech.cs307.record.Record;
+import edu.sustech.cs307.record.RecordFileHandle;
+import edu.sustech.cs307.record.RecordPageCursor;
+import edu.sustech.cs307.system.DBManager;
+import edu.sustech.cs307.system.IndexSynchronizer;
+import edu.sustech.cs307.tuple.TableTuple;
+import edu.sustech.cs307.value.Value;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.pmw.tinylog.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * 执行器用于处理 COPY 批量装载命令：
+ *
+ * <pre>
+ * COPY table_name FROM 'path/to/file.csv' [WITH] [CSV] [HEADER];
+ * </pre>
+ *
+ * <p>
+ * CSV 各列按表定义的列顺序排列，文件按 UTF-8 读取。文件按批流式读入并并行解析，每行直接编码为记录格式，
+ * 然后通过 {@link RecordFileHandle#AppendRecords} 写入文件末尾的新页面，不经过逐行插入。
+ * 所有行在写入前完成解析和主键检查，任何一行出错都不会写入数据。
+ * 装载完成后，如果新行数不少于原有容量则整体重建索引，否则逐行补充索引。
+ * </p>
+ */
+public class CopyExecutor implements DMLExecutor {
+    private static final Pattern COPY_PATTERN = Pattern.compile(
+            "^COPY\\s+(\\w+)\\s+FROM\\s+'([^']+)'(\\s+(WITH\\s+)?(CSV\\s*)?(HEADER)?)?\\s*;?\\s*$",
+            Pattern.CASE_INSENSITIVE);
+
+    // 每批解析的行数
+    private static final int BATCH_ROWS = 1 << 16;
+
+    private final String sql;
+    private final DBManager dbManager;
+    private int loadedRows;
+
+    public CopyExecutor(String sql, DBManager dbManager) {
+        this.sql = sql.trim();
+        this.dbManager = dbManager;
+        this.loadedRows = 0;
+    }
+
+    /**
+     * 判断一条语句是否为 COPY 命令。
+     */
+    public static boolean isCopyCommand(String sql) {
+        return sql.trim().toUpperCase().startsWith("COPY ");
+    }
+
+    @Override
+    public void execute() throws DBException {
+        Matcher matcher = COPY_PATTERN.matcher(sql);
+        if (!matcher.matches()) {
+            throw new DBException(ExceptionTypes.InvalidSQL(sql,
+                    "Usage: COPY <table_name> FROM '<file.csv>' [WITH] [CSV] [HEADER];"));
+        }
+        String tableName = matcher.group(1);
+        String path = matcher.group(2);
+        boolean header = matcher.group(6) != null;
+
+        if (!dbManager.isTableExists(tableName)) {
+            throw new DBException(ExceptionTypes.TableDoesNotExist(tableName));
+        }
+        TableMeta tableMeta = dbManager.getMetaManager().getTable(tableName);
+
+        RecordFileHandle fileHandle = dbManager.getRecordManager().OpenFile(tableName);
+        try {
+            int recordSize = fileHandle.getFileHeader().getRecordSize();
+            int primaryKeyIndex = primaryKeyIndex(tableMeta);
+
+            // 1. 按批读入并并行解析、编码所有行，同一时刻只保留一批文本行
+            List<ByteBuf> batches = new ArrayList<>();
+            List<Value[]> primaryKeyBatches = new ArrayList<>();
+            int rowCount = 0;
+            try (BufferedReader reader = Files.newBufferedReader(Path.of(path), StandardCharsets.UTF_8)) {
+                // 已经读过、不属于当前批的行数，用于报告出错的行号
+                int batchStart = 0;
+                if (header && reader.readLine() != null) {
+                    batchStart++;
+                }
+                List<String> lines = new ArrayList<>();
+                // 空行只有在后面还有数据行时才算作数据，文件末尾的空行被忽略
+                int pendingBlank = 0;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        pendingBlank++;
+                        continue;
+                    }
+                    for (; pendingBlank > 0; pendingBlank--) {
+                        lines.add("");
+                    }
+                    lines.add(line);
+                    if (lines.size() >= BATCH_ROWS) {
+                        rowCount += encodeBatch(lines, batchStart, tableMeta, recordSize, primaryKeyIndex,
+                                batches, primaryKeyBatches);
+                        batchStart += lines.size();
+                        lines.clear();
+                    }
+                }
+                if (!lines.isEmpty()) {
+                    rowCount += encodeBatch(lines, batchStart, tableMeta, recordSize, primaryKeyIndex,
+                            batches, primaryKeyBatches);
+                }
+            } catch (IOException e) {
+                throw new DBException(ExceptionTypes.BadIOError("Failed to read " + path + ": " + e.getMessage()));
+            }
+
+            // 2. 主键检查
+            if (primaryKeyIndex >= 0) {
+                Value[] primaryKeys = new Value[rowCount];
+                int filled = 0;
+                for (Value[] keys : primaryKeyBatches) {
+                    System.arraycopy(keys, 0, primaryKeys, filled, keys.length);
+                    filled += keys.length;
+                }
+                checkPrimaryKeys(tableName, tableMeta, primaryKeys);
+            }
+
+            // 3. 追加写入新页面
+            int recordsPerPage = fileHandle.getFileHeader().getNumberOfRecordsPrePage();
+            int capacityBefore = fileHandle.getFileHeader().getNumberOfPages() * recordsPerPage;
+            List<Integer> firstPages = new ArrayList<>();
+            for (int i = 0; i < batches.size(); i++) {
+                int count = batches.get(i).readableBytes() / recordSize;
+                firstPages.add(fileHandle.AppendRecords(batches.get(i), count));
+            }
+
+            // 4. 维护索引
+            if (tableMeta.hasAnyIndex()) {
+                if (rowCount >= capacityBefore) {
+                    for (String columnName : tableMeta.getIndexes().keySet()) {
+                        dbManager.getIndexManager().rebuildIndex(tableName, columnName);
+                    }
+                    dbManager.getIndexManager().rebuildCompositeIndexes(tableName);
+                } else {
+                    IndexSynchronizer indexSynchronizer = new IndexSynchronizer(
+                            dbManager.getIndexManager(), dbManager.getMetaManager());
+                    for (int i = 0; i < batches.size(); i++) {
+                        ByteBuf rows = batches.get(i);
+                        int count = rows.readableBytes() / recordSize;
+                        for (int row = 0; row < count; row++) {
+                            RID rid = new RID(firstPages.get(i) + row / recordsPerPage, row % recordsPerPage);
+                            Record record = new Record(rows.slice(row * recordSize, recordSize));
+                            indexSynchronizer.onRecordInserted(tableName, record, rid);
+                        }
+                    }
+                }
+            }
+            loadedRows = rowCount;
+        } finally {
+            dbManager.getRecordManager().CloseFile(fileHandle);
+        }
+        Logger.info("Copied {} rows from {} into {}", loadedRows, path, tableName);
+    }
+
+    /**
+     * 获取本次装载的行数。
+     */
+    public int getLoadedRows() {
+        return loadedRows;
+    }
+
+    /**
+     * 并行解析一批 CSV 行，按列偏移直接编码到新的缓冲区中，缓冲区和主键值分别追加到 batches 和 primaryKeyBatches。
+     *
+     * @param lineStart 这批第一行之前的行数，用于报告出错的行号
+     * @return 这批的行数
+     */
+    private int encodeBatch(List<String> lines, int lineStart, TableMeta tableMeta, int recordSize,
+            int primaryKeyIndex, List<ByteBuf> batches, List<Value[]> primaryKeyBatches) throws DBException {
+        int count = lines.size();
+        ByteBuf rows = Unpooled.buffer(count * recordSize, count * recordSize);
+        rows.writeZero(count * recordSize);
+        Value[] primaryKeys = primaryKeyIndex >= 0 ? new Value[count] : null;
+        List<ColumnMeta> columns = tableMeta.columns_list;
+        AtomicReference<String> error = new AtomicReference<>();
+        IntStream.range(0, count).parallel().forEach(i -> {
+            if (error.get() != null) {
+                return;
+            }
+            int lineNo = lineStart + i + 1;
+            try {
+                List<String> fields = parseCsvLine(lines.get(i));
+                if (fields.size() != columns.size()) {
+                    error.compareAndSet(null, String.format("line %d: expected %d fields, got %d",
+                            lineNo, columns.size(), fields.size()));
+                    return;
+                }
+                int base = i * recordSize;
+                for (int col = 0; col < columns.size(); col++) {
+                    ColumnMeta column = columns.get(col);
+                    String field = fields.get(col);
+                    Value value = encodeField(field, column, rows, base + column.offset);
+                    if (col == primaryKeyIndex) {
+                        primaryKeys[i] = value;
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                error.compareAndSet(null, String.format("line %d: %s", lineNo, e.getMessage()));
+            }
+        });
+        if (error.get() != null) {
+            throw new DBException(ExceptionTypes.InvalidOperation("COPY failed at " + error.get()));
+        }
+        batches.add(rows);
+        if (primaryKeys != null) {
+            primaryKeyBatches.add(primaryKeys);
+        }
+        return count;
+    }
+
+    /**
+     * 将一个字段编码到记录缓冲区的指定位置，编码格式与 {@link Value#ToByte()} 一致，字典编码列写入编码。
+     *
+     * @return 字段对应的值，仅主键列需要保留
+     */
+    private static Value encodeField(String field, ColumnMeta column, ByteBuf rows, int position) {
+        switch (column.type) {
+            case INTEGER: {
+                long v = Long.parseLong(field);
+                rows.setLong(position, v);
+                return new Value(v);
+            }
+            case FLOAT: {
+                float v = Float.parseFloat(field);
+                rows.setFloat(position, v);
+                return new Value(v);
+            }
+            case DOUBLE: {
+                double v = Double.parseDouble(field);
+                rows.setDouble(position, v);
+                return new Value(v);
+            }
+            case CHAR: {
+                if (column.dictionary != null) {
+                    try {
+                        int code = column.dictionary.encode(field);
+                        rows.setInt(position, code);
+                        return column.dictionary.decode(code);
+                    } catch (DBException e) {
+                        throw new IllegalArgumentException(e.getMessage());
+                    }
+                }
+                byte[] bytes = field.getBytes(StandardCharsets.UTF_8);
+                if (bytes.length > column.len) {
+                    throw new IllegalArgumentException(String.format(
+                            "value for column %s exceeds %d bytes", column.name, column.len));
+                }
+                rows.setBytes(position, bytes);
+                return new Value(field);
+            }
+            default:
+                throw new IllegalArgumentException("unsupported column type " + column.type);
+        }
+    }
+
+    /**
+     * 拆分一行 CSV。支持双引号包围的字段以及 "" 转义，未加引号的字段去除首尾空白。
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == ',') {
+                fields.add(wasQuoted ? current.toString() : current.toString().trim());
+                current.setLength(0);
+                wasQuoted = false;
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(wasQuoted ? current.toString() : current.toString().trim());
+        return fields;
+    }
+
+    private static int primaryKeyIndex(TableMeta tableMeta) {
+        String primaryKeyColumn = tableMeta.getPrimaryKeyColumn();
+        if (primaryKeyColumn == null) {
+            return -1;
+        }
+        for (int i = 0; i < tableMeta.columns_list.size(); i++) {
+            if (tableMeta.columns_list.get(i).name.equals(primaryKeyColumn)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 检查文件内部以及文件与表中已有数据之间的主键冲突。有主键索引时逐个探测索引，
+     * 否则只扫描一次表。
+     */
+    private void checkPrimaryKeys(String tableName, TableMeta tableMeta, Value[] primaryKeys) throws DBException {
+        String primaryKeyColumn = tableMeta.getPrimaryKeyColumn();
+        Set<Value> keys = new HashSet<>(primaryKeys.length * 2);
+        for (Value key : primaryKeys) {
+            if (!keys.add(key)) {
+                throw new DBException(ExceptionTypes.PrimaryKeyViolation(tableName, primaryKeyColumn, key));
+            }
+        }
+
+        // 先用布隆过滤器排除一定不存在的键，大多数新键不必再查索引，全部排除时也不必扫描表
+        BloomFilter filter = dbManager.getIndexManager().ensureBloomFilter(tableName, primaryKeyColumn);
+        if (filter != null) {
+            List<Value> candidates = new ArrayList<>();
+            for (Value key : primaryKeys) {
+                if (filter.mightContain(key)) {
+                    candidates.add(key);
+                }
+            }
+            Logger.debug("Bloom filter on {}.{} left {} of {} keys to check", tableName, primaryKeyColumn,
+                    candidates.size(), primaryKeys.length);
+            if (candidates.isEmpty()) {
+                return;
+            }
+            primaryKeys = candidates.toArray(new Value[0]);
+            keys = new HashSet<>(candidates);
+        }
+
+        var index = dbManager.getIndexManager().getIndex(tableName, primaryKeyColumn);
+        if (index != null) {
+            for (Value key : primaryKeys) {
+                var matches = index.search(key);
+                if (matches != null && !matches.isEmpty()) {
+                    throw new DBException(ExceptionTypes.PrimaryKeyViolation(tableName, primaryKeyColumn, key));
+                }
+            }
+            return;
+        }
+
+        RecordFileHandle fileHandle = dbManager.getRecordManager().OpenFile(tableName);
+        RecordPageCursor cursor = fileHandle.openCursor();
+        TabCol tabCol = new TabCol(tableName, primaryKeyColumn);
+        try {
+            while (cursor.next()) {
+                TableTuple tuple = new TableTuple(tableName, tableMeta, cursor.getRecord(), cursor.getRID());
+                Value existing = tuple.getValue(tabCol);
+                if (existing != null && keys.contains(existing)) {
+                    throw new DBException(
+                            ExceptionTypes.PrimaryKeyViolation(tableName, primaryKeyColumn, existing));
+                }
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+}
@@ -4,26 +4,94 @@ import edu.sustech.cs307.exception.DBException;
 import edu.sustech.cs307.exception.ExceptionTypes;
 import edu.sustech.cs307.index.Index;
 import edu.sustech.cs307.meta.TableMeta;
-import edu.sustech.cs307.physicalOperator.SeqScanOperator;
+import edu.sustech.cs307.record.RecordFileHandle;
+import edu.sustech.cs307.record.RecordPageCursor;
 import edu.sustech.cs307.system.DBManager;
 import edu.sustech.cs307.tuple.TableTuple;
 import edu.sustech.cs307.value.Value;
 import net.sf.jsqlparser.statement.create.index.CreateIndex;
 import org.pmw.tinylog.Logger;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
- * 执行器用于处理 CREATE INDEX 语句
+ * 执行器用于处理 CREATE INDEX 语句：
+ *
+ * <pre>
+ * CREATE INDEX index_name ON table_name [USING BTREE | DISK | HASH] (column_name [, column_name ...])
+ *     [INCLUDE (column_name [, column_name ...])];
+ * </pre>
+ *
+ * USING 子句也可以写在索引名之后或列名之后。
+ *
+ * <p>
+ * USING DISK 创建页式 B+ 树索引，USING HASH 创建只支持等值查找的内存哈希索引，
+ * 不指定时使用 {@link edu.sustech.cs307.system.IndexManager} 的默认索引类型。
+ * 给出多个列时创建内存中的多列索引，键按列的顺序比较，不检查重复值。
+ * 带 INCLUDE 子句时同样创建多列索引，INCLUDE 列的值随条目存放，只用到这些列的查询不必回表。
+ * JSqlParser 不支持 INCLUDE，并且把 HASH 当作关键字而无法解析 USING HASH，
+ * 两者分别由 {@link #stripIncludeClause} 和 {@link #stripUsingClause} 在解析前取出。
+ * </p>
  */
 public class CreateIndexExecutor implements DMLExecutor {
+    private static final Pattern INCLUDE_PATTERN = Pattern.compile(
+            "^(\\s*CREATE\\s+(?:UNIQUE\\s+)?INDEX\\b.*?)\\s+INCLUDE\\s*\\(([^)]*)\\)(.*)$",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern USING_PATTERN = Pattern.compile(
+            "^(\\s*CREATE\\s+(?:UNIQUE\\s+)?INDEX\\b.*?)\\s+USING\\s+(\\w+)(.*)$",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
     private final CreateIndex createIndexStmt;
     private final DBManager dbManager;
+    private final List<String> includeColumns;
+    // 解析前从语句中取出的 USING 索引类型，没有时为 null
+    private final String using;
 
     public CreateIndexExecutor(CreateIndex createIndexStmt, DBManager dbManager) {
+        this(createIndexStmt, dbManager, List.of(), null);
+    }
+
+    public CreateIndexExecutor(CreateIndex createIndexStmt, DBManager dbManager, List<String> includeColumns,
+            String using) {
         this.createIndexStmt = createIndexStmt;
         this.dbManager = dbManager;
+        this.includeColumns = includeColumns;
+        this.using = using;
+    }
+
+    /**
+     * 从 CREATE INDEX 语句中去掉 INCLUDE 子句，其中的列名追加到 {@code includeColumns}。
+     *
+     * @return 去掉 INCLUDE 子句后的语句，不是带 INCLUDE 的 CREATE INDEX 时原样返回
+     */
+    public static String stripIncludeClause(String sql, List<String> includeColumns) {
+        Matcher matcher = INCLUDE_PATTERN.matcher(sql);
+        if (!matcher.matches()) {
+            return sql;
+        }
+        for (String column : matcher.group(2).split(",")) {
+            includeColumns.add(column.trim());
+        }
+        return matcher.group(1) + matcher.group(3);
+    }
+
+    /**
+     * 从 CREATE INDEX 语句中去掉 USING 子句，无论它写在索引名、表名还是列名之后，索引类型追加到 {@code usingTypes}。
+     *
+     * @return 去掉 USING 子句后的语句，不是带 USING 的 CREATE INDEX 时原样返回
+     */
+    public static String stripUsingClause(String sql, List<String> usingTypes) {
+        Matcher matcher = USING_PATTERN.matcher(sql);
+        if (!matcher.matches()) {
+            return sql;
+        }
+        usingTypes.add(matcher.group(2));
+        return matcher.group(1) + matcher.group(3);
     }
 
     @Override
@@ -36,12 +104,13 @@ public class CreateIndexExecutor implements DMLExecutor {
                     "No columns specified for index"));
         }
 
-        if (createIndexStmt.getIndex().getColumnsNames().size() > 1) {
-            throw new DBException(ExceptionTypes.UnsupportedCommand(
-                    "Multi-column indexes are not supported yet"));
+        if (createIndexStmt.getIndex().getColumnsNames().size() > 1 || !includeColumns.isEmpty()) {
+            createCompositeIndex(indexName, tableName, createIndexStmt.getIndex().getColumnsNames());
+            return;
         }
 
         String columnName = createIndexStmt.getIndex().getColumnsNames().get(0);
+        TableMeta.IndexType indexType = parseIndexType();
 
         Logger.info("Creating index {} on table {}.{}", indexName, tableName, columnName);
 
@@ -74,7 +143,7 @@ public class CreateIndexExecutor implements DMLExecutor {
                 Logger.info("Creating non-unique index on column {}, skipping duplicate value check", columnName);
             }
 
-            tableMeta.addIndex(indexName, columnName, TableMeta.IndexType.BTREE);
+            tableMeta.addIndex(indexName, columnName, indexType);
 
             dbManager.getMetaManager().saveToJson();
             Logger.debug("Updated metadata for index {} on {}.{}", indexName, tableName, columnName);
@@ -102,6 +171,65 @@ public class CreateIndexExecutor implements DMLExecutor {
         }
     }
 
+    /**
+     * 创建多列索引或带 INCLUDE 列的索引。多列索引只有内存实现，USING DISK 时报错。
+     */
+    private void createCompositeIndex(String indexName, String tableName, List<String> columns) throws DBException {
+        if (parseIndexType() != TableMeta.IndexType.BTREE) {
+            throw new DBException(ExceptionTypes.UnsupportedCommand(
+                    "Multi-column indexes only support USING BTREE"));
+        }
+        if (!dbManager.isTableExists(tableName)) {
+            throw new DBException(ExceptionTypes.TableDoesNotExist(tableName));
+        }
+        TableMeta tableMeta = dbManager.getMetaManager().getTable(tableName);
+        if (tableMeta.hasIndexName(indexName)) {
+            throw new DBException(ExceptionTypes.UnsupportedCommand(
+                    "Index name '" + indexName + "' already exists"));
+        }
+        Set<String> distinct = new HashSet<>();
+        List<String> allColumns = new ArrayList<>(columns);
+        allColumns.addAll(includeColumns);
+        for (String columnName : allColumns) {
+            if (!tableMeta.hasColumn(columnName)) {
+                throw new DBException(ExceptionTypes.ColumnDoesNotExist(columnName));
+            }
+            if (!distinct.add(columnName)) {
+                throw new DBException(ExceptionTypes.InvalidSQL("CREATE INDEX",
+                        "Column '" + columnName + "' appears more than once in index " + indexName));
+            }
+        }
+
+        Logger.info("Creating composite index {} on table {} ({}) INCLUDE {}", indexName, tableName, columns,
+                includeColumns);
+        dbManager.getIndexManager().createCompositeIndex(tableName, indexName, columns, includeColumns);
+        tableMeta.addCompositeIndex(indexName, columns, includeColumns);
+        dbManager.getMetaManager().saveToJson();
+        Logger.info("Successfully created composite index {} on table {}", indexName, tableName);
+    }
+
+    /**
+     * 解析 USING 子句指定的索引类型。没有在解析前取出时，USING 写在表名之后由 JSqlParser 记在索引上，
+     * 写在列名之后时 JSqlParser 把它放在尾部参数中。
+     */
+    private TableMeta.IndexType parseIndexType() throws DBException {
+        String using = this.using != null ? this.using : createIndexStmt.getIndex().getUsing();
+        List<String> tail = createIndexStmt.getTailParameters();
+        if (using == null && tail != null && tail.size() == 2 && tail.get(0).equalsIgnoreCase("USING")) {
+            using = tail.get(1);
+        }
+        if (using == null) {
+            return dbManager.getIndexManager().getDefaultIndexType();
+        }
+        return switch (using.toUpperCase()) {
+            case "BTREE" -> TableMeta.IndexType.BTREE;
+            case "DISK", "DISK_BTREE" -> TableMeta.IndexType.DISK_BTREE;
+            case "HASH" -> TableMeta.IndexType.HASH;
+            default -> throw new DBException(ExceptionTypes.UnsupportedCommand(
+                    "Unsupported index type: " + using));
+        };
+    }
+
     /**
      * 判断是否需要唯一索引
      * 如果是主键列或明确指定为唯一索引，则需要检查重复值
@@ -127,14 +255,13 @@ public class CreateIndexExecutor implements DMLExecutor {
         Logger.info("Scanning table {} for duplicate values in column {} before creating index", tableName, columnName);
 
         Set<Value> seenValues = new HashSet<>();
-        SeqScanOperator scanner = new SeqScanOperator(tableName, dbManager);
+        TableMeta tableMeta = dbManager.getMetaManager().getTable(tableName);
+        RecordFileHandle fileHandle = dbManager.getRecordManager().OpenFile(tableName);
+        RecordPageCursor cursor = fileHandle.openCursor();
 
         try {
-            scanner.Begin();
-
-            while (scanner.hasNext()) {
-                scanner.Next();
-                TableTuple tuple = (TableTuple) scanner.Current();
+            while (cursor.next()) {
+                TableTuple tuple = new TableTuple(tableName, tableMeta, cursor.getRecord(), cursor.getRID());
 
                 if (tuple != null) {
                     Value value = tuple.getValue(new edu.sustech.cs307.meta.TabCol(tableName, columnName));
@@ -151,7 +278,8 @@ public class CreateIndexExecutor implements DMLExecutor {
                 }
             }
         } finally {
-            scanner.Close();
+            cursor.close();
+            dbManager.getRecordManager().CloseFile(fileHandle);
         }
 
         Logger.info("No duplicate values found in column {}. Safe to create index.", columnName);
@@ -13,6 +13,7 @@ import org.pmw.tinylog.Logger;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class CreateTableExecutor implements DMLExecutor {
@@ -41,11 +42,13 @@ public class CreateTableExecutor implements DMLExecutor {
         for (var col : createTableStmt.getColumnDefinitions()) {
             String colName = col.getColumnName();
             boolean isPrimaryKey = false;
+            boolean isDictionary = false;
             if (col.getColumnSpecs() != null) {
                 for (String spec : col.getColumnSpecs()) {
                     if ("PRIMARY_KEY".equalsIgnoreCase(spec)) {
                         isPrimaryKey = true;
-                        break;
+                    } else if ("DICT".equalsIgnoreCase(spec)) {
+                        isDictionary = true;
                     }
                 }
             }
@@ -64,7 +67,17 @@ public class CreateTableExecutor implements DMLExecutor {
             }
 
             ColDataType colType = col.getColDataType();
-            if (colType.getDataType().equalsIgnoreCase("char")) {
+            if (isDictionary && !colType.getDataType().equalsIgnoreCase("char")) {
+                throw new DBException(ExceptionTypes.InvalidSQL(sql,
+                        String.format("DICT encoding is only supported on CHAR columns, got %s", colName)));
+            }
+            if (colType.getDataType().equalsIgnoreCase("char") && isDictionary) {
+                // 字典编码列在行中只存放编码
+                ColumnMeta columnMeta = new ColumnMeta(table, colName, ValueType.CHAR, Value.DICT_CODE_SIZE, offset);
+                columnMeta.dictionaryEncoded = true;
+                colMapping.add(columnMeta);
+                offset += Value.DICT_CODE_SIZE;
+            } else if (colType.getDataType().equalsIgnoreCase("char")) {
                 colMapping.add(new ColumnMeta(table, colName, ValueType.CHAR, Value.CHAR_SIZE, offset));
                 offset += Value.CHAR_SIZE;
             } else if (colType.getDataType().equalsIgnoreCase("int")
@@ -84,7 +97,7 @@ public class CreateTableExecutor implements DMLExecutor {
         }
 
         // 创建表
-        dbManager.createTable(table, colMapping);
+        dbManager.createTable(table, colMapping, parseStorageLayout(table));
 
         String indexColumnName = primaryKeyColumnName;
 
@@ -96,7 +109,7 @@ public class CreateTableExecutor implements DMLExecutor {
                     if (indexes == null) {
                         indexes = new HashMap<>();
                     }
-                    indexes.put(indexColumnName, TableMeta.IndexType.BTREE);
+                    indexes.put(indexColumnName, dbManager.getIndexManager().getDefaultIndexType());
                     tableMeta.setIndexes(indexes);
 
                     dbManager.getMetaManager().saveToJson();
@@ -128,4 +141,34 @@ public class CreateTableExecutor implements DMLExecutor {
         }
     }
 
+    /**
+     * 解析表选项中的 STORAGE [=] ROW | PAX，未指定时使用行式存储。
+     */
+    private TableMeta.StorageLayout parseStorageLayout(String table) throws DBException {
+        List<String> options = createTableStmt.getTableOptionsStrings();
+        if (options == null) {
+            return TableMeta.StorageLayout.ROW;
+        }
+        for (int i = 0; i < options.size(); i++) {
+            if (!"STORAGE".equalsIgnoreCase(options.get(i))) {
+                continue;
+            }
+            int valueIdx = i + 1;
+            if (valueIdx < options.size() && "=".equals(options.get(valueIdx))) {
+                valueIdx++;
+            }
+            if (valueIdx >= options.size()) {
+                throw new DBException(ExceptionTypes.InvalidSQL(sql, "STORAGE option requires ROW or PAX"));
+            }
+            String layout = options.get(valueIdx);
+            try {
+                return TableMeta.StorageLayout.valueOf(layout.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new DBException(ExceptionTypes.UnsupportedCommand(
+                        String.format("CREATE TABLE %s with unsupported storage layout %s", table, layout)));
+            }
+        }
+        return TableMeta.StorageLayout.ROW;
+    }
+
 }
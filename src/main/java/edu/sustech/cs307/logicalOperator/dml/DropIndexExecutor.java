@@ -8,6 +8,8 @@ import edu.sustech.cs307.system.DBManager;
 import net.sf.jsqlparser.statement.drop.Drop;
 import org.pmw.tinylog.Logger;
 
+import java.util.List;
+
 /**
  * 执行器用于处理 DROP INDEX 语句
  */
@@ -26,6 +28,10 @@ public class DropIndexExecutor implements DMLExecutor {
 
         Logger.info("Dropping index {}", indexName);
 
+        if (dropCompositeIndex(indexName)) {
+            return;
+        }
+
         String foundTableName = null;
         String foundColumnName = null;
 
@@ -109,4 +115,24 @@ public class DropIndexExecutor implements DMLExecutor {
             throw e;
         }
     }
+
+    /**
+     * 如果索引名对应某张表上的多列索引则删除它
+     *
+     * @return 是否找到并删除了多列索引
+     */
+    private boolean dropCompositeIndex(String indexName) throws DBException {
+        for (String tableName : dbManager.getMetaManager().getTableNames()) {
+            TableMeta tableMeta = dbManager.getMetaManager().getTable(tableName);
+            List<String> columns = tableMeta.removeCompositeIndex(indexName);
+            if (columns != null) {
+                dbManager.getIndexManager().dropCompositeIndex(tableName, indexName);
+                dbManager.getMetaManager().saveToJson();
+                Logger.info("Successfully dropped composite index {} (table: {}, columns: {})",
+                        indexName, tableName, columns);
+                return true;
+            }
+        }
+        return false;
+    }
 }
\ No newline at end of file
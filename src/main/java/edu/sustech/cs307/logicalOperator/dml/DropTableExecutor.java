@@ -55,6 +55,13 @@ public class DropTableExecutor implements DMLExecutor {
                     }
                 }
             }
+            if (tableMeta != null && dbManager.getIndexManager() != null) {
+                for (String indexName : tableMeta.getCompositeIndexes().keySet()) {
+                    if (dbManager.getIndexManager().dropCompositeIndex(tableName, indexName)) {
+                        Logger.info("Cleaned up composite index {} on table {}", indexName, tableName);
+                    }
+                }
+            }
         } catch (DBException e) {
             Logger.warn("Failed to cleanup indexes for table {}: {}", tableName, e.getMessage());
         }
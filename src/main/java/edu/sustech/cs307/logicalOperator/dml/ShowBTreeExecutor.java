@@ -2,7 +2,8 @@ package edu.sustech.cs307.logicalOperator.dml;
 
 import edu.sustech.cs307.exception.DBException;
 import edu.sustech.cs307.exception.ExceptionTypes;
-import edu.sustech.cs307.index.BPlusTreeIndex;
+import edu.sustech.cs307.index.MemoryIndex;
+import edu.sustech.cs307.index.DiskBPlusTreeIndex;
 import edu.sustech.cs307.index.Index;
 import edu.sustech.cs307.system.DBManager;
 
@@ -37,27 +38,35 @@ public class ShowBTreeExecutor implements DMLExecutor {
                             tableName, columnName)));
         }
 
-        if (!(index instanceof BPlusTreeIndex)) {
+        if (index instanceof DiskBPlusTreeIndex diskIndex) {
+            if (diskIndex.size() == 0) {
+                throw new DBException(ExceptionTypes.UnsupportedCommand(
+                        String.format("B+ Tree index for table '%s' column '%s' is empty. No data to display.",
+                                tableName, columnName)));
+            }
+            this.displayResult = generateBTreeDisplay(diskIndex.getTreeString(), diskIndex.validateTree());
+            return;
+        }
+
+        if (!(index instanceof MemoryIndex memoryIndex)) {
             throw new DBException(ExceptionTypes.UnsupportedCommand(
                     String.format("Index for table '%s' column '%s' is not a B+ Tree index. Index type: %s",
                             tableName, columnName, index.getClass().getSimpleName())));
         }
 
-        BPlusTreeIndex bTreeIndex = (BPlusTreeIndex) index;
-
-        if (bTreeIndex.getRoot() == null) {
+        if (!memoryIndex.iterator().hasNext()) {
             throw new DBException(ExceptionTypes.UnsupportedCommand(
                     String.format("B+ Tree index for table '%s' column '%s' is empty. No data to display.",
                             tableName, columnName)));
         }
 
-        this.displayResult = generateBTreeDisplay(bTreeIndex);
+        this.displayResult = generateBTreeDisplay(memoryIndex.getTreeString(), memoryIndex.validateTree());
     }
 
     /**
      * 生成B+树的显示字符串
      */
-    private String generateBTreeDisplay(BPlusTreeIndex bTreeIndex) {
+    private String generateBTreeDisplay(String treeStructure, boolean isValid) {
         StringBuilder result = new StringBuilder();
 
         result.append("╔══════════════════════════════════════════════════════════════════════════════╗\n");
@@ -68,7 +77,7 @@ public class ShowBTreeExecutor implements DMLExecutor {
         result.append("╚══════════════════════════════════════════════════════════════════════════════╝\n");
         result.append("\n");
 
-        if (bTreeIndex.getRoot() == null) {
+        if (treeStructure == null) {
             result.append("┌─────────────────────┐\n");
             result.append("│   B+ Tree is Empty  │\n");
             result.append("└─────────────────────┘\n");
@@ -76,12 +85,10 @@ public class ShowBTreeExecutor implements DMLExecutor {
             result.append("B+ Tree Structure:\n");
             result.append("==================\n");
 
-            String treeStructure = bTreeIndex.getTreeString();
             result.append(treeStructure);
 
             result.append("\n");
 
-            boolean isValid = bTreeIndex.validateTree();
             if (isValid) {
                 result.append("✓ B+ Tree structure is VALID\n");
             } else {
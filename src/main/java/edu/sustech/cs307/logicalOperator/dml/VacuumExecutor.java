@@ -0,0 +1,78 @@
+package edu.sustech.cs307.logicalOperator.dml;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.exception.ExceptionTypes;
+import edu.sustech.cs307.system.DBManager;
+import edu.sustech.cs307.system.TableCompactor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 执行器用于处理 VACUUM 表压缩命令：
+ *
+ * <pre>
+ * VACUUM [table_name];
+ * </pre>
+ *
+ * <p>
+ * 不指定表名时压缩所有表。压缩由 {@link TableCompactor} 完成。
+ * </p>
+ */
+public class VacuumExecutor implements DMLExecutor {
+    private static final Pattern VACUUM_PATTERN = Pattern.compile(
+            "^VACUUM(\\s+(\\w+))?\\s*;?\\s*$", Pattern.CASE_INSENSITIVE);
+
+    private final String sql;
+    private final DBManager dbManager;
+    private int releasedPages;
+    private int movedRecords;
+
+    public VacuumExecutor(String sql, DBManager dbManager) {
+        this.sql = sql.trim();
+        this.dbManager = dbManager;
+    }
+
+    /**
+     * 判断一条语句是否为 VACUUM 命令。
+     */
+    public static boolean isVacuumCommand(String sql) {
+        return VACUUM_PATTERN.matcher(sql.trim()).matches();
+    }
+
+    @Override
+    public void execute() throws DBException {
+        Matcher matcher = VACUUM_PATTERN.matcher(sql);
+        if (!matcher.matches()) {
+            throw new DBException(ExceptionTypes.InvalidSQL(sql, "Usage: VACUUM [table_name];"));
+        }
+        List<String> tables = new ArrayList<>();
+        String tableName = matcher.group(2);
+        if (tableName != null) {
+            if (!dbManager.isTableExists(tableName)) {
+                throw new DBException(ExceptionTypes.TableDoesNotExist(tableName));
+            }
+            tables.add(tableName);
+        } else {
+            tables.addAll(dbManager.getMetaManager().getTableNames());
+        }
+
+        TableCompactor compactor = dbManager.getTableCompactor();
+        releasedPages = 0;
+        movedRecords = 0;
+        for (String table : tables) {
+            releasedPages += compactor.vacuum(table);
+            movedRecords += compactor.getLastMovedRecords();
+        }
+    }
+
+    public int getReleasedPages() {
+        return releasedPages;
+    }
+
+    public int getMovedRecords() {
+        return movedRecords;
+    }
+}
@@ -1,8 +1,14 @@
 package edu.sustech.cs307.meta;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.exception.ExceptionTypes;
 import edu.sustech.cs307.value.*;
+import io.netty.buffer.ByteBuf;
+
+import java.nio.charset.StandardCharsets;
 
 
 public class ColumnMeta {
@@ -24,6 +30,14 @@ public class ColumnMeta {
 
     public int size;
 
+    // CHAR 列是否使用字典编码，是则行中只存放 4 字节编码
+    @JsonProperty("dictionaryEncoded")
+    public boolean dictionaryEncoded;
+
+    // 字典编码列的字典，由 DBManager 加载表时挂载
+    @JsonIgnore
+    public ColumnDictionary dictionary;
+
 
     @JsonCreator
     public ColumnMeta(@JsonProperty("tableName") String tableName,
@@ -45,4 +59,39 @@ public class ColumnMeta {
     public int getOffset() {
         return offset;
     }
+
+    /**
+     * 从列的字节中解码出值，字典编码列通过字典还原，不做 UTF-8 解码。
+     *
+     * @param buf 列数据，从下标 0 开始
+     * @return 列值
+     * @throws DBException 如果列类型不受支持或编码不在字典中
+     */
+    public Value decode(ByteBuf buf) throws DBException {
+        if (dictionary != null) {
+            return dictionary.decode(buf.getInt(0));
+        }
+        return switch (type) {
+            case INTEGER -> new Value(buf.getLong(0));
+            case FLOAT -> new Value(buf.getFloat(0));
+            case DOUBLE -> new Value(buf.getDouble(0));
+            case CHAR -> new Value(buf.getCharSequence(0, buf.readableBytes(), StandardCharsets.UTF_8).toString());
+            default -> throw new DBException(ExceptionTypes.UnsupportedValueType(tableName, type));
+        };
+    }
+
+    /**
+     * 将值按列的存储格式写入缓冲区，字典编码列写入编码。
+     *
+     * @param value 列值
+     * @param buf   目标缓冲区，从其写指针处开始写入
+     * @throws DBException 如果写入字典文件失败
+     */
+    public void encode(Value value, ByteBuf buf) throws DBException {
+        if (dictionary != null) {
+            buf.writeInt(value.dictionary == dictionary ? value.code : dictionary.encode(value.toString()));
+            return;
+        }
+        value.WriteTo(buf);
+    }
 }
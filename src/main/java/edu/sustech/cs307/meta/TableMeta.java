@@ -9,6 +9,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.HashSet;
@@ -26,10 +28,26 @@ public class TableMeta {
     // 新增：索引名称到列名的映射
     private Map<String, String> indexNameToColumn; // 索引名 -> 列名
 
+    // 多列索引：索引名 -> 按顺序排列的索引列，旧的元数据文件中没有该字段
+    private Map<String, List<String>> compositeIndexes;
+
+    // 多列索引的 INCLUDE 列：索引名 -> 附带存放在索引条目中的列，没有 INCLUDE 的索引不出现
+    private Map<String, List<String>> compositeIncludes;
+
+    // 页面布局，旧的元数据文件中没有该字段，视为 ROW
+    private StorageLayout storageLayout;
+
     // private Map<String, Integer> column_rank;
 
     public enum IndexType {
-        BTREE
+        BTREE, // 内存 B+ 树，启动时扫描表重建
+        DISK_BTREE, // 页式 B+ 树，节点存放在表目录下的索引文件中
+        HASH // 内存可扩展哈希，只支持等值查找，启动时扫描表重建
+    }
+
+    public enum StorageLayout {
+        ROW, // 行式存储，每个槽位连续存放整条记录
+        PAX // 页内按列分组存放，适合只访问少数列的分析型查询
     }
 
     public TableMeta(String tableName) {
@@ -37,6 +55,8 @@ public class TableMeta {
         this.columns = new HashMap<>();
         this.indexes = new HashMap<>();
         this.indexNameToColumn = new HashMap<>();
+        this.compositeIndexes = new LinkedHashMap<>();
+        this.compositeIncludes = new LinkedHashMap<>();
     }
 
     public TableMeta(String tableName, ArrayList<ColumnMeta> columns) {
@@ -45,6 +65,8 @@ public class TableMeta {
         this.columns = new HashMap<>();
         this.indexes = new HashMap<>();
         this.indexNameToColumn = new HashMap<>();
+        this.compositeIndexes = new LinkedHashMap<>();
+        this.compositeIncludes = new LinkedHashMap<>();
         for (ColumnMeta column : columns) {
             this.columns.put(column.name, column);
         }
@@ -60,6 +82,8 @@ public class TableMeta {
         this.columns = new HashMap<>();
         this.indexes = indexes != null ? indexes : new HashMap<>();
         this.indexNameToColumn = indexNameToColumn != null ? indexNameToColumn : new HashMap<>();
+        this.compositeIndexes = new LinkedHashMap<>();
+        this.compositeIncludes = new LinkedHashMap<>();
 
         if (columns_list != null) {
             for (var column : columns_list) {
@@ -90,6 +114,10 @@ public class TableMeta {
         if (this.columns_list != null) {
             this.columns_list.removeIf(column -> column.name.equals(columnName));
         }
+        // 键列或 INCLUDE 列中包含该列的多列索引一并删除
+        this.compositeIndexes.entrySet().removeIf(entry -> entry.getValue().contains(columnName)
+                || getCompositeIndexIncludes(entry.getKey()).contains(columnName));
+        this.compositeIncludes.keySet().retainAll(this.compositeIndexes.keySet());
     }
 
     public ColumnMeta getColumnMeta(String columnName) {
@@ -199,7 +227,8 @@ public class TableMeta {
      * @return 如果存在返回true，否则返回false
      */
     public boolean hasIndexName(String indexName) {
-        return this.indexNameToColumn != null && this.indexNameToColumn.containsKey(indexName);
+        return (this.indexNameToColumn != null && this.indexNameToColumn.containsKey(indexName))
+                || this.compositeIndexes.containsKey(indexName);
     }
 
     /**
@@ -209,10 +238,76 @@ public class TableMeta {
      */
     @JsonIgnore
     public Set<String> getIndexNames() {
-        if (this.indexNameToColumn == null) {
-            return new HashSet<>();
+        Set<String> names = new HashSet<>(this.compositeIndexes.keySet());
+        if (this.indexNameToColumn != null) {
+            names.addAll(this.indexNameToColumn.keySet());
         }
-        return this.indexNameToColumn.keySet();
+        return names;
+    }
+
+    /**
+     * 添加多列索引
+     *
+     * @param indexName 索引名称
+     * @param columns   按顺序排列的索引列
+     */
+    public void addCompositeIndex(String indexName, List<String> columns) {
+        addCompositeIndex(indexName, columns, List.of());
+    }
+
+    /**
+     * 添加带 INCLUDE 列的多列索引
+     *
+     * @param indexName 索引名称
+     * @param columns   按顺序排列的索引列
+     * @param includes  附带存放在索引条目中、不参与排序的列
+     */
+    public void addCompositeIndex(String indexName, List<String> columns, List<String> includes) {
+        this.compositeIndexes.put(indexName, new ArrayList<>(columns));
+        if (includes.isEmpty()) {
+            this.compositeIncludes.remove(indexName);
+        } else {
+            this.compositeIncludes.put(indexName, new ArrayList<>(includes));
+        }
+    }
+
+    /**
+     * 删除多列索引
+     *
+     * @param indexName 索引名称
+     * @return 被删除索引的列，如果不是多列索引返回null
+     */
+    public List<String> removeCompositeIndex(String indexName) {
+        this.compositeIncludes.remove(indexName);
+        return this.compositeIndexes.remove(indexName);
+    }
+
+    /**
+     * 根据索引名称查找多列索引的列
+     *
+     * @param indexName 索引名称
+     * @return 按顺序排列的索引列，如果不是多列索引返回null
+     */
+    public List<String> getCompositeIndexColumns(String indexName) {
+        return this.compositeIndexes.get(indexName);
+    }
+
+    /**
+     * 根据索引名称查找多列索引的 INCLUDE 列
+     *
+     * @param indexName 索引名称
+     * @return INCLUDE 列，没有时返回空列表
+     */
+    public List<String> getCompositeIndexIncludes(String indexName) {
+        return this.compositeIncludes.getOrDefault(indexName, List.of());
+    }
+
+    /**
+     * 是否存在任何单列或多列索引，写入数据时据此决定是否需要维护索引
+     */
+    @JsonIgnore
+    public boolean hasAnyIndex() {
+        return (this.indexes != null && !this.indexes.isEmpty()) || !this.compositeIndexes.isEmpty();
     }
 
     public Map<String, IndexType> getIndexes() {
@@ -223,6 +318,14 @@ public class TableMeta {
         this.indexes = indexes;
     }
 
+    public StorageLayout getStorageLayout() {
+        return storageLayout != null ? storageLayout : StorageLayout.ROW;
+    }
+
+    public void setStorageLayout(StorageLayout storageLayout) {
+        this.storageLayout = storageLayout;
+    }
+
     public Map<String, String> getIndexNameToColumn() {
         return indexNameToColumn;
     }
@@ -230,4 +333,22 @@ public class TableMeta {
     public void setIndexNameToColumn(Map<String, String> indexNameToColumn) {
         this.indexNameToColumn = indexNameToColumn;
     }
+
+    public Map<String, List<String>> getCompositeIndexes() {
+        return compositeIndexes;
+    }
+
+    public void setCompositeIndexes(Map<String, List<String>> compositeIndexes) {
+        this.compositeIndexes = compositeIndexes != null ? new LinkedHashMap<>(compositeIndexes)
+                : new LinkedHashMap<>();
+    }
+
+    public Map<String, List<String>> getCompositeIncludes() {
+        return compositeIncludes;
+    }
+
+    public void setCompositeIncludes(Map<String, List<String>> compositeIncludes) {
+        this.compositeIncludes = compositeIncludes != null ? new LinkedHashMap<>(compositeIncludes)
+                : new LinkedHashMap<>();
+    }
 }
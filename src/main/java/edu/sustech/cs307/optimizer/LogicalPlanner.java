@@ -1,6 +1,7 @@
 package edu.sustech.cs307.optimizer;
 
 import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
 
@@ -41,8 +42,13 @@ public class LogicalPlanner {
     public static LogicalOperator resolveAndPlan(DBManager dbManager, String sql) throws DBException {
         JSqlParser parser = new CCJSqlParserManager();
         Statement stmt = null;
+        // JSqlParser 不支持 CREATE INDEX 的 INCLUDE 子句和 USING HASH，解析前取出
+        List<String> includeColumns = new ArrayList<>();
+        List<String> usingTypes = new ArrayList<>();
         try {
-            stmt = parser.parse(new StringReader(sql));
+            String stripped = CreateIndexExecutor.stripUsingClause(
+                    CreateIndexExecutor.stripIncludeClause(sql, includeColumns), usingTypes);
+            stmt = parser.parse(new StringReader(stripped));
         } catch (JSQLParserException e) {
             throw new DBException(ExceptionTypes.InvalidSQL(sql, e.getMessage()));
         }
@@ -63,7 +69,8 @@ public class LogicalPlanner {
             createTable.execute();
             return null;
         } else if (stmt instanceof CreateIndex createIndexStmt) {
-            CreateIndexExecutor createIndex = new CreateIndexExecutor(createIndexStmt, dbManager);
+            CreateIndexExecutor createIndex = new CreateIndexExecutor(createIndexStmt, dbManager, includeColumns,
+                    usingTypes.isEmpty() ? null : usingTypes.get(0));
             createIndex.execute();
             return null;
         } else if (stmt instanceof Drop dropStmt) {
@@ -9,22 +9,47 @@ import edu.sustech.cs307.value.Value;
 import edu.sustech.cs307.value.ValueType;
 import edu.sustech.cs307.meta.ColumnMeta;
 import edu.sustech.cs307.meta.TableMeta;
+import edu.sustech.cs307.index.CompositeIndex;
 import edu.sustech.cs307.index.Index; // Added import for Index
+import edu.sustech.cs307.record.RID;
+import edu.sustech.cs307.record.ZoneMap;
 
 import net.sf.jsqlparser.expression.DoubleValue;
 import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.ExpressionVisitorAdapter;
 import net.sf.jsqlparser.expression.LongValue;
 import net.sf.jsqlparser.expression.StringValue;
+import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
+import net.sf.jsqlparser.expression.operators.conditional.OrExpression;
+import net.sf.jsqlparser.expression.operators.relational.Between;
+import net.sf.jsqlparser.expression.operators.relational.ComparisonOperator;
 import net.sf.jsqlparser.expression.operators.relational.EqualsTo; // Added import for EqualsTo
+import net.sf.jsqlparser.expression.operators.relational.GreaterThan;
+import net.sf.jsqlparser.expression.operators.relational.GreaterThanEquals;
+import net.sf.jsqlparser.expression.operators.relational.LikeExpression;
+import net.sf.jsqlparser.expression.operators.relational.MinorThan;
+import net.sf.jsqlparser.expression.operators.relational.MinorThanEquals;
 import net.sf.jsqlparser.expression.operators.relational.ExpressionList;
+import net.sf.jsqlparser.expression.operators.relational.InExpression;
 import net.sf.jsqlparser.expression.operators.relational.ParenthesedExpressionList;
 import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.statement.select.AllColumns;
+import net.sf.jsqlparser.statement.select.AllTableColumns;
+import net.sf.jsqlparser.statement.select.OrderByElement;
+import net.sf.jsqlparser.statement.select.SelectItem;
 import net.sf.jsqlparser.statement.select.Values;
 
 import org.pmw.tinylog.Logger;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class PhysicalPlanner {
     public static PhysicalOperator generateOperator(DBManager dbManager, LogicalOperator logicalOp) throws DBException {
@@ -58,7 +83,9 @@ public class PhysicalPlanner {
         Logger.debug("Handling DELETE for table: " + tableName + ", condition: " + whereExpr);
 
         // Create a SeqScanOperator to scan the table
-        SeqScanOperator seqScan = new SeqScanOperator(tableName, dbManager);
+        TableMeta tableMeta = dbManager.getMetaManager().getTable(tableName);
+        SeqScanOperator seqScan = new SeqScanOperator(tableName, dbManager,
+                zoneMapBounds(dbManager, tableMeta, whereExpr));
 
         // Wrap with FilterOperator if there is a WHERE condition
         PhysicalOperator child = (whereExpr != null) ? new FilterOperator(seqScan, whereExpr) : seqScan;
@@ -109,46 +136,750 @@ public class PhysicalPlanner {
             String tableName = tableScanOp.getTableName();
             TableMeta tableMeta = dbManager.getMetaManager().getTable(tableName);
 
-            if (whereExpr instanceof EqualsTo) {
-                EqualsTo equalsTo = (EqualsTo) whereExpr;
-                Expression leftExpr = equalsTo.getLeftExpression();
-                Expression rightExpr = equalsTo.getRightExpression();
-
-                Column queryColumn = null;
-                Value constantValue = null;
-
-                if (leftExpr instanceof Column && !(rightExpr instanceof Column)) {
-                    queryColumn = (Column) leftExpr;
-                    constantValue = getConstantValueFromExpression(rightExpr, dbManager, tableMeta,
-                            queryColumn.getColumnName());
-                } else if (rightExpr instanceof Column && !(leftExpr instanceof Column)) {
-                    queryColumn = (Column) rightExpr;
-                    constantValue = getConstantValueFromExpression(leftExpr, dbManager, tableMeta,
-                            queryColumn.getColumnName());
+            PhysicalOperator indexScan = tryIndexScan(dbManager, tableName, tableMeta, whereExpr);
+            if (indexScan != null) {
+                return indexScan;
+            }
+
+            List<ZoneMap.Bound> zoneBounds = zoneMapBounds(dbManager, tableMeta, whereExpr);
+            if (!zoneBounds.isEmpty()) {
+                Logger.info("Using SeqScanOperator with zone map on table {}", tableName);
+                return new FilterOperator(new SeqScanOperator(tableName, dbManager, zoneBounds), whereExpr);
+            }
+        }
+
+        PhysicalOperator inputOp = generateOperator(dbManager, logicalFilterOp.getChild());
+        return new FilterOperator(inputOp, whereExpr);
+    }
+
+    /**
+     * 为单表上的 WHERE 选择索引扫描：依次尝试单个等值条件、位图、IN 列表、哈希、单列范围和多列索引，
+     * 第一个可用的即为结果。尝试过程可能遍历索引或按需建立索引，每个查询只应调用一次。
+     *
+     * @return 带过滤的索引扫描，没有可用的索引时返回 null
+     */
+    private static PhysicalOperator tryIndexScan(DBManager dbManager, String tableName, TableMeta tableMeta,
+            Expression whereExpr) throws DBException {
+        if (whereExpr instanceof EqualsTo) {
+            EqualsTo equalsTo = (EqualsTo) whereExpr;
+            Expression leftExpr = equalsTo.getLeftExpression();
+            Expression rightExpr = equalsTo.getRightExpression();
+
+            Column queryColumn = null;
+            Value constantValue = null;
+
+            if (leftExpr instanceof Column && !(rightExpr instanceof Column)) {
+                queryColumn = (Column) leftExpr;
+                constantValue = getConstantValueFromExpression(rightExpr, dbManager, tableMeta,
+                        queryColumn.getColumnName());
+            } else if (rightExpr instanceof Column && !(leftExpr instanceof Column)) {
+                queryColumn = (Column) rightExpr;
+                constantValue = getConstantValueFromExpression(leftExpr, dbManager, tableMeta,
+                        queryColumn.getColumnName());
+            }
+
+            if (queryColumn != null && constantValue != null) {
+                String columnName = queryColumn.getColumnName();
+
+                Index index = dbManager.getIndexManager().getIndex(tableName, columnName);
+
+                if (index == null && tableMeta.getIndexes() != null
+                        && tableMeta.getIndexes().containsKey(columnName)) {
+                    index = dbManager.getIndexManager().createIndex(tableName, columnName);
+                    Logger.info("Created new B+Tree index for {}.{}", tableName, columnName);
                 }
 
-                if (queryColumn != null && constantValue != null) {
-                    String columnName = queryColumn.getColumnName();
+                if (index != null) {
+                    Logger.info("Using HybridScanOperator for table {} on column {} with search key {}",
+                            tableName, columnName, constantValue);
+                    return new HybridScanOperator(tableName, columnName, constantValue, dbManager, index);
+                }
+            }
+        }
 
-                    Index index = dbManager.getIndexManager().getIndex(tableName, columnName);
+        PhysicalOperator bitmapScan = tryBitmapIndexScan(dbManager, tableName, tableMeta, whereExpr);
+        if (bitmapScan != null) {
+            return new FilterOperator(bitmapScan, whereExpr);
+        }
 
-                    if (index == null && tableMeta.getIndexes() != null
-                            && tableMeta.getIndexes().containsKey(columnName)) {
-                        index = dbManager.getIndexManager().createIndex(tableName, columnName);
-                        Logger.info("Created new B+Tree index for {}.{}", tableName, columnName);
-                    }
+        PhysicalOperator inListScan = tryInListScan(dbManager, tableName, tableMeta, whereExpr);
+        if (inListScan != null) {
+            return new FilterOperator(inListScan, whereExpr);
+        }
+
+        PhysicalOperator hashScan = tryHashIndexScan(dbManager, tableName, tableMeta, whereExpr);
+        if (hashScan != null) {
+            return new FilterOperator(hashScan, whereExpr);
+        }
+
+        PhysicalOperator rangeScan = tryIndexRangeScan(dbManager, tableName, tableMeta, whereExpr);
+        if (rangeScan != null) {
+            return new FilterOperator(rangeScan, whereExpr);
+        }
+
+        PhysicalOperator compositeScan = tryCompositeIndexScan(dbManager, tableName, tableMeta, whereExpr);
+        if (compositeScan != null) {
+            return new FilterOperator(compositeScan, whereExpr);
+        }
+        return null;
+    }
+
+    /**
+     * AND 连接的条件中有哈希索引列上的等值条件时，优先用哈希索引定位记录：
+     * 查找代价与表的大小无关，其余条件由上层过滤。
+     *
+     * @return 哈希索引扫描，没有可用的等值条件时返回 null
+     */
+    private static PhysicalOperator tryHashIndexScan(DBManager dbManager, String tableName, TableMeta tableMeta,
+            Expression whereExpr) throws DBException {
+        if (whereExpr == null || tableMeta.getIndexes() == null
+                || !tableMeta.getIndexes().containsValue(TableMeta.IndexType.HASH)) {
+            return null;
+        }
+        List<Expression> conjuncts = new ArrayList<>();
+        collectConjuncts(whereExpr, conjuncts);
+        for (Expression conjunct : conjuncts) {
+            if (!(conjunct instanceof EqualsTo equalsTo)) {
+                continue;
+            }
+            Expression leftExpr = equalsTo.getLeftExpression();
+            Expression rightExpr = equalsTo.getRightExpression();
+            Column column;
+            Expression constant;
+            if (leftExpr instanceof Column left && !(rightExpr instanceof Column)) {
+                column = left;
+                constant = rightExpr;
+            } else if (rightExpr instanceof Column right && !(leftExpr instanceof Column)) {
+                column = right;
+                constant = leftExpr;
+            } else {
+                continue;
+            }
+            String columnName = column.getColumnName();
+            if (tableMeta.getIndexes().get(columnName) != TableMeta.IndexType.HASH) {
+                continue;
+            }
+            Index index = dbManager.getIndexManager().getIndex(tableName, columnName);
+            Value value = getConstantValueFromExpression(constant, dbManager, tableMeta, columnName);
+            if (index != null && value != null) {
+                Logger.info("Using hash index on {}.{} with search key {}", tableName, columnName, value);
+                return new HybridScanOperator(tableName, columnName, value, dbManager, index);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 条件中有多个可用索引的谓词时，分别查找各个索引，按 AND / OR 对 RID 位图求交集或并集，
+     * 只回表读取剩下的记录。OR 的每个分支都必须能用索引，否则仍需全表扫描；
+     * AND 中用不上索引的条件留给上层过滤。只有一个索引条件时交给 {@link #tryIndexRangeScan} 等单索引扫描，
+     * 多列索引能同时匹配其中两列时交给 {@link #tryCompositeIndexScan}。
+     *
+     * @return 位图索引扫描，不适用时返回 null
+     */
+    private static PhysicalOperator tryBitmapIndexScan(DBManager dbManager, String tableName, TableMeta tableMeta,
+            Expression whereExpr) throws DBException {
+        if (whereExpr == null || tableMeta.getIndexes() == null || tableMeta.getIndexes().isEmpty()) {
+            return null;
+        }
+        BitmapIndexScanOperator.Source source = bitmapSource(dbManager, tableName, tableMeta, whereExpr);
+        if (source instanceof BitmapIndexScanOperator.AndSource) {
+            Map<String, ColumnBounds> bounds = collectBounds(dbManager, tableMeta, whereExpr);
+            for (CompositeIndex composite : dbManager.getIndexManager().getCompositeIndexes(tableName)) {
+                if (scoreIndex(composite.getColumns(), bounds) >= 3) {
+                    return null;
+                }
+            }
+        } else if (!(source instanceof BitmapIndexScanOperator.OrSource)) {
+            return null;
+        }
+        Logger.info("Using bitmap index scan on {} with {}", tableName, source);
+        return new BitmapIndexScanOperator(tableName, dbManager, source);
+    }
+
+    /**
+     * 把条件转换为索引位图的条件树：OR 的每个分支都能转换时得到并集，AND 中能转换的部分求交集。
+     *
+     * @return 条件树，条件中没有可用索引的部分时返回 null
+     */
+    private static BitmapIndexScanOperator.Source bitmapSource(DBManager dbManager, String tableName,
+            TableMeta tableMeta, Expression expr) {
+        expr = unwrapParentheses(expr);
+        if (expr instanceof OrExpression or) {
+            List<BitmapIndexScanOperator.Source> children = new ArrayList<>();
+            for (Expression branch : List.of(or.getLeftExpression(), or.getRightExpression())) {
+                BitmapIndexScanOperator.Source child = bitmapSource(dbManager, tableName, tableMeta, branch);
+                if (child == null) {
+                    return null;
+                }
+                // 展开嵌套的 OR，a OR b OR c 在一次归并中求并集
+                if (child instanceof BitmapIndexScanOperator.OrSource nested) {
+                    children.addAll(nested.children());
+                } else {
+                    children.add(child);
+                }
+            }
+            return new BitmapIndexScanOperator.OrSource(children);
+        }
+
+        List<BitmapIndexScanOperator.Source> children = new ArrayList<>();
+        for (Map.Entry<String, ColumnBounds> entry : collectBounds(dbManager, tableMeta, expr).entrySet()) {
+            BitmapIndexScanOperator.Source child = indexSource(dbManager, tableName, tableMeta, entry.getKey(),
+                    entry.getValue());
+            if (child != null) {
+                // 等值条件通常更有选择性，先求值可以尽早得到空交集
+                children.add(entry.getValue().eq != null ? 0 : children.size(), child);
+            }
+        }
+        List<Expression> conjuncts = new ArrayList<>();
+        collectConjuncts(expr, conjuncts);
+        for (Expression conjunct : conjuncts) {
+            if (conjunct instanceof OrExpression) {
+                BitmapIndexScanOperator.Source child = bitmapSource(dbManager, tableName, tableMeta, conjunct);
+                if (child != null) {
+                    children.add(child);
+                }
+            }
+        }
+        if (children.isEmpty()) {
+            return null;
+        }
+        return children.size() == 1 ? children.get(0) : new BitmapIndexScanOperator.AndSource(children);
+    }
 
-                    if (index != null) {
-                        Logger.info("Using HybridScanOperator for table {} on column {} with search key {}",
-                                tableName, columnName, constantValue);
-                        return new HybridScanOperator(tableName, columnName, constantValue, dbManager, index);
+    private static BitmapIndexScanOperator.Source indexSource(DBManager dbManager, String tableName,
+            TableMeta tableMeta, String columnName, ColumnBounds bounds) {
+        TableMeta.IndexType indexType = tableMeta.getIndexes().get(columnName);
+        Index index = indexType == null ? null : dbManager.getIndexManager().getIndex(tableName, columnName);
+        if (index == null) {
+            return null;
+        }
+        if (bounds.eq != null) {
+            return BitmapIndexScanOperator.IndexSource.equalTo(index, bounds.eq);
+        }
+        if (indexType == TableMeta.IndexType.HASH || !bounds.hasRange()) {
+            return null;
+        }
+        return new BitmapIndexScanOperator.IndexSource(index, bounds.low, bounds.lowInclusive, bounds.high,
+                bounds.highInclusive);
+    }
+
+    /**
+     * AND 连接的条件中有索引列上的 {@code col IN (常量, ...)} 时，用多点查找代替全表扫描：
+     * 常量排序去重后按键的顺序查找，有序索引沿叶子前进，哈希索引逐个查找。NOT IN 和子查询不使用索引。
+     *
+     * @return 多点索引查找，没有可用的 IN 条件时返回 null
+     */
+    private static PhysicalOperator tryInListScan(DBManager dbManager, String tableName, TableMeta tableMeta,
+            Expression whereExpr) throws DBException {
+        if (whereExpr == null || tableMeta.getIndexes() == null || tableMeta.getIndexes().isEmpty()) {
+            return null;
+        }
+        List<Expression> conjuncts = new ArrayList<>();
+        collectConjuncts(whereExpr, conjuncts);
+        for (Expression conjunct : conjuncts) {
+            if (!(conjunct instanceof InExpression in) || in.isNot()
+                    || !(in.getLeftExpression() instanceof Column column)
+                    || !(in.getRightExpression() instanceof ExpressionList<?> items)) {
+                continue;
+            }
+            String columnName = column.getColumnName();
+            TableMeta.IndexType indexType = tableMeta.getIndexes().get(columnName);
+            List<Value> keys = indexType == null ? null : inListKeys(dbManager, tableMeta, columnName, items);
+            if (keys == null) {
+                continue;
+            }
+            Index index = dbManager.getIndexManager().getIndex(tableName, columnName);
+            if (index == null && indexType != TableMeta.IndexType.HASH) {
+                index = dbManager.getIndexManager().createIndex(tableName, columnName);
+                Logger.info("Created new B+Tree index for {}.{}", tableName, columnName);
+            }
+            if (index != null) {
+                Logger.info("Using index multi-probe on {}.{} with {} keys", tableName, columnName, keys.size());
+                return new IndexMultiProbeOperator(tableName, dbManager, index, keys);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return IN 列表中的常量，有任何一项不是与列类型相符的常量时返回 null
+     */
+    private static List<Value> inListKeys(DBManager dbManager, TableMeta tableMeta, String columnName,
+            ExpressionList<?> items) {
+        List<Value> keys = new ArrayList<>(items.size());
+        for (Expression item : items) {
+            Value value;
+            try {
+                value = getConstantValueFromExpression(item, dbManager, tableMeta, columnName);
+            } catch (DBException e) {
+                return null; // 类型不匹配的条件交给过滤算子处理
+            }
+            if (value == null) {
+                return null;
+            }
+            keys.add(value);
+        }
+        return keys;
+    }
+
+    /**
+     * 为 AND 连接的条件选择单列有序索引：列上的比较、BETWEEN 和前缀 LIKE 归并为一个区间，
+     * 沿索引的叶子链流式读取。等值条件优先于范围条件；多列索引能匹配更多列时交给 {@link #tryCompositeIndexScan}。
+     * 区间内的条目不少于 {@link BitmapIndexScanOperator#SORTED_FETCH_MIN_ROWS} 个时改为先收集 RID、按页号排序后回表。
+     *
+     * @return 单列索引的范围扫描，没有可用的条件时返回 null
+     */
+    private static PhysicalOperator tryIndexRangeScan(DBManager dbManager, String tableName, TableMeta tableMeta,
+            Expression whereExpr) throws DBException {
+        if (whereExpr == null || tableMeta.getIndexes() == null || tableMeta.getIndexes().isEmpty()) {
+            return null;
+        }
+        Map<String, ColumnBounds> bounds = collectBounds(dbManager, tableMeta, whereExpr);
+        String bestColumn = null;
+        int bestScore = 0;
+        for (Map.Entry<String, TableMeta.IndexType> entry : tableMeta.getIndexes().entrySet()) {
+            int score = scoreIndex(List.of(entry.getKey()), bounds);
+            if (entry.getValue() != TableMeta.IndexType.HASH && score > bestScore) {
+                bestColumn = entry.getKey();
+                bestScore = score;
+            }
+        }
+        if (bestColumn == null) {
+            return null;
+        }
+        for (CompositeIndex composite : dbManager.getIndexManager().getCompositeIndexes(tableName)) {
+            if (scoreIndex(composite.getColumns(), bounds) > bestScore) {
+                return null;
+            }
+        }
+        Index index = dbManager.getIndexManager().getIndex(tableName, bestColumn);
+        if (index == null) {
+            index = dbManager.getIndexManager().createIndex(tableName, bestColumn);
+            Logger.info("Created new B+Tree index for {}.{}", tableName, bestColumn);
+        }
+
+        ColumnBounds range = bounds.get(bestColumn);
+        Value low = range.eq != null ? range.eq : range.low;
+        Value high = range.eq != null ? range.eq : range.high;
+        boolean lowInclusive = range.eq != null || range.lowInclusive;
+        boolean highInclusive = range.eq != null || range.highInclusive;
+        if (matchesAtLeast(index.Range(low, high, lowInclusive, highInclusive),
+                BitmapIndexScanOperator.SORTED_FETCH_MIN_ROWS)) {
+            BitmapIndexScanOperator.IndexSource source = new BitmapIndexScanOperator.IndexSource(index, low,
+                    lowInclusive, high, highInclusive);
+            Logger.info("Using bitmap heap scan on {} with {}", tableName, source);
+            return new BitmapIndexScanOperator(tableName, dbManager, source);
+        }
+        if (range.eq != null) {
+            Logger.info("Using index range scan on {}.{} with key {}", tableName, bestColumn, range.eq);
+            return new IndexRangeScanOperator(tableName, dbManager, index, range.eq, true, range.eq, true);
+        }
+        Logger.info("Using index range scan on {}.{} with range {}{}, {}{}", tableName, bestColumn,
+                range.lowInclusive ? "[" : "(", range.low, range.high, range.highInclusive ? "]" : ")");
+        return new IndexRangeScanOperator(tableName, dbManager, index, range.low, range.lowInclusive, range.high,
+                range.highInclusive);
+    }
+
+    /**
+     * 把 AND 连接的条件中数值列上的等值与范围转换为页摘要的闭区间，供顺序扫描跳过页面。
+     * 字典编码的列和类型与列不一致的常量被忽略。
+     *
+     * @return 各列上的区间，没有可用的条件时为空
+     */
+    private static List<ZoneMap.Bound> zoneMapBounds(DBManager dbManager, TableMeta tableMeta,
+            Expression whereExpr) throws DBException {
+        List<ZoneMap.Bound> zoneBounds = new ArrayList<>();
+        if (whereExpr == null || tableMeta == null) {
+            return zoneBounds;
+        }
+        for (Map.Entry<String, ColumnBounds> entry : collectBounds(dbManager, tableMeta, whereExpr).entrySet()) {
+            ColumnMeta column = tableMeta.getColumnMeta(entry.getKey());
+            if (column == null || !ZoneMap.supports(column.type) || column.dictionaryEncoded) {
+                continue;
+            }
+            ColumnBounds range = entry.getValue();
+            long low = Long.MIN_VALUE;
+            long high = Long.MAX_VALUE;
+            if (range.eq != null) {
+                if (range.eq.type != column.type) {
+                    continue;
+                }
+                low = high = ZoneMap.encode(range.eq);
+            } else {
+                boolean empty = false;
+                // 编码是整数，开区间的端点向内收一；端点已是极值时区间为空
+                if (range.low != null && range.low.type == column.type) {
+                    low = ZoneMap.encode(range.low);
+                    if (!range.lowInclusive) {
+                        empty = low == Long.MAX_VALUE;
+                        low++;
+                    }
+                }
+                if (range.high != null && range.high.type == column.type) {
+                    high = ZoneMap.encode(range.high);
+                    if (!range.highInclusive) {
+                        empty |= high == Long.MIN_VALUE;
+                        high--;
                     }
                 }
+                if (empty) {
+                    low = 1;
+                    high = 0;
+                } else if (low == Long.MIN_VALUE && high == Long.MAX_VALUE) {
+                    continue;
+                }
             }
+            zoneBounds.add(new ZoneMap.Bound(column.offset, low, high));
         }
+        return zoneBounds;
+    }
 
-        PhysicalOperator inputOp = generateOperator(dbManager, logicalFilterOp.getChild());
-        return new FilterOperator(inputOp, whereExpr);
+    /**
+     * 估计索引扫描的行数是否达到 limit：只沿叶子链数到 limit 为止，不读取整个范围。
+     */
+    private static boolean matchesAtLeast(Iterator<Map.Entry<Value, RID>> entries, int limit) {
+        int count = 0;
+        while (count < limit && entries.hasNext()) {
+            entries.next();
+            count++;
+        }
+        return count >= limit;
+    }
+
+    /**
+     * 为 AND 连接的"列 比较 常量"条件选择多列索引：等值前缀最长的索引优先，
+     * 其次看紧接着的下一列是否有范围条件。扫描只按索引列缩小范围，完整的 WHERE 仍由上层过滤。
+     *
+     * @return 多列索引扫描，没有可用的多列索引时返回 null
+     */
+    private static PhysicalOperator tryCompositeIndexScan(DBManager dbManager, String tableName,
+            TableMeta tableMeta, Expression whereExpr) throws DBException {
+        Collection<CompositeIndex> candidates = dbManager.getIndexManager().getCompositeIndexes(tableName);
+        if (candidates.isEmpty() || whereExpr == null) {
+            return null;
+        }
+        Map<String, ColumnBounds> bounds = collectBounds(dbManager, tableMeta, whereExpr);
+
+        CompositeIndex best = null;
+        int bestScore = 0;
+        for (CompositeIndex index : candidates) {
+            int score = scoreIndex(index.getColumns(), bounds);
+            if (score > bestScore) {
+                best = index;
+                bestScore = score;
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+
+        List<Value> eqPrefix = eqPrefix(best.getColumns(), bounds, bestScore);
+        ColumnBounds range = rangeBounds(best.getColumns(), bounds, bestScore);
+        Logger.info("Using composite index {} with prefix {} and range {}{}, {}{}", best, eqPrefix,
+                range.lowInclusive ? "[" : "(", range.low, range.high, range.highInclusive ? "]" : ")");
+        return new CompositeIndexScanOperator(tableName, dbManager, best, eqPrefix, range.low, range.lowInclusive,
+                range.high, range.highInclusive);
+    }
+
+    /**
+     * 查询只引用索引中存在的列时改用 {@link IndexOnlyScanOperator}，直接从索引条目生成结果，不回表。
+     * 候选索引是覆盖全部被引用列的多列索引（含 INCLUDE 列），以及被引用列只有键列本身的单列有序索引；
+     * 与 {@link #tryCompositeIndexScan} 相同，按等值前缀和范围条件打分，没有任何可用条件时不使用索引。
+     *
+     * @param child       投影/聚合的子逻辑算子
+     * @param selectItems SELECT 列表
+     * @param extraExprs  其他会被上层访问的表达式（GROUP BY、ORDER BY 等）
+     * @return 只读索引的扫描算子，不适用时返回 null
+     */
+    private static PhysicalOperator tryIndexOnlyScan(DBManager dbManager, LogicalOperator child,
+            List<SelectItem<?>> selectItems, List<Expression> extraExprs) throws DBException {
+        if (!(child instanceof LogicalFilterOperator filterOp)
+                || !(filterOp.getChild() instanceof LogicalTableScanOperator tableScanOp)) {
+            return null;
+        }
+        Expression whereExpr = filterOp.getWhereExpr();
+        Set<String> columns = referencedColumns(selectItems, extraExprs, whereExpr);
+        if (columns == null) {
+            return null;
+        }
+        String tableName = tableScanOp.getTableName();
+        TableMeta tableMeta = dbManager.getMetaManager().getTable(tableName);
+        Map<String, ColumnBounds> bounds = collectBounds(dbManager, tableMeta, whereExpr);
+        if (bounds.isEmpty()) {
+            return null;
+        }
+
+        CompositeIndex bestComposite = null;
+        int bestScore = 0;
+        for (CompositeIndex index : dbManager.getIndexManager().getCompositeIndexes(tableName)) {
+            int score = scoreIndex(index.getColumns(), bounds);
+            if (score > bestScore && index.covers(columns)) {
+                bestComposite = index;
+                bestScore = score;
+            }
+        }
+        Index bestIndex = null;
+        if (columns.size() == 1 && tableMeta.getIndexes() != null) {
+            String columnName = columns.iterator().next();
+            TableMeta.IndexType indexType = tableMeta.getIndexes().get(columnName);
+            int score = scoreIndex(List.of(columnName), bounds);
+            if (indexType != null && indexType != TableMeta.IndexType.HASH && score > bestScore) {
+                bestIndex = dbManager.getIndexManager().getIndex(tableName, columnName);
+                if (bestIndex != null) {
+                    bestComposite = null;
+                    bestScore = score;
+                }
+            }
+        }
+
+        PhysicalOperator scan;
+        if (bestIndex != null) {
+            ColumnBounds range = bounds.get(bestIndex.getColumnName());
+            Logger.info("Using index-only scan on {}.{} with {}", tableName, bestIndex.getColumnName(),
+                    range.eq != null ? "key " + range.eq : "range " + range.low + ", " + range.high);
+            scan = range.eq != null
+                    ? new IndexOnlyScanOperator(tableName, dbManager, bestIndex, range.eq, true, range.eq, true)
+                    : new IndexOnlyScanOperator(tableName, dbManager, bestIndex, range.low, range.lowInclusive,
+                            range.high, range.highInclusive);
+        } else if (bestComposite != null) {
+            List<Value> eqPrefix = eqPrefix(bestComposite.getColumns(), bounds, bestScore);
+            ColumnBounds range = rangeBounds(bestComposite.getColumns(), bounds, bestScore);
+            Logger.info("Using index-only scan on {} with prefix {} and range {}, {}", bestComposite, eqPrefix,
+                    range.low, range.high);
+            scan = new IndexOnlyScanOperator(tableName, dbManager, bestComposite, eqPrefix, range.low,
+                    range.lowInclusive, range.high, range.highInclusive);
+        } else {
+            return null;
+        }
+        return new FilterOperator(scan, whereExpr);
+    }
+
+    /**
+     * 收集 AND 连接的"列 比较 常量"、"列 BETWEEN 常量 AND 常量"和"列 LIKE '前缀%'"条件，
+     * 按列归并为等值条件和最紧的范围。
+     */
+    private static Map<String, ColumnBounds> collectBounds(DBManager dbManager, TableMeta tableMeta,
+            Expression whereExpr) {
+        List<Expression> conjuncts = new ArrayList<>();
+        collectConjuncts(whereExpr, conjuncts);
+        Map<String, ColumnBounds> bounds = new HashMap<>();
+        for (Expression conjunct : conjuncts) {
+            if (conjunct instanceof Between between) {
+                addBetween(dbManager, tableMeta, between, bounds);
+                continue;
+            }
+            if (conjunct instanceof LikeExpression like) {
+                addLikePrefix(tableMeta, like, bounds);
+                continue;
+            }
+            if (!(conjunct instanceof ComparisonOperator comparison)) {
+                continue;
+            }
+            Expression leftExpr = comparison.getLeftExpression();
+            Expression rightExpr = comparison.getRightExpression();
+            Column column;
+            Expression constant;
+            boolean flipped;
+            if (leftExpr instanceof Column left && !(rightExpr instanceof Column)) {
+                column = left;
+                constant = rightExpr;
+                flipped = false;
+            } else if (rightExpr instanceof Column right && !(leftExpr instanceof Column)) {
+                column = right;
+                constant = leftExpr;
+                flipped = true;
+            } else {
+                continue;
+            }
+            String columnName = column.getColumnName();
+            if (!tableMeta.hasColumn(columnName)) {
+                continue;
+            }
+            Value value;
+            try {
+                value = getConstantValueFromExpression(constant, dbManager, tableMeta, columnName);
+            } catch (DBException e) {
+                continue; // 类型不匹配的条件交给过滤算子处理
+            }
+            if (value != null) {
+                bounds.computeIfAbsent(columnName, k -> new ColumnBounds()).add(comparison, flipped, value);
+            }
+        }
+        return bounds;
+    }
+
+    private static void addBetween(DBManager dbManager, TableMeta tableMeta, Between between,
+            Map<String, ColumnBounds> bounds) {
+        if (between.isNot() || !(between.getLeftExpression() instanceof Column column)
+                || !tableMeta.hasColumn(column.getColumnName())) {
+            return;
+        }
+        String columnName = column.getColumnName();
+        Value start;
+        Value end;
+        try {
+            start = getConstantValueFromExpression(between.getBetweenExpressionStart(), dbManager, tableMeta,
+                    columnName);
+            end = getConstantValueFromExpression(between.getBetweenExpressionEnd(), dbManager, tableMeta,
+                    columnName);
+        } catch (DBException e) {
+            return; // 类型不匹配的条件交给过滤算子处理
+        }
+        if (start != null && end != null) {
+            ColumnBounds columnBounds = bounds.computeIfAbsent(columnName, k -> new ColumnBounds());
+            columnBounds.addLow(start, true);
+            columnBounds.addHigh(end, true);
+        }
+    }
+
+    /**
+     * {@code 列 LIKE 'abc%'} 等价于 {@code 'abc' <= 列 < 'abd'}。前缀之后的通配符由过滤算子检查；
+     * 模式以通配符开头、带 ESCAPE 或不区分大小写时无法转为区间。
+     */
+    private static void addLikePrefix(TableMeta tableMeta, LikeExpression like, Map<String, ColumnBounds> bounds) {
+        if (like.isNot() || like.getLikeKeyWord() != LikeExpression.KeyWord.LIKE || like.getEscape() != null
+                || !(like.getLeftExpression() instanceof Column column)
+                || !(like.getRightExpression() instanceof StringValue pattern)) {
+            return;
+        }
+        ColumnMeta columnMeta = tableMeta.getColumnMeta(column.getColumnName());
+        if (columnMeta == null || columnMeta.type != ValueType.CHAR) {
+            return;
+        }
+        String prefix = likePrefix(pattern.getValue());
+        // 比较 CHAR 时会去掉首尾空白，以空白结尾的前缀不能直接作为区间端点
+        if (prefix.isEmpty() || !prefix.equals(prefix.trim())) {
+            return;
+        }
+        ColumnBounds columnBounds = bounds.computeIfAbsent(column.getColumnName(), k -> new ColumnBounds());
+        if (prefix.length() == pattern.getValue().length()) {
+            columnBounds.addEq(new Value(prefix));
+            return;
+        }
+        columnBounds.addLow(new Value(prefix), true);
+        char last = prefix.charAt(prefix.length() - 1);
+        if (last != Character.MAX_VALUE) {
+            columnBounds.addHigh(new Value(prefix.substring(0, prefix.length() - 1) + (char) (last + 1)), false);
+        }
+    }
+
+    /**
+     * @return LIKE 模式中第一个通配符之前的部分
+     */
+    private static String likePrefix(String pattern) {
+        int end = 0;
+        while (end < pattern.length() && pattern.charAt(end) != '%' && pattern.charAt(end) != '_') {
+            end++;
+        }
+        return pattern.substring(0, end);
+    }
+
+    /**
+     * 索引对条件的匹配程度：等值前缀的每一列记 2 分，紧接着的下一列有范围条件再记 1 分。
+     */
+    private static int scoreIndex(List<String> columns, Map<String, ColumnBounds> bounds) {
+        int k = 0;
+        while (k < columns.size() && bounds.containsKey(columns.get(k)) && bounds.get(columns.get(k)).eq != null) {
+            k++;
+        }
+        boolean range = k < columns.size() && bounds.containsKey(columns.get(k))
+                && bounds.get(columns.get(k)).hasRange();
+        return 2 * k + (range ? 1 : 0);
+    }
+
+    private static List<Value> eqPrefix(List<String> columns, Map<String, ColumnBounds> bounds, int score) {
+        List<Value> eqPrefix = new ArrayList<>();
+        for (int i = 0; i < score / 2; i++) {
+            eqPrefix.add(bounds.get(columns.get(i)).eq);
+        }
+        return eqPrefix;
+    }
+
+    private static ColumnBounds rangeBounds(List<String> columns, Map<String, ColumnBounds> bounds, int score) {
+        return score % 2 == 1 ? bounds.get(columns.get(score / 2)) : new ColumnBounds();
+    }
+
+    private static void collectConjuncts(Expression expr, List<Expression> conjuncts) {
+        expr = unwrapParentheses(expr);
+        if (expr instanceof AndExpression and) {
+            collectConjuncts(and.getLeftExpression(), conjuncts);
+            collectConjuncts(and.getRightExpression(), conjuncts);
+        } else {
+            conjuncts.add(expr);
+        }
+    }
+
+    /**
+     * 去掉条件外层的括号，如 {@code (a = 1 OR b = 2)}。
+     */
+    private static Expression unwrapParentheses(Expression expr) {
+        while (expr instanceof ParenthesedExpressionList<?> list && list.size() == 1) {
+            expr = (Expression) list.get(0);
+        }
+        return expr;
+    }
+
+    /**
+     * 一列上的等值条件和范围条件，多个范围条件取最紧的一个。
+     */
+    private static class ColumnBounds {
+        Value eq;
+        Value low;
+        boolean lowInclusive;
+        Value high;
+        boolean highInclusive;
+
+        boolean hasRange() {
+            return low != null || high != null;
+        }
+
+        void add(ComparisonOperator op, boolean flipped, Value value) {
+            if (op instanceof EqualsTo) {
+                addEq(value);
+                return;
+            }
+            boolean greater;
+            if (op instanceof GreaterThan || op instanceof GreaterThanEquals) {
+                greater = true;
+            } else if (op instanceof MinorThan || op instanceof MinorThanEquals) {
+                greater = false;
+            } else {
+                return;
+            }
+            boolean inclusive = op instanceof GreaterThanEquals || op instanceof MinorThanEquals;
+            // 常量写在左边时比较方向相反，例如 5 < a 等价于 a > 5
+            if (flipped) {
+                greater = !greater;
+            }
+            if (greater) {
+                addLow(value, inclusive);
+            } else {
+                addHigh(value, inclusive);
+            }
+        }
+
+        void addEq(Value value) {
+            if (eq == null) {
+                eq = value;
+            }
+        }
+
+        void addLow(Value value, boolean inclusive) {
+            int c = low == null ? 1 : value.compareTo(low);
+            if (c > 0 || (c == 0 && !inclusive)) {
+                low = value;
+                lowInclusive = inclusive;
+            }
+        }
+
+        void addHigh(Value value, boolean inclusive) {
+            int c = high == null ? -1 : value.compareTo(high);
+            if (c < 0 || (c == 0 && !inclusive)) {
+                high = value;
+                highInclusive = inclusive;
+            }
+        }
     }
 
     // Helper method to extract a Value from a JSQLParser Expression (literal)
@@ -202,10 +933,96 @@ public class PhysicalPlanner {
 
     private static PhysicalOperator handleProject(DBManager dbManager, LogicalProjectOperator logicalProjectOp)
             throws DBException {
-        PhysicalOperator inputOp = generateOperator(dbManager, logicalProjectOp.getChild());
+        return handleProject(dbManager, logicalProjectOp, Collections.emptyList());
+    }
+
+    private static PhysicalOperator handleProject(DBManager dbManager, LogicalProjectOperator logicalProjectOp,
+            List<Expression> extraExprs) throws DBException {
+        PhysicalOperator inputOp = tryIndexOnlyScan(dbManager, logicalProjectOp.getChild(),
+                logicalProjectOp.getSelectItems(), extraExprs);
+        if (inputOp == null) {
+            inputOp = tryPaxScan(dbManager, logicalProjectOp.getChild(), logicalProjectOp.getSelectItems(),
+                    extraExprs);
+        }
+        if (inputOp == null) {
+            inputOp = generateOperator(dbManager, logicalProjectOp.getChild());
+        }
         return new ProjectOperator(inputOp, logicalProjectOp.getOutputSchema());
     }
 
+    /**
+     * 对 PAX 布局的表，若子计划只是单表扫描（可带 WHERE），则改用只解码被引用列的
+     * {@link PaxScanOperator}。可以走索引的查询直接返回 {@link #tryIndexScan} 选出的索引扫描，不再重新规划。
+     *
+     * @param child       投影/聚合的子逻辑算子
+     * @param selectItems SELECT 列表
+     * @param extraExprs  其他会被上层访问的表达式（GROUP BY、ORDER BY 等）
+     * @return 索引扫描或列裁剪后的扫描算子，不适用时返回 null
+     */
+    private static PhysicalOperator tryPaxScan(DBManager dbManager, LogicalOperator child,
+            List<SelectItem<?>> selectItems, List<Expression> extraExprs) throws DBException {
+        Expression whereExpr = null;
+        LogicalOperator scanOp = child;
+        if (child instanceof LogicalFilterOperator filterOp) {
+            whereExpr = filterOp.getWhereExpr();
+            scanOp = filterOp.getChild();
+        }
+        if (!(scanOp instanceof LogicalTableScanOperator tableScanOp)) {
+            return null;
+        }
+        String tableName = tableScanOp.getTableName();
+        TableMeta tableMeta = dbManager.getMetaManager().getTable(tableName);
+        if (tableMeta.getStorageLayout() != TableMeta.StorageLayout.PAX) {
+            return null;
+        }
+        if (whereExpr != null) {
+            PhysicalOperator indexScan = tryIndexScan(dbManager, tableName, tableMeta, whereExpr);
+            if (indexScan != null) {
+                return indexScan;
+            }
+        }
+
+        Set<String> columns = referencedColumns(selectItems, extraExprs, whereExpr);
+        PaxScanOperator paxScan = new PaxScanOperator(tableName, dbManager, columns);
+        Logger.info("Using PaxScanOperator for table {} with columns {}", tableName,
+                columns == null ? "*" : columns);
+        return whereExpr != null ? new FilterOperator(paxScan, whereExpr) : paxScan;
+    }
+
+    /**
+     * 收集 SELECT 列表、附加表达式和 WHERE 中引用的列。
+     *
+     * @return 被引用的列名，SELECT 列表含 * 时返回 null
+     */
+    private static Set<String> referencedColumns(List<SelectItem<?>> selectItems, List<Expression> extraExprs,
+            Expression whereExpr) {
+        Set<String> columns = new HashSet<>();
+        for (SelectItem<?> item : selectItems) {
+            if (item.getExpression() instanceof AllColumns || item.getExpression() instanceof AllTableColumns) {
+                return null;
+            }
+            collectColumns(item.getExpression(), columns);
+        }
+        for (Expression expr : extraExprs) {
+            collectColumns(expr, columns);
+        }
+        collectColumns(whereExpr, columns);
+        return columns;
+    }
+
+    private static void collectColumns(Expression expr, Set<String> columns) {
+        if (expr == null) {
+            return;
+        }
+        expr.accept(new ExpressionVisitorAdapter<Void>() {
+            @Override
+            public <S> Void visit(Column column, S context) {
+                columns.add(column.getColumnName());
+                return null;
+            }
+        }, null);
+    }
+
     /**
      * Converts a {@link LogicalAggregateOperator} into a
      * {@link PhysicalAggregateOperator}.
@@ -219,10 +1036,64 @@ public class PhysicalPlanner {
      */
     private static PhysicalOperator handleAggregate(DBManager dbManager, LogicalAggregateOperator logicalAggregateOp)
             throws DBException {
-        PhysicalOperator childOperator = generateOperator(dbManager, logicalAggregateOp.getChild());
+        return handleAggregate(dbManager, logicalAggregateOp, Collections.emptyList());
+    }
+
+    private static PhysicalOperator handleAggregate(DBManager dbManager, LogicalAggregateOperator logicalAggregateOp,
+            List<Expression> extraExprs) throws DBException {
+        // 无过滤的 COUNT(*) 直接读取文件头中维护的行数
+        if (extraExprs.isEmpty() && isTableCountStar(logicalAggregateOp)) {
+            String tableName = ((LogicalTableScanOperator) logicalAggregateOp.getChild()).getTableName();
+            Logger.debug("Answering COUNT(*) on table {} from maintained row count", tableName);
+            return new PhysicalAggregateOperator(generateOperator(dbManager, logicalAggregateOp.getChild()),
+                    logicalAggregateOp, () -> dbManager.getTableRowCount(tableName));
+        }
+        List<Expression> referenced = new ArrayList<>(extraExprs);
+        if (logicalAggregateOp.getGroupByExpressions() != null) {
+            referenced.addAll(logicalAggregateOp.getGroupByExpressions());
+        }
+        PhysicalOperator childOperator = tryIndexOnlyScan(dbManager, logicalAggregateOp.getChild(),
+                logicalAggregateOp.getAggregateExpressions(), referenced);
+        if (childOperator == null) {
+            childOperator = tryPaxScan(dbManager, logicalAggregateOp.getChild(),
+                    logicalAggregateOp.getAggregateExpressions(), referenced);
+        }
+        if (childOperator == null) {
+            childOperator = generateOperator(dbManager, logicalAggregateOp.getChild());
+        }
         return new PhysicalAggregateOperator(childOperator, logicalAggregateOp);
     }
 
+    /**
+     * 判断聚合是否为直接作用在单表扫描上、不带分组的 COUNT(*) 或 COUNT(常量)。
+     */
+    private static boolean isTableCountStar(LogicalAggregateOperator logicalAggregateOp) {
+        if (!(logicalAggregateOp.getChild() instanceof LogicalTableScanOperator)) {
+            return false;
+        }
+        if (logicalAggregateOp.getGroupByExpressions() != null
+                && !logicalAggregateOp.getGroupByExpressions().isEmpty()) {
+            return false;
+        }
+        for (SelectItem<?> item : logicalAggregateOp.getAggregateExpressions()) {
+            if (!(item.getExpression() instanceof net.sf.jsqlparser.expression.Function func)
+                    || !"COUNT".equalsIgnoreCase(func.getName()) || func.isDistinct()) {
+                return false;
+            }
+            if (func.isAllColumns()) {
+                continue;
+            }
+            if (func.getParameters() == null || func.getParameters().size() != 1) {
+                return false;
+            }
+            Expression param = func.getParameters().get(0);
+            if (!(param instanceof AllColumns) && !(param instanceof LongValue)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * 处理将逻辑插入操作转换为物理插入运算符的过程
      *
@@ -334,7 +1205,9 @@ public class PhysicalPlanner {
             LogicalFilterOperator filterOp = (LogicalFilterOperator) child;
             String tableName = logicalUpdateOp.getTableName();
 
-            SeqScanOperator seqScan = new SeqScanOperator(tableName, dbManager);
+            TableMeta tableMeta = dbManager.getMetaManager().getTable(tableName);
+            SeqScanOperator seqScan = new SeqScanOperator(tableName, dbManager,
+                    zoneMapBounds(dbManager, tableMeta, filterOp.getWhereExpr()));
             scanner = new FilterOperator(seqScan, filterOp.getWhereExpr());
 
             Logger.info("Using SeqScanOperator with FilterOperator for UPDATE on table {}", tableName);
@@ -359,7 +1232,19 @@ public class PhysicalPlanner {
 
     private static PhysicalOperator handleOrderBy(DBManager dbManager, LogicalOrderByOperator orderByOperator)
             throws DBException {
-        PhysicalOperator childOperator = generateOperator(dbManager, orderByOperator.getChild());
+        // ORDER BY 可能引用未出现在 SELECT 中的列，列裁剪扫描需要把它们一并解码
+        List<Expression> orderByExprs = new ArrayList<>();
+        for (OrderByElement element : orderByOperator.getOrderByElements()) {
+            orderByExprs.add(element.getExpression());
+        }
+        PhysicalOperator childOperator;
+        if (orderByOperator.getChild() instanceof LogicalProjectOperator projectOperator) {
+            childOperator = handleProject(dbManager, projectOperator, orderByExprs);
+        } else if (orderByOperator.getChild() instanceof LogicalAggregateOperator aggregateOperator) {
+            childOperator = handleAggregate(dbManager, aggregateOperator, orderByExprs);
+        } else {
+            childOperator = generateOperator(dbManager, orderByOperator.getChild());
+        }
         return new PhysicalOrderByOperator(childOperator, orderByOperator);
     }
 }
\ No newline at end of file
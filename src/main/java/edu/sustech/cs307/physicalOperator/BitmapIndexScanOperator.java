@@ -0,0 +1,201 @@
+package edu.sustech.cs307.physicalOperator;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.exception.ExceptionTypes;
+import edu.sustech.cs307.index.Index;
+import edu.sustech.cs307.index.RidBitmap;
+import edu.sustech.cs307.meta.ColumnMeta;
+import edu.sustech.cs307.meta.TableMeta;
+import edu.sustech.cs307.record.RID;
+import edu.sustech.cs307.record.Record;
+import edu.sustech.cs307.record.RecordFetchCursor;
+import edu.sustech.cs307.record.RecordFileHandle;
+import edu.sustech.cs307.system.DBManager;
+import edu.sustech.cs307.tuple.TableTuple;
+import edu.sustech.cs307.tuple.Tuple;
+import edu.sustech.cs307.value.Value;
+import org.pmw.tinylog.Logger;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 组合多个单列索引的扫描：每个索引条件先得到一个 {@link RidBitmap}，按条件树做交集（AND）或并集（OR），
+ * 再按 (页号, 槽号) 顺序通过 {@link RecordFetchCursor} 读取剩下的记录，每个页面只访问一次并向后预读。
+ * 单个索引条件匹配的行数较多时也用它代替按键的顺序逐行回表。
+ * 索引条件只是 WHERE 的必要条件，完整的 WHERE 仍由上层的 {@link FilterOperator} 检查。
+ * 产生的元组直接引用页面帧，在下一次 {@link #Next()} 或 {@link #Close()} 之前有效。
+ */
+public class BitmapIndexScanOperator implements PhysicalOperator {
+    /**
+     * 索引匹配的行数不少于该值时，先按页号排序 RID 再回表，否则按索引的顺序逐行回表
+     */
+    public static final int SORTED_FETCH_MIN_ROWS = 64;
+
+    /**
+     * 条件树的节点，求值得到满足该条件的 RID 位图。
+     */
+    public sealed interface Source permits IndexSource, AndSource, OrSource {
+        RidBitmap evaluate() throws DBException;
+    }
+
+    /**
+     * 单个索引上键落在 [low, high] 内的条目，low 与 high 相等且两端闭合时按等值查找，哈希索引只支持这种形式。
+     */
+    public record IndexSource(Index index, Value low, boolean lowInclusive, Value high, boolean highInclusive)
+            implements Source {
+        public static IndexSource equalTo(Index index, Value key) {
+            return new IndexSource(index, key, true, key, true);
+        }
+
+        boolean isEqualTo() {
+            return low != null && high != null && lowInclusive && highInclusive && low.compareTo(high) == 0;
+        }
+
+        @Override
+        public RidBitmap evaluate() throws DBException {
+            if (isEqualTo()) {
+                return RidBitmap.of(index.search(low));
+            }
+            List<RID> rids = new ArrayList<>();
+            Iterator<Map.Entry<Value, RID>> entries = index.Range(low, high, lowInclusive, highInclusive);
+            while (entries.hasNext()) {
+                rids.add(entries.next().getValue());
+            }
+            return RidBitmap.of(rids);
+        }
+
+        @Override
+        public String toString() {
+            if (isEqualTo()) {
+                return index.getColumnName() + " = " + low;
+            }
+            return index.getColumnName() + " in " + (lowInclusive ? "[" : "(") + low + ", " + high
+                    + (highInclusive ? "]" : ")");
+        }
+    }
+
+    public record AndSource(List<Source> children) implements Source {
+        @Override
+        public RidBitmap evaluate() throws DBException {
+            RidBitmap result = null;
+            for (Source child : children) {
+                result = result == null ? child.evaluate() : result.and(child.evaluate());
+                // 交集已为空时不必再查其余索引
+                if (result.isEmpty()) {
+                    break;
+                }
+            }
+            return result == null ? RidBitmap.empty() : result;
+        }
+
+        @Override
+        public String toString() {
+            return children.stream().map(Object::toString).collect(Collectors.joining(" AND ", "(", ")"));
+        }
+    }
+
+    public record OrSource(List<Source> children) implements Source {
+        @Override
+        public RidBitmap evaluate() throws DBException {
+            RidBitmap result = RidBitmap.empty();
+            for (Source child : children) {
+                result = result.or(child.evaluate());
+            }
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return children.stream().map(Object::toString).collect(Collectors.joining(" OR ", "(", ")"));
+        }
+    }
+
+    private final String tableName;
+    private final DBManager dbManager;
+    private final Source source;
+    private final TableMeta tableMeta;
+
+    private RecordFileHandle fileHandle;
+    private RecordFetchCursor cursor;
+    private Record currentRecord;
+    private RID currentRID;
+    private boolean isOpen = false;
+
+    public BitmapIndexScanOperator(String tableName, DBManager dbManager, Source source) throws DBException {
+        this.tableName = tableName;
+        this.dbManager = dbManager;
+        this.source = source;
+        this.tableMeta = dbManager.getMetaManager().getTable(tableName);
+        if (this.tableMeta == null) {
+            throw new DBException(ExceptionTypes.TableDoesNotExist(tableName));
+        }
+    }
+
+    @Override
+    public void Begin() throws DBException {
+        RidBitmap bitmap = source.evaluate();
+        Logger.debug("Bitmap index scan {} on {} matched {}", source, tableName, bitmap);
+        List<RID> rids = new ArrayList<>((int) bitmap.size());
+        for (RID rid : bitmap) {
+            rids.add(rid);
+        }
+        fileHandle = dbManager.getRecordManager().OpenFile(tableName);
+        cursor = fileHandle.openFetchCursor(rids);
+        currentRecord = null;
+        currentRID = null;
+        isOpen = true;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return isOpen && cursor.hasNext();
+    }
+
+    @Override
+    public void Next() throws DBException {
+        if (!hasNext()) {
+            currentRecord = null;
+            currentRID = null;
+            return;
+        }
+        cursor.next();
+        currentRID = cursor.getRID();
+        currentRecord = cursor.getRecord();
+    }
+
+    @Override
+    public Tuple Current() {
+        if (!isOpen || currentRecord == null) {
+            return null;
+        }
+        return new TableTuple(tableName, tableMeta, currentRecord, currentRID);
+    }
+
+    @Override
+    public void Close() {
+        if (!isOpen) {
+            return;
+        }
+        try {
+            Logger.debug("Bitmap index scan on {} fetched {} pages", tableName, cursor.getPagesFetched());
+            cursor.close();
+            dbManager.getRecordManager().CloseFile(fileHandle);
+        } catch (DBException e) {
+            Logger.error("Failed to close file handle: " + e.getMessage());
+        }
+        fileHandle = null;
+        cursor = null;
+        currentRecord = null;
+        currentRID = null;
+        isOpen = false;
+    }
+
+    @Override
+    public ArrayList<ColumnMeta> outputSchema() {
+        return tableMeta.columns_list;
+    }
+}
@@ -0,0 +1,107 @@
+package edu.sustech.cs307.physicalOperator;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.index.CompositeIndex;
+import edu.sustech.cs307.meta.ColumnMeta;
+import edu.sustech.cs307.meta.TableMeta;
+import edu.sustech.cs307.record.RID;
+import edu.sustech.cs307.record.Record;
+import edu.sustech.cs307.record.RecordFileHandle;
+import edu.sustech.cs307.system.DBManager;
+import edu.sustech.cs307.tuple.TableTuple;
+import edu.sustech.cs307.tuple.Tuple;
+import edu.sustech.cs307.value.Value;
+import org.pmw.tinylog.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 通过多列索引读取记录：前若干列等值，下一列可选地限定一个范围。
+ * 其余条件由上层的 {@link FilterOperator} 逐行检查。
+ */
+public class CompositeIndexScanOperator implements PhysicalOperator {
+    private final String tableName;
+    private final DBManager dbManager;
+    private final CompositeIndex index;
+    private final List<Value> eqPrefix;
+    private final Value low;
+    private final boolean lowInclusive;
+    private final Value high;
+    private final boolean highInclusive;
+    private TableMeta tableMeta;
+    private RecordFileHandle fileHandle;
+    private Record currentRecord;
+    private List<RID> matchingRIDs;
+    private int currentRIDIndex;
+    private boolean isOpen = false;
+
+    public CompositeIndexScanOperator(String tableName, DBManager dbManager, CompositeIndex index,
+            List<Value> eqPrefix, Value low, boolean lowInclusive, Value high, boolean highInclusive) {
+        this.tableName = tableName;
+        this.dbManager = dbManager;
+        this.index = index;
+        this.eqPrefix = eqPrefix;
+        this.low = low;
+        this.lowInclusive = lowInclusive;
+        this.high = high;
+        this.highInclusive = highInclusive;
+        try {
+            this.tableMeta = dbManager.getMetaManager().getTable(tableName);
+        } catch (DBException e) {
+            Logger.error("Failed to get table metadata for CompositeIndexScanOperator: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return isOpen && currentRIDIndex < matchingRIDs.size();
+    }
+
+    @Override
+    public void Begin() throws DBException {
+        fileHandle = dbManager.getRecordManager().OpenFile(tableName);
+        matchingRIDs = index.scan(eqPrefix, low, lowInclusive, high, highInclusive);
+        currentRIDIndex = 0;
+        isOpen = true;
+        Logger.debug("Composite index {} matched {} records", index, matchingRIDs.size());
+    }
+
+    @Override
+    public void Next() throws DBException {
+        if (!hasNext()) {
+            currentRecord = null;
+            return;
+        }
+        currentRecord = fileHandle.GetRecord(matchingRIDs.get(currentRIDIndex++));
+    }
+
+    @Override
+    public Tuple Current() {
+        if (!isOpen || currentRecord == null) {
+            return null;
+        }
+        return new TableTuple(tableName, tableMeta, currentRecord, matchingRIDs.get(currentRIDIndex - 1));
+    }
+
+    @Override
+    public void Close() {
+        if (!isOpen) {
+            return;
+        }
+        try {
+            dbManager.getRecordManager().CloseFile(fileHandle);
+        } catch (DBException e) {
+            Logger.error("Failed to close file handle: " + e.getMessage());
+        }
+        fileHandle = null;
+        currentRecord = null;
+        matchingRIDs = null;
+        isOpen = false;
+    }
+
+    @Override
+    public ArrayList<ColumnMeta> outputSchema() {
+        return tableMeta != null ? tableMeta.columns_list : new ArrayList<>();
+    }
+}
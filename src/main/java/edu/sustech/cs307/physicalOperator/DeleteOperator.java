@@ -153,6 +153,9 @@ public class DeleteOperator implements PhysicalOperator {
             }
             child.Close();
             isOpen = false;
+            if (deletedCount > 0) {
+                dbManager.getTableCompactor().maybeVacuum(tableName);
+            }
             Logger.debug(
                     "DeleteOperator.Close() called for table " + tableName + ", deleted " + deletedCount + " records");
         } catch (DBException e) {
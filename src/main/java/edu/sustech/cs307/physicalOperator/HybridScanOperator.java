@@ -23,6 +23,9 @@ import java.util.ArrayList;
  * 混合扫描器：优先使用索引扫描，如果索引不可用或为空则回退到顺序扫描
  */
 public class HybridScanOperator implements PhysicalOperator {
+    // 行数低于该值的表直接顺序扫描
+    private static final long SMALL_TABLE_ROWS = 128;
+
     private final String tableName;
     private final String columnName;
     private final Value searchKey;
@@ -49,9 +52,9 @@ public class HybridScanOperator implements PhysicalOperator {
     private boolean shouldUseIndexScan(DBManager dbManager, String tableName, Value searchKey) throws DBException {
         try {
             TableMeta tableMeta = dbManager.getMetaManager().getTable(tableName);
-            long fileSize = dbManager.getDiskManager().GetFileSize(tableName + "/data");
-            if (fileSize < 10 * 1024) {
-                Logger.info("Table {} is small ({}KB), using SeqScan directly", tableName, fileSize / 1024);
+            long rowCount = dbManager.getTableRowCount(tableName);
+            if (rowCount < SMALL_TABLE_ROWS) {
+                Logger.info("Table {} is small ({} rows), using SeqScan directly", tableName, rowCount);
                 return false;
             }
             if (searchKey == null) {
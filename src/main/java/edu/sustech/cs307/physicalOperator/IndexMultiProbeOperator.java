@@ -0,0 +1,142 @@
+package edu.sustech.cs307.physicalOperator;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.exception.ExceptionTypes;
+import edu.sustech.cs307.index.BloomFilter;
+import edu.sustech.cs307.index.Index;
+import edu.sustech.cs307.meta.ColumnMeta;
+import edu.sustech.cs307.meta.TableMeta;
+import edu.sustech.cs307.record.RID;
+import edu.sustech.cs307.record.Record;
+import edu.sustech.cs307.record.RecordFetchCursor;
+import edu.sustech.cs307.record.RecordFileHandle;
+import edu.sustech.cs307.system.DBManager;
+import edu.sustech.cs307.tuple.TableTuple;
+import edu.sustech.cs307.tuple.Tuple;
+import edu.sustech.cs307.value.Value;
+import org.pmw.tinylog.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用单列索引查找 {@code col IN (k1, k2, ...)} 的记录。
+ *
+ * <p>
+ * 常量先排序去重，去掉列上布隆过滤器判定一定不存在的键，再通过 {@link Index#searchAll} 按键的顺序一次查完：
+ * 有序索引从上一个键所在的叶子继续，相邻的键落在同一个叶子时不必每个键都从根下降。匹配的行数不少于
+ * {@link BitmapIndexScanOperator#SORTED_FETCH_MIN_ROWS} 时按页号排序后回表，否则按键的顺序回表；
+ * 完整的 WHERE 仍由上层的 {@link FilterOperator} 检查。
+ * 产生的元组直接引用页面帧，在下一次 {@link #Next()} 或 {@link #Close()} 之前有效。
+ * </p>
+ */
+public class IndexMultiProbeOperator implements PhysicalOperator {
+    private final String tableName;
+    private final DBManager dbManager;
+    private final Index index;
+    private final List<Value> keys;
+    private final TableMeta tableMeta;
+
+    private RecordFileHandle fileHandle;
+    private RecordFetchCursor cursor;
+    private Record currentRecord;
+    private RID currentRID;
+    private boolean isOpen = false;
+
+    public IndexMultiProbeOperator(String tableName, DBManager dbManager, Index index, List<Value> keys)
+            throws DBException {
+        this.tableName = tableName;
+        this.dbManager = dbManager;
+        this.index = index;
+        this.keys = sortedDistinct(keys);
+        this.tableMeta = dbManager.getMetaManager().getTable(tableName);
+        if (this.tableMeta == null) {
+            throw new DBException(ExceptionTypes.TableDoesNotExist(tableName));
+        }
+    }
+
+    private static List<Value> sortedDistinct(List<Value> keys) {
+        List<Value> sorted = new ArrayList<>(keys);
+        sorted.sort(Value::compareTo);
+        List<Value> distinct = new ArrayList<>(sorted.size());
+        for (Value key : sorted) {
+            if (distinct.isEmpty() || distinct.get(distinct.size() - 1).compareTo(key) != 0) {
+                distinct.add(key);
+            }
+        }
+        return distinct;
+    }
+
+    @Override
+    public void Begin() throws DBException {
+        List<Value> probes = keys;
+        BloomFilter filter = dbManager.getIndexManager().getBloomFilter(tableName, index.getColumnName());
+        if (filter != null) {
+            probes = new ArrayList<>(keys.size());
+            for (Value key : keys) {
+                if (filter.mightContain(key)) {
+                    probes.add(key);
+                }
+            }
+        }
+        List<RID> matched = probes.isEmpty() ? new ArrayList<>() : index.searchAll(probes);
+        Logger.debug("Index multi-probe on {}.{} with {} keys ({} after bloom filter) matched {} rows", tableName,
+                index.getColumnName(), keys.size(), probes.size(), matched.size());
+        if (matched.size() >= BitmapIndexScanOperator.SORTED_FETCH_MIN_ROWS) {
+            matched.sort(RID.PAGE_ORDER);
+        }
+        fileHandle = dbManager.getRecordManager().OpenFile(tableName);
+        cursor = fileHandle.openFetchCursor(matched);
+        currentRecord = null;
+        currentRID = null;
+        isOpen = true;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return isOpen && cursor.hasNext();
+    }
+
+    @Override
+    public void Next() throws DBException {
+        if (!hasNext()) {
+            currentRecord = null;
+            currentRID = null;
+            return;
+        }
+        cursor.next();
+        currentRID = cursor.getRID();
+        currentRecord = cursor.getRecord();
+    }
+
+    @Override
+    public Tuple Current() {
+        if (!isOpen || currentRecord == null) {
+            return null;
+        }
+        return new TableTuple(tableName, tableMeta, currentRecord, currentRID);
+    }
+
+    @Override
+    public void Close() {
+        if (!isOpen) {
+            return;
+        }
+        try {
+            cursor.close();
+            dbManager.getRecordManager().CloseFile(fileHandle);
+        } catch (DBException e) {
+            Logger.error("Failed to close file handle: " + e.getMessage());
+        }
+        fileHandle = null;
+        cursor = null;
+        currentRecord = null;
+        currentRID = null;
+        isOpen = false;
+    }
+
+    @Override
+    public ArrayList<ColumnMeta> outputSchema() {
+        return tableMeta.columns_list;
+    }
+}
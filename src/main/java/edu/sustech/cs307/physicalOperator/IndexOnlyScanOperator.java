@@ -0,0 +1,184 @@
+package edu.sustech.cs307.physicalOperator;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.exception.ExceptionTypes;
+import edu.sustech.cs307.index.CompositeIndex;
+import edu.sustech.cs307.index.CompositeKey;
+import edu.sustech.cs307.index.Index;
+import edu.sustech.cs307.meta.ColumnMeta;
+import edu.sustech.cs307.meta.TableMeta;
+import edu.sustech.cs307.record.RID;
+import edu.sustech.cs307.record.Record;
+import edu.sustech.cs307.system.DBManager;
+import edu.sustech.cs307.tuple.TableTuple;
+import edu.sustech.cs307.tuple.Tuple;
+import edu.sustech.cs307.value.Value;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.pmw.tinylog.Logger;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 只读索引的扫描算子：直接用索引条目中的列值构造输出，不回表读取记录。
+ *
+ * <p>
+ * 数据来源可以是带 INCLUDE 列的多列索引（前若干列等值 + 下一列范围），也可以是单列的有序索引（键的范围）。
+ * 与 {@link PaxScanOperator} 一样，输出的 {@link TableTuple} 中只有索引里存在的列被填充，其余列的字节为 0，
+ * 调用方必须保证上层算子只访问这些列。
+ * </p>
+ */
+public class IndexOnlyScanOperator implements PhysicalOperator {
+    private final String tableName;
+    private final DBManager dbManager;
+    private final TableMeta tableMeta;
+    private final int recordSize;
+    // 条目中各列值对应的列，顺序与条目中的值一致
+    private final List<ColumnMeta> coveredColumns = new ArrayList<>();
+
+    private final CompositeIndex compositeIndex;
+    private final Index index;
+    private final List<Value> eqPrefix;
+    private final Value low;
+    private final boolean lowInclusive;
+    private final Value high;
+    private final boolean highInclusive;
+
+    private Iterator<CompositeIndex.Entry> compositeEntries;
+    private Iterator<Map.Entry<Value, RID>> indexEntries;
+    private TableTuple currentTuple;
+    private long produced;
+    private boolean isOpen = false;
+
+    /**
+     * 在多列索引上扫描，条件与 {@link CompositeIndex#scanEntries} 相同。
+     */
+    public IndexOnlyScanOperator(String tableName, DBManager dbManager, CompositeIndex compositeIndex,
+            List<Value> eqPrefix, Value low, boolean lowInclusive, Value high, boolean highInclusive)
+            throws DBException {
+        this(tableName, dbManager, compositeIndex, null, eqPrefix, low, lowInclusive, high, highInclusive);
+        List<String> columns = new ArrayList<>(compositeIndex.getColumns());
+        columns.addAll(compositeIndex.getIncludedColumns());
+        for (String columnName : columns) {
+            coveredColumns.add(columnMeta(columnName));
+        }
+    }
+
+    /**
+     * 在单列有序索引上扫描键落在 [low, high] 内的条目，输出中只有索引列。
+     */
+    public IndexOnlyScanOperator(String tableName, DBManager dbManager, Index index, Value low, boolean lowInclusive,
+            Value high, boolean highInclusive) throws DBException {
+        this(tableName, dbManager, null, index, List.of(), low, lowInclusive, high, highInclusive);
+        coveredColumns.add(columnMeta(index.getColumnName()));
+    }
+
+    private IndexOnlyScanOperator(String tableName, DBManager dbManager, CompositeIndex compositeIndex, Index index,
+            List<Value> eqPrefix, Value low, boolean lowInclusive, Value high, boolean highInclusive)
+            throws DBException {
+        this.tableName = tableName;
+        this.dbManager = dbManager;
+        this.tableMeta = dbManager.getMetaManager().getTable(tableName);
+        if (this.tableMeta == null) {
+            throw new DBException(ExceptionTypes.TableDoesNotExist(tableName));
+        }
+        this.compositeIndex = compositeIndex;
+        this.index = index;
+        this.eqPrefix = eqPrefix;
+        this.low = low;
+        this.lowInclusive = lowInclusive;
+        this.high = high;
+        this.highInclusive = highInclusive;
+        int size = 0;
+        for (ColumnMeta columnMeta : tableMeta.columns_list) {
+            size = Math.max(size, columnMeta.offset + columnMeta.len);
+        }
+        this.recordSize = size;
+    }
+
+    private ColumnMeta columnMeta(String columnName) throws DBException {
+        ColumnMeta columnMeta = tableMeta.getColumnMeta(columnName);
+        if (columnMeta == null) {
+            throw new DBException(ExceptionTypes.ColumnDoesNotExist(columnName));
+        }
+        return columnMeta;
+    }
+
+    @Override
+    public void Begin() throws DBException {
+        if (compositeIndex != null) {
+            compositeEntries = compositeIndex.scanEntries(eqPrefix, low, lowInclusive, high, highInclusive)
+                    .iterator();
+        } else {
+            indexEntries = index.Range(low, high, lowInclusive, highInclusive);
+        }
+        currentTuple = null;
+        produced = 0;
+        isOpen = true;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!isOpen) {
+            return false;
+        }
+        return compositeEntries != null ? compositeEntries.hasNext() : indexEntries.hasNext();
+    }
+
+    @Override
+    public void Next() throws DBException {
+        if (!hasNext()) {
+            currentTuple = null;
+            return;
+        }
+        ByteBuf buf = Unpooled.buffer(recordSize);
+        RID rid;
+        if (compositeEntries != null) {
+            CompositeIndex.Entry entry = compositeEntries.next();
+            CompositeKey key = entry.key();
+            for (int i = 0; i < key.size(); i++) {
+                write(buf, coveredColumns.get(i), key.get(i));
+            }
+            for (int i = 0; i < entry.included().length; i++) {
+                write(buf, coveredColumns.get(key.size() + i), entry.included()[i]);
+            }
+            rid = entry.rid();
+        } else {
+            Map.Entry<Value, RID> entry = indexEntries.next();
+            write(buf, coveredColumns.get(0), entry.getKey());
+            rid = entry.getValue();
+        }
+        currentTuple = new TableTuple(tableName, tableMeta, new Record(buf, recordSize), rid);
+        produced++;
+    }
+
+    private static void write(ByteBuf buf, ColumnMeta columnMeta, Value value) throws DBException {
+        buf.writerIndex(columnMeta.offset);
+        columnMeta.encode(value, buf);
+    }
+
+    @Override
+    public Tuple Current() {
+        return currentTuple;
+    }
+
+    @Override
+    public void Close() {
+        if (!isOpen) {
+            return;
+        }
+        Logger.debug("Index-only scan on {} produced {} rows", tableName, produced);
+        compositeEntries = null;
+        indexEntries = null;
+        currentTuple = null;
+        isOpen = false;
+    }
+
+    @Override
+    public ArrayList<ColumnMeta> outputSchema() {
+        return tableMeta.columns_list;
+    }
+}
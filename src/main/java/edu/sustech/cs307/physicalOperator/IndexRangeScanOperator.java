@@ -0,0 +1,119 @@
+package edu.sustech.cs307.physicalOperator;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.exception.ExceptionTypes;
+import edu.sustech.cs307.index.Index;
+import edu.sustech.cs307.meta.ColumnMeta;
+import edu.sustech.cs307.meta.TableMeta;
+import edu.sustech.cs307.record.RID;
+import edu.sustech.cs307.record.Record;
+import edu.sustech.cs307.record.RecordFileHandle;
+import edu.sustech.cs307.system.DBManager;
+import edu.sustech.cs307.tuple.TableTuple;
+import edu.sustech.cs307.tuple.Tuple;
+import edu.sustech.cs307.value.Value;
+import org.pmw.tinylog.Logger;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * 通过单列有序索引读取键落在 [low, high] 内的记录，任一端为 null 表示不限。
+ *
+ * <p>
+ * 与 {@link IndexScanOperator} 先取出全部 RID 不同，这里沿叶子链逐条读取索引条目并回表，
+ * 不在内存中物化 RID 列表；上层只需要前几行时（如 LIMIT）不会读完整个范围。
+ * 范围只按索引列缩小扫描，完整的 WHERE 仍由上层的 {@link FilterOperator} 检查。
+ * </p>
+ */
+public class IndexRangeScanOperator implements PhysicalOperator {
+    private final String tableName;
+    private final DBManager dbManager;
+    private final Index index;
+    private final Value low;
+    private final boolean lowInclusive;
+    private final Value high;
+    private final boolean highInclusive;
+    private final TableMeta tableMeta;
+
+    private RecordFileHandle fileHandle;
+    private Iterator<Map.Entry<Value, RID>> entries;
+    private Record currentRecord;
+    private RID currentRID;
+    private long produced;
+    private boolean isOpen = false;
+
+    public IndexRangeScanOperator(String tableName, DBManager dbManager, Index index, Value low,
+            boolean lowInclusive, Value high, boolean highInclusive) throws DBException {
+        this.tableName = tableName;
+        this.dbManager = dbManager;
+        this.index = index;
+        this.low = low;
+        this.lowInclusive = lowInclusive;
+        this.high = high;
+        this.highInclusive = highInclusive;
+        this.tableMeta = dbManager.getMetaManager().getTable(tableName);
+        if (this.tableMeta == null) {
+            throw new DBException(ExceptionTypes.TableDoesNotExist(tableName));
+        }
+    }
+
+    @Override
+    public void Begin() throws DBException {
+        fileHandle = dbManager.getRecordManager().OpenFile(tableName);
+        entries = index.Range(low, high, lowInclusive, highInclusive);
+        currentRecord = null;
+        currentRID = null;
+        produced = 0;
+        isOpen = true;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return isOpen && entries.hasNext();
+    }
+
+    @Override
+    public void Next() throws DBException {
+        if (!hasNext()) {
+            currentRecord = null;
+            currentRID = null;
+            return;
+        }
+        currentRID = entries.next().getValue();
+        currentRecord = fileHandle.GetRecord(currentRID);
+        produced++;
+    }
+
+    @Override
+    public Tuple Current() {
+        if (!isOpen || currentRecord == null) {
+            return null;
+        }
+        return new TableTuple(tableName, tableMeta, currentRecord, currentRID);
+    }
+
+    @Override
+    public void Close() {
+        if (!isOpen) {
+            return;
+        }
+        Logger.debug("Index range scan on {}.{} produced {} rows", tableName, index.getColumnName(), produced);
+        try {
+            dbManager.getRecordManager().CloseFile(fileHandle);
+        } catch (DBException e) {
+            Logger.error("Failed to close file handle: " + e.getMessage());
+        }
+        fileHandle = null;
+        entries = null;
+        currentRecord = null;
+        currentRID = null;
+        isOpen = false;
+    }
+
+    @Override
+    public ArrayList<ColumnMeta> outputSchema() {
+        return tableMeta.columns_list;
+    }
+}
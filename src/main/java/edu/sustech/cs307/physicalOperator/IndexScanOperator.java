@@ -5,18 +5,26 @@ import edu.sustech.cs307.meta.ColumnMeta;
 import edu.sustech.cs307.meta.TableMeta;
 import edu.sustech.cs307.record.RID;
 import edu.sustech.cs307.record.Record;
+import edu.sustech.cs307.record.RecordFetchCursor;
 import edu.sustech.cs307.record.RecordFileHandle;
 import edu.sustech.cs307.system.DBManager;
 import edu.sustech.cs307.tuple.TableTuple;
 import edu.sustech.cs307.tuple.Tuple;
 import edu.sustech.cs307.index.Index;
 import edu.sustech.cs307.index.BPlusTreeIndex;
+import edu.sustech.cs307.index.BloomFilter;
 import edu.sustech.cs307.value.Value;
 import org.pmw.tinylog.Logger;
 
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * 等值索引扫描。匹配的行数较少时按索引返回的顺序逐行回表；不少于
+ * {@link BitmapIndexScanOperator#SORTED_FETCH_MIN_ROWS} 行时先按 (页号, 槽号) 排序 RID，
+ * 每个页面只读取一次并向后预读，避免同一页面被反复随机访问。
+ * 产生的元组直接引用页面帧，在下一次 {@link #Next()} 或 {@link #Close()} 之前有效。
+ */
 public class IndexScanOperator implements PhysicalOperator {
     private String tableName;
     private String columnName; // The column on which the index is defined and used for searching
@@ -28,7 +36,7 @@ public class IndexScanOperator implements PhysicalOperator {
     private boolean isOpen = false;
     private Index index; // Holds the actual index structure (e.g., BPlusTreeIndex)
     private List<RID> matchingRIDs;
-    private int currentRIDIndex;
+    private RecordFetchCursor cursor;
 
     // Constructor for an exact match query using an index
     public IndexScanOperator(String tableName, String columnName, Value searchKey, DBManager dbManager, Index index) {
@@ -50,7 +58,7 @@ public class IndexScanOperator implements PhysicalOperator {
         if (!isOpen) {
             return false;
         }
-        return currentRIDIndex < matchingRIDs.size();
+        return cursor.hasNext();
     }
 
     @Override
@@ -69,7 +77,13 @@ public class IndexScanOperator implements PhysicalOperator {
             }
 
             matchingRIDs = findMatchingRIDs(); // Use the provided index to find RIDs
-            currentRIDIndex = 0;
+            if (matchingRIDs.size() >= BitmapIndexScanOperator.SORTED_FETCH_MIN_ROWS) {
+                matchingRIDs = new ArrayList<>(matchingRIDs);
+                matchingRIDs.sort(RID.PAGE_ORDER);
+                Logger.debug("Index scan on {}.{} fetches {} rows in page order", tableName, columnName,
+                        matchingRIDs.size());
+            }
+            cursor = fileHandle.openFetchCursor(matchingRIDs);
             isOpen = true;
         } catch (DBException e) {
             Logger.error("Failed to begin index scan: " + e.getMessage());
@@ -81,6 +95,11 @@ public class IndexScanOperator implements PhysicalOperator {
     // Uses the associated index to find RIDs matching the searchKey.
     private List<RID> findMatchingRIDs() throws DBException {
         if (this.index != null && this.searchKey != null) {
+            // 布隆过滤器判定键一定不存在时不必遍历索引
+            BloomFilter filter = dbManager.getIndexManager().getBloomFilter(tableName, index.getColumnName());
+            if (filter != null && !filter.mightContain(searchKey)) {
+                return new ArrayList<>();
+            }
             // Assuming the Index interface has a search method.
             // Our BPlusTreeIndex (simulated with TreeMap) has search(Value key).
             return this.index.search(this.searchKey);
@@ -99,8 +118,8 @@ public class IndexScanOperator implements PhysicalOperator {
         }
 
         try {
-            RID rid = matchingRIDs.get(currentRIDIndex++);
-            currentRecord = fileHandle.GetRecord(rid);
+            cursor.next();
+            currentRecord = cursor.getRecord();
         } catch (DBException e) {
             Logger.error("Failed to get next record: " + e.getMessage());
             currentRecord = null;
@@ -114,8 +133,7 @@ public class IndexScanOperator implements PhysicalOperator {
             return null;
         }
 
-        RID rid = matchingRIDs.get(currentRIDIndex - 1);
-        return new TableTuple(tableName, tableMeta, currentRecord, rid);
+        return new TableTuple(tableName, tableMeta, currentRecord, cursor.getRID());
     }
 
     @Override
@@ -125,6 +143,7 @@ public class IndexScanOperator implements PhysicalOperator {
         }
 
         try {
+            cursor.close();
             dbManager.getRecordManager().CloseFile(fileHandle);
         } catch (DBException e) {
             Logger.error("Failed to close file handle: " + e.getMessage());
@@ -133,6 +152,7 @@ public class IndexScanOperator implements PhysicalOperator {
         fileHandle = null;
         currentRecord = null;
         matchingRIDs = null;
+        cursor = null;
         isOpen = false;
     }
 
@@ -2,6 +2,7 @@ package edu.sustech.cs307.physicalOperator;
 
 import edu.sustech.cs307.exception.DBException;
 import edu.sustech.cs307.exception.ExceptionTypes;
+import edu.sustech.cs307.index.BloomFilter;
 import edu.sustech.cs307.meta.ColumnMeta;
 import edu.sustech.cs307.meta.TabCol;
 import edu.sustech.cs307.meta.TableMeta;
@@ -10,11 +11,7 @@ import edu.sustech.cs307.tuple.TempTuple;
 import edu.sustech.cs307.tuple.Tuple;
 import edu.sustech.cs307.value.Value;
 import edu.sustech.cs307.value.ValueType;
-import edu.sustech.cs307.record.RID;
-import edu.sustech.cs307.record.Record;
 import edu.sustech.cs307.system.IndexSynchronizer;
-import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 
 import java.util.List;
 import java.util.ArrayList;
@@ -82,37 +79,22 @@ public class InsertOperator implements PhysicalOperator {
                 }
             }
 
-            List<RID> insertedRIDs = new ArrayList<>();
-            List<Record> insertedRecords = new ArrayList<>();
             int totalRows = values.size() / columnSize;
-            insertedRIDs = new ArrayList<>(totalRows);
-            insertedRecords = new ArrayList<>(totalRows);
-            for (int row = 0; row < totalRows; row++) {
-                ByteBuf rowBuffer = Unpooled.buffer();
-                try {
-                    for (int col = 0; col < columnSize; col++) {
-                        Value value = values.get(row * columnSize + col);
-                        rowBuffer.writeBytes(value.ToByte());
-                    }
-
-                    RID insertedRID = fileHandle.InsertRecord(rowBuffer);
-                    insertedRIDs.add(insertedRID);
-                } finally {
-                    rowBuffer.release(); // 确保释放行缓冲区
-                }
-            }
+            boolean hasIndexes = tableMeta.hasAnyIndex();
 
-            if (!insertedRIDs.isEmpty()) {
-                for (RID rid : insertedRIDs) {
-                    Record record = fileHandle.GetRecord(rid);
-                    insertedRecords.add(record);
+            // 每个页面只固定一次，值直接编码进槽位；索引在页面仍被固定时通过记录视图同步
+            List<ColumnMeta> columnMetas = tableMeta.columns_list;
+            fileHandle.insertBatch(totalRows, (row, slot) -> {
+                for (int col = 0; col < columnSize; col++) {
+                    columnMetas.get(col).encode(values.get(row * columnSize + col), slot);
                 }
+            }, hasIndexes ? (rid, record) -> {
                 try {
-                    batchUpdateIndexes(indexSynchronizer, insertedRecords, insertedRIDs);
+                    indexSynchronizer.onRecordInserted(data_file, record, rid);
                 } catch (DBException e) {
-                    org.pmw.tinylog.Logger.warn("Failed to batch update indexes after insert: {}", e.getMessage());
+                    org.pmw.tinylog.Logger.warn("Failed to update indexes after insert: {}", e.getMessage());
                 }
-            }
+            } : null);
 
             this.rowCount = totalRows;
             dbManager.getDiskManager().setBatchMode(false);
@@ -133,13 +115,27 @@ public class InsertOperator implements PhysicalOperator {
     }
 
     /**
-     * 批量检查主键冲突
+     * 批量检查主键冲突。先用主键列的布隆过滤器排除一定不存在的键，
+     * 全部排除时既不查索引也不扫描表；只有剩下的键才通过索引或全表扫描确认。
      */
     private boolean batchCheckPrimaryKeyConflict(TableMeta tableMeta, String primaryKeyColumn,
             Set<Value> primaryKeyValues)
             throws DBException {
+        var indexManager = dbManager.getIndexManager();
+        BloomFilter filter = indexManager.ensureBloomFilter(tableMeta.tableName, primaryKeyColumn);
+        if (filter != null) {
+            Set<Value> candidates = new HashSet<>();
+            for (Value pkValue : primaryKeyValues) {
+                if (filter.mightContain(pkValue)) {
+                    candidates.add(pkValue);
+                }
+            }
+            if (candidates.isEmpty()) {
+                return false;
+            }
+            primaryKeyValues = candidates;
+        }
         try {
-            var indexManager = dbManager.getIndexManager();
             var index = indexManager.getIndex(tableMeta.tableName, primaryKeyColumn);
 
             if (index != null) {
@@ -192,16 +188,6 @@ public class InsertOperator implements PhysicalOperator {
         }
     }
 
-    /**
-     * 批量更新索引
-     */
-    private void batchUpdateIndexes(IndexSynchronizer indexSynchronizer,
-            List<Record> insertedRecords, List<RID> insertedRIDs) throws DBException {
-        for (int i = 0; i < insertedRecords.size(); i++) {
-            indexSynchronizer.onRecordInserted(data_file, insertedRecords.get(i), insertedRIDs.get(i));
-        }
-    }
-
     @Override
     public void Next() {
     }
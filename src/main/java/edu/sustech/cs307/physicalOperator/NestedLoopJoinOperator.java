@@ -140,6 +140,9 @@ public class NestedLoopJoinOperator implements PhysicalOperator {
                 if (currentOuterTuple == null) {
                     continue;
                 }
+                // 外表元组要在内表的整轮扫描中保持有效，并随连接结果交给上层，
+                // 扫描算子产生的零拷贝元组在外表前进后即失效，先物化
+                currentOuterTuple = currentOuterTuple.materialize();
 
                 outerTupleMatched = false;
 
@@ -222,9 +225,11 @@ public class NestedLoopJoinOperator implements PhysicalOperator {
     }
 
     /**
-     * 创建普通的连接元组
+     * 创建普通的连接元组。内表元组在内表前进或重新开始后失效，连接结果又会比
+     * {@link #Current()} 提前一行产生，因此物化后再放入结果；外表元组取出时已物化。
      */
     private JoinTuple createJoinTuple(Tuple outerTuple, Tuple innerTuple) throws DBException {
+        innerTuple = innerTuple.materialize();
         Tuple leftTuple, rightTuple;
 
         if (swapped) {
@@ -0,0 +1,180 @@
+package edu.sustech.cs307.physicalOperator;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.exception.ExceptionTypes;
+import edu.sustech.cs307.meta.ColumnMeta;
+import edu.sustech.cs307.meta.TableMeta;
+import edu.sustech.cs307.record.BitMap;
+import edu.sustech.cs307.record.RID;
+import edu.sustech.cs307.record.Record;
+import edu.sustech.cs307.record.RecordFileHandle;
+import edu.sustech.cs307.record.RecordPageHandle;
+import edu.sustech.cs307.system.DBManager;
+import edu.sustech.cs307.tuple.TableTuple;
+import edu.sustech.cs307.tuple.Tuple;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.pmw.tinylog.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 列裁剪扫描算子，主要面向 PAX 布局的表。
+ *
+ * <p>
+ * 每次装载一个页面，按列逐个拷贝所需列的 minipage 数据到本页的行缓冲中，随后立即解除页面固定。
+ * 未被查询引用的列不会被读取，输出的 {@link TableTuple} 中这些列的字节保持为 0。
+ * 因此调用方必须保证上层算子只访问构造时传入的列。
+ * </p>
+ */
+public class PaxScanOperator implements PhysicalOperator {
+    private final String tableName;
+    private final DBManager dbManager;
+    private final TableMeta tableMeta;
+    private final List<ColumnMeta> projectedColumns;
+
+    private RecordFileHandle fileHandle;
+    private int totalPages;
+    private int recordsPerPage;
+    private int recordSize;
+    private int currentPageNum;
+    private boolean isOpen = false;
+
+    // 当前页面中已解码的行
+    private final List<Record> pageRecords = new ArrayList<>();
+    private final List<RID> pageRIDs = new ArrayList<>();
+    private int pageCursor;
+    private TableTuple currentTuple;
+
+    /**
+     * @param tableName 表名
+     * @param dbManager 数据库管理器
+     * @param columns   需要解码的列名；为 null 时解码全部列
+     */
+    public PaxScanOperator(String tableName, DBManager dbManager, Collection<String> columns) throws DBException {
+        this.tableName = tableName;
+        this.dbManager = dbManager;
+        this.tableMeta = dbManager.getMetaManager().getTable(tableName);
+        if (this.tableMeta == null) {
+            throw new DBException(ExceptionTypes.TableDoesNotExist(tableName));
+        }
+        this.projectedColumns = new ArrayList<>();
+        for (ColumnMeta columnMeta : tableMeta.columns_list) {
+            if (columns == null || columns.stream().anyMatch(c -> c.equalsIgnoreCase(columnMeta.name))) {
+                projectedColumns.add(columnMeta);
+            }
+        }
+    }
+
+    @Override
+    public void Begin() throws DBException {
+        fileHandle = dbManager.getRecordManager().OpenFile(tableName);
+        totalPages = fileHandle.getFileHeader().getNumberOfPages();
+        recordsPerPage = fileHandle.getFileHeader().getNumberOfRecordsPrePage();
+        recordSize = fileHandle.getFileHeader().getRecordSize();
+        currentPageNum = 0;
+        pageRecords.clear();
+        pageRIDs.clear();
+        pageCursor = 0;
+        currentTuple = null;
+        isOpen = true;
+    }
+
+    @Override
+    public boolean hasNext() throws DBException {
+        if (!isOpen) {
+            return false;
+        }
+        while (pageCursor >= pageRecords.size()) {
+            if (currentPageNum >= totalPages) {
+                return false;
+            }
+            currentPageNum++;
+            loadPage(currentPageNum);
+        }
+        return true;
+    }
+
+    @Override
+    public void Next() throws DBException {
+        if (!hasNext()) {
+            currentTuple = null;
+            return;
+        }
+        currentTuple = new TableTuple(tableName, tableMeta, pageRecords.get(pageCursor), pageRIDs.get(pageCursor));
+        pageCursor++;
+    }
+
+    /**
+     * 装载一个页面：先根据位图收集有效槽位，再按列逐个拷贝所需列，保证对每个 minipage 顺序访问。
+     */
+    private void loadPage(int pageNum) throws DBException {
+        pageRecords.clear();
+        pageRIDs.clear();
+        pageCursor = 0;
+
+        RecordPageHandle pageHandle = fileHandle.FetchPageHandle(pageNum);
+        try {
+            int liveCount = BitMap.count(pageHandle.bitmap, recordsPerPage);
+            if (liveCount == 0) {
+                return;
+            }
+            int[] liveSlots = new int[liveCount];
+            int slot = BitMap.firstBit(true, pageHandle.bitmap, recordsPerPage);
+            for (int i = 0; i < liveCount; i++) {
+                liveSlots[i] = slot;
+                slot = BitMap.nextBit(true, pageHandle.bitmap, recordsPerPage, slot);
+            }
+
+            // 整页的行共享一块缓冲，每行是其中的一个切片
+            ByteBuf rows = Unpooled.buffer(liveCount * recordSize, liveCount * recordSize);
+            for (ColumnMeta column : projectedColumns) {
+                for (int i = 0; i < liveCount; i++) {
+                    int src = pageHandle.columnPosition(liveSlots[i], column.offset, column.len);
+                    rows.setBytes(i * recordSize + column.offset, pageHandle.slots, src, column.len);
+                }
+            }
+            for (int i = 0; i < liveCount; i++) {
+                pageRecords.add(new Record(rows.slice(i * recordSize, recordSize), recordSize));
+                pageRIDs.add(new RID(pageNum, liveSlots[i]));
+            }
+        } finally {
+            fileHandle.UnpinPageHandle(pageNum, false);
+        }
+    }
+
+    @Override
+    public Tuple Current() {
+        return currentTuple;
+    }
+
+    @Override
+    public void Close() {
+        if (!isOpen) {
+            return;
+        }
+        try {
+            if (fileHandle != null) {
+                dbManager.getRecordManager().CloseFile(fileHandle);
+            }
+        } catch (DBException e) {
+            Logger.error("Failed to close file handle: " + e.getMessage());
+        }
+        fileHandle = null;
+        pageRecords.clear();
+        pageRIDs.clear();
+        currentTuple = null;
+        isOpen = false;
+    }
+
+    @Override
+    public ArrayList<ColumnMeta> outputSchema() {
+        return tableMeta.columns_list;
+    }
+
+    public List<ColumnMeta> getProjectedColumns() {
+        return projectedColumns;
+    }
+}
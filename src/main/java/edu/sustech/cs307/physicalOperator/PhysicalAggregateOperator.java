@@ -21,22 +21,43 @@ import java.util.List;
 import java.util.Map;
 
 public class PhysicalAggregateOperator implements PhysicalOperator {
+    /**
+     * 不扫描子节点即可得到的行数来源，例如表文件头中维护的有效行数。
+     */
+    @FunctionalInterface
+    public interface RowCountSource {
+        long rowCount() throws DBException;
+    }
+
     private final PhysicalOperator child;
     private final LogicalAggregateOperator logicalOperator;
+    private final RowCountSource rowCountSource;
     private List<Tuple> resultTuples;
     private int iteratorIndex;
     private ArrayList<ColumnMeta> schema;
 
     public PhysicalAggregateOperator(PhysicalOperator child, LogicalAggregateOperator logicalOperator) {
+        this(child, logicalOperator, null);
+    }
+
+    /**
+     * 创建一个直接使用已知行数回答的聚合运算符。调用方需保证聚合项只有无过滤、无分组的 COUNT(*)，
+     * 此时不会打开子节点。
+     */
+    public PhysicalAggregateOperator(PhysicalOperator child, LogicalAggregateOperator logicalOperator,
+            RowCountSource rowCountSource) {
         this.child = child;
         this.logicalOperator = logicalOperator;
+        this.rowCountSource = rowCountSource;
         this.resultTuples = new ArrayList<>();
         this.iteratorIndex = -1; // 初始化为第一条记录之前
     }
 
     @Override
     public void Begin() throws DBException {
-        child.Begin();
+        if (rowCountSource == null) {
+            child.Begin();
+        }
         this.iteratorIndex = -1; // 在构建resultTuples之前重置指针
         // 首先初始化模式
         this.schema = new ArrayList<>();
@@ -77,7 +98,9 @@ public class PhysicalAggregateOperator implements PhysicalOperator {
             // 带有GROUP BY的聚合
             performGroupByAggregation(selectItems, groupByExpressions);
         }
-        child.Close();
+        if (rowCountSource == null) {
+            child.Close();
+        }
     }
 
     /**
@@ -174,8 +197,18 @@ public class PhysicalAggregateOperator implements PhysicalOperator {
             }
         }
 
+        // 行数已知时直接作为 COUNT(*) 的结果
+        if (rowCountSource != null) {
+            long rowCount = rowCountSource.rowCount();
+            for (SelectItem<?> item : selectItems) {
+                if (item.getExpression() instanceof Function func) {
+                    aggregateValues.put(func.toString(), rowCount);
+                }
+            }
+        }
+
         // 处理每一行数据
-        while (child.hasNext()) {
+        while (rowCountSource == null && child.hasNext()) {
             child.Next();
             Tuple tuple = child.Current();
             if (tuple == null)
@@ -40,11 +40,12 @@ public class PhysicalOrderByOperator implements PhysicalOperator {
     public void Begin() throws DBException {
         child.Begin();
 
-        // 收集所有tuple
+        // 收集所有tuple，子算子的元组可能引用页面帧，需要先物化
         List<Tuple> allTuples = new ArrayList<>();
         while (child.hasNext()) {
             child.Next();
-            allTuples.add(child.Current());
+            Tuple tuple = child.Current();
+            allTuples.add(tuple != null ? tuple.materialize() : null);
         }
 
         Comparator<Tuple> comparator = createComparator();
@@ -9,31 +9,54 @@ import edu.sustech.cs307.meta.TableMeta;
 import edu.sustech.cs307.exception.DBException;
 import edu.sustech.cs307.exception.ExceptionTypes;
 import edu.sustech.cs307.record.RID;
-import edu.sustech.cs307.record.RecordPageHandle;
-import edu.sustech.cs307.record.BitMap;
 import edu.sustech.cs307.record.Record;
 import edu.sustech.cs307.record.RecordFileHandle;
+import edu.sustech.cs307.record.RecordPageCursor;
+import edu.sustech.cs307.record.ZoneMap;
 import org.pmw.tinylog.Logger;
 
 import java.util.ArrayList;
-
+import java.util.List;
+
+/**
+ * 顺序扫描算子。
+ *
+ * <p>
+ * 基于 {@link RecordPageCursor} 逐页扫描，每个页面只固定一次。产生的 {@link TableTuple}
+ * 以零拷贝方式直接引用页面帧中的槽位，逐行扫描不再分配或复制记录数据。元组在下一次
+ * {@link #Next()} 或 {@link #Close()} 之前有效；需要跨行保存元组的算子应调用
+ * {@link Tuple#materialize()}。
+ * </p>
+ *
+ * <p>
+ * 给定 WHERE 中数值列上的范围时，扫描依据表的 {@link ZoneMap} 跳过最值落在范围之外的页面，
+ * 这些页面不会被读入缓冲池；完整的 WHERE 仍由上层的 {@link FilterOperator} 检查。
+ * </p>
+ */
 public class SeqScanOperator implements PhysicalOperator {
     private String tableName;
     private DBManager dbManager;
     private TableMeta tableMeta;
     private RecordFileHandle fileHandle;
+    private RecordPageCursor cursor;
     private Record currentRecord;
     private RID currentRID; // 添加这个字段来保存当前记录的正确RID
-
-    private int currentPageNum;
-    private int currentSlotNum;
-    private int totalPages;
-    private int recordsPerPage;
     private boolean isOpen = false;
+    // 用于跳过页面的列范围，为空时读取全部页面
+    private final List<ZoneMap.Bound> zoneBounds;
 
     public SeqScanOperator(String tableName, DBManager dbManager) throws DBException {
+        this(tableName, dbManager, List.of());
+    }
+
+    /**
+     * @param zoneBounds WHERE 中 AND 连接的数值列范围，扫描跳过不可能满足这些范围的页面
+     */
+    public SeqScanOperator(String tableName, DBManager dbManager, List<ZoneMap.Bound> zoneBounds)
+            throws DBException {
         this.tableName = tableName;
         this.dbManager = dbManager;
+        this.zoneBounds = zoneBounds;
         try {
             this.tableMeta = dbManager.getMetaManager().getTable(tableName);
             if (this.tableMeta == null) {
@@ -51,35 +74,28 @@ public class SeqScanOperator implements PhysicalOperator {
             return false;
 
         try {
-            // Check if current page and slot are valid, and if there are more records
-            if (currentPageNum <= totalPages) {
-                while (currentPageNum <= totalPages) {
-                    RecordPageHandle pageHandle = fileHandle.FetchPageHandle(currentPageNum);
-                    while (currentSlotNum < recordsPerPage) {
-                        if (BitMap.isSet(pageHandle.bitmap, currentSlotNum)) {
-                            return true; // Found next record
-                        }
-                        currentSlotNum++;
-                    }
-                    currentPageNum++;
-                    currentSlotNum = 0; // Reset slot num for new page
-                }
-            }
+            return cursor.hasNext();
         } catch (DBException e) {
             Logger.error("Error checking for next record: " + e.getMessage());
             throw e; // 传播异常以便上层处理
         }
-        return false; // No more records
     }
 
     @Override
     public void Begin() throws DBException {
         try {
+            ZoneMap zoneMap = zoneBounds.isEmpty() ? null : dbManager.getZoneMap(tableName);
             fileHandle = dbManager.getRecordManager().OpenFile(tableName);
-            totalPages = fileHandle.getFileHeader().getNumberOfPages();
-            recordsPerPage = fileHandle.getFileHeader().getNumberOfRecordsPrePage();
-            currentPageNum = 1; // Start from first page
-            currentSlotNum = 0; // Start from first slot
+            if (zoneMap != null) {
+                RecordFileHandle handle = fileHandle;
+                // 扫描期间摘要过期（例如被不维护摘要的句柄修改）时不再跳过页面
+                cursor = fileHandle.openCursor(pageId -> !zoneMap.isCurrent(handle.getFileHeader().getVersion())
+                        || zoneMap.mayMatch(pageId, zoneBounds));
+            } else {
+                cursor = fileHandle.openCursor();
+            }
+            currentRecord = null;
+            currentRID = null;
             isOpen = true;
         } catch (DBException e) {
             Logger.error("Failed to begin scan: " + e.getMessage());
@@ -94,18 +110,9 @@ public class SeqScanOperator implements PhysicalOperator {
             return;
 
         try {
-            if (hasNext()) { // Advance to the next record
-                RID rid = new RID(currentPageNum, currentSlotNum);
-                currentRecord = fileHandle.GetRecord(rid);
-                currentRID = rid; // 更新currentRID为当前记录的RID
-                currentSlotNum++;
-                if (currentSlotNum >= recordsPerPage) {
-                    currentPageNum++;
-                    currentSlotNum = 0;
-                }
-
-                // 修改从readonly到false，因为如果页面被修改，我们需要将其标记为脏页
-                fileHandle.UnpinPageHandle(currentPageNum, false);
+            if (cursor.next()) { // Advance to the next record
+                currentRecord = cursor.getRecord();
+                currentRID = cursor.getRID(); // 更新currentRID为当前记录的RID
             } else {
                 currentRecord = null;
             }
@@ -130,6 +137,13 @@ public class SeqScanOperator implements PhysicalOperator {
             return;
 
         try {
+            if (cursor != null) {
+                if (cursor.getPagesSkipped() > 0) {
+                    Logger.debug("Sequential scan on {} skipped {} pages by zone map", tableName,
+                            cursor.getPagesSkipped());
+                }
+                cursor.close();
+            }
             if (fileHandle != null) {
                 dbManager.getRecordManager().CloseFile(fileHandle);
             }
@@ -138,6 +152,7 @@ public class SeqScanOperator implements PhysicalOperator {
             // 在Close方法中不需要抛出异常，因为这通常在finally块中调用
         }
 
+        cursor = null;
         fileHandle = null;
         currentRecord = null;
         isOpen = false;
@@ -2,6 +2,7 @@ package edu.sustech.cs307.physicalOperator;
 
 import edu.sustech.cs307.exception.DBException;
 import edu.sustech.cs307.exception.ExceptionTypes;
+import edu.sustech.cs307.index.BloomFilter;
 import edu.sustech.cs307.meta.ColumnMeta;
 import edu.sustech.cs307.meta.TabCol;
 import edu.sustech.cs307.meta.TableMeta;
@@ -163,8 +164,8 @@ public class UpdateOperator implements PhysicalOperator {
                 }
 
                 ByteBuf buffer = Unpooled.buffer();
-                for (Value v : newValues) {
-                    buffer.writeBytes(v.ToByte());
+                for (int i = 0; i < newValues.size(); i++) {
+                    tableMeta.columns_list.get(i).encode(newValues.get(i), buffer);
                 }
 
                 fileHandle.UpdateRecord(tuple.getRID(), buffer);
@@ -196,9 +197,14 @@ public class UpdateOperator implements PhysicalOperator {
      */
     private boolean checkPrimaryKeyConflictForUpdate(TableMeta tableMeta, String primaryKeyColumn,
             Value newPrimaryKeyValue, RID currentRID) throws DBException {
+        var indexManager = dbManager.getIndexManager();
+        // 布隆过滤器判定新主键一定不存在时，不必查索引或扫描表
+        BloomFilter filter = indexManager.ensureBloomFilter(tableMeta.tableName, primaryKeyColumn);
+        if (filter != null && !filter.mightContain(newPrimaryKeyValue)) {
+            return false;
+        }
         try {
             // 使用索引查找是否存在相同的主键值
-            var indexManager = dbManager.getIndexManager();
             var index = indexManager.getIndex(tableMeta.tableName, primaryKeyColumn);
 
             if (index != null) {
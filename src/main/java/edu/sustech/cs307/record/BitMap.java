@@ -50,6 +50,12 @@ public class BitMap {
     /**
      * 查找在位图中下一个与给定值相同的位。
      *
+     * <p>
+     * 每次读取 8 个字节作为一个 64 位字进行判断，整字全满或全空时一次跳过 64 个槽位。
+     * 位图按字节内高位在前排列，大端读取后槽位顺序与字内从高到低的顺序一致，
+     * 因此用 {@link Long#numberOfLeadingZeros(long)} 定位第一个匹配位。
+     * </p>
+     *
      * @param bit  要查找的位值（true 或 false）。
      * @param bm   位图的 ByteBuf 对象。
      * @param maxN 位图的最大索引。
@@ -57,14 +63,52 @@ public class BitMap {
      * @return 返回下一个与给定位值相同的索引，如果未找到则返回 maxN。
      */
     public static int nextBit(boolean bit, ByteBuf bm, int maxN, int curr) {
-        for (int i = curr + 1; i < maxN; i++) {
-            if (isSet(bm, i) == bit) {
-                return i;
+        int pos = curr + 1;
+        int bytes = byteLength(maxN);
+        while (pos < maxN) {
+            int bucket = getBucket(pos);
+            int width = bucket + Long.BYTES <= bytes ? Long.SIZE : BITMAP_WIDTH;
+            long word = readWord(bm, bucket, width);
+            if (!bit) {
+                word = ~word & highBits(width);
+            }
+            // 丢弃字内 pos 之前的位
+            word &= -1L >>> (pos % BITMAP_WIDTH);
+            if (word != 0) {
+                int found = bucket * BITMAP_WIDTH + Long.numberOfLeadingZeros(word);
+                return Math.min(found, maxN);
             }
+            pos = bucket * BITMAP_WIDTH + width;
         }
         return maxN;
     }
 
+    /**
+     * 统计位图前 maxN 位中被设置的位数。
+     *
+     * @param bm   位图的 ByteBuf 对象。
+     * @param maxN 统计的位数。
+     * @return 被设置的位数
+     */
+    public static int count(ByteBuf bm, int maxN) {
+        int bytes = byteLength(maxN);
+        int total = 0;
+        int bucket = 0;
+        for (; bucket + Long.BYTES <= bytes; bucket += Long.BYTES) {
+            total += Long.bitCount(bm.getLong(bucket));
+        }
+        for (; bucket < bytes; bucket++) {
+            total += Integer.bitCount(bm.getByte(bucket) & 0xFF);
+        }
+        // 最后一个字节中超出 maxN 的位不计入
+        int tail = maxN % BITMAP_WIDTH;
+        if (tail != 0) {
+            int extra = bm.getByte(bytes - 1) & (0xFF >>> tail);
+            total -= Integer.bitCount(extra);
+        }
+        return total;
+    }
+
     /**
      * 返回在位图中第一个匹配的位的索引。
      *
@@ -77,6 +121,31 @@ public class BitMap {
         return nextBit(bit, bm, maxN, -1);
     }
 
+    /**
+     * 读取从 bucket 开始的一个字，width 为 64 时读取 8 个字节，否则只读取 1 个字节，
+     * 结果统一左对齐到 long 的最高位。
+     */
+    private static long readWord(ByteBuf bm, int bucket, int width) {
+        if (width == Long.SIZE) {
+            return bm.getLong(bucket);
+        }
+        return (bm.getByte(bucket) & 0xFFL) << (Long.SIZE - BITMAP_WIDTH);
+    }
+
+    /**
+     * 返回最高 width 位为 1 的掩码。
+     */
+    private static long highBits(int width) {
+        return width == Long.SIZE ? -1L : -1L << (Long.SIZE - width);
+    }
+
+    /**
+     * 存放 maxN 个位所需的字节数。
+     */
+    private static int byteLength(int maxN) {
+        return (maxN + BITMAP_WIDTH - 1) / BITMAP_WIDTH;
+    }
+
     /**
      * 根据给定的位置计算对应的桶索引。
      *
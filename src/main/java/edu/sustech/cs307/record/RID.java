@@ -1,6 +1,14 @@
 package edu.sustech.cs307.record;
 
+import java.util.Comparator;
+
 public class RID {
+    /**
+     * 按 (页号, 槽号) 排序，回表时同一页面的记录相邻
+     */
+    public static final Comparator<RID> PAGE_ORDER = Comparator.comparingInt((RID rid) -> rid.pageNum)
+            .thenComparingInt(rid -> rid.slotNum);
+
     public int pageNum;
     public int slotNum;
 
@@ -13,6 +13,8 @@ public class Record {
     ByteBuf data;
     // 数据大小
     int size;
+    // 是否为直接引用页面帧的零拷贝视图
+    private boolean view = false;
 
     /**
      * 使用指定的字节缓冲区和大小初始化记录。
@@ -63,6 +65,40 @@ public class Record {
         this.size = data.capacity();
     }
 
+    /**
+     * 创建直接引用页面帧槽位数据的只读记录，不复制数据。
+     * 该记录只在页面保持固定期间有效，需要在页面解除固定后继续使用时须调用 {@link #materialize()}。
+     *
+     * @param slot 页面中的槽位切片
+     * @return 零拷贝记录
+     */
+    public static Record view(ByteBuf slot) {
+        Record record = new Record(slot.asReadOnly(), slot.capacity());
+        record.view = true;
+        return record;
+    }
+
+    /**
+     * 判断该记录是否为引用页面帧的零拷贝视图。
+     *
+     * @return 如果是视图返回 true
+     */
+    public boolean isView() {
+        return view;
+    }
+
+    /**
+     * 将记录物化到独立的内存中。已经拥有数据的记录直接返回自身。
+     *
+     * @return 不再依赖页面帧的记录
+     */
+    public Record materialize() {
+        if (!view) {
+            return this;
+        }
+        return new Record(this.data.copy(0, size), size);
+    }
+
     /**
      * 设置记录的数据。
      *
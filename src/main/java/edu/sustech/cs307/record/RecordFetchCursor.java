@@ -0,0 +1,127 @@
+package edu.sustech.cs307.record;
+
+import edu.sustech.cs307.exception.DBException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按给定的 RID 列表依次读取记录的游标，用于索引查找之后的回表。
+ *
+ * <p>
+ * 相邻的 RID 位于同一页面时只固定一次该页面，并以零拷贝方式产出其中的记录；RID 按 (页号, 槽号)
+ * 排序时每个页面恰好读取一次。进入一个尚未预读的页面时，向后预读接下来
+ * {@link #READ_AHEAD_PAGES} 个将要访问的页面，相邻的页面合并为一次磁盘读取。
+ * 与 {@link RecordPageCursor} 相同，{@link #getRecord()} 返回的记录在下一次 {@link #next()} 或
+ * {@link #close()} 之前有效。
+ * </p>
+ */
+public class RecordFetchCursor {
+    /**
+     * 每次预读的页面数
+     */
+    public static final int READ_AHEAD_PAGES = 16;
+
+    private final RecordFileHandle fileHandle;
+    private final List<RID> rids;
+
+    // 当前 RID 的下标
+    private int position = -1;
+    // 尚未预读的第一个 RID 的下标
+    private int readAheadEnd = 0;
+    private RecordPageHandle currentPage;
+    private int currentPageNum = -1;
+    private int pagesFetched = 0;
+    private boolean closed = false;
+
+    RecordFetchCursor(RecordFileHandle fileHandle, List<RID> rids) {
+        this.fileHandle = fileHandle;
+        this.rids = rids;
+    }
+
+    public boolean hasNext() {
+        return !closed && position + 1 < rids.size();
+    }
+
+    /**
+     * 移动到下一个 RID，之前通过 {@link #getRecord()} 取得的记录随之失效。
+     *
+     * @return 如果成功移动返回 true；没有更多 RID 时返回 false
+     * @throws DBException 如果获取页面失败
+     */
+    public boolean next() throws DBException {
+        if (!hasNext()) {
+            releaseCurrentPage();
+            return false;
+        }
+        RID rid = rids.get(++position);
+        if (rid.pageNum != currentPageNum) {
+            releaseCurrentPage();
+            if (position >= readAheadEnd) {
+                readAhead();
+            }
+            currentPage = fileHandle.FetchPageHandle(rid.pageNum);
+            currentPageNum = rid.pageNum;
+            pagesFetched++;
+        }
+        return true;
+    }
+
+    /**
+     * 从当前位置向后收集 {@link #READ_AHEAD_PAGES} 个不同的页号并预读。
+     */
+    private void readAhead() throws DBException {
+        List<Integer> pageIds = new ArrayList<>(READ_AHEAD_PAGES);
+        int i = position;
+        for (; i < rids.size(); i++) {
+            int pageNum = rids.get(i).pageNum;
+            if (pageIds.isEmpty() || pageIds.get(pageIds.size() - 1) != pageNum) {
+                if (pageIds.size() == READ_AHEAD_PAGES) {
+                    break;
+                }
+                pageIds.add(pageNum);
+            }
+        }
+        readAheadEnd = i;
+        fileHandle.PrefetchPages(pageIds);
+    }
+
+    public RID getRID() {
+        return rids.get(position);
+    }
+
+    /**
+     * 获取当前记录的零拷贝视图。
+     */
+    public Record getRecord() {
+        return fileHandle.GetRecordView(currentPage, rids.get(position).slotNum);
+    }
+
+    /**
+     * @return 到目前为止固定过的页面次数，RID 有序时即读取的不同页面数
+     */
+    public int getPagesFetched() {
+        return pagesFetched;
+    }
+
+    /**
+     * 关闭游标并解除仍被固定的页面。
+     *
+     * @throws DBException 如果解除固定失败
+     */
+    public void close() throws DBException {
+        if (closed) {
+            return;
+        }
+        releaseCurrentPage();
+        closed = true;
+    }
+
+    private void releaseCurrentPage() throws DBException {
+        if (currentPage != null) {
+            fileHandle.UnpinPageHandle(currentPageNum, false);
+            currentPage = null;
+            currentPageNum = -1;
+        }
+    }
+}
@@ -7,6 +7,11 @@ import edu.sustech.cs307.storage.DiskManager;
 import edu.sustech.cs307.storage.Page;
 import edu.sustech.cs307.storage.PagePosition;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntPredicate;
 
 /**
  * 记录文件处理类，负责管理记录文件的读取、插入、删除和更新操作。
@@ -30,10 +35,17 @@ import io.netty.buffer.ByteBuf;
  * </p>
  */
 public class RecordFileHandle {
+    /**
+     * 批量追加时每次顺序写入的页面数（1MB）
+     */
+    public static final int APPEND_PAGES_PER_WRITE = 256;
+
     DiskManager diskManager;
     BufferPool bufferPool;
     String filename;
     RecordFileHeader fileHeader;
+    // 随记录修改一起维护的页摘要，可以为 null
+    ZoneMap zoneMap;
 
     public RecordFileHandle(DiskManager diskManager, BufferPool bufferPool, String filename, RecordFileHeader header)
             throws DBException {
@@ -52,6 +64,24 @@ public class RecordFileHandle {
         return fileHeader;
     }
 
+    /**
+     * 获取随记录修改一起维护的页摘要。
+     *
+     * @return 页摘要，没有时返回 null
+     */
+    public ZoneMap getZoneMap() {
+        return zoneMap;
+    }
+
+    /**
+     * 设置随记录修改一起维护的页摘要。只有摘要与文件头的版本号一致时，修改才会并入摘要。
+     *
+     * @param zoneMap 页摘要，可以为 null
+     */
+    public void setZoneMap(ZoneMap zoneMap) {
+        this.zoneMap = zoneMap;
+    }
+
     /**
      * 获取记录文件的文件名。
      *
@@ -70,7 +100,11 @@ public class RecordFileHandle {
      */
     public boolean IsRecord(RID rid) throws DBException {
         RecordPageHandle page_handle = FetchPageHandle(rid.pageNum);
-        return BitMap.isSet(page_handle.bitmap, rid.slotNum);
+        try {
+            return BitMap.isSet(page_handle.bitmap, rid.slotNum);
+        } finally {
+            UnpinPageHandle(rid.pageNum, false);
+        }
     }
 
     /**
@@ -82,11 +116,73 @@ public class RecordFileHandle {
      */
     public Record GetRecord(RID rid) throws DBException {
         RecordPageHandle handle = FetchPageHandle(rid.pageNum);
-        Record record = new Record(handle.getSlot(rid.slotNum));
+        Record record = new Record(handle.readRecord(rid.slotNum), fileHeader.getRecordSize());
         bufferPool.unpin_page(handle.page.position, false);
         return record;
     }
 
+    /**
+     * 以零拷贝方式读取已固定页面中的记录，返回的记录直接引用页面帧中的槽位数据。
+     * 调用方必须在 pageHandle 保持固定期间使用该记录，之后需调用 {@link Record#materialize()} 才能继续持有。
+     * PAX 布局的记录在页内不连续，此时会退化为拷贝。
+     *
+     * @param pageHandle 调用方已固定的页面句柄
+     * @param slotNum    槽位号
+     * @return 记录视图
+     */
+    public Record GetRecordView(RecordPageHandle pageHandle, int slotNum) {
+        if (fileHeader.isPax()) {
+            return new Record(pageHandle.readRecord(slotNum), fileHeader.getRecordSize());
+        }
+        return Record.view(pageHandle.getSlot(slotNum));
+    }
+
+    /**
+     * 打开一个按页遍历全部有效记录的游标，使用完毕后必须调用 {@link RecordPageCursor#close()}。
+     *
+     * @return 新的记录游标
+     */
+    public RecordPageCursor openCursor() {
+        return new RecordPageCursor(this, null);
+    }
+
+    /**
+     * 打开一个只遍历部分页面的记录游标，被 pageFilter 拒绝的页面不会被读入缓冲池。
+     *
+     * @param pageFilter 按页号判断是否需要读取该页
+     * @return 新的记录游标
+     */
+    public RecordPageCursor openCursor(IntPredicate pageFilter) {
+        return new RecordPageCursor(this, pageFilter);
+    }
+
+    /**
+     * 打开一个按给定 RID 依次读取记录的游标，使用完毕后必须调用 {@link RecordFetchCursor#close()}。
+     * RID 按 (页号, 槽号) 排序时每个页面只固定一次，并按页号预读之后要访问的页面。
+     *
+     * @param rids 要读取的记录
+     * @return 新的记录游标
+     */
+    public RecordFetchCursor openFetchCursor(List<RID> rids) {
+        return new RecordFetchCursor(this, rids);
+    }
+
+    /**
+     * 预读指定的数据页，相邻的页面合并为一次磁盘读取；已缓存或超出文件范围的页面被跳过。
+     *
+     * @param pageIds 按升序排列的页号
+     * @throws DBException 如果读取页面失败
+     */
+    public void PrefetchPages(List<Integer> pageIds) throws DBException {
+        List<Integer> offsets = new ArrayList<>(pageIds.size());
+        for (int pageId : pageIds) {
+            if (pageId >= 1 && pageId <= fileHeader.getNumberOfPages()) {
+                offsets.add(pageId * Page.DEFAULT_PAGE_SIZE);
+            }
+        }
+        bufferPool.Prefetch(filename, offsets);
+    }
+
     /**
      * 向记录文件中插入一条记录。
      *
@@ -126,8 +222,7 @@ public class RecordFileHandle {
         }
 
         // 插入记录
-        ByteBuf slot = pageHandle.getSlot(slotNum).clear();
-        slot.writeBytes(buf, 0, fileHeader.getRecordSize());
+        pageHandle.writeRecord(slotNum, buf);
         BitMap.set(pageHandle.bitmap, slotNum);
         pageHandle.pageHdr.setNumberOfRecords(pageHandle.pageHdr.getNumberOfRecords() + 1);
 
@@ -139,10 +234,347 @@ public class RecordFileHandle {
         }
 
         bufferPool.unpin_page(pageHandle.page.position, true);
+        adjustRecordCount(1);
+        ZoneMap zones = bumpVersion();
+        if (zones != null) {
+            zones.include(pageHandle.page.getPageID(), buf);
+        }
 
         return new RID(pageHandle.page.getPageID(), slotNum);
     }
 
+    /**
+     * 将一行记录直接编码到槽位内存中。
+     */
+    @FunctionalInterface
+    public interface RowEncoder {
+        /**
+         * @param row  行号，从 0 开始
+         * @param slot 已清零、写指针位于起点的记录缓冲，按列顺序依次写入即可
+         */
+        void encode(int row, ByteBuf slot) throws DBException;
+    }
+
+    /**
+     * 批量插入过程中每插入一行的回调，用于维护索引等。
+     */
+    @FunctionalInterface
+    public interface InsertCallback {
+        /**
+         * @param rid    新记录的 RID
+         * @param record 新记录的零拷贝视图，仅在回调期间有效
+         */
+        void inserted(RID rid, Record record) throws DBException;
+    }
+
+    /**
+     * 批量插入记录。每个目标页面只固定一次，并在该页面上连续填满尽可能多的空闲槽位；
+     * 行式布局下由 encoder 直接写入槽位内存，不经过中间缓冲。
+     *
+     * @param rowCount 要插入的行数
+     * @param encoder  行编码器
+     * @param callback 每插入一行后的回调，可以为 null
+     * @return 按行号顺序排列的 RID 列表
+     * @throws DBException 如果获取页面或回调失败
+     */
+    public List<RID> insertBatch(int rowCount, RowEncoder encoder, InsertCallback callback) throws DBException {
+        List<RID> rids = new ArrayList<>(rowCount);
+        int recordSize = fileHeader.getRecordSize();
+        int recordsPerPage = fileHeader.getNumberOfRecordsPrePage();
+        // PAX 布局的槽位不连续，先编码到暂存缓冲再分散写入
+        ByteBuf scratch = fileHeader.isPax() ? Unpooled.buffer(recordSize, recordSize) : null;
+        ZoneMap zones = rowCount > 0 ? bumpVersion() : null;
+
+        int row = 0;
+        while (row < rowCount) {
+            RecordPageHandle pageHandle = create_page_handle();
+            int pageId = pageHandle.page.getPageID();
+            try {
+                int slotNum = BitMap.firstBit(false, pageHandle.bitmap, recordsPerPage);
+                while (slotNum < recordsPerPage && row < rowCount) {
+                    Record record;
+                    if (scratch == null) {
+                        ByteBuf slot = pageHandle.getSlot(slotNum);
+                        slot.setZero(0, recordSize);
+                        encoder.encode(row, slot.clear());
+                        record = Record.view(pageHandle.getSlot(slotNum));
+                    } else {
+                        scratch.setZero(0, recordSize);
+                        encoder.encode(row, scratch.clear());
+                        pageHandle.writeRecord(slotNum, scratch);
+                        record = Record.view(scratch);
+                    }
+                    if (zones != null) {
+                        zones.include(pageId, record.data);
+                    }
+                    BitMap.set(pageHandle.bitmap, slotNum);
+                    pageHandle.pageHdr.setNumberOfRecords(pageHandle.pageHdr.getNumberOfRecords() + 1);
+                    adjustRecordCount(1);
+
+                    RID rid = new RID(pageId, slotNum);
+                    rids.add(rid);
+                    if (callback != null) {
+                        callback.inserted(rid, record);
+                    }
+                    row++;
+                    slotNum = BitMap.nextBit(false, pageHandle.bitmap, recordsPerPage, slotNum);
+                }
+
+                // 如果页面变满，从空闲页面链表中移除
+                if (pageHandle.pageHdr.getNumberOfRecords() == recordsPerPage
+                        && fileHeader.getFirstFreePage() == pageId) {
+                    fileHeader.setFirstFreePage(pageHandle.pageHdr.getNextFreePageNo());
+                }
+            } finally {
+                bufferPool.unpin_page(pageHandle.page.position, true);
+            }
+        }
+        return rids;
+    }
+
+    /**
+     * 将一批连续编码的记录追加到文件末尾的新页面中。
+     *
+     * <p>
+     * 页面在缓冲池之外直接按页格式填满（位图、页头、槽位），每 {@link #APPEND_PAGES_PER_WRITE}
+     * 个页面以一次顺序写入磁盘，不经过空闲页面链表。只有最后一个未填满的页面会挂入空闲链表。
+     * 第 i 条记录的 RID 为 {@code (firstPage + i / recordsPerPage, i % recordsPerPage)}。
+     * </p>
+     *
+     * @param rows     按记录大小紧密排列的记录数据
+     * @param rowCount 记录条数
+     * @return 第一个新页面的页号；rowCount 为 0 时返回 -1
+     * @throws DBException 如果分配页面或写入磁盘失败
+     */
+    public int AppendRecords(ByteBuf rows, int rowCount) throws DBException {
+        if (rowCount <= 0) {
+            return -1;
+        }
+        int recordSize = fileHeader.getRecordSize();
+        int recordsPerPage = fileHeader.getNumberOfRecordsPrePage();
+        int pageCount = (rowCount + recordsPerPage - 1) / recordsPerPage;
+        int firstPage = -1;
+        ZoneMap zones = bumpVersion();
+
+        for (int group = 0; group < pageCount; group += APPEND_PAGES_PER_WRITE) {
+            int groupPages = Math.min(APPEND_PAGES_PER_WRITE, pageCount - group);
+            ByteBuf image = Unpooled.buffer(groupPages * Page.DEFAULT_PAGE_SIZE);
+            image.writeZero(groupPages * Page.DEFAULT_PAGE_SIZE);
+            int groupFirstPage = -1;
+
+            for (int i = 0; i < groupPages; i++) {
+                int pageId = diskManager.AllocatePage(filename);
+                if (groupFirstPage == -1) {
+                    groupFirstPage = pageId;
+                } else if (pageId != groupFirstPage + i) {
+                    throw new DBException(ExceptionTypes.BadIOError(
+                            String.format("%s: non-contiguous page allocation during append", filename)));
+                }
+
+                Page page = new Page();
+                page.data = image.slice(i * Page.DEFAULT_PAGE_SIZE, Page.DEFAULT_PAGE_SIZE);
+                page.position = new PagePosition(filename, pageId * Page.DEFAULT_PAGE_SIZE);
+                RecordPageHandle pageHandle = new RecordPageHandle(fileHeader, page);
+
+                int firstRow = (group + i) * recordsPerPage;
+                int count = Math.min(recordsPerPage, rowCount - firstRow);
+                if (fileHeader.isPax()) {
+                    for (int slot = 0; slot < count; slot++) {
+                        pageHandle.writeRecord(slot, rows.slice((firstRow + slot) * recordSize, recordSize));
+                    }
+                } else {
+                    pageHandle.slots.setBytes(0, rows, firstRow * recordSize, count * recordSize);
+                }
+                for (int slot = 0; slot < count; slot++) {
+                    BitMap.set(pageHandle.bitmap, slot);
+                    if (zones != null) {
+                        zones.include(pageId, rows.slice((firstRow + slot) * recordSize, recordSize));
+                    }
+                }
+                pageHandle.pageHdr.setNumberOfRecords(count);
+                pageHandle.pageHdr.setNextFreePageNo(RecordPageHeader.NO_NEXT_FREE_PAGE);
+                if (count < recordsPerPage) {
+                    pageHandle.pageHdr.setNextFreePageNo(fileHeader.getFirstFreePage());
+                    fileHeader.setFirstFreePage(pageId);
+                }
+            }
+
+            diskManager.WritePages(filename, groupFirstPage * Page.DEFAULT_PAGE_SIZE, image);
+            fileHeader.setNumberOfPages(fileHeader.getNumberOfPages() + groupPages);
+            adjustRecordCount(Math.min(groupPages * recordsPerPage, rowCount - group * recordsPerPage));
+            if (firstPage == -1) {
+                firstPage = groupFirstPage;
+            }
+        }
+        return firstPage;
+    }
+
+    /**
+     * 记录在压缩过程中被移动时的回调，用于同步索引。
+     */
+    @FunctionalInterface
+    public interface RelocationCallback {
+        /**
+         * @param from   记录原来的 RID
+         * @param to     记录新的 RID
+         * @param record 记录内容的副本
+         */
+        void moved(RID from, RID to, Record record) throws DBException;
+    }
+
+    /**
+     * 获取文件中的有效记录数。计数保存在文件头中，随插入和删除维护，旧文件在第一次读取时扫描得到。
+     *
+     * @return 有效记录数
+     * @throws DBException 如果需要扫描且获取页面失败
+     */
+    public long getRecordCount() throws DBException {
+        if (!fileHeader.hasRecordCount()) {
+            fileHeader.setRecordCount(countLiveRecords());
+        }
+        return fileHeader.getRecordCount();
+    }
+
+    /**
+     * 在文件头已有计数时累加有效记录数；没有计数时留待 {@link #getRecordCount()} 扫描。
+     */
+    private void adjustRecordCount(long delta) {
+        if (fileHeader.hasRecordCount()) {
+            fileHeader.setRecordCount(fileHeader.getRecordCount() + delta);
+        }
+    }
+
+    /**
+     * 扫描各页位图统计文件中的有效记录数。
+     *
+     * @return 有效记录数
+     * @throws DBException 如果获取页面失败
+     */
+    public long countLiveRecords() throws DBException {
+        int recordsPerPage = fileHeader.getNumberOfRecordsPrePage();
+        long live = 0;
+        for (int pageId = 1; pageId <= fileHeader.getNumberOfPages(); pageId++) {
+            RecordPageHandle pageHandle = FetchPageHandle(pageId);
+            live += BitMap.count(pageHandle.bitmap, recordsPerPage);
+            UnpinPageHandle(pageId, false);
+        }
+        return live;
+    }
+
+    /**
+     * 压缩记录文件：把尾部页面中的有效记录移动到前部页面的空闲槽位，使全部记录集中在
+     * 最少的页面中，然后截断文件、重建空闲页面链表。
+     *
+     * <p>
+     * 调用方必须保证压缩期间没有其他句柄或扫描正在使用该文件，被移动记录的旧 RID 随之失效。
+     * </p>
+     *
+     * @param callback 每移动一条记录后的回调，可以为 null
+     * @return 释放的页面数
+     * @throws DBException 如果尾部页面仍被固定，或获取页面、截断文件失败
+     */
+    public int compact(RelocationCallback callback) throws DBException {
+        int recordsPerPage = fileHeader.getNumberOfRecordsPrePage();
+        int recordSize = fileHeader.getRecordSize();
+        int numPages = fileHeader.getNumberOfPages();
+        long live = countLiveRecords();
+        int targetPages = (int) ((live + recordsPerPage - 1) / recordsPerPage);
+
+        // 尾部页面压缩后要从缓冲池中丢弃再截断文件，仍被固定的帧无法丢弃，
+        // 留在缓冲池中的旧内容会在之后重新分配该页时被读到，因此在搬动任何记录之前放弃压缩
+        for (int pageId = targetPages + 1; pageId <= numPages; pageId++) {
+            if (bufferPool.isPinned(new PagePosition(filename, pageId * Page.DEFAULT_PAGE_SIZE))) {
+                throw new DBException(ExceptionTypes.InvalidOperation(
+                        String.format("Cannot compact %s: page %d is still pinned", filename, pageId)));
+            }
+        }
+
+        // 搬动的页面可能在版本号递增之前被换出写回
+        markModified();
+
+        // 1. 从最后一页开始，把记录依次搬到前部页面的空闲槽位
+        int dstPageId = 1;
+        int dstSlot = -1;
+        RecordPageHandle dstPage = null;
+        try {
+            for (int srcPageId = numPages; srcPageId > targetPages; srcPageId--) {
+                RecordPageHandle srcPage = FetchPageHandle(srcPageId);
+                try {
+                    int srcSlot = BitMap.firstBit(true, srcPage.bitmap, recordsPerPage);
+                    while (srcSlot < recordsPerPage) {
+                        // 前 targetPages 页的空闲槽位一定足够容纳尾部的全部记录
+                        while (true) {
+                            if (dstPage == null) {
+                                dstPage = FetchPageHandle(dstPageId);
+                                dstSlot = -1;
+                            }
+                            dstSlot = BitMap.nextBit(false, dstPage.bitmap, recordsPerPage, dstSlot);
+                            if (dstSlot < recordsPerPage) {
+                                break;
+                            }
+                            UnpinPageHandle(dstPageId, true);
+                            dstPage = null;
+                            dstPageId++;
+                        }
+
+                        ByteBuf data = srcPage.readRecord(srcSlot);
+                        dstPage.writeRecord(dstSlot, data);
+                        BitMap.set(dstPage.bitmap, dstSlot);
+                        dstPage.pageHdr.setNumberOfRecords(dstPage.pageHdr.getNumberOfRecords() + 1);
+                        BitMap.reset(srcPage.bitmap, srcSlot);
+                        srcPage.pageHdr.setNumberOfRecords(srcPage.pageHdr.getNumberOfRecords() - 1);
+
+                        if (callback != null) {
+                            callback.moved(new RID(srcPageId, srcSlot), new RID(dstPageId, dstSlot),
+                                    new Record(data, recordSize));
+                        }
+                        srcSlot = BitMap.nextBit(true, srcPage.bitmap, recordsPerPage, srcSlot);
+                    }
+                } finally {
+                    UnpinPageHandle(srcPageId, true);
+                }
+            }
+        } finally {
+            if (dstPage != null) {
+                UnpinPageHandle(dstPageId, true);
+            }
+        }
+
+        // 2. 丢弃已清空的尾部页面并截断文件（页 0 为文件头）
+        boolean truncate = true;
+        for (int pageId = targetPages + 1; pageId <= numPages && truncate; pageId++) {
+            PagePosition position = new PagePosition(filename, pageId * Page.DEFAULT_PAGE_SIZE);
+            // 不在缓冲池中的页面 DeletePage 也返回 false，只有仍被固定时才不能截断
+            truncate = bufferPool.DeletePage(position) || !bufferPool.isPinned(position);
+        }
+        // 搬动期间页面又被固定时保留已清空的尾部页面，不截断文件
+        if (truncate) {
+            diskManager.truncateFile(filename, targetPages + 1);
+            fileHeader.setNumberOfPages(targetPages);
+        } else {
+            targetPages = numPages;
+        }
+        fileHeader.setRecordCount(live);
+        // 记录在页面之间移动，页摘要随之过期，下次使用时重建
+        fileHeader.incrementVersion();
+
+        // 3. 重建空闲页面链表，页号小的页面排在前面
+        int firstFree = RecordPageHeader.NO_NEXT_FREE_PAGE;
+        for (int pageId = targetPages; pageId >= 1; pageId--) {
+            RecordPageHandle pageHandle = FetchPageHandle(pageId);
+            if (BitMap.count(pageHandle.bitmap, recordsPerPage) < recordsPerPage) {
+                pageHandle.pageHdr.setNextFreePageNo(firstFree);
+                firstFree = pageId;
+            } else {
+                pageHandle.pageHdr.setNextFreePageNo(RecordPageHeader.NO_NEXT_FREE_PAGE);
+            }
+            UnpinPageHandle(pageId, true);
+        }
+        fileHeader.setFirstFreePage(firstFree);
+
+        return numPages - targetPages;
+    }
+
     /**
      * 删除指定 RID 的记录。
      *
@@ -154,9 +586,18 @@ public class RecordFileHandle {
 
         // 检查页面在删除前是否已满
         boolean wasPageFull = (pageHandle.pageHdr.getNumberOfRecords() == fileHeader.getNumberOfRecordsPrePage());
+        ZoneMap zones = null;
+        if (BitMap.isSet(pageHandle.bitmap, rid.slotNum)) {
+            adjustRecordCount(-1);
+            zones = bumpVersion();
+        }
 
         BitMap.reset(pageHandle.bitmap, rid.slotNum);
         pageHandle.pageHdr.setNumberOfRecords(pageHandle.pageHdr.getNumberOfRecords() - 1);
+        // 页面中的记录全部删除后清空该页的摘要，其余情况下摘要只会偏宽
+        if (zones != null && pageHandle.pageHdr.getNumberOfRecords() <= 0) {
+            zones.resetPage(rid.pageNum);
+        }
 
         // 如果页面之前是满的，现在有了空闲槽位，将其加入空闲页面链表
         if (wasPageFull && pageHandle.pageHdr.getNumberOfRecords() < fileHeader.getNumberOfRecordsPrePage()) {
@@ -176,11 +617,47 @@ public class RecordFileHandle {
      */
     public void UpdateRecord(RID rid, ByteBuf buf) throws DBException {
         RecordPageHandle pageHandle = FetchPageHandle(rid.pageNum);
-        ByteBuf slot = pageHandle.getSlot(rid.slotNum);
-        slot.clear();
         // Write only up to the record size to avoid overflow
-        slot.writeBytes(buf, 0, fileHeader.getRecordSize());
+        pageHandle.writeRecord(rid.slotNum, buf);
         bufferPool.unpin_page(pageHandle.page.position, true);
+        ZoneMap zones = bumpVersion();
+        if (zones != null) {
+            zones.include(rid.pageNum, buf);
+        }
+    }
+
+    /**
+     * 检查点之后第一次修改时清除文件头中的检查点标记，并在被修改的数据页写回之前把文件头写回磁盘，
+     * 使崩溃后残留的索引快照和页摘要不会被当作有效。
+     */
+    private void markModified() throws DBException {
+        if (fileHeader.isCheckpointed()) {
+            fileHeader.clearCheckpointed();
+            bufferPool.FlushPage(new PagePosition(filename, 0));
+        }
+    }
+
+    /**
+     * 检查点：记下当前版本号并把文件头写回磁盘。调用前应已刷新全部数据页。
+     *
+     * @throws DBException 如果写回文件头失败
+     */
+    public void markCheckpointed() throws DBException {
+        fileHeader.markCheckpointed();
+        bufferPool.FlushPage(new PagePosition(filename, 0));
+    }
+
+    /**
+     * 递增表的版本号。页摘要与修改前的版本一致时随之推进，调用方须把本次修改并入返回的摘要。
+     *
+     * @return 需要维护的页摘要；没有摘要或摘要已过期时返回 null
+     */
+    private ZoneMap bumpVersion() throws DBException {
+        markModified();
+        long version = fileHeader.getVersion();
+        fileHeader.incrementVersion();
+        ZoneMap zones = zoneMap;
+        return zones != null && zones.advance(version, version + 1) ? zones : null;
     }
 
     /**
@@ -203,7 +680,7 @@ public class RecordFileHandle {
     }
 
     public void UnpinPageHandle(int pageId, boolean is_dirty) throws DBException {
-        bufferPool.unpin_page(new PagePosition(filename, pageId), is_dirty);
+        bufferPool.unpin_page(new PagePosition(filename, pageId * Page.DEFAULT_PAGE_SIZE), is_dirty);
     }
 
     /**
@@ -7,11 +7,46 @@ import io.netty.buffer.ByteBuf;
  * 包含记录大小、页面数量、每页记录数量、首个空闲页面和位图大小等信息。
  * 
  * <p>
+ * 偏移 20 起存放页面布局：行式（NSM）或 PAX。PAX 布局下紧跟列数和各列宽度，
+ * 使数据文件可以在不依赖表元数据的情况下还原整行记录。
+ * </p>
+ * 
+ * <p>
+ * 列宽度区之后存放表的统计信息：有效记录数及其有效标记。旧文件没有该标记，
+ * 由 {@link RecordFileHandle#getRecordCount()} 在第一次读取时扫描得到。
+ * 其后是表的版本号，每次修改记录都会递增，用于判断索引快照是否仍与数据文件一致。
+ * 最后是检查点标记：检查点完成时记下当时的版本号，检查点之后第一次修改记录时清除并立即写回磁盘。
+ * 数据页可能先于文件头写回磁盘，只凭版本号无法发现崩溃前未完成检查点的修改，
+ * 因此索引快照、页摘要等只在标记有效时才可信。
+ * </p>
+ * 
+ * <p>
  * 该类提供了对这些属性的获取和设置方法，所有数据均存储在 ByteBuf 中。
  * </p>
  */
 public class RecordFileHeader {
     public final static int SIZE = 20;
+    /** 行式布局：每个槽位连续存放一整条记录 */
+    public final static int LAYOUT_ROW = 0;
+    /** PAX 布局：页内按列划分 minipage，同一列的值连续存放 */
+    public final static int LAYOUT_PAX = 1;
+
+    private final static int LAYOUT_OFFSET = SIZE;
+    private final static int COLUMN_COUNT_OFFSET = SIZE + 4;
+    private final static int COLUMN_LENGTHS_OFFSET = SIZE + 8;
+    /** 文件头页中可记录的最大列数 */
+    public final static int MAX_COLUMNS = 256;
+
+    private final static int STATS_MAGIC_OFFSET = COLUMN_LENGTHS_OFFSET + MAX_COLUMNS * 4;
+    private final static int RECORD_COUNT_OFFSET = STATS_MAGIC_OFFSET + 4;
+    private final static int VERSION_OFFSET = RECORD_COUNT_OFFSET + 8;
+    private final static int CHECKPOINT_MAGIC_OFFSET = VERSION_OFFSET + 8;
+    private final static int CHECKPOINT_VERSION_OFFSET = CHECKPOINT_MAGIC_OFFSET + 4;
+    /** 统计信息有效标记 "STAT" */
+    private final static int STATS_MAGIC = 0x53544154;
+    /** 检查点标记 "CKPT" */
+    private final static int CHECKPOINT_MAGIC = 0x434b5054;
+
     ByteBuf header;
 
     public RecordFileHeader(ByteBuf header) {
@@ -106,4 +141,129 @@ public class RecordFileHeader {
     public void setBitMapSize(int bitMapSize) {
         header.setInt(16, bitMapSize);
     }
+
+    /**
+     * 获取页面布局。旧文件该位置为 0，即行式布局。
+     *
+     * @return {@link #LAYOUT_ROW} 或 {@link #LAYOUT_PAX}
+     */
+    public int getStorageLayout() {
+        return header.getInt(LAYOUT_OFFSET);
+    }
+
+    /**
+     * 设置页面布局。
+     *
+     * @param layout {@link #LAYOUT_ROW} 或 {@link #LAYOUT_PAX}
+     */
+    public void setStorageLayout(int layout) {
+        header.setInt(LAYOUT_OFFSET, layout);
+    }
+
+    /**
+     * 判断文件是否使用 PAX 布局。
+     *
+     * @return 若为 PAX 布局返回 true
+     */
+    public boolean isPax() {
+        return getStorageLayout() == LAYOUT_PAX;
+    }
+
+    /**
+     * 获取文件头中记录的列数（仅 PAX 布局使用）。
+     *
+     * @return 列数
+     */
+    public int getColumnCount() {
+        return header.getInt(COLUMN_COUNT_OFFSET);
+    }
+
+    /**
+     * 获取第 i 列的字节宽度（仅 PAX 布局使用）。
+     *
+     * @param i 列序号
+     * @return 列宽度
+     */
+    public int getColumnLength(int i) {
+        return header.getInt(COLUMN_LENGTHS_OFFSET + i * 4);
+    }
+
+    /**
+     * 设置各列的字节宽度，列在记录中的偏移即为前面各列宽度之和。
+     *
+     * @param lengths 各列宽度
+     */
+    public void setColumnLengths(int[] lengths) {
+        header.setInt(COLUMN_COUNT_OFFSET, lengths.length);
+        for (int i = 0; i < lengths.length; i++) {
+            header.setInt(COLUMN_LENGTHS_OFFSET + i * 4, lengths[i]);
+        }
+    }
+
+    /**
+     * 判断文件头中的有效记录数是否已经初始化。
+     *
+     * @return 若已初始化返回 true
+     */
+    public boolean hasRecordCount() {
+        return header.getInt(STATS_MAGIC_OFFSET) == STATS_MAGIC;
+    }
+
+    /**
+     * 获取文件中的有效记录数，仅在 {@link #hasRecordCount()} 为 true 时有意义。
+     *
+     * @return 有效记录数
+     */
+    public long getRecordCount() {
+        return header.getLong(RECORD_COUNT_OFFSET);
+    }
+
+    /**
+     * 设置文件中的有效记录数，并标记统计信息有效。
+     *
+     * @param recordCount 有效记录数
+     */
+    public void setRecordCount(long recordCount) {
+        header.setInt(STATS_MAGIC_OFFSET, STATS_MAGIC);
+        header.setLong(RECORD_COUNT_OFFSET, recordCount);
+    }
+
+    /**
+     * 获取表的版本号。旧文件该位置为 0。
+     *
+     * @return 版本号
+     */
+    public long getVersion() {
+        return header.getLong(VERSION_OFFSET);
+    }
+
+    /**
+     * 递增表的版本号，在记录被插入、删除、更新或移动时调用。
+     */
+    public void incrementVersion() {
+        header.setLong(VERSION_OFFSET, header.getLong(VERSION_OFFSET) + 1);
+    }
+
+    /**
+     * @return 自上一次检查点以来记录是否没有被修改过；旧文件没有标记，返回 false
+     */
+    public boolean isCheckpointed() {
+        return header.getInt(CHECKPOINT_MAGIC_OFFSET) == CHECKPOINT_MAGIC
+                && header.getLong(CHECKPOINT_VERSION_OFFSET) == getVersion();
+    }
+
+    /**
+     * 记下检查点完成时的版本号。
+     */
+    public void markCheckpointed() {
+        header.setInt(CHECKPOINT_MAGIC_OFFSET, CHECKPOINT_MAGIC);
+        header.setLong(CHECKPOINT_VERSION_OFFSET, getVersion());
+    }
+
+    /**
+     * 清除检查点标记，检查点之后第一次修改记录前调用。
+     */
+    public void clearCheckpointed() {
+        header.setInt(CHECKPOINT_MAGIC_OFFSET, 0);
+    }
 }
@@ -0,0 +1,173 @@
+package edu.sustech.cs307.record;
+
+import edu.sustech.cs307.exception.DBException;
+
+import java.util.function.IntPredicate;
+
+/**
+ * 按页遍历记录文件的游标。
+ *
+ * <p>
+ * 游标每个数据页只固定一次，依据位图依次产出该页中的有效槽位，离开页面或关闭游标时解除固定。
+ * {@link #getRecord()} 返回直接引用页面帧的零拷贝记录，在下一次 {@link #next()} 或
+ * {@link #close()} 之前有效。{@link #hasNext()} 可能会提前装载下一页，但当前记录所在的页面
+ * 会一直保持固定，直到游标真正移动到下一条记录。
+ * 带有页面过滤条件的游标不会读取被过滤掉的页面，例如依据 {@link ZoneMap} 跳过不可能满足条件的页面。
+ * </p>
+ *
+ * <p>
+ * 典型用法：
+ * </p>
+ *
+ * <pre>
+ * RecordPageCursor cursor = fileHandle.openCursor();
+ * try {
+ *     while (cursor.next()) {
+ *         Record record = cursor.getRecord();
+ *         ...
+ *     }
+ * } finally {
+ *     cursor.close();
+ * }
+ * </pre>
+ */
+public class RecordPageCursor {
+    private final RecordFileHandle fileHandle;
+    private final int totalPages;
+    private final int recordsPerPage;
+    // 按页号判断是否需要读取该页，为 null 时读取全部页面
+    private final IntPredicate pageFilter;
+
+    // 下一次探测的位置
+    private int scanPageNum = 1;
+    private int scanSlotNum = 0;
+    // 正在探测的页面
+    private RecordPageHandle scanPage;
+
+    // 当前记录及其所在页面
+    private RecordPageHandle currentPage;
+    private int currentSlotNum = -1;
+
+    private int pagesSkipped = 0;
+    private boolean closed = false;
+
+    RecordPageCursor(RecordFileHandle fileHandle, IntPredicate pageFilter) {
+        this.fileHandle = fileHandle;
+        this.totalPages = fileHandle.getFileHeader().getNumberOfPages();
+        this.recordsPerPage = fileHandle.getFileHeader().getNumberOfRecordsPrePage();
+        this.pageFilter = pageFilter;
+    }
+
+    /**
+     * 判断是否还有下一条有效记录。
+     *
+     * @return 如果存在下一条记录返回 true
+     * @throws DBException 如果获取页面失败
+     */
+    public boolean hasNext() throws DBException {
+        if (closed) {
+            return false;
+        }
+        while (scanPageNum <= totalPages) {
+            if (scanPage == null) {
+                if (pageFilter != null && !pageFilter.test(scanPageNum)) {
+                    pagesSkipped++;
+                    scanPageNum++;
+                    continue;
+                }
+                scanPage = fileHandle.FetchPageHandle(scanPageNum);
+            }
+            int slot = BitMap.nextBit(true, scanPage.bitmap, recordsPerPage, scanSlotNum - 1);
+            if (slot < recordsPerPage) {
+                scanSlotNum = slot;
+                return true;
+            }
+            // 当前记录仍引用该页面时推迟到下一次 next() 再解除固定
+            if (scanPage != currentPage) {
+                fileHandle.UnpinPageHandle(scanPageNum, false);
+            }
+            scanPage = null;
+            scanPageNum++;
+            scanSlotNum = 0;
+        }
+        return false;
+    }
+
+    /**
+     * 移动到下一条有效记录，之前通过 {@link #getRecord()} 取得的记录随之失效。
+     *
+     * @return 如果成功移动返回 true；没有更多记录时返回 false
+     * @throws DBException 如果获取页面失败
+     */
+    public boolean next() throws DBException {
+        boolean found = hasNext();
+        releaseCurrentPage();
+        if (!found) {
+            currentSlotNum = -1;
+            return false;
+        }
+        currentPage = scanPage;
+        currentSlotNum = scanSlotNum;
+        scanSlotNum++;
+        return true;
+    }
+
+    /**
+     * 获取当前记录的 RID。
+     */
+    public RID getRID() {
+        return new RID(currentPage.page.getPageID(), currentSlotNum);
+    }
+
+    /**
+     * 获取当前记录的零拷贝视图。
+     */
+    public Record getRecord() {
+        return fileHandle.GetRecordView(currentPage, currentSlotNum);
+    }
+
+    /**
+     * 获取当前记录所在的页面句柄，可用于按列读取。
+     */
+    public RecordPageHandle getPageHandle() {
+        return currentPage;
+    }
+
+    /**
+     * 获取当前记录的槽位号。
+     */
+    public int getSlotNum() {
+        return currentSlotNum;
+    }
+
+    /**
+     * @return 到目前为止因页面过滤条件而没有读取的页面数
+     */
+    public int getPagesSkipped() {
+        return pagesSkipped;
+    }
+
+    /**
+     * 关闭游标并解除所有仍被固定的页面。
+     *
+     * @throws DBException 如果解除固定失败
+     */
+    public void close() throws DBException {
+        if (closed) {
+            return;
+        }
+        releaseCurrentPage();
+        if (scanPage != null) {
+            fileHandle.UnpinPageHandle(scanPageNum, false);
+            scanPage = null;
+        }
+        closed = true;
+    }
+
+    private void releaseCurrentPage() throws DBException {
+        if (currentPage != null && currentPage != scanPage) {
+            fileHandle.UnpinPageHandle(currentPage.page.getPageID(), false);
+        }
+        currentPage = null;
+    }
+}
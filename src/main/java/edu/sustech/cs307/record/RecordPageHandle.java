@@ -2,6 +2,7 @@ package edu.sustech.cs307.record;
 
 import edu.sustech.cs307.storage.Page;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 
 /**
  * 记录页面句柄类，用于管理记录文件的页面。
@@ -9,6 +10,13 @@ import io.netty.buffer.ByteBuf;
  * <p>
  * 该类包含页面的头部信息、位图和槽位数据，并提供获取特定槽位的方法。
  * </p>
+ *
+ * <p>
+ * 对于 PAX 布局的文件，槽位区被划分为若干列 minipage：记录内偏移为 offset 的列，
+ * 其 minipage 起始于槽位区的 offset * recordsPerPage 处，第 n 个槽位的值位于
+ * minipage 内 n * len 处。此时一条记录不再连续，需要通过 {@link #readRecord} 和
+ * {@link #writeRecord} 进行拼装与拆分。
+ * </p>
  */
 public class RecordPageHandle {
     public final RecordFileHeader fileHdr;
@@ -26,7 +34,82 @@ public class RecordPageHandle {
                 Page.DEFAULT_PAGE_SIZE - (RecordPageHeader.SIZE + fileHdr.getBitMapSize()));
     }
 
+    /**
+     * 获取行式布局下指定槽位的切片。PAX 布局的记录不连续，请使用 {@link #readRecord}。
+     *
+     * @param slotNo 槽位号
+     * @return 槽位数据切片
+     */
     public ByteBuf getSlot(int slotNo) {
         return slots.slice(slotNo * fileHdr.getRecordSize(), fileHdr.getRecordSize());
     }
+
+    /**
+     * 获取指定槽位中某一列的切片，行式与 PAX 布局均适用。
+     *
+     * @param slotNo    槽位号
+     * @param colOffset 列在记录中的偏移
+     * @param colLen    列宽度
+     * @return 列数据切片
+     */
+    public ByteBuf getColumn(int slotNo, int colOffset, int colLen) {
+        return slots.slice(columnPosition(slotNo, colOffset, colLen), colLen);
+    }
+
+    /**
+     * 计算指定槽位中某一列在槽位区 {@link #slots} 内的起始位置。
+     *
+     * @param slotNo    槽位号
+     * @param colOffset 列在记录中的偏移
+     * @param colLen    列宽度
+     * @return 列数据在槽位区内的下标
+     */
+    public int columnPosition(int slotNo, int colOffset, int colLen) {
+        if (fileHdr.isPax()) {
+            return colOffset * fileHdr.getNumberOfRecordsPrePage() + slotNo * colLen;
+        }
+        return slotNo * fileHdr.getRecordSize() + colOffset;
+    }
+
+    /**
+     * 读取指定槽位的完整记录，返回一份独立的拷贝。
+     *
+     * @param slotNo 槽位号
+     * @return 记录数据
+     */
+    public ByteBuf readRecord(int slotNo) {
+        if (!fileHdr.isPax()) {
+            return getSlot(slotNo).copy();
+        }
+        int recordSize = fileHdr.getRecordSize();
+        int recordsPerPage = fileHdr.getNumberOfRecordsPrePage();
+        ByteBuf record = Unpooled.buffer(recordSize, recordSize);
+        int colOffset = 0;
+        for (int i = 0; i < fileHdr.getColumnCount(); i++) {
+            int colLen = fileHdr.getColumnLength(i);
+            record.writeBytes(slots, colOffset * recordsPerPage + slotNo * colLen, colLen);
+            colOffset += colLen;
+        }
+        return record;
+    }
+
+    /**
+     * 将记录写入指定槽位，写入长度为文件头中的记录大小。
+     *
+     * @param slotNo 槽位号
+     * @param buf    记录数据
+     */
+    public void writeRecord(int slotNo, ByteBuf buf) {
+        if (!fileHdr.isPax()) {
+            getSlot(slotNo).clear().writeBytes(buf, 0, fileHdr.getRecordSize());
+            return;
+        }
+        int recordsPerPage = fileHdr.getNumberOfRecordsPrePage();
+        int colOffset = 0;
+        for (int i = 0; i < fileHdr.getColumnCount(); i++) {
+            int colLen = fileHdr.getColumnLength(i);
+            slots.setBytes(colOffset * recordsPerPage + slotNo * colLen, buf, colOffset, colLen);
+            colOffset += colLen;
+        }
+    }
 }
@@ -0,0 +1,356 @@
+package edu.sustech.cs307.record;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.exception.ExceptionTypes;
+import edu.sustech.cs307.value.Value;
+import edu.sustech.cs307.value.ValueType;
+import io.netty.buffer.ByteBuf;
+import org.pmw.tinylog.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 记录文件的页摘要（zone map）：为若干数值列记录每个数据页中的最小值与最大值，
+ * 顺序扫描据此跳过不可能满足范围条件的页面，不必把它们读入缓冲池。
+ *
+ * <p>
+ * 数值按与 {@link edu.sustech.cs307.index.PrimitiveBPlusTreeIndex} 相同的方式编码为保序的 long，
+ * 比较结果与 {@link edu.sustech.cs307.value.ValueComparer} 一致。摘要只会放宽：插入和更新把新值并入所在页，
+ * 删除只在页面变空时清空该页，因此摘要始终覆盖页内的全部有效记录。
+ * </p>
+ *
+ * <p>
+ * 摘要记录了它对应的表版本号。{@link RecordFileHandle} 每次修改记录时，只有摘要与修改前的版本一致才随之推进并维护，
+ * 否则摘要过期，由调用方通过 {@link #rebuild} 扫描表重建。文件 {@code <table>/zonemap} 在检查点时写出，
+ * 版本号与数据文件头中的一致时才被加载。
+ * </p>
+ */
+public class ZoneMap {
+    private static final int MAGIC = 0x5A4D4150; // "ZMAP"
+    private static final int FORMAT_VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * 某一列上的闭区间 [low, high]，上下界均为编码后的值；low 大于 high 时任何页面都不满足。
+     *
+     * @param offset 列在记录中的偏移
+     * @param low    编码后的下界
+     * @param high   编码后的上界
+     */
+    public record Bound(int offset, long low, long high) {
+    }
+
+    private final int[] offsets;
+    private final ValueType[] types;
+    // mins[c][p] 与 maxs[c][p] 为第 c 列在页 p 上的最值，空页的最小值大于最大值
+    private long[][] mins;
+    private long[][] maxs;
+    // 摘要对应的表版本号，-1 表示尚未构建
+    private long version = -1;
+
+    /**
+     * @param offsets 各摘要列在记录中的偏移，至少一列
+     * @param types   各摘要列的类型，只能是 INTEGER、FLOAT 或 DOUBLE
+     */
+    public ZoneMap(int[] offsets, ValueType[] types) {
+        this.offsets = offsets.clone();
+        this.types = types.clone();
+        this.mins = new long[offsets.length][0];
+        this.maxs = new long[offsets.length][0];
+    }
+
+    /**
+     * 判断该类型的列能否建立摘要。
+     */
+    public static boolean supports(ValueType type) {
+        return type == ValueType.INTEGER || type == ValueType.FLOAT || type == ValueType.DOUBLE;
+    }
+
+    /**
+     * 把数值编码为保序的 long。
+     *
+     * @param value 与列类型相同的数值
+     * @return 编码后的值
+     * @throws DBException 如果类型不支持
+     */
+    public static long encode(Value value) throws DBException {
+        if (value == null || value.value == null || !supports(value.type)) {
+            throw new DBException(ExceptionTypes.UnsupportedValueType("zone map key",
+                    value == null ? ValueType.UNKNOWN : value.type));
+        }
+        Number number = (Number) value.value;
+        return switch (value.type) {
+            case INTEGER -> number.longValue();
+            case FLOAT -> encodeFloat(number.floatValue());
+            default -> encodeDouble(number.doubleValue());
+        };
+    }
+
+    private static long encodeFloat(float value) {
+        int bits = Float.floatToIntBits(value);
+        return bits ^ ((bits >> 31) & 0x7fffffff);
+    }
+
+    private static long encodeDouble(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    private long read(ByteBuf row, int column) {
+        int offset = offsets[column];
+        return switch (types[column]) {
+            case INTEGER -> row.getLong(offset);
+            case FLOAT -> encodeFloat(row.getFloat(offset));
+            default -> encodeDouble(row.getDouble(offset));
+        };
+    }
+
+    /**
+     * 判断摘要是否按给定的列建立。
+     */
+    public boolean covers(int[] offsets, ValueType[] types) {
+        return Arrays.equals(this.offsets, offsets) && Arrays.equals(this.types, types);
+    }
+
+    /**
+     * 判断摘要是否与给定版本号的表一致。
+     */
+    public synchronized boolean isCurrent(long fileVersion) {
+        return version == fileVersion;
+    }
+
+    /**
+     * 摘要与修改前的版本一致时推进到修改后的版本，调用方随后须把本次修改并入摘要。
+     *
+     * @param from 修改前的表版本号
+     * @param to   修改后的表版本号
+     * @return 是否推进；返回 false 时摘要已过期，不必维护
+     */
+    synchronized boolean advance(long from, long to) {
+        if (version != from) {
+            return false;
+        }
+        version = to;
+        return true;
+    }
+
+    /**
+     * 把一条记录的值并入所在页的摘要。
+     *
+     * @param pageId 页号
+     * @param row    从下标 0 开始按行式布局存放的记录
+     */
+    synchronized void include(int pageId, ByteBuf row) {
+        ensureCapacity(pageId);
+        for (int c = 0; c < offsets.length; c++) {
+            long value = read(row, c);
+            if (value < mins[c][pageId]) {
+                mins[c][pageId] = value;
+            }
+            if (value > maxs[c][pageId]) {
+                maxs[c][pageId] = value;
+            }
+        }
+    }
+
+    /**
+     * 清空一个页面的摘要，在页面中的记录全部被删除后调用。
+     */
+    synchronized void resetPage(int pageId) {
+        if (pageId < mins[0].length) {
+            for (int c = 0; c < offsets.length; c++) {
+                mins[c][pageId] = Long.MAX_VALUE;
+                maxs[c][pageId] = Long.MIN_VALUE;
+            }
+        }
+    }
+
+    private void ensureCapacity(int pageId) {
+        int length = mins[0].length;
+        if (pageId < length) {
+            return;
+        }
+        int newLength = Math.max(pageId + 1, length * 2);
+        for (int c = 0; c < offsets.length; c++) {
+            mins[c] = Arrays.copyOf(mins[c], newLength);
+            maxs[c] = Arrays.copyOf(maxs[c], newLength);
+            Arrays.fill(mins[c], length, newLength, Long.MAX_VALUE);
+            Arrays.fill(maxs[c], length, newLength, Long.MIN_VALUE);
+        }
+    }
+
+    /**
+     * 扫描整个记录文件重建摘要，完成后摘要与当前的表版本一致。
+     *
+     * @param fileHandle 记录文件句柄
+     * @throws DBException 如果读取页面失败
+     */
+    public synchronized void rebuild(RecordFileHandle fileHandle) throws DBException {
+        int numPages = fileHandle.getFileHeader().getNumberOfPages();
+        for (int c = 0; c < offsets.length; c++) {
+            mins[c] = new long[numPages + 1];
+            maxs[c] = new long[numPages + 1];
+            Arrays.fill(mins[c], Long.MAX_VALUE);
+            Arrays.fill(maxs[c], Long.MIN_VALUE);
+        }
+        RecordPageCursor cursor = fileHandle.openCursor();
+        try {
+            while (cursor.next()) {
+                include(cursor.getRID().pageNum, cursor.getRecord().data);
+            }
+        } finally {
+            cursor.close();
+        }
+        version = fileHandle.getFileHeader().getVersion();
+        Logger.debug("Rebuilt zone map of {} over {} pages", fileHandle.getFilename(), numPages);
+    }
+
+    /**
+     * 判断一个页面中是否可能有记录同时满足全部区间。没有摘要的列上的区间被忽略。
+     *
+     * @param pageId 页号
+     * @param bounds 各列上的闭区间
+     * @return 页面可能有满足条件的记录时返回 true；返回 false 时可以跳过该页
+     */
+    public synchronized boolean mayMatch(int pageId, List<Bound> bounds) {
+        if (pageId >= mins[0].length) {
+            return true;
+        }
+        for (Bound bound : bounds) {
+            int c = columnOf(bound.offset());
+            if (c < 0) {
+                continue;
+            }
+            long min = mins[c][pageId];
+            long max = maxs[c][pageId];
+            // 空页的最小值大于最大值，任何区间都不匹配
+            if (min > max || bound.low() > bound.high() || max < bound.low() || min > bound.high()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int columnOf(int offset) {
+        for (int c = 0; c < offsets.length; c++) {
+            if (offsets[c] == offset) {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return 摘要对应的表版本号，尚未构建时为 -1
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * 写出摘要文件。先写临时文件再改名，写到一半失败不会留下损坏的文件。
+     *
+     * @param file 摘要文件路径
+     * @throws DBException 如果写文件失败
+     */
+    public synchronized void write(Path file) throws DBException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(file.getParent());
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmp), BUFFER_SIZE))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(version);
+                out.writeInt(offsets.length);
+                for (int c = 0; c < offsets.length; c++) {
+                    out.writeInt(offsets[c]);
+                    out.writeInt(types[c].ordinal());
+                }
+                int pages = mins[0].length;
+                out.writeInt(pages);
+                for (int c = 0; c < offsets.length; c++) {
+                    for (int p = 0; p < pages; p++) {
+                        out.writeLong(mins[c][p]);
+                        out.writeLong(maxs[c][p]);
+                    }
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException ignored) {
+            }
+            throw new DBException(ExceptionTypes.BadIOError("Failed to write zone map " + file + ": "
+                    + e.getMessage()));
+        }
+    }
+
+    /**
+     * 读取摘要文件。文件不存在、已损坏或列与期望不一致时返回 null；
+     * 版本号由调用方通过 {@link #isCurrent} 与数据文件头比较。
+     *
+     * @param file    摘要文件路径
+     * @param offsets 期望的摘要列偏移
+     * @param types   期望的摘要列类型
+     * @return 读取的摘要，不可用时返回 null
+     */
+    public static ZoneMap load(Path file, int[] offsets, ValueType[] types) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                Logger.warn("Zone map {} is not a valid zone map file", file);
+                return null;
+            }
+            long version = in.readLong();
+            int columns = in.readInt();
+            if (columns != offsets.length) {
+                return null;
+            }
+            for (int c = 0; c < columns; c++) {
+                if (in.readInt() != offsets[c] || in.readInt() != types[c].ordinal()) {
+                    return null;
+                }
+            }
+            int pages = in.readInt();
+            ZoneMap zoneMap = new ZoneMap(offsets, types);
+            for (int c = 0; c < columns; c++) {
+                zoneMap.mins[c] = new long[pages];
+                zoneMap.maxs[c] = new long[pages];
+                for (int p = 0; p < pages; p++) {
+                    zoneMap.mins[c][p] = in.readLong();
+                    zoneMap.maxs[c][p] = in.readLong();
+                }
+            }
+            zoneMap.version = version;
+            return zoneMap;
+        } catch (IOException e) {
+            Logger.warn("Failed to read zone map {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 删除摘要文件，文件不存在时忽略。
+     */
+    public static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            Logger.warn("Failed to delete zone map {}: {}", file, e.getMessage());
+        }
+    }
+}
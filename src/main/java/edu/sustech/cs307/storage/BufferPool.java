@@ -91,6 +91,74 @@ public class BufferPool {
         }
     }
 
+    /**
+     * 预读：把尚未缓存的页面读入空闲或可淘汰的帧，读入后不固定，之后的 FetchPage 直接命中。
+     * 偏移量相邻的页面合并为一次磁盘读取。一次最多占用缓冲池四分之一的帧，找不到可替换的帧时停止。
+     *
+     * @param filename 文件名
+     * @param offsets  页面偏移量，按升序排列时相邻页面才能合并读取
+     * @return 实际从磁盘读入的页面数
+     * @throws DBException 如果在读取页面时发生错误
+     */
+    public int Prefetch(String filename, List<Integer> offsets) throws DBException {
+        int budget = Math.max(1, poolSize / 4);
+        int loaded = 0;
+        List<Integer> run = new ArrayList<>();
+        int runStart = 0;
+        for (int offset : offsets) {
+            if (loaded == budget) {
+                break;
+            }
+            PagePosition position = new PagePosition(filename, offset);
+            if (pageMap.containsKey(position)) {
+                continue;
+            }
+            if (!run.isEmpty() && offset != runStart + run.size() * Page.DEFAULT_PAGE_SIZE) {
+                readRun(filename, runStart, run);
+                run.clear();
+            }
+            int frame_id = find_victim_page();
+            if (frame_id == -1) {
+                break;
+            }
+            update_page(pages.get(frame_id), position, frame_id);
+            if (run.isEmpty()) {
+                runStart = offset;
+            }
+            run.add(frame_id);
+            loaded++;
+        }
+        if (!run.isEmpty()) {
+            readRun(filename, runStart, run);
+        }
+        return loaded;
+    }
+
+    /**
+     * 把一段连续页面读入已经分配好的帧，再把这些帧交给 LRU 作为可淘汰的帧。读取失败时归还这些帧。
+     */
+    private void readRun(String filename, int offset, List<Integer> frames) throws DBException {
+        List<Page> runPages = new ArrayList<>(frames.size());
+        for (int frame_id : frames) {
+            runPages.add(pages.get(frame_id));
+        }
+        try {
+            diskManager.ReadPages(runPages, filename, offset);
+        } catch (DBException e) {
+            for (int frame_id : frames) {
+                Page page = pages.get(frame_id);
+                pageMap.remove(page.position);
+                page.position = new PagePosition("null", 0);
+                freeList.add(frame_id);
+            }
+            throw e;
+        }
+        for (int frame_id : frames) {
+            lruReplacer.Pin(frame_id);
+            lruReplacer.Unpin(frame_id);
+        }
+    }
+
     /**
      * @description: 取消固定pin_count>0的在缓冲池中的page
      * @return {bool} 如果目标页的pin_count<=0则返回false，否则返回true
@@ -115,6 +183,14 @@ public class BufferPool {
         }
     }
 
+    /**
+     * @return 页面是否在缓冲池中且仍被固定
+     */
+    public boolean isPinned(PagePosition position) {
+        Integer frame_id = pageMap.get(position);
+        return frame_id != null && pages.get(frame_id).pin_count > 0;
+    }
+
     /**
      * @description: 将目标页写回磁盘，不考虑当前页面是否正在被使用
      * @return {bool} 成功则返回true，否则返回false(只有page_table_中没有目标页时)
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.sustech.cs307.DBEntry;
 import edu.sustech.cs307.exception.DBException;
 import edu.sustech.cs307.exception.ExceptionTypes;
+import io.netty.buffer.ByteBuf;
 
 import java.io.*;
 import java.nio.ByteBuffer;
@@ -13,6 +14,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.pmw.tinylog.Logger;
@@ -130,6 +132,32 @@ public class DiskManager {
         }
     }
 
+    /**
+     * 从 offset 开始把连续的多个页面一次读入给定的 Page 对象，用于预读。
+     * 与 {@link #ReadPage} 相同，超出文件末尾的部分保持为零。
+     *
+     * @param pages    依次接收各个页面数据的 Page 对象
+     * @param filename 要读取的文件名
+     * @param offset   第一个页面在文件中的偏移量
+     * @throws DBException 如果在读取过程中发生 I/O 错误
+     */
+    public void ReadPages(List<Page> pages, String filename, int offset) throws DBException {
+        String real_path = currentDir + "/" + filename;
+        try (RandomAccessFile raf = new RandomAccessFile(real_path, "r");
+                FileChannel channel = raf.getChannel()) {
+            ByteBuffer[] buffers = new ByteBuffer[pages.size()];
+            for (int i = 0; i < buffers.length; i++) {
+                buffers[i] = ByteBuffer.wrap(pages.get(i).data.array(), 0, Page.DEFAULT_PAGE_SIZE);
+            }
+            channel.position(offset);
+            // 分散读取直接填充各个页面帧，读满或到达文件末尾时结束
+            while (channel.read(buffers) > 0) {
+            }
+        } catch (IOException e) {
+            throw new DBException(ExceptionTypes.BadIOError(e.getMessage()));
+        }
+    }
+
     private boolean batchMode = false;
 
     /**
@@ -168,6 +196,31 @@ public class DiskManager {
         }
     }
 
+    /**
+     * 将连续的多个页面一次性顺序写入文件，用于批量装载等绕过缓冲池的场景。
+     *
+     * @param filename 目标文件名
+     * @param offset   第一个页面在文件中的偏移量
+     * @param data     页面数据，长度应为页面大小的整数倍
+     * @throws DBException 如果在写入过程中发生输入输出错误
+     */
+    public void WritePages(String filename, int offset, ByteBuf data) throws DBException {
+        String real_path = currentDir + "/" + filename;
+        try (RandomAccessFile raf = new RandomAccessFile(real_path, "rw");
+                FileChannel channel = raf.getChannel()) {
+            channel.position(offset);
+            ByteBuffer buffer = data.nioBuffer();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (!batchMode) {
+                channel.force(true);
+            }
+        } catch (IOException e) {
+            throw new DBException(ExceptionTypes.BadIOError(e.getMessage()));
+        }
+    }
+
     /**
      * 强制同步所有待写入的数据到磁盘
      */
@@ -287,6 +340,24 @@ public class DiskManager {
         }
     }
 
+    /**
+     * 将文件截断为前 pageCount 个页面，并同步页面计数，之后分配的页面从截断处继续。
+     *
+     * @param filename  要截断的文件名
+     * @param pageCount 保留的页面数（包含文件头页）
+     * @throws DBException 如果截断过程中发生错误
+     */
+    public void truncateFile(String filename, int pageCount) throws DBException {
+        String real_path = currentDir + "/" + filename;
+        try (RandomAccessFile raf = new RandomAccessFile(real_path, "rw")) {
+            raf.setLength((long) pageCount * Page.DEFAULT_PAGE_SIZE);
+        } catch (IOException e) {
+            throw new DBException(ExceptionTypes.BadIOError("Failed to truncate file: " + e.getMessage()));
+        }
+        this.filePages.put(filename, pageCount);
+        Logger.debug("Truncated file {} to {} pages", filename, pageCount);
+    }
+
     /**
      * 获取文件的页面数量
      * 
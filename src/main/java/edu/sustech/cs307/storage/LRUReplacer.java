@@ -27,7 +27,8 @@ public class LRUReplacer {
         if (pinnedFrames.contains(frameId)) {
             return;
         }
-        if (pinnedFrames.size() == maxSize || LRUHash.size() == maxSize) {
+        // 已在 LRU 链表中的帧只是从可淘汰变为固定，不占用新的容量
+        if (!LRUHash.contains(frameId) && size() >= maxSize) {
             throw new RuntimeException("REPLACER IS FULL");
         }
 
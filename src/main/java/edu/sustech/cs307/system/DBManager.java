@@ -5,17 +5,23 @@ import edu.sustech.cs307.exception.ExceptionTypes;
 import edu.sustech.cs307.meta.ColumnMeta;
 import edu.sustech.cs307.meta.MetaManager;
 import edu.sustech.cs307.meta.TableMeta;
+import edu.sustech.cs307.record.RecordFileHandle;
+import edu.sustech.cs307.record.ZoneMap;
 import edu.sustech.cs307.storage.BufferPool;
 import edu.sustech.cs307.storage.DiskManager;
+import edu.sustech.cs307.value.ColumnDictionary;
+import edu.sustech.cs307.value.ValueType;
 import org.apache.commons.lang3.StringUtils;
 import org.pmw.tinylog.Logger;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 public class DBManager {
     private final MetaManager metaManager;
@@ -24,15 +30,67 @@ public class DBManager {
     private final RecordManager recordManager;
     private final IndexManager indexManager; // 添加IndexManager
     private final IndexSynchronizer indexSynchronizer; // 添加索引同步器
+    private final TableCompactor tableCompactor; // 表压缩器
+
+    private static final Pattern CHECKPOINT_PATTERN = Pattern.compile("(?i)^CHECKPOINT\\s*;?$");
 
     public DBManager(DiskManager diskManager, BufferPool bufferPool, RecordManager recordManager,
-            MetaManager metaManager) {
+            MetaManager metaManager) throws DBException {
         this.diskManager = diskManager;
         this.bufferPool = bufferPool;
         this.recordManager = recordManager;
         this.metaManager = metaManager;
-        this.indexManager = new IndexManager(metaManager, recordManager); // 传入RecordManager引用
+        this.indexManager = new IndexManager(metaManager, recordManager, diskManager, bufferPool); // 传入RecordManager引用
         this.indexSynchronizer = new IndexSynchronizer(indexManager, metaManager); // 初始化IndexSynchronizer
+        this.tableCompactor = new TableCompactor(this);
+        for (String tableName : metaManager.getTableNames()) {
+            attachDictionaries(metaManager.getTable(tableName));
+        }
+    }
+
+    /**
+     * 为表中字典编码的列加载字典，字典文件位于表目录下的 dict_列名。
+     *
+     * @param tableMeta 表元数据
+     * @throws DBException 如果读取字典文件失败
+     */
+    private void attachDictionaries(TableMeta tableMeta) throws DBException {
+        for (ColumnMeta column : tableMeta.columns_list) {
+            if (column.dictionaryEncoded && column.dictionary == null) {
+                column.dictionary = ColumnDictionary.load(Path.of(diskManager.getCurrentDir(),
+                        tableMeta.tableName, "dict_" + column.name));
+            }
+        }
+    }
+
+    /**
+     * 获取表中全部数值列（不含字典编码列）上的页摘要，必要时扫描表重建。
+     *
+     * @param tableName 表名
+     * @return 与当前数据文件一致的页摘要；表中没有可建立摘要的列时返回 null
+     * @throws DBException 如果表不存在或重建摘要失败
+     */
+    public ZoneMap getZoneMap(String tableName) throws DBException {
+        TableMeta tableMeta = metaManager.getTable(tableName);
+        if (tableMeta == null) {
+            throw new DBException(ExceptionTypes.TableDoesNotExist(tableName));
+        }
+        List<ColumnMeta> columns = new ArrayList<>();
+        for (ColumnMeta column : tableMeta.columns_list) {
+            if (ZoneMap.supports(column.type) && !column.dictionaryEncoded) {
+                columns.add(column);
+            }
+        }
+        if (columns.isEmpty()) {
+            return null;
+        }
+        int[] offsets = new int[columns.size()];
+        ValueType[] types = new ValueType[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            offsets[i] = columns.get(i).offset;
+            types[i] = columns.get(i).type;
+        }
+        return recordManager.getZoneMap(tableName, offsets, types);
     }
 
     public BufferPool getBufferPool() {
@@ -59,6 +117,29 @@ public class DBManager {
         return indexSynchronizer;
     }
 
+    public TableCompactor getTableCompactor() {
+        return tableCompactor;
+    }
+
+    /**
+     * 获取表的有效行数，直接读取数据文件头中维护的计数，供规划器估算基数和回答 COUNT(*)。
+     *
+     * @param tableName 表名
+     * @return 有效行数
+     * @throws DBException 如果表不存在或打开文件失败
+     */
+    public long getTableRowCount(String tableName) throws DBException {
+        if (!isTableExists(tableName)) {
+            throw new DBException(ExceptionTypes.TableDoesNotExist(tableName));
+        }
+        RecordFileHandle fileHandle = recordManager.OpenFile(tableName);
+        try {
+            return fileHandle.getRecordCount();
+        } finally {
+            recordManager.CloseFile(fileHandle);
+        }
+    }
+
     public boolean isDirExists(String dir) {
         File file = new File(dir);
         return file.exists() && file.isDirectory();
@@ -123,20 +204,46 @@ public class DBManager {
      * @throws DBException If there is an error during table creation
      */
     public void createTable(String table_name, ArrayList<ColumnMeta> columns) throws DBException {
+        createTable(table_name, columns, TableMeta.StorageLayout.ROW);
+    }
+
+    /**
+     * Creates a table with the given page layout. PAX tables store each column in
+     * its own minipage inside a page so that scans touching few columns read less.
+     *
+     * @param table_name The name of the table to be created
+     * @param columns    The column definitions
+     * @param layout     The storage layout of the data file
+     * @throws DBException If the table already exists or the data file cannot be
+     *                     created
+     */
+    public void createTable(String table_name, ArrayList<ColumnMeta> columns, TableMeta.StorageLayout layout)
+            throws DBException {
         TableMeta tableMeta = new TableMeta(
                 table_name, columns);
+        tableMeta.setStorageLayout(layout);
         metaManager.createTable(tableMeta);
+        recordManager.dropZoneMap(table_name);
         String table_folder = String.format("%s/%s", diskManager.getCurrentDir(), table_name); // vulnerable to path
         File file_folder = new File(table_folder);
         if (!file_folder.exists()) {
             file_folder.mkdirs();
         }
+        attachDictionaries(tableMeta);
         int record_size = 0;
         for (var col : columns) {
             record_size += col.len;
         }
         String data_file = String.format("%s/%s", table_name, "data"); // vulnerable to path
-        recordManager.CreateFile(data_file, record_size);
+        if (layout == TableMeta.StorageLayout.PAX) {
+            int[] lengths = new int[columns.size()];
+            for (int i = 0; i < columns.size(); i++) {
+                lengths[i] = columns.get(i).len;
+            }
+            recordManager.CreatePaxFile(data_file, lengths);
+        } else {
+            recordManager.CreateFile(data_file, record_size);
+        }
     }
 
     /**
@@ -153,6 +260,7 @@ public class DBManager {
         }
         // remove table from meta manager
         metaManager.dropTable(table_name);
+        recordManager.dropZoneMap(table_name);
         // remove table from disk manager
         String table_folder = String.format("%s/%s", diskManager.getCurrentDir(), table_name); // vulnerable to path
         File file_folder = new File(table_folder);
@@ -204,13 +312,38 @@ public class DBManager {
      * This method flushes all pages in the buffer pool, dumps disk manager
      * metadata,
      * and saves meta manager state to JSON format.
+     * 内存索引的快照也在此时写出，下次启动时无需扫描表即可恢复索引。
      *
      * @throws DBException if an error occurs during the closing process
      */
     public void closeDBManager() throws DBException {
+        checkpoint();
+    }
+
+    /**
+     * 判断一条语句是否为 CHECKPOINT 命令。
+     */
+    public static boolean isCheckpointCommand(String sql) {
+        return CHECKPOINT_PATTERN.matcher(sql.trim()).matches();
+    }
+
+    /**
+     * 检查点：在页式索引的文件头中记下表的版本号后刷新全部页面和元数据，在每个表的文件头中记下
+     * 检查点时的版本号，并为表版本有变化的内存索引和页摘要写出快照。
+     *
+     * @return 写出的索引快照数量
+     * @throws DBException 如果刷新页面或保存元数据失败
+     */
+    public int checkpoint() throws DBException {
+        this.indexManager.stampDiskIndexes();
         this.bufferPool.FlushAllPages("");
+        for (String tableName : metaManager.getTableNames()) {
+            this.recordManager.markCheckpointed(tableName);
+        }
         DiskManager.dump_disk_manager_meta(this.diskManager);
         this.metaManager.saveToJson();
+        this.recordManager.saveZoneMaps();
+        return this.indexManager.saveSnapshots();
     }
 
     /**
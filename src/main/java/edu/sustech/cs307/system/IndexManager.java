@@ -3,19 +3,34 @@ package edu.sustech.cs307.system;
 import edu.sustech.cs307.exception.DBException;
 import edu.sustech.cs307.exception.ExceptionTypes;
 import edu.sustech.cs307.index.BPlusTreeIndex;
+import edu.sustech.cs307.index.BloomFilter;
+import edu.sustech.cs307.index.CompositeIndex;
+import edu.sustech.cs307.index.DiskBPlusTreeIndex;
+import edu.sustech.cs307.index.HashIndex;
 import edu.sustech.cs307.index.Index;
+import edu.sustech.cs307.index.IndexEntrySorter;
+import edu.sustech.cs307.index.IndexSnapshot;
+import edu.sustech.cs307.index.MemoryIndex;
+import edu.sustech.cs307.index.PrimitiveBPlusTreeIndex;
 import edu.sustech.cs307.meta.MetaManager;
 import edu.sustech.cs307.meta.TableMeta;
 import edu.sustech.cs307.meta.ColumnMeta;
 import edu.sustech.cs307.record.RecordFileHandle;
-import edu.sustech.cs307.record.RecordPageHandle;
-import edu.sustech.cs307.record.Record;
+import edu.sustech.cs307.record.RecordPageCursor;
 import edu.sustech.cs307.record.RID;
-import edu.sustech.cs307.record.BitMap;
+import edu.sustech.cs307.record.Record;
+import edu.sustech.cs307.storage.BufferPool;
+import edu.sustech.cs307.storage.DiskManager;
 import edu.sustech.cs307.value.Value;
-import edu.sustech.cs307.value.ValueType;
 import org.pmw.tinylog.Logger;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -23,16 +38,131 @@ import java.util.concurrent.ConcurrentHashMap;
 public class IndexManager {
     // Structure: tableName -> columnName -> Index object
     private final Map<String, Map<String, Index>> indexes;
+    // 多列索引：tableName -> indexName -> CompositeIndex，只存在于内存中，启动时扫描表重建
+    private final Map<String, Map<String, CompositeIndex>> compositeIndexes = new ConcurrentHashMap<>();
     private final MetaManager metaManager; // To get TableMeta for degree calculation etc.
     private final RecordManager recordManager; // 添加RecordManager引用
-
-    // Default B+ Tree degree if not specified or found in metadata
-    private static final int DEFAULT_BTREE_DEGREE = 10; // Example degree
-
-    public IndexManager(MetaManager metaManager, RecordManager recordManager) {
+    private final DiskManager diskManager; // 页式索引文件的读写
+    private final BufferPool bufferPool;
+
+    // Default B+ Tree degree if not specified or found in metadata.
+    // 200 万个随机 INT 键的插入 + 点查测试中，阶数从 10 提高到 128 后数组实现的树耗时约减少四成、
+    // 内存减少近一半，通用实现耗时约减少三成；再往上收益已不明显，插入时的数组移动开始变多
+    private static final int DEFAULT_BTREE_DEGREE = 128;
+
+    // 建表主键和未指定 USING 的 CREATE INDEX 使用的索引类型
+    private TableMeta.IndexType defaultIndexType = TableMeta.IndexType.BTREE;
+
+    // 批量构建内存 B+ 树时节点的填充因子
+    public static final double DEFAULT_FILL_FACTOR = 0.9;
+    private double fillFactor = DEFAULT_FILL_FACTOR;
+    // 建索引排序时内存中最多缓存的条目数，超过后写出临时文件
+    private int sortRunSize = IndexEntrySorter.DEFAULT_RUN_SIZE;
+
+    // 每个快照文件写出时的表版本号，版本未变的索引在下一次检查点时不必重写
+    private final Map<Path, Long> snapshotVersions = new ConcurrentHashMap<>();
+
+    // 单列索引列上的布隆过滤器：tableName -> columnName -> BloomFilter，只存在于内存中，
+    // 建索引时顺带构建，启动后第一次检查主键时扫描表构建
+    private final Map<String, Map<String, BloomFilter>> bloomFilters = new ConcurrentHashMap<>();
+    // 正在扫描表构建、尚未发布的布隆过滤器，构建期间插入的键同时写入新旧两个过滤器
+    private final Map<String, Map<String, BloomFilter>> pendingBloomFilters = new ConcurrentHashMap<>();
+    private boolean bloomFiltersEnabled = true;
+
+    public IndexManager(MetaManager metaManager, RecordManager recordManager, DiskManager diskManager,
+            BufferPool bufferPool) {
         this.indexes = new ConcurrentHashMap<>();
         this.metaManager = metaManager;
         this.recordManager = recordManager;
+        this.diskManager = diskManager;
+        this.bufferPool = bufferPool;
+    }
+
+    public TableMeta.IndexType getDefaultIndexType() {
+        return defaultIndexType;
+    }
+
+    public void setDefaultIndexType(TableMeta.IndexType defaultIndexType) {
+        this.defaultIndexType = defaultIndexType;
+    }
+
+    public double getFillFactor() {
+        return fillFactor;
+    }
+
+    /**
+     * 设置批量构建的填充因子，取值 (0, 1]，越小留给之后插入的空间越多。
+     */
+    public void setFillFactor(double fillFactor) throws DBException {
+        if (fillFactor <= 0 || fillFactor > 1) {
+            throw new DBException(ExceptionTypes.InvalidOperation("Index fill factor must be in (0, 1]: " + fillFactor));
+        }
+        this.fillFactor = fillFactor;
+    }
+
+    public void setSortRunSize(int sortRunSize) {
+        this.sortRunSize = sortRunSize;
+    }
+
+    public boolean isBloomFiltersEnabled() {
+        return bloomFiltersEnabled;
+    }
+
+    /**
+     * 关闭时丢弃已有的布隆过滤器，之后的主键检查和点查直接访问索引或扫描表。
+     */
+    public void setBloomFiltersEnabled(boolean bloomFiltersEnabled) {
+        this.bloomFiltersEnabled = bloomFiltersEnabled;
+        if (!bloomFiltersEnabled) {
+            bloomFilters.clear();
+            pendingBloomFilters.clear();
+        }
+    }
+
+    /**
+     * 元数据中记录的索引类型，没有记录时为内存 B+ 树。
+     */
+    private TableMeta.IndexType indexTypeOf(TableMeta tableMeta, String columnName) {
+        if (tableMeta.getIndexes() != null && tableMeta.getIndexes().get(columnName) != null) {
+            return tableMeta.getIndexes().get(columnName);
+        }
+        return TableMeta.IndexType.BTREE;
+    }
+
+    /**
+     * 按索引类型创建一个空索引，页式索引会重新创建索引文件。
+     */
+    private Index newIndex(String tableName, ColumnMeta columnMeta, TableMeta.IndexType type) throws DBException {
+        if (type == TableMeta.IndexType.DISK_BTREE) {
+            return DiskBPlusTreeIndex.create(diskManager, bufferPool, tableName, columnMeta.name, columnMeta.type);
+        }
+        if (type == TableMeta.IndexType.HASH) {
+            return new HashIndex(tableName, columnMeta.name, columnMeta.type);
+        }
+        return newMemoryIndex(tableName, columnMeta);
+    }
+
+    /**
+     * 创建空的内存 B+ 树：数值列使用基本类型数组存放键的专用实现，其余列使用通用实现。
+     */
+    private MemoryIndex newMemoryIndex(String tableName, ColumnMeta columnMeta) {
+        if (PrimitiveBPlusTreeIndex.supports(columnMeta.type)) {
+            return new PrimitiveBPlusTreeIndex(tableName, columnMeta.name, columnMeta.type, DEFAULT_BTREE_DEGREE);
+        }
+        return new BPlusTreeIndex(tableName, columnMeta.name, DEFAULT_BTREE_DEGREE);
+    }
+
+    /**
+     * 释放索引占用的资源：清空内存索引，或删除页式索引的文件。
+     */
+    private void releaseIndex(Index index) throws DBException {
+        if (index instanceof MemoryIndex memoryIndex) {
+            memoryIndex.clear();
+        } else if (index instanceof HashIndex hashIndex) {
+            hashIndex.clear();
+        } else if (index instanceof DiskBPlusTreeIndex diskIndex) {
+            diskIndex.destroy();
+        }
     }
 
     /**
@@ -65,17 +195,15 @@ public class IndexManager {
             throw new DBException(ExceptionTypes.ColumnDoesNotExist(columnName));
         }
 
-        // For now, we only support BPlusTreeIndex.
         // The degree could be configurable, e.g., from table metadata or a global
         // setting.
         // int degree = tableMeta.getIndexDegree(columnName); // Hypothetical method
-        int degree = DEFAULT_BTREE_DEGREE; // Use default for now
-
-        Index index = new BPlusTreeIndex(tableName, columnName, degree);
+        TableMeta.IndexType type = indexTypeOf(tableMeta, columnName);
+        Index index = newIndex(tableName, columnMeta, type);
 
         indexes.computeIfAbsent(tableName, k -> new ConcurrentHashMap<>()).put(columnName, index);
 
-        Logger.info("Created B+Tree index for {}.{} with degree {}", tableName, columnName, degree);
+        Logger.info("Created {} index for {}.{}", type, tableName, columnName);
 
         // 立即填充现有数据到索引中
         populateIndexWithExistingData(index, tableName, columnMeta);
@@ -84,52 +212,84 @@ public class IndexManager {
     }
 
     /**
-     * 将表中的现有数据填充到索引中
+     * 丢弃内存中的索引并按表中现有数据重新构建，元数据保持不变。
+     * 用于批量装载之后，一次扫描重建比逐行插入更快。
+     *
+     * @param tableName  表名
+     * @param columnName 列名
+     * @return 重建后的索引
+     * @throws DBException 如果表或列不存在，或填充索引失败
+     */
+    public synchronized Index rebuildIndex(String tableName, String columnName) throws DBException {
+        TableMeta tableMeta = metaManager.getTable(tableName);
+        if (tableMeta == null) {
+            throw new DBException(ExceptionTypes.TableDoesNotExist(tableName));
+        }
+        ColumnMeta columnMeta = tableMeta.getColumnMeta(columnName);
+        if (columnMeta == null) {
+            throw new DBException(ExceptionTypes.ColumnDoesNotExist(columnName));
+        }
+
+        Index index = newIndex(tableName, columnMeta, indexTypeOf(tableMeta, columnName));
+        populateIndexWithExistingData(index, tableName, columnMeta);
+        indexes.computeIfAbsent(tableName, k -> new ConcurrentHashMap<>()).put(columnName, index);
+
+        Logger.info("Rebuilt index for {}.{}", tableName, columnName);
+        return index;
+    }
+
+    /**
+     * 将表中的现有数据填充到索引中：一次扫描取出 (键, RID)，外部排序后批量装入。
+     * 内存 B+ 树自底向上按填充因子构建，页式索引按键顺序插入。
      */
     private void populateIndexWithExistingData(Index index, String tableName, ColumnMeta columnMeta)
             throws DBException {
-        try {
+        if (index instanceof HashIndex) {
+            populateUnordered(index, tableName, columnMeta);
+            return;
+        }
+        Path spillDir = Path.of(diskManager.getCurrentDir(), tableName);
+        try (IndexEntrySorter sorter = new IndexEntrySorter(columnMeta.type, sortRunSize, spillDir)) {
             // 打开表文件
             RecordFileHandle fileHandle = recordManager.OpenFile(tableName);
             Logger.info("Starting to populate index for {}.{} with existing data", tableName, columnMeta.name);
+            BloomFilter filter = newBloomFilter(columnMeta, fileHandle.getRecordCount());
+            beginBloomFilterBuild(tableName, columnMeta.name, filter);
 
-            int recordCount = 0;
-            int totalPages = fileHandle.getFileHeader().getNumberOfPages();
-            int recordsPerPage = fileHandle.getFileHeader().getNumberOfRecordsPrePage();
-
-            // 遍历所有页面
-            for (int pageNum = 1; pageNum <= totalPages; pageNum++) {
-                try {
-                    RecordPageHandle pageHandle = fileHandle.FetchPageHandle(pageNum);
-
-                    // 遍历页面中的所有槽位
-                    for (int slotNum = 0; slotNum < recordsPerPage; slotNum++) {
-                        // 检查槽位是否有效（使用位图）
-                        if (BitMap.isSet(pageHandle.bitmap, slotNum)) {
-                            RID rid = new RID(pageNum, slotNum);
-                            Record record = fileHandle.GetRecord(rid);
-
-                            // 提取列值
-                            io.netty.buffer.ByteBuf columnValueBuf = record.GetColumnValue(columnMeta.offset,
-                                    columnMeta.len);
-                            Value columnValue = convertByteBufToValue(columnValueBuf, columnMeta.type);
-
-                            // 插入到索引中
-                            index.insert(columnValue, rid);
-                            recordCount++;
-                        }
+            // 通过游标逐页遍历，每页只固定一次，记录以零拷贝方式读取
+            RecordPageCursor cursor = fileHandle.openCursor();
+            boolean scanned = false;
+            try {
+                while (cursor.next()) {
+                    Record record = cursor.getRecord();
+                    io.netty.buffer.ByteBuf columnValueBuf = record.GetColumnValue(columnMeta.offset,
+                            columnMeta.len);
+                    Value key = columnMeta.decode(columnValueBuf);
+                    sorter.add(key, cursor.getRID());
+                    if (filter != null) {
+                        filter.add(key);
                     }
-                } catch (DBException e) {
-                    // 如果页面不存在，可能是因为页面数量不准确，继续下一页
-                    Logger.warn("Failed to access page {} in table {}: {}", pageNum, tableName, e.getMessage());
-                    continue;
                 }
+                scanned = true;
+            } finally {
+                cursor.close();
+                endBloomFilterBuild(tableName, columnMeta.name, filter, scanned);
             }
 
             // 关闭文件
             recordManager.CloseFile(fileHandle);
-            Logger.info("Successfully populated index for {}.{} with {} records", tableName, columnMeta.name,
-                    recordCount);
+
+            Iterator<Map.Entry<Value, RID>> sorted = sorter.sorted();
+            if (index instanceof MemoryIndex memoryIndex) {
+                memoryIndex.bulkLoad(sorted, fillFactor);
+            } else {
+                while (sorted.hasNext()) {
+                    Map.Entry<Value, RID> entry = sorted.next();
+                    index.insert(entry.getKey(), entry.getValue());
+                }
+            }
+            Logger.info("Successfully populated index for {}.{} with {} records ({} spilled runs)", tableName,
+                    columnMeta.name, sorter.size(), sorter.getSpilledRuns());
 
         } catch (DBException e) {
             Logger.error("Failed to populate index for {}.{}: {}", tableName, columnMeta.name, e.getMessage());
@@ -138,30 +298,35 @@ public class IndexManager {
     }
 
     /**
-     * 将ByteBuf转换为Value对象
+     * 哈希索引不关心条目顺序，扫描时直接逐条插入，省去排序。
      */
-    private Value convertByteBufToValue(io.netty.buffer.ByteBuf buf, ValueType type) throws DBException {
+    private void populateUnordered(Index index, String tableName, ColumnMeta columnMeta) throws DBException {
+        RecordFileHandle fileHandle = recordManager.OpenFile(tableName);
+        long count = 0;
         try {
-            switch (type) {
-                case INTEGER:
-                    return new Value(buf.readLong());
-                case FLOAT:
-                    return new Value(buf.readFloat());
-                case DOUBLE:
-                    return new Value(buf.readDouble());
-                case CHAR:
-                    byte[] bytes = new byte[buf.readableBytes()];
-                    buf.readBytes(bytes);
-                    // 移除trailing null bytes
-                    String str = new String(bytes).trim().replaceAll("\0", "");
-                    return new Value(str);
-                default:
-                    throw new DBException(ExceptionTypes
-                            .UnsupportedValueType("Unsupported column type: " + type, type));
+            BloomFilter filter = newBloomFilter(columnMeta, fileHandle.getRecordCount());
+            beginBloomFilterBuild(tableName, columnMeta.name, filter);
+            RecordPageCursor cursor = fileHandle.openCursor();
+            boolean scanned = false;
+            try {
+                while (cursor.next()) {
+                    Record record = cursor.getRecord();
+                    Value key = columnMeta.decode(record.GetColumnValue(columnMeta.offset, columnMeta.len));
+                    index.insert(key, cursor.getRID());
+                    if (filter != null) {
+                        filter.add(key);
+                    }
+                    count++;
+                }
+                scanned = true;
+            } finally {
+                cursor.close();
+                endBloomFilterBuild(tableName, columnMeta.name, filter, scanned);
             }
         } finally {
-            buf.release(); // 释放ByteBuf资源
+            recordManager.CloseFile(fileHandle);
         }
+        Logger.info("Successfully populated index for {}.{} with {} records", tableName, columnMeta.name, count);
     }
 
     /**
@@ -187,6 +352,7 @@ public class IndexManager {
      * @return True if the index was removed, false otherwise.
      */
     public synchronized boolean dropIndex(String tableName, String columnName) {
+        removeBloomFilter(tableName, columnName);
         Map<String, Index> tableIndexes = indexes.get(tableName);
         if (tableIndexes != null && tableIndexes.containsKey(columnName)) {
             // 获取要删除的索引实例
@@ -194,17 +360,15 @@ public class IndexManager {
 
             // 完整的 B+Tree 生命周期管理 - 清理索引资源
             try {
-                if (indexToRemove instanceof BPlusTreeIndex) {
-                    BPlusTreeIndex btreeIndex = (BPlusTreeIndex) indexToRemove;
-                    // 清理 B+Tree 的内部结构和缓存
-                    btreeIndex.clear(); // 假设 BPlusTreeIndex 有 clear 方法
-                    Logger.debug("Cleared B+Tree internal structures for {}.{}", tableName, columnName);
-                }
+                releaseIndex(indexToRemove);
+                Logger.debug("Released index structures for {}.{}", tableName, columnName);
             } catch (Exception e) {
                 Logger.warn("Failed to clear B+Tree structures for {}.{}: {}", tableName, columnName, e.getMessage());
                 // 继续删除操作，不因清理失败而停止
             }
 
+            deleteSnapshot(tableName, columnName);
+
             // 从内存中移除索引
             tableIndexes.remove(columnName);
             if (tableIndexes.isEmpty()) {
@@ -238,6 +402,12 @@ public class IndexManager {
      * @return 删除的索引数量
      */
     public synchronized int dropAllIndexesForTable(String tableName) {
+        bloomFilters.remove(tableName);
+        pendingBloomFilters.remove(tableName);
+        Map<String, CompositeIndex> tableCompositeIndexes = compositeIndexes.remove(tableName);
+        if (tableCompositeIndexes != null) {
+            tableCompositeIndexes.values().forEach(CompositeIndex::clear);
+        }
         Map<String, Index> tableIndexes = indexes.get(tableName);
         if (tableIndexes != null) {
             int indexCount = tableIndexes.size();
@@ -248,15 +418,13 @@ public class IndexManager {
                 Index index = entry.getValue();
 
                 try {
-                    if (index instanceof BPlusTreeIndex) {
-                        BPlusTreeIndex btreeIndex = (BPlusTreeIndex) index;
-                        btreeIndex.clear(); // 清理 B+Tree 内部结构
-                        Logger.debug("Cleared B+Tree structures for {}.{}", tableName, columnName);
-                    }
+                    releaseIndex(index);
+                    Logger.debug("Released index structures for {}.{}", tableName, columnName);
                 } catch (Exception e) {
                     Logger.warn("Failed to clear B+Tree structures for {}.{}: {}",
                             tableName, columnName, e.getMessage());
                 }
+                deleteSnapshot(tableName, columnName);
             }
 
             // 清空并移除表的所有索引
@@ -268,6 +436,7 @@ public class IndexManager {
                 TableMeta tableMeta = metaManager.getTable(tableName);
                 if (tableMeta != null && tableMeta.getIndexes() != null) {
                     tableMeta.getIndexes().clear();
+                    tableMeta.getCompositeIndexes().clear();
                     metaManager.saveToJson();
                     Logger.debug("Updated metadata after dropping all indexes for table {}", tableName);
                 }
@@ -283,6 +452,268 @@ public class IndexManager {
         return 0;
     }
 
+    /**
+     * 创建多列索引并用表中现有数据填充。
+     *
+     * @param tableName 表名
+     * @param indexName 索引名
+     * @param columns   按顺序排列的索引列
+     * @param includes  INCLUDE 列，随条目存放但不参与排序
+     * @return 创建的索引
+     * @throws DBException 如果表或列不存在，或填充索引失败
+     */
+    public synchronized CompositeIndex createCompositeIndex(String tableName, String indexName, List<String> columns,
+            List<String> includes) throws DBException {
+        TableMeta tableMeta = metaManager.getTable(tableName);
+        if (tableMeta == null) {
+            throw new DBException(ExceptionTypes.TableDoesNotExist(tableName));
+        }
+        for (List<String> columnNames : List.of(columns, includes)) {
+            for (String columnName : columnNames) {
+                if (!tableMeta.hasColumn(columnName)) {
+                    throw new DBException(ExceptionTypes.ColumnDoesNotExist(columnName));
+                }
+            }
+        }
+
+        CompositeIndex index = new CompositeIndex(tableName, indexName, columns, includes);
+        RecordFileHandle fileHandle = recordManager.OpenFile(tableName);
+        try {
+            RecordPageCursor cursor = fileHandle.openCursor();
+            try {
+                while (cursor.next()) {
+                    Record record = cursor.getRecord();
+                    index.insert(index.keyOf(tableMeta, record), cursor.getRID(), index.includedOf(tableMeta, record));
+                }
+            } finally {
+                cursor.close();
+            }
+        } finally {
+            recordManager.CloseFile(fileHandle);
+        }
+        compositeIndexes.computeIfAbsent(tableName, k -> new ConcurrentHashMap<>()).put(indexName, index);
+
+        Logger.info("Created composite index {} with {} entries", index, index.size());
+        return index;
+    }
+
+    /**
+     * 获取表上的所有多列索引。
+     */
+    public Collection<CompositeIndex> getCompositeIndexes(String tableName) {
+        Map<String, CompositeIndex> tableIndexes = compositeIndexes.get(tableName);
+        return tableIndexes != null ? tableIndexes.values() : Collections.emptyList();
+    }
+
+    public CompositeIndex getCompositeIndex(String tableName, String indexName) {
+        Map<String, CompositeIndex> tableIndexes = compositeIndexes.get(tableName);
+        return tableIndexes != null ? tableIndexes.get(indexName) : null;
+    }
+
+    /**
+     * 从内存中删除多列索引，元数据由调用方更新。
+     *
+     * @return 索引是否存在
+     */
+    public synchronized boolean dropCompositeIndex(String tableName, String indexName) {
+        Map<String, CompositeIndex> tableIndexes = compositeIndexes.get(tableName);
+        CompositeIndex index = tableIndexes != null ? tableIndexes.remove(indexName) : null;
+        if (index == null) {
+            return false;
+        }
+        index.clear();
+        if (tableIndexes.isEmpty()) {
+            compositeIndexes.remove(tableName);
+        }
+        Logger.info("Dropped composite index {}", index);
+        return true;
+    }
+
+    /**
+     * 按元数据重建表上的全部多列索引：元数据中已不存在的索引（例如所含的列被删除）直接丢弃。
+     */
+    public synchronized void rebuildCompositeIndexes(String tableName) throws DBException {
+        Map<String, CompositeIndex> old = compositeIndexes.remove(tableName);
+        if (old != null) {
+            old.values().forEach(CompositeIndex::clear);
+        }
+        TableMeta tableMeta = metaManager.getTable(tableName);
+        for (Map.Entry<String, List<String>> entry : tableMeta.getCompositeIndexes().entrySet()) {
+            createCompositeIndex(tableName, entry.getKey(), entry.getValue(),
+                    tableMeta.getCompositeIndexIncludes(entry.getKey()));
+        }
+    }
+
+    /**
+     * 按预计的行数创建空的布隆过滤器，过滤器关闭时返回 null。
+     * 预计键数取行数的两倍，给之后的插入留出空间。
+     */
+    private BloomFilter newBloomFilter(ColumnMeta columnMeta, long rowCount) {
+        if (!bloomFiltersEnabled) {
+            return null;
+        }
+        return new BloomFilter(columnMeta.type, rowCount * 2);
+    }
+
+    /**
+     * 在扫描表之前登记正在构建的过滤器。扫描开始前已经写入的行由扫描读到，
+     * 登记之后插入的键由 {@link #addToBloomFilter} 同时写入这个过滤器，
+     * 因此不会因为扫描已经越过新行所在的页而漏掉它。
+     */
+    private void beginBloomFilterBuild(String tableName, String columnName, BloomFilter filter) {
+        if (filter != null) {
+            pendingBloomFilters.computeIfAbsent(tableName, k -> new ConcurrentHashMap<>()).put(columnName, filter);
+        }
+    }
+
+    /**
+     * 扫描结束后发布过滤器并撤销登记。先发布再撤销，{@link #addToBloomFilter} 先读登记再读已发布的
+     * 过滤器，两者之间的插入至少会写入新过滤器一次。
+     *
+     * @param publish 扫描是否完成；扫描失败时只撤销登记，保留原来的过滤器
+     */
+    private void endBloomFilterBuild(String tableName, String columnName, BloomFilter filter, boolean publish) {
+        if (filter == null) {
+            return;
+        }
+        if (publish && bloomFiltersEnabled) {
+            bloomFilters.computeIfAbsent(tableName, k -> new ConcurrentHashMap<>()).put(columnName, filter);
+        }
+        Map<String, BloomFilter> pending = pendingBloomFilters.get(tableName);
+        if (pending != null) {
+            pending.remove(columnName, filter);
+        }
+    }
+
+    /**
+     * 列上是否有已发布或正在构建的布隆过滤器，插入和更新时据此决定是否需要解码键值。
+     */
+    public boolean hasBloomFilter(String tableName, String columnName) {
+        return getBloomFilter(tableName, columnName) != null || getPendingBloomFilter(tableName, columnName) != null;
+    }
+
+    /**
+     * 把新写入的键加入列上的布隆过滤器；正在重建时同时加入正在构建的过滤器，
+     * 避免重建扫描越过新行所在的页后，新键只留在即将被替换的旧过滤器中。
+     */
+    public void addToBloomFilter(String tableName, String columnName, Value key) {
+        // 必须先读正在构建的过滤器，再读已发布的过滤器，见 endBloomFilterBuild
+        BloomFilter pending = getPendingBloomFilter(tableName, columnName);
+        BloomFilter filter = getBloomFilter(tableName, columnName);
+        if (pending != null) {
+            pending.add(key);
+        }
+        if (filter != null && filter != pending) {
+            filter.add(key);
+        }
+    }
+
+    private BloomFilter getPendingBloomFilter(String tableName, String columnName) {
+        Map<String, BloomFilter> tableFilters = pendingBloomFilters.get(tableName);
+        return tableFilters == null ? null : tableFilters.get(columnName);
+    }
+
+    private void removeBloomFilter(String tableName, String columnName) {
+        Map<String, BloomFilter> tableFilters = bloomFilters.get(tableName);
+        if (tableFilters != null) {
+            tableFilters.remove(columnName);
+        }
+    }
+
+    /**
+     * 获取已经构建好的布隆过滤器，不会触发构建。
+     *
+     * @return 过滤器；尚未构建或已关闭时返回 null
+     */
+    public BloomFilter getBloomFilter(String tableName, String columnName) {
+        Map<String, BloomFilter> tableFilters = bloomFilters.get(tableName);
+        return tableFilters == null ? null : tableFilters.get(columnName);
+    }
+
+    /**
+     * 获取布隆过滤器，不存在或已饱和时扫描表重建该表所有单列索引列的过滤器。
+     * 只为元数据中声明了单列索引（含主键）的列构建，其余列返回 null。
+     *
+     * @return 过滤器；过滤器已关闭或该列没有索引时返回 null
+     * @throws DBException 如果扫描表失败
+     */
+    public BloomFilter ensureBloomFilter(String tableName, String columnName) throws DBException {
+        if (!bloomFiltersEnabled) {
+            return null;
+        }
+        BloomFilter filter = getBloomFilter(tableName, columnName);
+        if (filter != null && !filter.isSaturated()) {
+            return filter;
+        }
+        TableMeta tableMeta = metaManager.getTable(tableName);
+        if (tableMeta == null || tableMeta.getIndexes() == null || !tableMeta.getIndexes().containsKey(columnName)) {
+            return null;
+        }
+        synchronized (this) {
+            filter = getBloomFilter(tableName, columnName);
+            if (filter == null || filter.isSaturated()) {
+                rebuildBloomFilters(tableName);
+                filter = getBloomFilter(tableName, columnName);
+            }
+        }
+        return filter;
+    }
+
+    /**
+     * 一次扫描重建表上所有单列索引列的布隆过滤器，用于 VACUUM 之后和过滤器饱和时。
+     * 删除的键不会从过滤器中移除，重建可以把误判率恢复到设定值。
+     *
+     * @throws DBException 如果表不存在或扫描失败
+     */
+    public synchronized void rebuildBloomFilters(String tableName) throws DBException {
+        if (!bloomFiltersEnabled) {
+            return;
+        }
+        TableMeta tableMeta = metaManager.getTable(tableName);
+        if (tableMeta == null) {
+            throw new DBException(ExceptionTypes.TableDoesNotExist(tableName));
+        }
+        if (tableMeta.getIndexes() == null || tableMeta.getIndexes().isEmpty()) {
+            return;
+        }
+        List<ColumnMeta> columns = new ArrayList<>();
+        for (String columnName : tableMeta.getIndexes().keySet()) {
+            ColumnMeta columnMeta = tableMeta.getColumnMeta(columnName);
+            if (columnMeta != null) {
+                columns.add(columnMeta);
+            }
+        }
+        RecordFileHandle fileHandle = recordManager.OpenFile(tableName);
+        BloomFilter[] filters = new BloomFilter[columns.size()];
+        boolean scanned = false;
+        try {
+            long rowCount = fileHandle.getRecordCount();
+            for (int i = 0; i < filters.length; i++) {
+                filters[i] = new BloomFilter(columns.get(i).type, rowCount * 2);
+                beginBloomFilterBuild(tableName, columns.get(i).name, filters[i]);
+            }
+            RecordPageCursor cursor = fileHandle.openCursor();
+            try {
+                while (cursor.next()) {
+                    Record record = cursor.getRecord();
+                    for (int i = 0; i < filters.length; i++) {
+                        ColumnMeta columnMeta = columns.get(i);
+                        filters[i].add(columnMeta.decode(record.GetColumnValue(columnMeta.offset, columnMeta.len)));
+                    }
+                }
+            } finally {
+                cursor.close();
+            }
+            scanned = true;
+        } finally {
+            for (int i = 0; i < filters.length; i++) {
+                endBloomFilterBuild(tableName, columns.get(i).name, filters[i], scanned);
+            }
+            recordManager.CloseFile(fileHandle);
+        }
+        Logger.debug("Rebuilt {} bloom filters for table {}", filters.length, tableName);
+    }
+
     /**
      * Loads all indexes defined in the metadata.
      * This would typically be called at DB startup.
@@ -302,6 +733,18 @@ public class IndexManager {
                     for (String columnName : tableIndexes.keySet()) {
                         if (getIndex(tableName, columnName) == null) {
                             try {
+                                if (tableIndexes.get(columnName) == TableMeta.IndexType.DISK_BTREE
+                                        && openDiskIndex(tableMeta, columnName)) {
+                                    Logger.info("Opened disk index for {}.{}", tableName, columnName);
+                                    totalIndexesLoaded++;
+                                    continue;
+                                }
+                                if (tableIndexes.get(columnName) == TableMeta.IndexType.BTREE
+                                        && loadSnapshot(tableMeta, columnName)) {
+                                    Logger.info("Loaded index for {}.{} from snapshot", tableName, columnName);
+                                    totalIndexesLoaded++;
+                                    continue;
+                                }
                                 Index index = createIndex(tableName, columnName);
                                 Logger.info("Auto-loaded index for {}.{} based on metadata", tableName, columnName);
                                 totalIndexesLoaded++;
@@ -314,6 +757,21 @@ public class IndexManager {
                         }
                     }
                 }
+                if (tableMeta != null) {
+                    for (Map.Entry<String, List<String>> entry : tableMeta.getCompositeIndexes().entrySet()) {
+                        if (getCompositeIndex(tableName, entry.getKey()) != null) {
+                            continue;
+                        }
+                        try {
+                            createCompositeIndex(tableName, entry.getKey(), entry.getValue(),
+                                    tableMeta.getCompositeIndexIncludes(entry.getKey()));
+                            totalIndexesLoaded++;
+                        } catch (DBException e) {
+                            Logger.error("Failed to load composite index {} on table {}: {}", entry.getKey(),
+                                    tableName, e.getMessage());
+                        }
+                    }
+                }
             } catch (DBException e) {
                 Logger.error("Failed to load indexes for table {}: {}", tableName, e.getMessage());
             }
@@ -321,4 +779,160 @@ public class IndexManager {
 
         Logger.info("Completed loading indexes. Total loaded: {}", totalIndexesLoaded);
     }
+
+    /**
+     * 打开已有的页式索引文件。文件头中的表版本号与数据文件不一致，或上次检查点之后表被修改过
+     * （例如上次未正常关闭）时视为失效，由调用方扫描表重建。
+     *
+     * @return 是否成功打开
+     */
+    private boolean openDiskIndex(TableMeta tableMeta, String columnName) throws DBException {
+        String tableName = tableMeta.tableName;
+        ColumnMeta columnMeta = tableMeta.getColumnMeta(columnName);
+        if (columnMeta == null) {
+            return false;
+        }
+        DiskBPlusTreeIndex index = DiskBPlusTreeIndex.open(diskManager, bufferPool, tableName, columnName,
+                columnMeta.type);
+        if (index == null) {
+            Logger.info("Disk index file for {}.{} is missing or invalid, rebuilding", tableName, columnName);
+            return false;
+        }
+        RecordFileHandle fileHandle = recordManager.OpenFile(tableName);
+        long version;
+        boolean checkpointed;
+        try {
+            version = fileHandle.getFileHeader().getVersion();
+            checkpointed = fileHandle.getFileHeader().isCheckpointed();
+        } finally {
+            recordManager.CloseFile(fileHandle);
+        }
+        if (!checkpointed || index.getTableVersion() != version) {
+            Logger.warn("Disk index for {}.{} was written at table version {} but table is at {}{}, rebuilding",
+                    tableName, columnName, index.getTableVersion(), version,
+                    checkpointed ? "" : " and was modified after the last checkpoint");
+            return false;
+        }
+        indexes.computeIfAbsent(tableName, k -> new ConcurrentHashMap<>()).put(columnName, index);
+        return true;
+    }
+
+    private Path snapshotPath(String tableName, String columnName) {
+        return Path.of(diskManager.getCurrentDir(), IndexSnapshot.snapshotFileName(tableName, columnName));
+    }
+
+    private void deleteSnapshot(String tableName, String columnName) {
+        Path file = snapshotPath(tableName, columnName);
+        snapshotVersions.remove(file);
+        IndexSnapshot.delete(file);
+    }
+
+    /**
+     * 从快照文件构建内存 B+ 树。上次检查点之后表被修改过，或快照的表版本号、条目数与数据文件不一致时
+     * 返回 false，由调用方扫描表重建。
+     *
+     * @return 是否成功加载
+     */
+    private boolean loadSnapshot(TableMeta tableMeta, String columnName) throws DBException {
+        String tableName = tableMeta.tableName;
+        ColumnMeta columnMeta = tableMeta.getColumnMeta(columnName);
+        if (columnMeta == null) {
+            return false;
+        }
+        RecordFileHandle fileHandle = recordManager.OpenFile(tableName);
+        long version;
+        long rowCount;
+        boolean checkpointed;
+        try {
+            version = fileHandle.getFileHeader().getVersion();
+            rowCount = fileHandle.getRecordCount();
+            checkpointed = fileHandle.getFileHeader().isCheckpointed();
+        } finally {
+            recordManager.CloseFile(fileHandle);
+        }
+        Path file = snapshotPath(tableName, columnName);
+        if (!checkpointed) {
+            // 数据页可能先于文件头写回，版本号相同也不能说明快照与数据一致
+            Logger.info("Table {} was modified after the last checkpoint, ignoring index snapshot", tableName);
+            return false;
+        }
+        MemoryIndex index = newMemoryIndex(tableName, columnMeta);
+        if (!IndexSnapshot.load(file, columnMeta.type, version, rowCount, index, fillFactor)) {
+            return false;
+        }
+        snapshotVersions.put(file, version);
+        indexes.computeIfAbsent(tableName, k -> new ConcurrentHashMap<>()).put(columnName, index);
+        return true;
+    }
+
+    /**
+     * 在每个页式索引的文件头中记下表的当前版本号，由检查点在写回全部页面之前调用，
+     * 下次启动时据此判断索引文件能否直接使用。
+     *
+     * @throws DBException 如果读取数据文件头或索引文件头失败
+     */
+    public synchronized void stampDiskIndexes() throws DBException {
+        for (Map.Entry<String, Map<String, Index>> tableEntry : indexes.entrySet()) {
+            Long version = null;
+            for (Index index : tableEntry.getValue().values()) {
+                if (!(index instanceof DiskBPlusTreeIndex diskIndex)) {
+                    continue;
+                }
+                if (version == null) {
+                    RecordFileHandle fileHandle = recordManager.OpenFile(tableEntry.getKey());
+                    try {
+                        version = fileHandle.getFileHeader().getVersion();
+                    } finally {
+                        recordManager.CloseFile(fileHandle);
+                    }
+                }
+                diskIndex.setTableVersion(version);
+            }
+        }
+    }
+
+    /**
+     * 检查点：为每个内存 B+ 树索引写出快照文件，记录当前的表版本号。
+     * 自上次写快照以来表没有被修改的索引会被跳过。调用前应已刷新数据文件，
+     * 使快照中的版本号与磁盘上的文件头一致。
+     *
+     * @return 写出的快照数量
+     */
+    public synchronized int saveSnapshots() {
+        int written = 0;
+        for (Map.Entry<String, Map<String, Index>> tableEntry : indexes.entrySet()) {
+            String tableName = tableEntry.getKey();
+            for (Map.Entry<String, Index> entry : tableEntry.getValue().entrySet()) {
+                if (!(entry.getValue() instanceof MemoryIndex memoryIndex)) {
+                    continue;
+                }
+                String columnName = entry.getKey();
+                try {
+                    TableMeta tableMeta = metaManager.getTable(tableName);
+                    ColumnMeta columnMeta = tableMeta.getColumnMeta(columnName);
+                    RecordFileHandle fileHandle = recordManager.OpenFile(tableName);
+                    long version;
+                    try {
+                        version = fileHandle.getFileHeader().getVersion();
+                    } finally {
+                        recordManager.CloseFile(fileHandle);
+                    }
+                    Path file = snapshotPath(tableName, columnName);
+                    Long saved = snapshotVersions.get(file);
+                    if (saved != null && saved == version && Files.exists(file)) {
+                        continue;
+                    }
+                    long count = IndexSnapshot.write(file, memoryIndex, columnMeta.type, version);
+                    snapshotVersions.put(file, version);
+                    written++;
+                    Logger.debug("Saved snapshot of {}.{} with {} entries", tableName, columnName, count);
+                } catch (DBException e) {
+                    Logger.warn("Failed to save index snapshot for {}.{}: {}", tableName, columnName,
+                            e.getMessage());
+                }
+            }
+        }
+        Logger.info("Saved {} index snapshots", written);
+        return written;
+    }
 }
@@ -1,19 +1,21 @@
 package edu.sustech.cs307.system;
 
 import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.index.CompositeIndex;
+import edu.sustech.cs307.index.CompositeKey;
 import edu.sustech.cs307.index.Index;
 import edu.sustech.cs307.meta.TableMeta;
 import edu.sustech.cs307.meta.MetaManager;
 import edu.sustech.cs307.record.RID;
 import edu.sustech.cs307.record.Record;
 import edu.sustech.cs307.value.Value;
-import edu.sustech.cs307.value.ValueType;
 import edu.sustech.cs307.meta.ColumnMeta;
 
-import java.nio.charset.StandardCharsets;
 
 import org.pmw.tinylog.Logger;
 
+import java.util.Arrays;
+
 /**
  * 索引同步管理器：负责在数据变更时同步更新相关索引
  */
@@ -27,7 +29,7 @@ public class IndexSynchronizer {
     }
 
     /**
-     * 在插入记录后同步更新索引
+     * 在插入记录后同步更新索引，新键同时加入该列的布隆过滤器
      */
     public void onRecordInserted(String tableName, Record record, RID rid) throws DBException {
         TableMeta tableMeta = metaManager.getTable(tableName);
@@ -37,17 +39,23 @@ public class IndexSynchronizer {
 
         for (String columnName : tableMeta.getIndexes().keySet()) {
             Index index = indexManager.getIndex(tableName, columnName);
-            if (index != null) {
+            boolean filtered = indexManager.hasBloomFilter(tableName, columnName);
+            if (index != null || filtered) {
                 try {
                     ColumnMeta columnMeta = tableMeta.getColumnMeta(columnName);
                     if (columnMeta != null) {
                         // 使用offset和len从记录中获取列值
                         io.netty.buffer.ByteBuf columnValueBuf = record.GetColumnValue(columnMeta.offset,
                                 columnMeta.len);
-                        Value columnValue = convertByteBufToValue(columnValueBuf, columnMeta.type);
-                        index.insert(columnValue, rid);
-                        Logger.debug("Updated index for {}.{} with value {} and RID {}",
-                                tableName, columnName, columnValue, rid);
+                        Value columnValue = columnMeta.decode(columnValueBuf);
+                        if (filtered) {
+                            indexManager.addToBloomFilter(tableName, columnName, columnValue);
+                        }
+                        if (index != null) {
+                            index.insert(columnValue, rid);
+                            Logger.debug("Updated index for {}.{} with value {} and RID {}",
+                                    tableName, columnName, columnValue, rid);
+                        }
                     }
                 } catch (DBException e) {
                     Logger.error("Failed to update index for {}.{} after insert: {}",
@@ -56,6 +64,14 @@ public class IndexSynchronizer {
                 }
             }
         }
+
+        for (CompositeIndex index : indexManager.getCompositeIndexes(tableName)) {
+            try {
+                index.insert(index.keyOf(tableMeta, record), rid, index.includedOf(tableMeta, record));
+            } catch (DBException e) {
+                Logger.error("Failed to update composite index {} after insert: {}", index, e.getMessage());
+            }
+        }
     }
 
     /**
@@ -75,7 +91,7 @@ public class IndexSynchronizer {
                     if (columnMeta != null) {
                         io.netty.buffer.ByteBuf columnValueBuf = record.GetColumnValue(columnMeta.offset,
                                 columnMeta.len);
-                        Value columnValue = convertByteBufToValue(columnValueBuf, columnMeta.type);
+                        Value columnValue = columnMeta.decode(columnValueBuf);
                         index.delete(columnValue, rid);
                         Logger.debug("Removed from index for {}.{} with value {} and RID {}",
                                 tableName, columnName, columnValue, rid);
@@ -87,10 +103,18 @@ public class IndexSynchronizer {
                 }
             }
         }
+
+        for (CompositeIndex index : indexManager.getCompositeIndexes(tableName)) {
+            try {
+                index.delete(index.keyOf(tableMeta, record), rid);
+            } catch (DBException e) {
+                Logger.error("Failed to update composite index {} after delete: {}", index, e.getMessage());
+            }
+        }
     }
 
     /**
-     * 在更新记录后同步更新索引
+     * 在更新记录后同步更新索引，变化后的键同时加入该列的布隆过滤器
      */
     public void onRecordUpdated(String tableName, Record oldRecord, Record newRecord, RID rid) throws DBException {
         TableMeta tableMeta = metaManager.getTable(tableName);
@@ -100,7 +124,8 @@ public class IndexSynchronizer {
 
         for (String columnName : tableMeta.getIndexes().keySet()) {
             Index index = indexManager.getIndex(tableName, columnName);
-            if (index != null) {
+            boolean filtered = indexManager.hasBloomFilter(tableName, columnName);
+            if (index != null || filtered) {
                 try {
                     ColumnMeta columnMeta = tableMeta.getColumnMeta(columnName);
                     if (columnMeta != null) {
@@ -108,15 +133,20 @@ public class IndexSynchronizer {
                                 columnMeta.len);
                         io.netty.buffer.ByteBuf newValueBuf = newRecord.GetColumnValue(columnMeta.offset,
                                 columnMeta.len);
-                        Value oldValue = convertByteBufToValue(oldValueBuf, columnMeta.type);
-                        Value newValue = convertByteBufToValue(newValueBuf, columnMeta.type);
+                        Value oldValue = columnMeta.decode(oldValueBuf);
+                        Value newValue = columnMeta.decode(newValueBuf);
 
                         // 只有当列值发生变化时才需要更新索引
                         if (!oldValue.equals(newValue)) {
-                            index.delete(oldValue, rid);
-                            index.insert(newValue, rid);
-                            Logger.debug("Updated index for {}.{} changed from {} to {} for RID {}",
-                                    tableName, columnName, oldValue, newValue, rid);
+                            if (filtered) {
+                                indexManager.addToBloomFilter(tableName, columnName, newValue);
+                            }
+                            if (index != null) {
+                                index.delete(oldValue, rid);
+                                index.insert(newValue, rid);
+                                Logger.debug("Updated index for {}.{} changed from {} to {} for RID {}",
+                                        tableName, columnName, oldValue, newValue, rid);
+                            }
                         }
                     }
                 } catch (DBException e) {
@@ -126,6 +156,63 @@ public class IndexSynchronizer {
                 }
             }
         }
+
+        for (CompositeIndex index : indexManager.getCompositeIndexes(tableName)) {
+            try {
+                CompositeKey oldKey = index.keyOf(tableMeta, oldRecord);
+                CompositeKey newKey = index.keyOf(tableMeta, newRecord);
+                Value[] newIncluded = index.includedOf(tableMeta, newRecord);
+                // 键不变时 INCLUDE 列也可能变化，同样要替换条目
+                if (!oldKey.equals(newKey)
+                        || !Arrays.equals(index.includedOf(tableMeta, oldRecord), newIncluded)) {
+                    index.delete(oldKey, rid);
+                    index.insert(newKey, rid, newIncluded);
+                }
+            } catch (DBException e) {
+                Logger.error("Failed to update composite index {} after update: {}", index, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 在记录被移动到新位置（如表压缩）后同步更新索引
+     */
+    public void onRecordMoved(String tableName, Record record, RID oldRid, RID newRid) throws DBException {
+        TableMeta tableMeta = metaManager.getTable(tableName);
+        if (tableMeta == null || tableMeta.getIndexes() == null) {
+            return;
+        }
+
+        for (String columnName : tableMeta.getIndexes().keySet()) {
+            Index index = indexManager.getIndex(tableName, columnName);
+            if (index != null) {
+                try {
+                    ColumnMeta columnMeta = tableMeta.getColumnMeta(columnName);
+                    if (columnMeta != null) {
+                        io.netty.buffer.ByteBuf columnValueBuf = record.GetColumnValue(columnMeta.offset,
+                                columnMeta.len);
+                        Value columnValue = columnMeta.decode(columnValueBuf);
+                        index.delete(columnValue, oldRid);
+                        index.insert(columnValue, newRid);
+                        Logger.debug("Moved index entry for {}.{} with value {} from RID {} to {}",
+                                tableName, columnName, columnValue, oldRid, newRid);
+                    }
+                } catch (DBException e) {
+                    Logger.error("Failed to update index for {}.{} after move: {}",
+                            tableName, columnName, e.getMessage());
+                }
+            }
+        }
+
+        for (CompositeIndex index : indexManager.getCompositeIndexes(tableName)) {
+            try {
+                CompositeKey key = index.keyOf(tableMeta, record);
+                index.delete(key, oldRid);
+                index.insert(key, newRid, index.includedOf(tableMeta, record));
+            } catch (DBException e) {
+                Logger.error("Failed to update composite index {} after move: {}", index, e.getMessage());
+            }
+        }
     }
 
     /**
@@ -142,11 +229,8 @@ public class IndexSynchronizer {
 
         for (String columnName : tableMeta.getIndexes().keySet()) {
             try {
-                // 删除现有索引
-                indexManager.dropIndex(tableName, columnName);
-
-                // 重新创建索引
-                Index newIndex = indexManager.createIndex(tableName, columnName);
+                // 一次扫描排序后批量重建，元数据保持不变
+                indexManager.rebuildIndex(tableName, columnName);
                 Logger.info("Successfully rebuilt index for {}.{}", tableName, columnName);
 
             } catch (DBException e) {
@@ -154,25 +238,6 @@ public class IndexSynchronizer {
                 throw e;
             }
         }
+        indexManager.rebuildCompositeIndexes(tableName);
     }
-
-    /**
-     * 将ByteBuf转换为Value对象
-     */
-    private Value convertByteBufToValue(io.netty.buffer.ByteBuf byteBuf, ValueType columnType)
-            throws DBException {
-        if (columnType == ValueType.INTEGER) {
-            return new Value(byteBuf.getLong(0));
-        } else if (columnType == ValueType.CHAR) {
-            return new Value(byteBuf
-                    .getCharSequence(0, byteBuf.readableBytes(), StandardCharsets.UTF_8).toString());
-        } else if (columnType == ValueType.FLOAT) {
-            return new Value(byteBuf.getFloat(0));
-        } else if (columnType == ValueType.DOUBLE) {
-            return new Value(byteBuf.getDouble(0));
-        } else {
-            throw new DBException(
-                    edu.sustech.cs307.exception.ExceptionTypes.UnsupportedValueType("IndexSynchronizer", columnType));
-        }
-    }
-}
\ No newline at end of file
+}
@@ -5,12 +5,18 @@ import edu.sustech.cs307.exception.ExceptionTypes;
 import edu.sustech.cs307.record.RecordFileHandle;
 import edu.sustech.cs307.record.RecordFileHeader;
 import edu.sustech.cs307.record.RecordPageHeader;
+import edu.sustech.cs307.record.ZoneMap;
 import edu.sustech.cs307.storage.BufferPool;
 import edu.sustech.cs307.storage.DiskManager;
 import edu.sustech.cs307.storage.Page;
 import edu.sustech.cs307.storage.PagePosition;
+import edu.sustech.cs307.value.ValueType;
 import org.pmw.tinylog.Logger;
 
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * 记录管理器类，负责管理数据库记录的创建、删除和文件操作。
  * 
@@ -20,6 +26,10 @@ public class RecordManager {
     private final DiskManager diskManager;
     private final BufferPool bufferPool;
     private static final int MAX_RECORD_SIZE = 4000;
+    // 各表的页摘要，打开文件时挂到句柄上随修改一起维护
+    private final Map<String, ZoneMap> zoneMaps = new ConcurrentHashMap<>();
+    // 各表最近一次写出的页摘要对应的表版本号
+    private final Map<String, Long> savedZoneMapVersions = new ConcurrentHashMap<>();
 
     public RecordManager(DiskManager diskManager, BufferPool bufferPool) {
         this.diskManager = diskManager;
@@ -34,6 +44,30 @@ public class RecordManager {
      * @throws DBException 如果记录大小无效或文件创建失败
      */
     public void CreateFile(String filename, int record_size) throws DBException {
+        CreateFile(filename, record_size, null);
+    }
+
+    /**
+     * 创建一个 PAX 布局的记录文件，各列宽度写入文件头，页内按列划分 minipage。
+     *
+     * @param filename      文件名
+     * @param columnLengths 按列顺序排列的列宽度
+     * @throws DBException 如果记录大小或列数无效，或文件创建失败
+     */
+    public void CreatePaxFile(String filename, int[] columnLengths) throws DBException {
+        if (columnLengths.length == 0 || columnLengths.length > RecordFileHeader.MAX_COLUMNS) {
+            throw new DBException(ExceptionTypes.InvalidOperation(String.format(
+                    "PAX layout supports 1 to %d columns, got %d", RecordFileHeader.MAX_COLUMNS,
+                    columnLengths.length)));
+        }
+        int record_size = 0;
+        for (int len : columnLengths) {
+            record_size += len;
+        }
+        CreateFile(filename, record_size, columnLengths);
+    }
+
+    private void CreateFile(String filename, int record_size, int[] columnLengths) throws DBException {
         if (record_size <= 0 || record_size > MAX_RECORD_SIZE) {
             throw new DBException(ExceptionTypes.InvalidTableWidth(record_size));
         }
@@ -43,10 +77,17 @@ public class RecordManager {
         RecordFileHeader recordFileHeader = new RecordFileHeader(page.data);
         recordFileHeader.setRecordSize(record_size);
         recordFileHeader.setNumberOfPages(0);
+        recordFileHeader.setRecordCount(0);
         recordFileHeader.setFirstFreePage(RecordPageHeader.NO_NEXT_FREE_PAGE);
         recordFileHeader.setNumberOfRecordsPrePage(
                 (8 * (Page.DEFAULT_PAGE_SIZE - RecordPageHeader.SIZE) / (1 + record_size * 8)));
         recordFileHeader.setBitMapSize((recordFileHeader.getNumberOfRecordsPrePage() + 7) / 8);
+        if (columnLengths != null) {
+            recordFileHeader.setStorageLayout(RecordFileHeader.LAYOUT_PAX);
+            recordFileHeader.setColumnLengths(columnLengths);
+        } else {
+            recordFileHeader.setStorageLayout(RecordFileHeader.LAYOUT_ROW);
+        }
         page.dirty = true;
         diskManager.FlushPage(page);
     }
@@ -64,6 +105,7 @@ public class RecordManager {
         bufferPool.DeleteAllPages(dataFileName);
         // Delete the actual data file from disk
         diskManager.DeleteFile(dataFileName);
+        dropZoneMap(tableName);
     }
 
     /**
@@ -77,7 +119,106 @@ public class RecordManager {
         String data_file = String.format("%s/%s", table_name, "data");
         Page page = bufferPool.FetchPage(new PagePosition(data_file, 0));
         RecordFileHeader recordFileHeader = new RecordFileHeader(page.data);
-        return new RecordFileHandle(diskManager, bufferPool, data_file, recordFileHeader);
+        RecordFileHandle fileHandle = new RecordFileHandle(diskManager, bufferPool, data_file, recordFileHeader);
+        fileHandle.setZoneMap(zoneMaps.get(table_name));
+        return fileHandle;
+    }
+
+    /**
+     * 获取表在给定列上的页摘要。内存中没有时先尝试读取摘要文件，摘要与数据文件的版本不一致时扫描表重建。
+     *
+     * @param tableName 表名
+     * @param offsets   摘要列在记录中的偏移
+     * @param types     摘要列的类型
+     * @return 与当前数据文件一致的页摘要
+     * @throws DBException 如果重建时读取页面失败
+     */
+    public ZoneMap getZoneMap(String tableName, int[] offsets, ValueType[] types) throws DBException {
+        RecordFileHandle fileHandle = OpenFile(tableName);
+        try {
+            ZoneMap zoneMap = zoneMaps.get(tableName);
+            if (zoneMap == null || !zoneMap.covers(offsets, types)) {
+                // 上次检查点之后表被修改过时摘要文件不可信，即使版本号相同
+                zoneMap = fileHandle.getFileHeader().isCheckpointed()
+                        ? ZoneMap.load(zoneMapPath(tableName), offsets, types)
+                        : null;
+                if (zoneMap == null) {
+                    zoneMap = new ZoneMap(offsets, types);
+                }
+                zoneMaps.put(tableName, zoneMap);
+                fileHandle.setZoneMap(zoneMap);
+            }
+            if (!zoneMap.isCurrent(fileHandle.getFileHeader().getVersion())) {
+                zoneMap.rebuild(fileHandle);
+                Logger.info("Rebuilt zone map of table {}", tableName);
+            }
+            return zoneMap;
+        } finally {
+            CloseFile(fileHandle);
+        }
+    }
+
+    /**
+     * 检查点：在文件头中记下表的当前版本号并写回磁盘，之后的第一次修改会清除该标记。
+     * 调用前应已刷新全部数据页。
+     *
+     * @param tableName 表名
+     * @throws DBException 如果写回文件头失败
+     */
+    public void markCheckpointed(String tableName) throws DBException {
+        RecordFileHandle fileHandle = OpenFile(tableName);
+        try {
+            fileHandle.markCheckpointed();
+        } finally {
+            CloseFile(fileHandle);
+        }
+    }
+
+    /**
+     * 丢弃表的页摘要及摘要文件，在表被删除或重建时调用。
+     *
+     * @param tableName 表名
+     */
+    public void dropZoneMap(String tableName) {
+        zoneMaps.remove(tableName);
+        savedZoneMapVersions.remove(tableName);
+        ZoneMap.delete(zoneMapPath(tableName));
+    }
+
+    /**
+     * 为版本有变化的页摘要写出摘要文件，由检查点调用。过期的摘要不写出。
+     *
+     * @return 写出的摘要文件数量
+     */
+    public int saveZoneMaps() {
+        int written = 0;
+        for (Map.Entry<String, ZoneMap> entry : zoneMaps.entrySet()) {
+            String tableName = entry.getKey();
+            ZoneMap zoneMap = entry.getValue();
+            try {
+                RecordFileHandle fileHandle = OpenFile(tableName);
+                long version;
+                try {
+                    version = fileHandle.getFileHeader().getVersion();
+                } finally {
+                    CloseFile(fileHandle);
+                }
+                Long saved = savedZoneMapVersions.get(tableName);
+                if (!zoneMap.isCurrent(version) || (saved != null && saved == version)) {
+                    continue;
+                }
+                zoneMap.write(zoneMapPath(tableName));
+                savedZoneMapVersions.put(tableName, version);
+                written++;
+            } catch (DBException e) {
+                Logger.warn("Failed to save zone map for {}: {}", tableName, e.getMessage());
+            }
+        }
+        return written;
+    }
+
+    private Path zoneMapPath(String tableName) {
+        return Path.of(diskManager.getCurrentDir(), tableName, "zonemap");
     }
 
     /**
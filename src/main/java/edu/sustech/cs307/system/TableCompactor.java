@@ -0,0 +1,117 @@
+package edu.sustech.cs307.system;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.record.RecordFileHandle;
+import edu.sustech.cs307.record.RecordFileHeader;
+import org.pmw.tinylog.Logger;
+
+/**
+ * 表压缩器，负责 VACUUM：把稀疏页面中的记录集中到前部页面，更新索引中被移动记录的 RID，
+ * 并截断数据文件释放空间。
+ *
+ * <p>
+ * 开启自动压缩后，DELETE 语句结束时会检查表的填充率，低于阈值且可释放的页面足够多时
+ * 在当前语句中执行一次压缩。引擎没有语句级的锁，因此不使用后台线程。
+ * </p>
+ */
+public class TableCompactor {
+    // 默认填充率阈值，低于该值时自动压缩
+    public static final double DEFAULT_FILL_THRESHOLD = 0.5;
+    // 自动压缩至少要释放的页面数
+    public static final int DEFAULT_MIN_RECLAIM_PAGES = 8;
+
+    private final DBManager dbManager;
+    private boolean autoVacuum;
+    private double fillThreshold;
+    private int minReclaimPages;
+    private int lastMovedRecords;
+
+    public TableCompactor(DBManager dbManager) {
+        this.dbManager = dbManager;
+        this.autoVacuum = false;
+        this.fillThreshold = DEFAULT_FILL_THRESHOLD;
+        this.minReclaimPages = DEFAULT_MIN_RECLAIM_PAGES;
+    }
+
+    public boolean isAutoVacuum() {
+        return autoVacuum;
+    }
+
+    public void setAutoVacuum(boolean autoVacuum) {
+        this.autoVacuum = autoVacuum;
+    }
+
+    public void setFillThreshold(double fillThreshold) {
+        this.fillThreshold = fillThreshold;
+    }
+
+    public void setMinReclaimPages(int minReclaimPages) {
+        this.minReclaimPages = minReclaimPages;
+    }
+
+    /**
+     * 最近一次压缩移动的记录数。
+     */
+    public int getLastMovedRecords() {
+        return lastMovedRecords;
+    }
+
+    /**
+     * 压缩指定表，并同步更新该表的所有索引，重建单列索引列的布隆过滤器。
+     *
+     * @param tableName 表名
+     * @return 释放的页面数
+     * @throws DBException 如果读写页面或截断文件失败
+     */
+    public int vacuum(String tableName) throws DBException {
+        IndexSynchronizer indexSynchronizer = dbManager.getIndexSynchronizer();
+        RecordFileHandle fileHandle = dbManager.getRecordManager().OpenFile(tableName);
+        int[] moved = { 0 };
+        try {
+            int released = fileHandle.compact((from, to, record) -> {
+                indexSynchronizer.onRecordMoved(tableName, record, from, to);
+                moved[0]++;
+            });
+            lastMovedRecords = moved[0];
+            Logger.debug("Vacuumed table {}: moved {} records, released {} pages", tableName, moved[0], released);
+            // 布隆过滤器无法移除已删除的键，压缩后按剩余的记录重建
+            dbManager.getIndexManager().rebuildBloomFilters(tableName);
+            return released;
+        } finally {
+            dbManager.getRecordManager().CloseFile(fileHandle);
+        }
+    }
+
+    /**
+     * 如果开启了自动压缩且表足够稀疏，则压缩该表。
+     *
+     * @param tableName 表名
+     * @return 是否执行了压缩
+     * @throws DBException 如果读取页面或压缩失败
+     */
+    public boolean maybeVacuum(String tableName) throws DBException {
+        if (!autoVacuum) {
+            return false;
+        }
+        RecordFileHandle fileHandle = dbManager.getRecordManager().OpenFile(tableName);
+        long live;
+        int numPages;
+        int recordsPerPage;
+        try {
+            RecordFileHeader header = fileHandle.getFileHeader();
+            numPages = header.getNumberOfPages();
+            recordsPerPage = header.getNumberOfRecordsPrePage();
+            live = fileHandle.getRecordCount();
+        } finally {
+            dbManager.getRecordManager().CloseFile(fileHandle);
+        }
+        long capacity = (long) numPages * recordsPerPage;
+        int targetPages = (int) ((live + recordsPerPage - 1) / recordsPerPage);
+        if (capacity == 0 || (double) live / capacity >= fillThreshold
+                || numPages - targetPages < minReclaimPages) {
+            return false;
+        }
+        vacuum(tableName);
+        return true;
+    }
+}
@@ -90,6 +90,16 @@ public class JoinTuple extends Tuple {
         return result;
     }
 
+    @Override
+    public Tuple materialize() {
+        Tuple left = leftTuple != null ? leftTuple.materialize() : null;
+        Tuple right = rightTuple != null ? rightTuple.materialize() : null;
+        if (left == leftTuple && right == rightTuple) {
+            return this;
+        }
+        return new JoinTuple(left, right, tupleSchema);
+    }
+
     /**
      * 获取左侧元组
      */
@@ -44,6 +44,12 @@ public class ProjectTuple extends Tuple {
         return inputTuple.getValue(tabCol);
     }
 
+    @Override
+    public Tuple materialize() {
+        Tuple materialized = inputTuple.materialize();
+        return materialized == inputTuple ? this : new ProjectTuple(materialized, schema);
+    }
+
     /**
      * 获取当前元组的模式（Schema）。
      *
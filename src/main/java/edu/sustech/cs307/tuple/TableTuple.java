@@ -5,12 +5,10 @@ import edu.sustech.cs307.meta.TableMeta;
 import edu.sustech.cs307.record.RID;
 import edu.sustech.cs307.record.Record;
 import edu.sustech.cs307.value.Value;
-import edu.sustech.cs307.value.ValueType;
 
 import java.util.ArrayList;
 
 import edu.sustech.cs307.exception.DBException;
-import edu.sustech.cs307.exception.ExceptionTypes;
 import edu.sustech.cs307.meta.ColumnMeta;
 
 import io.netty.buffer.ByteBuf;
@@ -63,24 +61,8 @@ public class TableTuple extends Tuple {
         int len = columnMeta.getLen();
         // Use GetColumnValue to get the value based on offset and len
         ByteBuf columnValueBuf = record.GetColumnValue(offset, len); // Use the record passed to getValue
-        // Convert ByteBuf to Value (assuming you have a method for this)
-        return convertByteBufToValue(columnValueBuf, columnMeta.type);
-    }
-
-    private Value convertByteBufToValue(ByteBuf byteBuf, ValueType columnType) throws DBException {
-        if (columnType == ValueType.INTEGER) {
-            return new Value(byteBuf.getLong(0));
-        } else if (columnType == ValueType.CHAR) {
-            // Use byteBuf.readableBytes() to get the actual length of the char sequence
-            return new Value(byteBuf
-                    .getCharSequence(0, byteBuf.readableBytes(), java.nio.charset.StandardCharsets.UTF_8).toString());
-        } else if (columnType == ValueType.FLOAT) {
-            return new Value(byteBuf.getFloat(0));
-        } else if (columnType == ValueType.DOUBLE) {
-            return new Value(byteBuf.getDouble(0));
-        } else {
-            throw new DBException(ExceptionTypes.UnsupportedValueType(tableName, columnType));
-        }
+        // Convert ByteBuf to Value; dictionary-encoded columns are looked up by code
+        return columnMeta.decode(columnValueBuf);
     }
 
     @Override
@@ -108,6 +90,14 @@ public class TableTuple extends Tuple {
         return values.toArray(new Value[0]);
     }
 
+    @Override
+    public Tuple materialize() {
+        if (!record.isView()) {
+            return this;
+        }
+        return new TableTuple(tableName, tableMeta, record.materialize(), rid);
+    }
+
     public RID getRID() {
         return this.rid;
     }
@@ -9,16 +9,44 @@ import edu.sustech.cs307.value.ValueType;
 import net.sf.jsqlparser.expression.*;
 import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
 import net.sf.jsqlparser.expression.operators.conditional.OrExpression;
+import net.sf.jsqlparser.expression.operators.relational.Between;
+import net.sf.jsqlparser.expression.operators.relational.EqualsTo;
 import net.sf.jsqlparser.expression.operators.relational.ExpressionList;
+import net.sf.jsqlparser.expression.operators.relational.GreaterThanEquals;
+import net.sf.jsqlparser.expression.operators.relational.InExpression;
+import net.sf.jsqlparser.expression.operators.relational.LikeExpression;
+import net.sf.jsqlparser.expression.operators.relational.MinorThanEquals;
+import net.sf.jsqlparser.expression.operators.relational.ParenthesedExpressionList;
 import net.sf.jsqlparser.schema.Column;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
 public abstract class Tuple {
+    // LIKE 模式编译后的正则，同一条语句逐行求值时只编译一次
+    private record LikeKey(String pattern, char escape, boolean caseInsensitive) {
+    }
+
+    private static final int LIKE_CACHE_SIZE = 256;
+    private static final Map<LikeKey, Pattern> LIKE_PATTERNS = new ConcurrentHashMap<>();
+
     public abstract Value getValue(TabCol tabCol) throws DBException;
 
     public abstract TabCol[] getTupleSchema();
 
     public abstract Value[] getValues() throws DBException;
 
+    /**
+     * 返回一个不再引用缓冲池页面帧的元组。扫描算子产生的元组可能直接指向已固定的页面，
+     * 只在下一次 Next() 或 Close() 之前有效；排序、哈希构建等需要跨行保存元组的算子应先调用本方法。
+     *
+     * @return 可以长期持有的元组，默认返回自身
+     */
+    public Tuple materialize() {
+        return this;
+    }
+
     public boolean eval_expr(Expression expr) throws DBException {
         return evaluateCondition(this, expr);
     }
@@ -30,6 +58,14 @@ public abstract class Tuple {
         } else if (whereExpr instanceof OrExpression orExpr) {
             return evaluateCondition(tuple, orExpr.getLeftExpression())
                     || evaluateCondition(tuple, orExpr.getRightExpression());
+        } else if (whereExpr instanceof ParenthesedExpressionList<?> list && list.size() == 1) {
+            return evaluateCondition(tuple, (Expression) list.get(0));
+        } else if (whereExpr instanceof Between between) {
+            return evaluateBetween(tuple, between);
+        } else if (whereExpr instanceof LikeExpression like) {
+            return evaluateLike(tuple, like);
+        } else if (whereExpr instanceof InExpression in) {
+            return evaluateIn(tuple, in);
         } else if (whereExpr instanceof BinaryExpression binaryExpression) {
             return evaluateBinaryExpression(tuple, binaryExpression);
         } else {
@@ -37,6 +73,100 @@ public abstract class Tuple {
         }
     }
 
+    /**
+     * {@code a BETWEEN x AND y} 按 {@code a >= x AND a <= y} 求值，常量类型同样按列类型推断。
+     */
+    private boolean evaluateBetween(Tuple tuple, Between between) {
+        boolean inRange = evaluateBinaryExpression(tuple,
+                new GreaterThanEquals(between.getLeftExpression(), between.getBetweenExpressionStart()))
+                && evaluateBinaryExpression(tuple,
+                        new MinorThanEquals(between.getLeftExpression(), between.getBetweenExpressionEnd()));
+        return between.isNot() != inRange;
+    }
+
+    /**
+     * {@code a IN (x, y, ...)} 逐项按 {@code a = x} 求值，任一项相等即满足；不支持子查询。
+     */
+    private boolean evaluateIn(Tuple tuple, InExpression in) {
+        if (!(in.getRightExpression() instanceof ExpressionList<?> items)) {
+            return false;
+        }
+        for (Expression item : items) {
+            if (evaluateBinaryExpression(tuple, new EqualsTo(in.getLeftExpression(), item))) {
+                return !in.isNot();
+            }
+        }
+        return in.isNot();
+    }
+
+    /**
+     * LIKE / ILIKE 匹配：% 匹配任意个字符，_ 匹配一个字符，可用 ESCAPE 指定转义字符。
+     */
+    private boolean evaluateLike(Tuple tuple, LikeExpression like) {
+        LikeExpression.KeyWord keyWord = like.getLikeKeyWord();
+        if ((keyWord != LikeExpression.KeyWord.LIKE && keyWord != LikeExpression.KeyWord.ILIKE)
+                || !(like.getRightExpression() instanceof StringValue pattern)) {
+            return false;
+        }
+        try {
+            Value value;
+            if (like.getLeftExpression() instanceof Column column) {
+                String table_name = tuple instanceof TableTuple tableTuple ? tableTuple.getTableName()
+                        : column.getTableName();
+                value = tuple.getValue(new TabCol(table_name, column.getColumnName()));
+            } else {
+                value = evaluateExpression(like.getLeftExpression());
+            }
+            if (value == null || value.type != ValueType.CHAR) {
+                return false;
+            }
+            char escape = like.getEscape() instanceof StringValue escapeValue && !escapeValue.getValue().isEmpty()
+                    ? escapeValue.getValue().charAt(0)
+                    : 0;
+            boolean matches = likeMatches(value.toString(), pattern.getValue(), escape,
+                    keyWord == LikeExpression.KeyWord.ILIKE);
+            return like.isNot() != matches;
+        } catch (DBException e) {
+            e.printStackTrace(); // Handle exception properly
+        }
+        return false;
+    }
+
+    private static boolean likeMatches(String text, String pattern, char escape, boolean caseInsensitive) {
+        LikeKey key = new LikeKey(pattern, escape, caseInsensitive);
+        Pattern compiled = LIKE_PATTERNS.get(key);
+        if (compiled == null) {
+            // 缓存只用来避免逐行重复编译，写满后整体清空即可
+            if (LIKE_PATTERNS.size() >= LIKE_CACHE_SIZE) {
+                LIKE_PATTERNS.clear();
+            }
+            compiled = compileLike(pattern, escape, caseInsensitive);
+            LIKE_PATTERNS.put(key, compiled);
+        }
+        return compiled.matcher(text).matches();
+    }
+
+    /**
+     * 把 LIKE 模式翻译为正则：% 匹配任意串，_ 匹配单个字符，转义字符之后的字符按字面匹配。
+     */
+    private static Pattern compileLike(String pattern, char escape, boolean caseInsensitive) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (escape != 0 && c == escape && i + 1 < pattern.length()) {
+                regex.append(Pattern.quote(String.valueOf(pattern.charAt(++i))));
+            } else if (c == '%') {
+                regex.append(".*");
+            } else if (c == '_') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        int flags = Pattern.DOTALL | (caseInsensitive ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0);
+        return Pattern.compile(regex.toString(), flags);
+    }
+
     private boolean evaluateBinaryExpression(Tuple tuple, BinaryExpression binaryExpr) {
         Expression leftExpr = binaryExpr.getLeftExpression();
         Expression rightExpr = binaryExpr.getRightExpression();
@@ -53,7 +183,7 @@ public abstract class Tuple {
                     table_name = tableTuple.getTableName();
                 }
                 leftValue = tuple.getValue(new TabCol(table_name, leftColumn.getColumnName()));
-                if (leftValue.type == ValueType.CHAR) {
+                if (leftValue.type == ValueType.CHAR && leftValue.dictionary == null) {
                     leftValue = new Value(leftValue.toString());
                 }
             } else {
@@ -0,0 +1,152 @@
+package edu.sustech.cs307.value;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.exception.ExceptionTypes;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 字典编码 CHAR 列的字典：为每个不同的字符串分配一个从 0 开始的 int 编码，行中只保存编码。
+ *
+ * <p>
+ * 每个编码对应唯一一个共享的 {@link Value}，其中记录了所属字典和编码，
+ * 因此同一字典的值之间的相等比较和哈希只需比较编码，不需要解码、trim 或计算字符串哈希。
+ * 编码只增不减，新字符串在分配编码时追加写入字典文件，重启后按顺序读回即可恢复相同的编码。
+ * </p>
+ */
+public class ColumnDictionary {
+    private final Path file;
+    private final List<Value> values = new ArrayList<>();
+    private final Map<String, Integer> codes = new HashMap<>();
+
+    // 最近一次按字符串查找的结果。过滤条件中的常量每行都是同一个 String 对象，按引用命中即可
+    private volatile Probe lastProbe;
+
+    private record Probe(Object key, int code) {
+    }
+
+    /**
+     * 创建一个只在内存中的空字典。
+     */
+    public ColumnDictionary() {
+        this.file = null;
+    }
+
+    private ColumnDictionary(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * 从字典文件中加载字典，文件不存在时返回空字典，之后分配的编码会写入该文件。
+     *
+     * @param file 字典文件路径
+     * @return 字典
+     * @throws DBException 如果读取文件失败
+     */
+    public static ColumnDictionary load(Path file) throws DBException {
+        ColumnDictionary dictionary = new ColumnDictionary(file);
+        if (!Files.exists(file)) {
+            return dictionary;
+        }
+        try (InputStream in = Files.newInputStream(file);
+                DataInputStream data = new DataInputStream(new BufferedInputStream(in))) {
+            while (true) {
+                String s;
+                try {
+                    s = data.readUTF();
+                } catch (EOFException e) {
+                    break;
+                }
+                dictionary.add(s);
+            }
+        } catch (IOException e) {
+            throw new DBException(ExceptionTypes.BadIOError("Failed to load dictionary " + file + ": " + e.getMessage()));
+        }
+        return dictionary;
+    }
+
+    /**
+     * 获取字符串的编码，不存在时分配新编码并写入字典文件。字符串按 CHAR 的比较规则去除首尾空白。
+     *
+     * @param s 字符串
+     * @return 编码
+     * @throws DBException 如果写入字典文件失败
+     */
+    public synchronized int encode(String s) throws DBException {
+        String key = s.trim();
+        Integer code = codes.get(key);
+        if (code != null) {
+            return code;
+        }
+        if (file != null) {
+            try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file.toFile(), true))) {
+                out.writeUTF(key);
+            } catch (IOException e) {
+                throw new DBException(ExceptionTypes.BadIOError(
+                        "Failed to append to dictionary " + file + ": " + e.getMessage()));
+            }
+        }
+        return add(key);
+    }
+
+    private int add(String key) {
+        int code = values.size();
+        values.add(new Value(key, this, code));
+        codes.put(key, code);
+        return code;
+    }
+
+    /**
+     * 获取编码对应的值。返回的值由字典共享，调用方不能修改。
+     *
+     * @param code 编码
+     * @return 值
+     * @throws DBException 如果编码不在字典中
+     */
+    public Value decode(int code) throws DBException {
+        if (code < 0 || code >= values.size()) {
+            throw new DBException(ExceptionTypes.BadIOError(
+                    String.format("Dictionary code %d out of range [0, %d)", code, values.size())));
+        }
+        return values.get(code);
+    }
+
+    /**
+     * 查找字符串的编码，不分配新编码。
+     *
+     * @param s 字符串
+     * @return 编码；不在字典中时返回 -1
+     */
+    public int lookup(Object s) {
+        Probe probe = lastProbe;
+        if (probe != null && probe.key == s) {
+            return probe.code;
+        }
+        Integer code;
+        synchronized (this) {
+            code = codes.get(s.toString().trim());
+        }
+        int result = code == null ? -1 : code;
+        lastProbe = new Probe(s, result);
+        return result;
+    }
+
+    /**
+     * @return 字典中不同字符串的数量
+     */
+    public synchronized int size() {
+        return values.size();
+    }
+}
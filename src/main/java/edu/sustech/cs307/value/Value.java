@@ -1,5 +1,7 @@
 package edu.sustech.cs307.value;
 
+import io.netty.buffer.ByteBuf;
+
 import java.nio.ByteBuffer;
 
 public class Value implements Comparable<Value> {
@@ -9,30 +11,63 @@ public class Value implements Comparable<Value> {
     public static final int FLOAT_SIZE = 4;
     public static final int DOUBLE_SIZE = 8;
     public static final int CHAR_SIZE = 64;
+    /** 字典编码列在行中占用的字节数 */
+    public static final int DICT_CODE_SIZE = 4;
+
+    // 字典编码列的值所属的字典与编码；普通值的 dictionary 为 null
+    public final ColumnDictionary dictionary;
+    public final int code;
+    private final int hash;
 
     public Value(Object value, ValueType type) {
         this.value = value;
         this.type = type;
+        this.dictionary = null;
+        this.code = -1;
+        this.hash = 0;
     }
 
     public Value(Long value) {
         this.value = value;
         type = ValueType.INTEGER;
+        this.dictionary = null;
+        this.code = -1;
+        this.hash = 0;
     }
 
     public Value(Float value) {
         this.value = value;
         type = ValueType.FLOAT;
+        this.dictionary = null;
+        this.code = -1;
+        this.hash = 0;
     }
 
     public Value(Double value) {
         this.value = value;
         type = ValueType.DOUBLE;
+        this.dictionary = null;
+        this.code = -1;
+        this.hash = 0;
     }
 
     public Value(String value) {
         this.value = value;
         type = ValueType.CHAR;
+        this.dictionary = null;
+        this.code = -1;
+        this.hash = 0;
+    }
+
+    /**
+     * 创建字典中的共享值，只由 {@link ColumnDictionary} 调用。字符串已去除首尾空白。
+     */
+    Value(String value, ColumnDictionary dictionary, int code) {
+        this.value = value;
+        this.type = ValueType.CHAR;
+        this.dictionary = dictionary;
+        this.code = code;
+        this.hash = 31 * ValueType.CHAR.hashCode() + value.hashCode();
     }
 
     public static Value createValueFromObject(Object obj, ValueType type)
@@ -114,6 +149,29 @@ public class Value implements Comparable<Value> {
         };
     }
 
+    /**
+     * 将当前值按 {@link #ToByte()} 相同的格式直接写入缓冲区，不分配中间数组。
+     *
+     * @param buf 目标缓冲区，从其写指针处开始写入
+     * @throws RuntimeException 如果值的类型不受支持，或 CHAR 值超过 {@link #CHAR_SIZE} 字节。
+     */
+    public void WriteTo(ByteBuf buf) {
+        switch (type) {
+            case INTEGER -> buf.writeLong((long) value);
+            case FLOAT -> buf.writeFloat((float) value);
+            case DOUBLE -> buf.writeDouble((double) value);
+            case CHAR -> {
+                byte[] bytes = ((String) value).getBytes();
+                if (bytes.length > CHAR_SIZE) {
+                    throw new RuntimeException("CHAR value exceeds " + CHAR_SIZE + " bytes");
+                }
+                buf.writeBytes(bytes);
+                buf.writeZero(CHAR_SIZE - bytes.length);
+            }
+            default -> throw new RuntimeException("Unsupported value type: " + type);
+        }
+    }
+
     /**
      * 根据给定的字节数组和值类型创建一个 Value 对象。
      *
@@ -152,6 +210,9 @@ public class Value implements Comparable<Value> {
                 return this.value.toString();
             }
             case CHAR -> {
+                if (dictionary != null) {
+                    return (String) this.value;
+                }
                 byte[] bytes = ((String) this.value).getBytes();
                 String s = new String(bytes);
                 return s.trim();
@@ -172,6 +233,8 @@ public class Value implements Comparable<Value> {
             return false;
         if (this.type != other.type)
             return false;
+        if (this.dictionary != null && this.dictionary == other.dictionary)
+            return this.code == other.code;
         // Compare normalized string representations for CHAR, numeric as value equality
         if (this.value == null && other.value == null)
             return true;
@@ -182,6 +245,9 @@ public class Value implements Comparable<Value> {
 
     @Override
     public int hashCode() {
+        if (dictionary != null) {
+            return hash;
+        }
         // Use normalized toString and type to compute hash
         int result = type.hashCode();
         String repr = value == null ? null : toString();
@@ -206,6 +272,8 @@ public class Value implements Comparable<Value> {
             case DOUBLE:
                 return Double.compare((Double) this.value, (Double) o.value);
             case CHAR:
+                if (this.dictionary != null && this.dictionary == o.dictionary && this.code == o.code)
+                    return 0;
                 return this.toString().compareTo(o.toString());
             default:
                 throw new RuntimeException("Unsupported value type: " + type);
@@ -38,6 +38,20 @@ public class ValueComparer {
                 Double db2 = (Double) v2.value;
                 return Double.compare(db1, db2);
             case CHAR:
+                // 字典编码的值先比较编码，相等时无需比较字符串
+                if (v1.dictionary != null && v1.dictionary == v2.dictionary) {
+                    if (v1.code == v2.code) {
+                        return 0;
+                    }
+                } else if (v1.dictionary != null && v2.dictionary == null && v2.value != null) {
+                    if (v1.dictionary.lookup(v2.value) == v1.code) {
+                        return 0;
+                    }
+                } else if (v2.dictionary != null && v1.dictionary == null && v1.value != null) {
+                    if (v2.dictionary.lookup(v1.value) == v2.code) {
+                        return 0;
+                    }
+                }
                 String s1 = (String) v1.value.toString().trim();
                 String s2 = (String) v2.value.toString().trim();
                 return s1.compareTo(s2);
@@ -0,0 +1,169 @@
+package index;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.index.BPlusTreeIndex;
+import edu.sustech.cs307.index.IndexEntrySorter;
+import edu.sustech.cs307.record.RID;
+import edu.sustech.cs307.value.Value;
+import edu.sustech.cs307.value.ValueType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BPlusTreeBulkLoadTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static List<Long> shuffled(int n) {
+        List<Long> keys = new ArrayList<>();
+        for (long i = 0; i < n; i++) {
+            keys.add(i);
+        }
+        Collections.shuffle(keys, new Random(42));
+        return keys;
+    }
+
+    private IndexEntrySorter sorterOf(List<Long> keys, int runSize) throws DBException {
+        IndexEntrySorter sorter = new IndexEntrySorter(ValueType.INTEGER, runSize, tempDir);
+        for (long key : keys) {
+            sorter.add(new Value(key), new RID((int) key + 1, 0));
+        }
+        return sorter;
+    }
+
+    @Nested
+    @DisplayName("外部排序测试")
+    class SorterTests {
+        @Test
+        @DisplayName("超过内存上限时写出多个 run 并归并为有序结果")
+        void spillAndMerge() throws Exception {
+            try (IndexEntrySorter sorter = sorterOf(shuffled(10000), 1000)) {
+                Iterator<Map.Entry<Value, RID>> it = sorter.sorted();
+
+                assertThat(sorter.getSpilledRuns()).isEqualTo(10);
+                long expected = 0;
+                while (it.hasNext()) {
+                    assertThat(it.next().getKey().value).isEqualTo(expected++);
+                }
+                assertThat(expected).isEqualTo(10000);
+            }
+            try (Stream<Path> files = Files.list(tempDir)) {
+                assertThat(files).isEmpty();
+            }
+        }
+
+        @Test
+        @DisplayName("相同键按 RID 排序")
+        void duplicatesOrderedByRid() throws Exception {
+            try (IndexEntrySorter sorter = new IndexEntrySorter(ValueType.CHAR, 2, tempDir)) {
+                sorter.add(new Value("b"), new RID(3, 1));
+                sorter.add(new Value("a"), new RID(9, 0));
+                sorter.add(new Value("b"), new RID(1, 5));
+
+                Iterator<Map.Entry<Value, RID>> it = sorter.sorted();
+
+                assertThat(it.next().getValue()).isEqualTo(new RID(9, 0));
+                assertThat(it.next().getValue()).isEqualTo(new RID(1, 5));
+                assertThat(it.next().getValue()).isEqualTo(new RID(3, 1));
+                assertThat(it.hasNext()).isFalse();
+            }
+        }
+
+        @Test
+        @DisplayName("内存中的大量条目并行排序后按 (键, RID) 有序")
+        void largeInMemorySort() throws Exception {
+            Random random = new Random(7);
+            int n = 50000;
+            try (IndexEntrySorter sorter = new IndexEntrySorter(ValueType.INTEGER, n + 1, tempDir)) {
+                for (int i = 0; i < n; i++) {
+                    sorter.add(new Value((long) random.nextInt(1000)), new RID(random.nextInt(500), i));
+                }
+                Iterator<Map.Entry<Value, RID>> it = sorter.sorted();
+
+                assertThat(sorter.getSpilledRuns()).isZero();
+                Map.Entry<Value, RID> previous = it.next();
+                int count = 1;
+                while (it.hasNext()) {
+                    Map.Entry<Value, RID> entry = it.next();
+                    long previousKey = (Long) previous.getKey().value;
+                    long key = (Long) entry.getKey().value;
+                    assertThat(key).isGreaterThanOrEqualTo(previousKey);
+                    if (key == previousKey) {
+                        assertThat(entry.getValue().pageNum).isGreaterThanOrEqualTo(previous.getValue().pageNum);
+                        if (entry.getValue().pageNum == previous.getValue().pageNum) {
+                            assertThat(entry.getValue().slotNum).isGreaterThan(previous.getValue().slotNum);
+                        }
+                    }
+                    previous = entry;
+                    count++;
+                }
+                assertThat(count).isEqualTo(n);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("批量构建测试")
+    class BulkLoadTests {
+        @Test
+        @DisplayName("批量构建的树结构合法且可查询")
+        void bulkLoadedTreeIsValid() throws Exception {
+            BPlusTreeIndex index = new BPlusTreeIndex("t", "id", 10);
+            try (IndexEntrySorter sorter = sorterOf(shuffled(5003), IndexEntrySorter.DEFAULT_RUN_SIZE)) {
+                assertThat(index.bulkLoad(sorter.sorted(), 0.9)).isEqualTo(5003);
+            }
+
+            assertThat(index.validateTree()).isTrue();
+            assertThat(index.search(new Value(4321L))).containsExactly(new RID(4322, 0));
+            assertThat(index.searchRange(new Value(100L), new Value(199L), true, true)).hasSize(100);
+        }
+
+        @Test
+        @DisplayName("批量构建后仍可插入和删除")
+        void insertAfterBulkLoad() throws Exception {
+            BPlusTreeIndex index = new BPlusTreeIndex("t", "id", 10);
+            List<Long> keys = new ArrayList<>();
+            for (long i = 0; i < 1000; i += 2) {
+                keys.add(i);
+            }
+            try (IndexEntrySorter sorter = sorterOf(keys, IndexEntrySorter.DEFAULT_RUN_SIZE)) {
+                index.bulkLoad(sorter.sorted(), 0.5);
+            }
+
+            for (long i = 1; i < 1000; i += 2) {
+                index.insert(new Value(i), new RID((int) i + 1, 0));
+            }
+            index.delete(new Value(500L), new RID(501, 0));
+
+            assertThat(index.validateTree()).isTrue();
+            assertThat(index.searchRange(new Value(0L), new Value(999L), true, true)).hasSize(999);
+        }
+
+        @Test
+        @DisplayName("非空树不能批量构建，空输入得到空树")
+        void rejectNonEmptyTree() throws Exception {
+            BPlusTreeIndex index = new BPlusTreeIndex("t", "id", 10);
+
+            assertThat(index.bulkLoad(Collections.emptyIterator(), 0.9)).isZero();
+            assertThat(index.getRoot()).isNull();
+
+            index.insert(new Value(1L), new RID(1, 0));
+            assertThatThrownBy(() -> index.bulkLoad(Collections.emptyIterator(), 0.9))
+                    .isInstanceOf(DBException.class);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package index;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.index.BPlusTreeIndex;
+import edu.sustech.cs307.record.RID;
+import edu.sustech.cs307.value.Value;
+import edu.sustech.cs307.value.ValueType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BPlusTreeIndexTest {
+
+    private static List<Long> keys(Iterator<Map.Entry<Value, RID>> it) {
+        List<Long> result = new ArrayList<>();
+        while (it.hasNext()) {
+            result.add((Long) it.next().getKey().value);
+        }
+        return result;
+    }
+
+    @Nested
+    @DisplayName("插入与分裂测试")
+    class InsertTests {
+        @Test
+        @DisplayName("乱序插入后遍历有序，节点分裂后仍可查到每个键")
+        void randomInserts() throws DBException {
+            BPlusTreeIndex index = new BPlusTreeIndex("t", "id", 5);
+            List<Long> ids = new ArrayList<>();
+            for (long i = 0; i < 3000; i++) {
+                ids.add(i);
+            }
+            Collections.shuffle(ids, new Random(7));
+            for (long id : ids) {
+                index.insert(new Value(id), new RID((int) id + 1, 0));
+            }
+
+            assertThat(index.validateTree()).isTrue();
+            assertThat(keys(index.iterator())).hasSize(3000).isSorted();
+            for (long id = 0; id < 3000; id += 97) {
+                assertThat(index.search(new Value(id))).containsExactly(new RID((int) id + 1, 0));
+            }
+            assertThat(index.searchRange(new Value(1000L), new Value(1100L), false, true)).hasSize(100);
+        }
+
+        @Test
+        @DisplayName("CHAR 键二分查找")
+        void charKeys() throws DBException {
+            BPlusTreeIndex index = new BPlusTreeIndex("t", "name", 4);
+            String[] names = { "m", "c", "x", "a", "q", "f", "z", "b" };
+            for (int i = 0; i < names.length; i++) {
+                index.insert(new Value(names[i], ValueType.CHAR), new RID(1, i));
+            }
+
+            assertThat(index.search(new Value("q", ValueType.CHAR))).containsExactly(new RID(1, 4));
+            assertThat(index.search(new Value("d", ValueType.CHAR))).isEmpty();
+            assertThat(index.searchRange(new Value("b", ValueType.CHAR), new Value("m", ValueType.CHAR), true, false))
+                    .containsExactly(new RID(1, 7), new RID(1, 1), new RID(1, 5));
+        }
+    }
+
+    @Nested
+    @DisplayName("重复键测试")
+    class DuplicateTests {
+        private BPlusTreeIndex duplicates() throws DBException {
+            // 每个键 30 个条目，远多于一个叶子的容量
+            BPlusTreeIndex index = new BPlusTreeIndex("t", "k", 4);
+            for (int i = 0; i < 300; i++) {
+                index.insert(new Value((long) (i % 10)), new RID(i + 1, 0));
+            }
+            return index;
+        }
+
+        @Test
+        @DisplayName("跨越多个叶子的重复键全部查到")
+        void searchAcrossLeaves() throws DBException {
+            BPlusTreeIndex index = duplicates();
+
+            for (long k = 0; k < 10; k++) {
+                assertThat(index.search(new Value(k))).hasSize(30);
+            }
+            assertThat(index.searchRange(new Value(3L), new Value(4L), true, true)).hasSize(60);
+            assertThat(keys(index.Range(new Value(7L), null, false, true))).hasSize(60).containsOnly(8L, 9L);
+            assertThat(keys(index.Range(null, new Value(1L), true, true))).hasSize(60);
+        }
+
+        @Test
+        @DisplayName("按升序查找多个键，结果与逐个查找相同")
+        void searchAll() throws DBException {
+            BPlusTreeIndex index = duplicates();
+            List<Value> sortedKeys = List.of(new Value(-1L), new Value(0L), new Value(1L), new Value(5L),
+                    new Value(9L), new Value(12L));
+            List<RID> expected = new ArrayList<>();
+            for (Value key : sortedKeys) {
+                expected.addAll(index.search(key));
+            }
+
+            assertThat(index.searchAll(sortedKeys)).hasSize(120).containsExactlyElementsOf(expected);
+        }
+
+        @Test
+        @DisplayName("删除落在分隔键左侧叶子中的重复键")
+        void deleteAcrossLeaves() throws DBException {
+            BPlusTreeIndex index = duplicates();
+            for (int i = 0; i < 300; i += 10) {
+                index.delete(new Value(0L), new RID(i + 1, 0));
+            }
+            for (int i = 5; i < 300; i += 20) {
+                index.delete(new Value(5L), new RID(i + 1, 0));
+            }
+
+            assertThat(index.search(new Value(0L))).isEmpty();
+            assertThat(index.search(new Value(5L))).hasSize(15);
+            assertThat(keys(index.iterator())).hasSize(255).isSorted();
+        }
+
+        @Test
+        @DisplayName("同一个键的 RID 按页号、槽号有序返回，条目很多时仍可逐个删除")
+        void postingListOrderAndDelete() throws DBException {
+            BPlusTreeIndex index = new BPlusTreeIndex("t", "status", 4);
+            Value done = new Value("done", ValueType.CHAR);
+            List<RID> rids = new ArrayList<>();
+            for (int page = 1; page <= 20; page++) {
+                for (int slot = 0; slot < 100; slot += 3) {
+                    rids.add(new RID(page, slot));
+                }
+            }
+            List<RID> shuffled = new ArrayList<>(rids);
+            Collections.shuffle(shuffled, new Random(7));
+            for (RID rid : shuffled) {
+                index.insert(done, rid);
+            }
+            index.insert(new Value("new", ValueType.CHAR), new RID(1, 1));
+
+            assertThat(index.search(done)).containsExactlyElementsOf(rids);
+
+            List<RID> kept = new ArrayList<>();
+            for (int i = 0; i < rids.size(); i++) {
+                if (i % 50 == 0) {
+                    kept.add(rids.get(i));
+                } else {
+                    index.delete(done, rids.get(i));
+                }
+            }
+            assertThat(index.search(done)).containsExactlyElementsOf(kept);
+            List<RID> iterated = new ArrayList<>();
+            index.Range(done, done, true, true).forEachRemaining(entry -> iterated.add(entry.getValue()));
+            assertThat(iterated).containsExactlyElementsOf(kept);
+
+            for (RID rid : kept) {
+                index.delete(done, rid);
+            }
+            assertThat(index.search(done)).isEmpty();
+            assertThat(index.search(new Value("new", ValueType.CHAR))).containsExactly(new RID(1, 1));
+            assertThat(index.validateTree()).isTrue();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package index;
+
+import edu.sustech.cs307.index.BloomFilter;
+import edu.sustech.cs307.value.Value;
+import edu.sustech.cs307.value.ValueType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Nested
+    @DisplayName("判定测试")
+    class MembershipTests {
+        @Test
+        @DisplayName("添加过的键都判为可能存在，未添加的键误判率接近设定值")
+        void noFalseNegatives() {
+            BloomFilter filter = new BloomFilter(ValueType.INTEGER, 50000);
+            for (long i = 0; i < 50000; i++) {
+                filter.add(new Value(i * 2));
+            }
+            for (long i = 0; i < 50000; i++) {
+                assertThat(filter.mightContain(new Value(i * 2))).isTrue();
+            }
+
+            int falsePositives = 0;
+            for (long i = 0; i < 50000; i++) {
+                if (filter.mightContain(new Value(i * 2 + 1))) {
+                    falsePositives++;
+                }
+            }
+            assertThat(falsePositives).isLessThan(50000 * 3 / 100);
+            assertThat(filter.size()).isEqualTo(50000);
+            assertThat(filter.isSaturated()).isFalse();
+        }
+
+        @Test
+        @DisplayName("CHAR 与浮点键按值判定，-0.0 与 0.0 是不同的键")
+        void charAndDoubleKeys() {
+            BloomFilter names = new BloomFilter(ValueType.CHAR, 100);
+            names.add(new Value("alice"));
+            assertThat(names.mightContain(new Value("alice"))).isTrue();
+            assertThat(names.mightContain(new Value("bob"))).isFalse();
+
+            BloomFilter prices = new BloomFilter(ValueType.DOUBLE, 100);
+            prices.add(new Value(0.0));
+            assertThat(prices.mightContain(new Value(0.0))).isTrue();
+            assertThat(prices.mightContain(new Value(-0.0))).isFalse();
+        }
+
+        @Test
+        @DisplayName("类型不一致或 NULL 的键无法判断，总是判为可能存在")
+        void unknownKeys() {
+            BloomFilter filter = new BloomFilter(ValueType.INTEGER, 100);
+            assertThat(filter.mightContain(new Value("1"))).isTrue();
+            assertThat(filter.mightContain(new Value(null, ValueType.INTEGER))).isTrue();
+            assertThat(filter.mightContain(null)).isTrue();
+            assertThat(filter.mightContain(new Value(1L))).isFalse();
+        }
+
+        @Test
+        @DisplayName("添加的键数超过预计值后标记为饱和")
+        void saturation() {
+            BloomFilter filter = new BloomFilter(ValueType.INTEGER, 10);
+            for (long i = 0; i < BloomFilter.MIN_EXPECTED_KEYS; i++) {
+                filter.add(new Value(i));
+            }
+            assertThat(filter.isSaturated()).isFalse();
+            filter.add(new Value(-1L));
+            assertThat(filter.isSaturated()).isTrue();
+        }
+    }
+}
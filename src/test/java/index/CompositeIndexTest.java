@@ -0,0 +1,144 @@
+package index;
+
+import edu.sustech.cs307.index.CompositeIndex;
+import edu.sustech.cs307.index.CompositeKey;
+import edu.sustech.cs307.record.RID;
+import edu.sustech.cs307.value.Value;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CompositeIndexTest {
+
+    private static CompositeKey key(long tenant, long created) {
+        return new CompositeKey(new Value(tenant), new Value(created));
+    }
+
+    /**
+     * tenant 取 0..9，created 取 0..99，RID 的页号编码了 (tenant, created)。
+     */
+    private static CompositeIndex tenantIndex() {
+        CompositeIndex index = new CompositeIndex("t", "i_tc", List.of("tenant", "created"));
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            ids.add(i);
+        }
+        Collections.shuffle(ids, new Random(7));
+        for (int id : ids) {
+            index.insert(key(id / 100, id % 100), new RID(id + 1, 0));
+        }
+        return index;
+    }
+
+    @Nested
+    @DisplayName("复合键比较测试")
+    class KeyTests {
+        @Test
+        @DisplayName("按列字典序比较，前缀排在更长的键之前")
+        void lexicographicOrder() {
+            assertThat(key(1, 5)).isLessThan(key(2, 0));
+            assertThat(key(1, 5)).isGreaterThan(key(1, 4));
+            assertThat(new CompositeKey(new Value(1L))).isLessThan(key(1, Long.MIN_VALUE));
+            assertThat(key(3, 3)).isEqualByComparingTo(key(3, 3)).isEqualTo(key(3, 3));
+            assertThat(key(3, 3)).hasSameHashCodeAs(key(3, 3));
+            assertThat(new CompositeKey(new Value("b"), new Value(1L)))
+                    .isGreaterThan(new CompositeKey(new Value("a"), new Value(9L)));
+        }
+    }
+
+    @Nested
+    @DisplayName("前缀与范围查找测试")
+    class ScanTests {
+        @Test
+        @DisplayName("等值前缀加下一列的开闭区间")
+        void prefixAndRange() {
+            CompositeIndex index = tenantIndex();
+
+            assertThat(index.size()).isEqualTo(1000);
+            assertThat(index.scan(List.of(new Value(3L)), null, false, null, false)).hasSize(100)
+                    .startsWith(new RID(301, 0)).endsWith(new RID(400, 0));
+            assertThat(index.scan(List.of(new Value(3L)), new Value(10L), false, new Value(20L), true))
+                    .hasSize(10).startsWith(new RID(312, 0)).endsWith(new RID(321, 0));
+            assertThat(index.scan(List.of(new Value(3L)), new Value(10L), true, new Value(20L), false))
+                    .hasSize(10).startsWith(new RID(311, 0)).endsWith(new RID(320, 0));
+            assertThat(index.scan(List.of(new Value(9L)), new Value(95L), true, null, false)).hasSize(5);
+            assertThat(index.scan(List.of(new Value(3L), new Value(42L)), null, false, null, false))
+                    .containsExactly(new RID(343, 0));
+            assertThat(index.scan(List.of(new Value(10L)), null, false, null, false)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("没有等值前缀时按第一列范围查找")
+        void leadingColumnRange() {
+            CompositeIndex index = tenantIndex();
+
+            assertThat(index.scan(List.of(), new Value(2L), false, new Value(4L), true)).hasSize(200)
+                    .startsWith(new RID(301, 0));
+            assertThat(index.scan(List.of(), null, false, new Value(0L), true)).hasSize(100);
+        }
+
+        @Test
+        @DisplayName("重复键按 RID 顺序返回，只删除指定 RID 的条目")
+        void duplicatesAndDelete() {
+            CompositeIndex index = new CompositeIndex("t", "i", List.of("a", "b"));
+            for (int i = 5; i >= 1; i--) {
+                index.insert(key(1, 1), new RID(i, 0));
+            }
+
+            assertThat(index.delete(key(1, 1), new RID(3, 0))).isTrue();
+            assertThat(index.delete(key(1, 2), new RID(1, 0))).isFalse();
+            assertThat(index.scan(List.of(new Value(1L), new Value(1L)), null, false, null, false))
+                    .containsExactly(new RID(1, 0), new RID(2, 0), new RID(4, 0), new RID(5, 0));
+        }
+
+        @Test
+        @DisplayName("给出的列数超过索引列数时报错")
+        void tooManyColumns() {
+            CompositeIndex index = tenantIndex();
+
+            assertThatThrownBy(() -> index.scan(List.of(new Value(1L), new Value(1L)), new Value(1L), true,
+                    null, false)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("INCLUDE 列测试")
+    class IncludeTests {
+        @Test
+        @DisplayName("条目携带 INCLUDE 列的值，不影响排序和删除")
+        void entriesCarryIncludedValues() {
+            CompositeIndex index = new CompositeIndex("t", "i_cov", List.of("tenant", "created"), List.of("amount"));
+            for (int i = 9; i >= 0; i--) {
+                index.insert(key(1, i), new RID(i + 1, 0), new Value[] { new Value(i * 100L) });
+            }
+
+            List<CompositeIndex.Entry> entries = index.scanEntries(List.of(new Value(1L)), new Value(7L), true,
+                    null, false);
+            assertThat(entries).extracting(CompositeIndex.Entry::rid)
+                    .containsExactly(new RID(8, 0), new RID(9, 0), new RID(10, 0));
+            assertThat(entries).extracting(entry -> entry.included()[0])
+                    .containsExactly(new Value(700L), new Value(800L), new Value(900L));
+
+            assertThat(index.delete(key(1, 8), new RID(9, 0))).isTrue();
+            assertThat(index.scanEntries(List.of(new Value(1L), new Value(8L)), null, false, null, false)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("只有键列和 INCLUDE 列被覆盖")
+        void covers() {
+            CompositeIndex index = new CompositeIndex("t", "i_cov", List.of("tenant", "created"), List.of("amount"));
+
+            assertThat(index.covers(List.of("created", "amount"))).isTrue();
+            assertThat(index.covers(List.of())).isTrue();
+            assertThat(index.covers(List.of("tenant", "name"))).isFalse();
+            assertThat(index).hasToString("i_cov ON t (tenant, created) INCLUDE (amount)");
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package index;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.index.DiskBPlusTreeIndex;
+import edu.sustech.cs307.record.RID;
+import edu.sustech.cs307.storage.BufferPool;
+import edu.sustech.cs307.storage.DiskManager;
+import edu.sustech.cs307.value.Value;
+import edu.sustech.cs307.value.ValueType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DiskBPlusTreeIndexTest {
+
+    @TempDir
+    java.nio.file.Path tempDir;
+
+    DiskManager diskManager;
+    BufferPool bufferPool;
+
+    @BeforeEach
+    void setup() {
+        diskManager = new DiskManager(tempDir.toString(), new HashMap<>());
+        // 缓冲池很小，可以发现未取消固定的页面
+        bufferPool = new BufferPool(8, diskManager);
+    }
+
+    private DiskBPlusTreeIndex createIntIndex() throws DBException {
+        return DiskBPlusTreeIndex.create(diskManager, bufferPool, "t", "id", ValueType.INTEGER);
+    }
+
+    private static List<Long> keys(Iterator<Map.Entry<Value, RID>> it) {
+        List<Long> result = new ArrayList<>();
+        while (it.hasNext()) {
+            result.add((Long) it.next().getKey().value);
+        }
+        return result;
+    }
+
+    @Nested
+    @DisplayName("插入与查找测试")
+    class InsertSearchTests {
+        @Test
+        @DisplayName("乱序插入大量键后都能查到，叶子链表有序")
+        void randomInsertsSplitNodes() throws DBException {
+            DiskBPlusTreeIndex index = createIntIndex();
+            List<Integer> ids = new ArrayList<>();
+            for (int i = 0; i < 5000; i++) {
+                ids.add(i);
+            }
+            Collections.shuffle(ids, new Random(7));
+            for (int id : ids) {
+                index.insert(new Value((long) id), new RID(id / 100 + 1, id % 100));
+            }
+
+            assertThat(index.size()).isEqualTo(5000);
+            assertThat(index.search(new Value(4321L))).containsExactly(new RID(44, 21));
+            assertThat(index.EqualTo(new Value(0L))).isEqualTo(new RID(1, 0));
+            assertThat(index.EqualTo(new Value(5000L))).isNull();
+            assertThat(index.validateTree()).isTrue();
+        }
+
+        @Test
+        @DisplayName("重复键跨越多个叶子时全部返回")
+        void duplicatesSpanLeaves() throws DBException {
+            DiskBPlusTreeIndex index = createIntIndex();
+            for (int i = 0; i < 1000; i++) {
+                index.insert(new Value((long) (i % 2)), new RID(i + 1, 0));
+            }
+
+            assertThat(index.search(new Value(1L))).hasSize(500);
+            assertThat(index.search(new Value(0L))).hasSize(500).contains(new RID(999, 0));
+        }
+
+        @Test
+        @DisplayName("CHAR 键按去除空白后的字符串比较")
+        void charKeys() throws DBException {
+            DiskBPlusTreeIndex index = DiskBPlusTreeIndex.create(diskManager, bufferPool, "t", "name",
+                    ValueType.CHAR);
+            for (int i = 0; i < 300; i++) {
+                index.insert(new Value(String.format("name%04d", i)), new RID(1, i));
+            }
+
+            assertThat(index.search(new Value("name0123  "))).containsExactly(new RID(1, 123));
+            assertThat(index.searchRange(new Value("name0010"), new Value("name0019"), true, false)).hasSize(9);
+        }
+    }
+
+    @Nested
+    @DisplayName("范围查询测试")
+    class RangeTests {
+        @Test
+        @DisplayName("开闭区间边界正确")
+        void rangeBounds() throws DBException {
+            DiskBPlusTreeIndex index = createIntIndex();
+            for (long i = 0; i < 1000; i++) {
+                index.insert(new Value(i), new RID(1, (int) i));
+            }
+
+            assertThat(keys(index.Range(new Value(10L), new Value(15L), true, false)))
+                    .containsExactly(10L, 11L, 12L, 13L, 14L);
+            assertThat(keys(index.MoreThan(new Value(996L), false))).containsExactly(997L, 998L, 999L);
+            assertThat(keys(index.LessThan(new Value(2L), true))).containsExactly(0L, 1L, 2L);
+            assertThat(index.searchRange(new Value(100L), new Value(599L), true, true)).hasSize(500);
+        }
+    }
+
+    @Nested
+    @DisplayName("删除测试")
+    class DeleteTests {
+        @Test
+        @DisplayName("只删除指定 RID 的条目")
+        void deleteExactRid() throws DBException {
+            DiskBPlusTreeIndex index = createIntIndex();
+            for (int i = 0; i < 600; i++) {
+                index.insert(new Value(7L), new RID(i + 1, 3));
+            }
+
+            index.delete(new Value(7L), new RID(300, 3));
+            index.delete(new Value(7L), new RID(9999, 3));
+
+            assertThat(index.size()).isEqualTo(599);
+            assertThat(index.search(new Value(7L))).hasSize(599).doesNotContain(new RID(300, 3));
+        }
+
+        @Test
+        @DisplayName("删除整页条目后遍历跳过空叶子")
+        void deleteEmptiesLeaves() throws DBException {
+            DiskBPlusTreeIndex index = createIntIndex();
+            for (long i = 0; i < 2000; i++) {
+                index.insert(new Value(i), new RID(1, (int) i));
+            }
+            for (long i = 100; i < 1900; i++) {
+                index.delete(new Value(i), new RID(1, (int) i));
+            }
+
+            assertThat(index.searchRange(new Value(50L), new Value(1950L), true, false)).hasSize(100);
+            assertThat(index.validateTree()).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("持久化测试")
+    class PersistenceTests {
+        @Test
+        @DisplayName("刷盘后重新打开无需重建")
+        void reopenAfterFlush() throws DBException {
+            DiskBPlusTreeIndex index = createIntIndex();
+            for (long i = 0; i < 3000; i++) {
+                index.insert(new Value(i), new RID((int) i + 1, 0));
+            }
+            index.flush();
+
+            DiskManager reopenedDisk = new DiskManager(tempDir.toString(), new HashMap<>());
+            BufferPool reopenedPool = new BufferPool(8, reopenedDisk);
+            DiskBPlusTreeIndex reopened = DiskBPlusTreeIndex.open(reopenedDisk, reopenedPool, "t", "id",
+                    ValueType.INTEGER);
+
+            assertThat(reopened).isNotNull();
+            assertThat(reopened.size()).isEqualTo(3000);
+            assertThat(reopened.search(new Value(2999L))).containsExactly(new RID(3000, 0));
+
+            reopened.insert(new Value(3000L), new RID(3001, 0));
+            assertThat(reopened.search(new Value(3000L))).containsExactly(new RID(3001, 0));
+            assertThat(reopened.validateTree()).isTrue();
+        }
+
+        @Test
+        @DisplayName("表版本号随文件头保存，插入或删除后清除")
+        void tableVersionStamp() throws DBException {
+            DiskBPlusTreeIndex index = createIntIndex();
+            index.insert(new Value(1L), new RID(1, 0));
+            assertThat(index.getTableVersion()).isEqualTo(DiskBPlusTreeIndex.NO_VERSION);
+            index.setTableVersion(7);
+            index.flush();
+
+            DiskManager reopenedDisk = new DiskManager(tempDir.toString(), new HashMap<>());
+            BufferPool reopenedPool = new BufferPool(8, reopenedDisk);
+            DiskBPlusTreeIndex reopened = DiskBPlusTreeIndex.open(reopenedDisk, reopenedPool, "t", "id",
+                    ValueType.INTEGER);
+            assertThat(reopened.getTableVersion()).isEqualTo(7);
+
+            reopened.delete(new Value(1L), new RID(1, 0));
+            assertThat(reopened.getTableVersion()).isEqualTo(DiskBPlusTreeIndex.NO_VERSION);
+        }
+
+        @Test
+        @DisplayName("文件不存在或键类型不一致时打开失败")
+        void openMismatch() throws DBException {
+            assertThat(DiskBPlusTreeIndex.open(diskManager, bufferPool, "t", "id", ValueType.INTEGER)).isNull();
+
+            createIntIndex().flush();
+
+            assertThat(DiskBPlusTreeIndex.open(diskManager, bufferPool, "t", "id", ValueType.CHAR)).isNull();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package index;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.index.HashIndex;
+import edu.sustech.cs307.record.RID;
+import edu.sustech.cs307.value.Value;
+import edu.sustech.cs307.value.ValueType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+class HashIndexTest {
+
+    @Nested
+    @DisplayName("插入与查找测试")
+    class InsertSearchTests {
+        @Test
+        @DisplayName("大量键插入后桶不断分裂，每个键都能查到")
+        void manyKeys() throws DBException {
+            HashIndex index = new HashIndex("t", "id", ValueType.INTEGER, 4);
+            List<Long> ids = new ArrayList<>();
+            for (long i = 0; i < 20000; i++) {
+                ids.add(i);
+            }
+            Collections.shuffle(ids, new Random(3));
+            for (long id : ids) {
+                index.insert(new Value(id - 10000), new RID((int) id + 1, (int) (id % 50)));
+            }
+
+            assertThat(index.size()).isEqualTo(20000);
+            assertThat(index.getGlobalDepth()).isGreaterThan(10);
+            for (long id = 0; id < 20000; id++) {
+                assertThat(index.search(new Value(id - 10000)))
+                        .containsExactly(new RID((int) id + 1, (int) (id % 50)));
+            }
+            assertThat(index.search(new Value(10000L))).isEmpty();
+            assertThat(index.EqualTo(new Value(-1L))).isEqualTo(new RID(10000, 49));
+        }
+
+        @Test
+        @DisplayName("CHAR 与浮点键按值相等查找，-0.0 与 0.0 是不同的键")
+        void charAndDoubleKeys() throws DBException {
+            HashIndex names = new HashIndex("t", "name", ValueType.CHAR, 2);
+            for (int i = 0; i < 100; i++) {
+                names.insert(new Value("name" + i), new RID(i + 1, 0));
+            }
+            HashIndex doubles = new HashIndex("t", "d", ValueType.DOUBLE);
+            doubles.insert(new Value(0.0), new RID(1, 0));
+            doubles.insert(new Value(-0.0), new RID(2, 0));
+
+            assertThat(names.search(new Value("name42"))).containsExactly(new RID(43, 0));
+            assertThat(names.search(new Value("name100"))).isEmpty();
+            assertThat(doubles.search(new Value(-0.0))).containsExactly(new RID(2, 0));
+        }
+
+        @Test
+        @DisplayName("重复键超过桶容量时扩大桶，重复插入同一条目被忽略")
+        void duplicateKeys() throws DBException {
+            HashIndex index = new HashIndex("t", "k", ValueType.INTEGER, 4);
+            for (int i = 0; i < 100; i++) {
+                index.insert(new Value((long) (i % 2)), new RID(i + 1, 0));
+            }
+            index.insert(new Value(1L), new RID(2, 0));
+
+            assertThat(index.size()).isEqualTo(100);
+            assertThat(index.search(new Value(1L))).hasSize(50).contains(new RID(2, 0), new RID(100, 0));
+        }
+
+        @Test
+        @DisplayName("键类型不匹配时抛出异常，不支持范围查找")
+        void unsupported() {
+            HashIndex index = new HashIndex("t", "id", ValueType.INTEGER);
+
+            assertThatThrownBy(() -> index.insert(new Value("a"), new RID(1, 0))).isInstanceOf(DBException.class);
+            assertThatThrownBy(() -> index.searchRange(new Value(1L), new Value(2L), true, true))
+                    .isInstanceOf(DBException.class);
+            assertThatThrownBy(() -> index.Range(new Value(1L), new Value(2L), true, true))
+                    .isInstanceOf(UnsupportedOperationException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("删除测试")
+    class DeleteTests {
+        @Test
+        @DisplayName("只删除指定 RID 的条目，清空后可以继续使用")
+        void deleteExactRid() throws DBException {
+            HashIndex index = new HashIndex("t", "id", ValueType.INTEGER, 4);
+            for (long i = 0; i < 1000; i++) {
+                index.insert(new Value(i / 2), new RID((int) i + 1, 0));
+            }
+            for (long i = 0; i < 1000; i += 2) {
+                index.delete(new Value(i / 2), new RID((int) i + 1, 0));
+            }
+            index.delete(new Value(3L), new RID(9999, 0));
+
+            assertThat(index.size()).isEqualTo(500);
+            assertThat(index.search(new Value(3L))).containsExactly(new RID(8, 0));
+
+            index.clear();
+            assertThat(index.size()).isZero();
+            assertThat(index.getGlobalDepth()).isZero();
+            index.insert(new Value(3L), new RID(1, 0));
+            assertThat(index.search(new Value(3L))).containsExactly(new RID(1, 0));
+        }
+    }
+}
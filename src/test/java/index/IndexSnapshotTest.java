@@ -0,0 +1,97 @@
+package index;
+
+import edu.sustech.cs307.index.BPlusTreeIndex;
+import edu.sustech.cs307.index.IndexSnapshot;
+import edu.sustech.cs307.record.RID;
+import edu.sustech.cs307.value.Value;
+import edu.sustech.cs307.value.ValueType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.*;
+
+class IndexSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static BPlusTreeIndex intIndex(int n) throws Exception {
+        BPlusTreeIndex index = new BPlusTreeIndex("t", "id", 10);
+        for (long i = n - 1; i >= 0; i--) {
+            index.insert(new Value(i), new RID((int) i + 1, (int) (i % 7)));
+        }
+        return index;
+    }
+
+    @Nested
+    @DisplayName("写出与加载测试")
+    class RoundTripTests {
+        @Test
+        @DisplayName("快照加载后的索引与原索引条目一致")
+        void roundTrip() throws Exception {
+            Path file = tempDir.resolve(IndexSnapshot.snapshotFileName("t", "id"));
+            BPlusTreeIndex original = intIndex(3000);
+
+            assertThat(IndexSnapshot.write(file, original, ValueType.INTEGER, 42)).isEqualTo(3000);
+
+            BPlusTreeIndex loaded = new BPlusTreeIndex("t", "id", 10);
+            assertThat(IndexSnapshot.load(file, ValueType.INTEGER, 42, 3000, loaded, 0.9)).isTrue();
+            assertThat(loaded.validateTree()).isTrue();
+            assertThat(loaded.search(new Value(2037L))).containsExactly(new RID(2038, 0));
+            assertThat(loaded.searchRange(new Value(100L), new Value(199L), true, true))
+                    .containsExactlyElementsOf(original.searchRange(new Value(100L), new Value(199L), true, true));
+        }
+
+        @Test
+        @DisplayName("CHAR 键快照")
+        void charKeys() throws Exception {
+            Path file = tempDir.resolve("snapshot_name");
+            BPlusTreeIndex original = new BPlusTreeIndex("t", "name", 10);
+            for (int i = 0; i < 200; i++) {
+                original.insert(new Value(String.format("name%03d", i)), new RID(1, i));
+            }
+            IndexSnapshot.write(file, original, ValueType.CHAR, 1);
+
+            BPlusTreeIndex loaded = new BPlusTreeIndex("t", "name", 10);
+            assertThat(IndexSnapshot.load(file, ValueType.CHAR, 1, 200, loaded, 0.9)).isTrue();
+            assertThat(loaded.search(new Value("name123"))).containsExactly(new RID(1, 123));
+        }
+    }
+
+    @Nested
+    @DisplayName("失效检测测试")
+    class StaleTests {
+        @Test
+        @DisplayName("表版本号、条目数或键类型不一致时拒绝加载")
+        void rejectStale() throws Exception {
+            Path file = tempDir.resolve("snapshot_id");
+            IndexSnapshot.write(file, intIndex(500), ValueType.INTEGER, 7);
+
+            BPlusTreeIndex target = new BPlusTreeIndex("t", "id", 10);
+            assertThat(IndexSnapshot.load(file, ValueType.INTEGER, 8, 500, target, 0.9)).isFalse();
+            assertThat(IndexSnapshot.load(file, ValueType.INTEGER, 7, 499, target, 0.9)).isFalse();
+            assertThat(IndexSnapshot.load(file, ValueType.DOUBLE, 7, 500, target, 0.9)).isFalse();
+            assertThat(target.getRoot()).isNull();
+        }
+
+        @Test
+        @DisplayName("文件缺失或被截断时拒绝加载")
+        void rejectMissingOrTruncated() throws Exception {
+            Path file = tempDir.resolve("snapshot_id");
+            BPlusTreeIndex target = new BPlusTreeIndex("t", "id", 10);
+            assertThat(IndexSnapshot.load(file, ValueType.INTEGER, 7, 500, target, 0.9)).isFalse();
+
+            IndexSnapshot.write(file, intIndex(500), ValueType.INTEGER, 7);
+            byte[] bytes = Files.readAllBytes(file);
+            Files.write(file, java.util.Arrays.copyOf(bytes, bytes.length / 2));
+
+            assertThat(IndexSnapshot.load(file, ValueType.INTEGER, 7, 500, target, 0.9)).isFalse();
+            assertThat(target.getRoot()).isNull();
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package index;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.index.PrimitiveBPlusTreeIndex;
+import edu.sustech.cs307.record.RID;
+import edu.sustech.cs307.value.Value;
+import edu.sustech.cs307.value.ValueType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PrimitiveBPlusTreeIndexTest {
+
+    private static PrimitiveBPlusTreeIndex intIndex() {
+        return new PrimitiveBPlusTreeIndex("t", "id", ValueType.INTEGER, 10);
+    }
+
+    private static <T> List<T> keys(Iterator<Map.Entry<Value, RID>> it) {
+        List<T> result = new ArrayList<>();
+        while (it.hasNext()) {
+            @SuppressWarnings("unchecked")
+            T key = (T) it.next().getKey().value;
+            result.add(key);
+        }
+        return result;
+    }
+
+    @Nested
+    @DisplayName("插入与查找测试")
+    class InsertSearchTests {
+        @Test
+        @DisplayName("乱序插入大量键后都能查到，树结构合法")
+        void randomInserts() throws DBException {
+            PrimitiveBPlusTreeIndex index = intIndex();
+            List<Long> ids = new ArrayList<>();
+            for (long i = 0; i < 20000; i++) {
+                ids.add(i);
+            }
+            Collections.shuffle(ids, new Random(11));
+            for (long id : ids) {
+                index.insert(new Value(id - 10000), new RID((int) id + 1, (int) (id % 50)));
+            }
+
+            assertThat(index.size()).isEqualTo(20000);
+            assertThat(index.validateTree()).isTrue();
+            assertThat(index.search(new Value(-1L))).containsExactly(new RID(10000, 49));
+            assertThat(index.EqualTo(new Value(10000L))).isNull();
+            assertThat(keys(index.iterator())).hasSize(20000).isSorted();
+        }
+
+        @Test
+        @DisplayName("重复键跨越多个叶子时按 RID 顺序全部返回，重复插入同一条目被忽略")
+        void duplicates() throws DBException {
+            PrimitiveBPlusTreeIndex index = intIndex();
+            for (int i = 999; i >= 0; i--) {
+                index.insert(new Value((long) (i % 2)), new RID(i + 1, 0));
+            }
+            index.insert(new Value(1L), new RID(2, 0));
+
+            List<RID> odd = index.search(new Value(1L));
+            assertThat(odd).hasSize(500);
+            assertThat(odd.get(0)).isEqualTo(new RID(2, 0));
+            assertThat(odd.get(499)).isEqualTo(new RID(1000, 0));
+            assertThat(index.size()).isEqualTo(1000);
+        }
+
+        @Test
+        @DisplayName("按升序查找多个键，结果与逐个查找相同")
+        void searchAll() throws DBException {
+            PrimitiveBPlusTreeIndex index = intIndex();
+            for (int i = 0; i < 5000; i++) {
+                index.insert(new Value((long) (i % 2000) * 2), new RID(i + 1, 0));
+            }
+            // 同一个叶子内的相邻键、不存在的键、相隔很远的键
+            List<Value> sortedKeys = new ArrayList<>();
+            for (long k : new long[] { -5, 0, 2, 3, 4, 100, 102, 1999, 2000, 3998, 3999, 5000 }) {
+                sortedKeys.add(new Value(k));
+            }
+            List<RID> expected = new ArrayList<>();
+            for (Value key : sortedKeys) {
+                expected.addAll(index.search(key));
+            }
+
+            assertThat(index.searchAll(sortedKeys)).hasSize(19).containsExactlyElementsOf(expected);
+            assertThat(index.searchAll(List.of())).isEmpty();
+        }
+
+        @Test
+        @DisplayName("键类型不匹配时抛出异常")
+        void wrongKeyType() {
+            PrimitiveBPlusTreeIndex index = intIndex();
+
+            assertThatThrownBy(() -> index.insert(new Value(1.5), new RID(1, 0)))
+                    .isInstanceOf(DBException.class);
+            assertThat(index.MoreThan(new Value("a"), true).hasNext()).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("浮点键测试")
+    class FloatingPointTests {
+        @Test
+        @DisplayName("编码后的顺序与 Double.compare 一致")
+        void doubleOrdering() throws DBException {
+            PrimitiveBPlusTreeIndex index = new PrimitiveBPlusTreeIndex("t", "d", ValueType.DOUBLE, 10);
+            double[] values = { 3.5, -0.0, 0.0, -1e300, Double.NEGATIVE_INFINITY, 1e-300, -2.25,
+                    Double.POSITIVE_INFINITY, Double.MIN_VALUE };
+            for (int i = 0; i < values.length; i++) {
+                index.insert(new Value(values[i]), new RID(1, i));
+            }
+
+            List<Double> expected = new ArrayList<>();
+            for (double v : values) {
+                expected.add(v);
+            }
+            expected.sort(Double::compare);
+            assertThat(this.<Double>keysOf(index.iterator())).containsExactlyElementsOf(expected);
+            assertThat(keysOf(index.Range(new Value(-2.25), new Value(0.0), false, true)))
+                    .containsExactly(-0.0, 0.0);
+        }
+
+        @Test
+        @DisplayName("FLOAT 键的负数范围查询")
+        void floatRange() throws DBException {
+            PrimitiveBPlusTreeIndex index = new PrimitiveBPlusTreeIndex("t", "f", ValueType.FLOAT, 10);
+            for (int i = -50; i < 50; i++) {
+                index.insert(new Value(i / 4.0f), new RID(1, i + 50));
+            }
+
+            assertThat(index.searchRange(new Value(-1.0f), new Value(1.0f), true, false)).hasSize(8);
+            assertThat(keysOf(index.LessThan(new Value(-12.0f), true))).containsExactly(-12.5f, -12.25f, -12.0f);
+        }
+
+        private <T> List<T> keysOf(Iterator<Map.Entry<Value, RID>> it) {
+            return keys(it);
+        }
+    }
+
+    @Nested
+    @DisplayName("删除测试")
+    class DeleteTests {
+        @Test
+        @DisplayName("只删除指定 RID 的条目，遍历跳过空叶子")
+        void deleteExactRid() throws DBException {
+            PrimitiveBPlusTreeIndex index = intIndex();
+            for (long i = 0; i < 2000; i++) {
+                index.insert(new Value(i / 2), new RID((int) i + 1, 0));
+            }
+            for (long i = 100; i < 1900; i++) {
+                index.delete(new Value(i / 2), new RID((int) i + 1, 0));
+            }
+            index.delete(new Value(0L), new RID(9999, 0));
+
+            assertThat(index.size()).isEqualTo(200);
+            assertThat(index.searchRange(new Value(0L), new Value(999L), true, true)).hasSize(200);
+            assertThat(index.search(new Value(49L))).containsExactly(new RID(99, 0), new RID(100, 0));
+            assertThat(index.search(new Value(50L))).isEmpty();
+            assertThat(index.validateTree()).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("并发测试")
+    class ConcurrencyTests {
+        @Test
+        @DisplayName("遍历途中叶子分裂，迭代器沿右侧兄弟继续且不重复")
+        void iteratorSurvivesSplits() throws DBException {
+            PrimitiveBPlusTreeIndex index = intIndex();
+            for (long i = 0; i < 200; i += 2) {
+                index.insert(new Value(i), new RID((int) i + 1, 0));
+            }
+            Iterator<Map.Entry<Value, RID>> it = index.iterator();
+            List<Long> seen = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                seen.add((Long) it.next().getKey().value);
+            }
+            for (long i = 1; i < 200; i += 2) {
+                index.insert(new Value(i), new RID((int) i + 1, 0));
+            }
+            while (it.hasNext()) {
+                seen.add((Long) it.next().getKey().value);
+            }
+
+            // 原有条目一个不少，分裂后移到右侧兄弟中的新条目也能遍历到
+            List<Long> evens = new ArrayList<>();
+            for (long i = 0; i < 200; i += 2) {
+                evens.add(i);
+            }
+            assertThat(seen).isSorted().doesNotHaveDuplicates().containsAll(evens).contains(197L, 199L);
+        }
+
+        @Test
+        @DisplayName("多个线程同时插入、删除和查询后树结构合法")
+        void concurrentWriters() throws Exception {
+            PrimitiveBPlusTreeIndex index = intIndex();
+            int threads = 4;
+            int perThread = 5000;
+            ExecutorService pool = Executors.newFixedThreadPool(threads * 2);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    int id = t;
+                    futures.add(pool.submit(() -> {
+                        for (int i = 0; i < perThread; i++) {
+                            long key = (long) i * threads + id;
+                            index.insert(new Value(key), new RID((int) key + 1, 0));
+                            if (i % 5 == 0) {
+                                index.delete(new Value(key), new RID((int) key + 1, 0));
+                            }
+                        }
+                        return null;
+                    }));
+                    futures.add(pool.submit(() -> {
+                        for (int i = 0; i < 200; i++) {
+                            assertThat(keys(index.Range(new Value(1000L), new Value(2000L), true, true)))
+                                    .isSorted().doesNotHaveDuplicates();
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                pool.shutdown();
+                pool.awaitTermination(10, TimeUnit.SECONDS);
+            }
+
+            long expected = (long) threads * perThread * 4 / 5;
+            assertThat(index.size()).isEqualTo(expected);
+            assertThat(index.validateTree()).isTrue();
+            assertThat(keys(index.iterator())).hasSize((int) expected).isSorted();
+            assertThat(index.search(new Value(7L))).containsExactly(new RID(8, 0));
+            assertThat(index.search(new Value(20L))).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("批量构建测试")
+    class BulkLoadTests {
+        @Test
+        @DisplayName("批量构建后可查询并继续插入")
+        void bulkLoadThenInsert() throws DBException {
+            PrimitiveBPlusTreeIndex index = intIndex();
+            List<Map.Entry<Value, RID>> entries = new ArrayList<>();
+            for (long i = 0; i < 5003; i += 2) {
+                entries.add(new AbstractMap.SimpleEntry<>(new Value(i), new RID((int) i + 1, 0)));
+            }
+
+            assertThat(index.bulkLoad(entries.iterator(), 0.7)).isEqualTo(2502);
+            assertThat(index.validateTree()).isTrue();
+
+            for (long i = 1; i < 5003; i += 2) {
+                index.insert(new Value(i), new RID((int) i + 1, 0));
+            }
+            assertThat(index.validateTree()).isTrue();
+            assertThat(index.searchRange(new Value(1000L), new Value(1999L), true, true)).hasSize(1000);
+            assertThatThrownBy(() -> index.bulkLoad(entries.iterator(), 0.7)).isInstanceOf(DBException.class);
+        }
+    }
+}
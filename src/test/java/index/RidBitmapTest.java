@@ -0,0 +1,73 @@
+package index;
+
+import edu.sustech.cs307.index.RidBitmap;
+import edu.sustech.cs307.record.RID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RidBitmapTest {
+
+    private static List<RID> ridsWhere(IntPredicate predicate) {
+        List<RID> rids = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            if (predicate.test(i)) {
+                rids.add(new RID(i / 100 + 1, i % 100));
+            }
+        }
+        return rids;
+    }
+
+    @Nested
+    @DisplayName("构建与遍历测试")
+    class BuildTests {
+        @Test
+        @DisplayName("乱序、重复的 RID 按页号、槽号升序遍历一次")
+        void sortedAndDistinct() {
+            RidBitmap bitmap = RidBitmap.of(List.of(new RID(3, 70), new RID(1, 5), new RID(3, 2), new RID(1, 5),
+                    new RID(2, 64), new RID(1, 63)));
+
+            assertThat(bitmap).containsExactly(new RID(1, 5), new RID(1, 63), new RID(2, 64), new RID(3, 2),
+                    new RID(3, 70));
+            assertThat(bitmap.size()).isEqualTo(5);
+            assertThat(bitmap.pageCount()).isEqualTo(3);
+            assertThat(bitmap.contains(new RID(2, 64))).isTrue();
+            assertThat(bitmap.contains(new RID(2, 0))).isFalse();
+            assertThat(RidBitmap.of(List.of())).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("交集与并集测试")
+    class SetOperationTests {
+        @Test
+        @DisplayName("交集只保留两边都有的 RID，跳过没有交集的页")
+        void and() {
+            RidBitmap even = RidBitmap.of(ridsWhere(i -> i % 2 == 0));
+            RidBitmap byThree = RidBitmap.of(ridsWhere(i -> i % 3 == 0));
+            RidBitmap firstPages = RidBitmap.of(ridsWhere(i -> i < 300));
+
+            assertThat(even.and(byThree)).containsExactlyElementsOf(ridsWhere(i -> i % 6 == 0));
+            assertThat(even.and(byThree).and(firstPages)).containsExactlyElementsOf(
+                    ridsWhere(i -> i % 6 == 0 && i < 300));
+            assertThat(firstPages.and(RidBitmap.of(ridsWhere(i -> i >= 300)))).isEmpty();
+        }
+
+        @Test
+        @DisplayName("并集合并两边的 RID，结果仍然有序且不重复")
+        void or() {
+            RidBitmap low = RidBitmap.of(ridsWhere(i -> i < 250 && i % 2 == 0));
+            RidBitmap high = RidBitmap.of(ridsWhere(i -> i > 150 && i % 5 == 0));
+
+            assertThat(low.or(high)).containsExactlyElementsOf(
+                    ridsWhere(i -> (i < 250 && i % 2 == 0) || (i > 150 && i % 5 == 0)));
+            assertThat(RidBitmap.empty().or(low)).containsExactlyElementsOf(low);
+        }
+    }
+}
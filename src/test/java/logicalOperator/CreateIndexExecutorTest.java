@@ -0,0 +1,117 @@
+package logicalOperator;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.index.DiskBPlusTreeIndex;
+import edu.sustech.cs307.index.HashIndex;
+import edu.sustech.cs307.index.MemoryIndex;
+import edu.sustech.cs307.logicalOperator.LogicalOperator;
+import edu.sustech.cs307.logicalOperator.dml.CreateIndexExecutor;
+import edu.sustech.cs307.meta.MetaManager;
+import edu.sustech.cs307.meta.TableMeta;
+import edu.sustech.cs307.optimizer.LogicalPlanner;
+import edu.sustech.cs307.optimizer.PhysicalPlanner;
+import edu.sustech.cs307.physicalOperator.PhysicalOperator;
+import edu.sustech.cs307.storage.BufferPool;
+import edu.sustech.cs307.storage.DiskManager;
+import edu.sustech.cs307.system.DBManager;
+import edu.sustech.cs307.system.RecordManager;
+import edu.sustech.cs307.value.Value;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CreateIndexExecutorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private DBManager dbManager;
+
+    @BeforeEach
+    void setUp() throws DBException {
+        DiskManager diskManager = new DiskManager(tempDir.toString(), new HashMap<>());
+        BufferPool bufferPool = new BufferPool(64, diskManager);
+        RecordManager recordManager = new RecordManager(diskManager, bufferPool);
+        MetaManager metaManager = new MetaManager(tempDir.resolve("meta").toString());
+        dbManager = new DBManager(diskManager, bufferPool, recordManager, metaManager);
+        LogicalPlanner.resolveAndPlan(dbManager, "CREATE TABLE t (id INT, v INT);");
+        execute("INSERT INTO t VALUES (1, 10), (2, 20), (3, 30);");
+    }
+
+    private void execute(String sql) throws DBException {
+        LogicalOperator operator = LogicalPlanner.resolveAndPlan(dbManager, sql);
+        if (operator == null) {
+            return;
+        }
+        PhysicalOperator physicalOperator = PhysicalPlanner.generateOperator(dbManager, operator);
+        physicalOperator.Begin();
+        while (physicalOperator.hasNext()) {
+            physicalOperator.Next();
+            physicalOperator.Current();
+        }
+        physicalOperator.Close();
+    }
+
+    @Nested
+    @DisplayName("USING 子句测试")
+    class UsingTests {
+        @ParameterizedTest
+        @ValueSource(strings = {
+                "CREATE INDEX idx_v ON t USING HASH (v);",
+                "CREATE INDEX idx_v USING HASH ON t (v);",
+                "CREATE INDEX idx_v ON t (v) USING HASH;",
+                "create index idx_v on t using hash (v)"
+        })
+        @DisplayName("USING HASH 写在任意位置都创建哈希索引")
+        void hashInEveryPlacement(String sql) throws DBException {
+            assertThat(LogicalPlanner.resolveAndPlan(dbManager, sql)).isNull();
+
+            assertThat(dbManager.getIndexManager().getIndex("t", "v")).isInstanceOf(HashIndex.class);
+            assertThat(dbManager.getMetaManager().getTable("t").getIndexes())
+                    .containsEntry("v", TableMeta.IndexType.HASH);
+            assertThat(dbManager.getIndexManager().getIndex("t", "v").search(new Value(20L))).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("USING BTREE 与 USING DISK 仍按原来的类型创建")
+        void otherTypes() throws DBException {
+            LogicalPlanner.resolveAndPlan(dbManager, "CREATE INDEX idx_id ON t USING BTREE (id);");
+            LogicalPlanner.resolveAndPlan(dbManager, "CREATE INDEX idx_v ON t USING DISK (v);");
+
+            assertThat(dbManager.getIndexManager().getIndex("t", "id")).isInstanceOf(MemoryIndex.class);
+            assertThat(dbManager.getIndexManager().getIndex("t", "v")).isInstanceOf(DiskBPlusTreeIndex.class);
+        }
+
+        @Test
+        @DisplayName("多列索引不支持 USING HASH")
+        void hashCompositeRejected() {
+            assertThatThrownBy(() -> LogicalPlanner.resolveAndPlan(dbManager,
+                    "CREATE INDEX idx_iv ON t USING HASH (id, v);"))
+                    .isInstanceOf(DBException.class)
+                    .hasMessageContaining("USING BTREE");
+        }
+
+        @Test
+        @DisplayName("取出 USING 子句后其余部分保持不变")
+        void stripUsingClause() {
+            List<String> types = new ArrayList<>();
+            assertThat(CreateIndexExecutor.stripUsingClause("CREATE INDEX i ON t USING HASH (v);", types))
+                    .isEqualTo("CREATE INDEX i ON t (v);");
+            assertThat(types).containsExactly("HASH");
+            assertThat(CreateIndexExecutor.stripUsingClause("SELECT * FROM t;", types))
+                    .isEqualTo("SELECT * FROM t;");
+            assertThat(types).hasSize(1);
+        }
+    }
+}
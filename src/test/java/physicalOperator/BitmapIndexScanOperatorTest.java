@@ -0,0 +1,236 @@
+package physicalOperator;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.index.Index;
+import edu.sustech.cs307.logicalOperator.LogicalOperator;
+import edu.sustech.cs307.logicalOperator.LogicalProjectOperator;
+import edu.sustech.cs307.meta.MetaManager;
+import edu.sustech.cs307.meta.TabCol;
+import edu.sustech.cs307.optimizer.LogicalPlanner;
+import edu.sustech.cs307.optimizer.PhysicalPlanner;
+import edu.sustech.cs307.physicalOperator.BitmapIndexScanOperator;
+import edu.sustech.cs307.physicalOperator.BitmapIndexScanOperator.AndSource;
+import edu.sustech.cs307.physicalOperator.BitmapIndexScanOperator.IndexSource;
+import edu.sustech.cs307.physicalOperator.BitmapIndexScanOperator.OrSource;
+import edu.sustech.cs307.physicalOperator.PhysicalOperator;
+import edu.sustech.cs307.storage.BufferPool;
+import edu.sustech.cs307.storage.DiskManager;
+import edu.sustech.cs307.system.DBManager;
+import edu.sustech.cs307.system.RecordManager;
+import edu.sustech.cs307.value.Value;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BitmapIndexScanOperatorTest {
+
+    private static final int ROWS = 40;
+
+    @TempDir
+    Path tempDir;
+
+    private DBManager dbManager;
+
+    @BeforeEach
+    void setUp() throws DBException {
+        DiskManager diskManager = new DiskManager(tempDir.toString(), new HashMap<>());
+        BufferPool bufferPool = new BufferPool(64, diskManager);
+        RecordManager recordManager = new RecordManager(diskManager, bufferPool);
+        MetaManager metaManager = new MetaManager(tempDir.resolve("meta").toString());
+        dbManager = new DBManager(diskManager, bufferPool, recordManager, metaManager);
+        createTable("t", "");
+    }
+
+    /**
+     * 建表并插入 id = 1..ROWS、a = id、b = 2 * id 的行，在 a 和 b 上各建一个索引。
+     */
+    private void createTable(String table, String options) throws DBException {
+        LogicalPlanner.resolveAndPlan(dbManager, "CREATE TABLE " + table + " (id INT, a INT, b INT)" + options + ";");
+        StringBuilder insert = new StringBuilder("INSERT INTO " + table + " VALUES ");
+        for (int i = 1; i <= ROWS; i++) {
+            insert.append(i > 1 ? ", " : "").append(String.format("(%d, %d, %d)", i, i, 2 * i));
+        }
+        execute(insert.append(';').toString());
+        LogicalPlanner.resolveAndPlan(dbManager, "CREATE INDEX idx_" + table + "_a ON " + table + " (a);");
+        LogicalPlanner.resolveAndPlan(dbManager, "CREATE INDEX idx_" + table + "_b ON " + table + " (b);");
+    }
+
+    private void execute(String sql) throws DBException {
+        LogicalOperator operator = LogicalPlanner.resolveAndPlan(dbManager, sql);
+        if (operator == null) {
+            return;
+        }
+        PhysicalOperator physicalOperator = PhysicalPlanner.generateOperator(dbManager, operator);
+        physicalOperator.Begin();
+        while (physicalOperator.hasNext()) {
+            physicalOperator.Next();
+            physicalOperator.Current();
+        }
+        physicalOperator.Close();
+    }
+
+    private static List<Long> drain(PhysicalOperator operator, String table) throws DBException {
+        List<Long> ids = new ArrayList<>();
+        operator.Begin();
+        while (operator.hasNext()) {
+            operator.Next();
+            if (operator.Current() != null) {
+                ids.add((Long) operator.Current().getValue(new TabCol(table, "id")).value);
+            }
+        }
+        operator.Close();
+        return ids;
+    }
+
+    /**
+     * 为 {@code SELECT * FROM t WHERE ...} 生成过滤算子，即 {@code FilterOperator(扫描算子)}。
+     */
+    private PhysicalOperator plan(String where) throws DBException {
+        LogicalOperator operator = LogicalPlanner.resolveAndPlan(dbManager, "SELECT * FROM t WHERE " + where + ";");
+        assertThat(operator).isInstanceOf(LogicalProjectOperator.class);
+        return PhysicalPlanner.generateOperator(dbManager, ((LogicalProjectOperator) operator).getChild());
+    }
+
+    private static List<Long> expected(LongPredicate predicate) {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= ROWS; id++) {
+            if (predicate.test(id)) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private Index index(String column) {
+        return dbManager.getIndexManager().getIndex("t", column);
+    }
+
+    private IndexSource eq(String column, long key) {
+        return IndexSource.equalTo(index(column), new Value(key));
+    }
+
+    private IndexSource between(String column, long low, long high) {
+        return new IndexSource(index(column), new Value(low), true, new Value(high), true);
+    }
+
+    @Nested
+    @DisplayName("条件树求值测试")
+    class SourceTests {
+        @Test
+        @DisplayName("AND 求两个索引结果的交集")
+        void and() throws DBException {
+            BitmapIndexScanOperator scan = new BitmapIndexScanOperator("t", dbManager,
+                    new AndSource(List.of(between("a", 5, ROWS), between("b", 0, 20))));
+            assertThat(drain(scan, "t")).containsExactlyElementsOf(expected(id -> id >= 5 && id <= 10));
+        }
+
+        @Test
+        @DisplayName("OR 求并集，两侧都匹配的行只出现一次")
+        void orDeduplicates() throws DBException {
+            BitmapIndexScanOperator scan = new BitmapIndexScanOperator("t", dbManager,
+                    new OrSource(List.of(between("a", 1, 10), between("b", 16, 30))));
+            List<Long> ids = drain(scan, "t");
+            assertThat(ids).doesNotHaveDuplicates().containsExactlyElementsOf(expected(id -> id <= 15));
+        }
+
+        @Test
+        @DisplayName("两个索引指向同一行时结果不重复")
+        void sameRowFromBothIndexes() throws DBException {
+            assertThat(drain(new BitmapIndexScanOperator("t", dbManager,
+                    new OrSource(List.of(eq("a", 3), eq("b", 6)))), "t")).containsExactly(3L);
+            assertThat(drain(new BitmapIndexScanOperator("t", dbManager,
+                    new OrSource(List.of(eq("a", 3), eq("a", 3)))), "t")).containsExactly(3L);
+        }
+
+        @Test
+        @DisplayName("一侧为空时 AND 为空、OR 等于另一侧")
+        void emptySide() throws DBException {
+            assertThat(drain(new BitmapIndexScanOperator("t", dbManager,
+                    new AndSource(List.of(eq("a", 99), between("b", 2, 6)))), "t")).isEmpty();
+            assertThat(drain(new BitmapIndexScanOperator("t", dbManager,
+                    new AndSource(List.of(between("b", 2, 6), eq("a", 99)))), "t")).isEmpty();
+            assertThat(drain(new BitmapIndexScanOperator("t", dbManager,
+                    new OrSource(List.of(eq("a", 99), between("b", 2, 6)))), "t")).containsExactly(1L, 2L, 3L);
+            assertThat(drain(new BitmapIndexScanOperator("t", dbManager,
+                    new AndSource(List.of())), "t")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("无上界的范围条件与等值条件组合")
+        void rangeAndEq() throws DBException {
+            IndexSource range = new IndexSource(index("a"), new Value(7L), true, null, false);
+            assertThat(drain(new BitmapIndexScanOperator("t", dbManager,
+                    new AndSource(List.of(range, eq("b", 20)))), "t")).containsExactly(10L);
+            assertThat(drain(new BitmapIndexScanOperator("t", dbManager,
+                    new AndSource(List.of(range, eq("b", 4)))), "t")).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("规划测试")
+    class PlannerTests {
+        @Test
+        @DisplayName("两个索引列上的 AND 使用位图扫描")
+        void andOfTwoIndexes() throws DBException {
+            PhysicalOperator plan = plan("a >= 5 AND b <= 20");
+            assertThat(plan).extracting("child").isInstanceOf(BitmapIndexScanOperator.class);
+            assertThat(drain(plan, "t")).containsExactlyElementsOf(expected(id -> id >= 5 && id <= 10));
+        }
+
+        @Test
+        @DisplayName("两个索引列上的 OR 使用位图扫描且结果不重复")
+        void orOfTwoIndexes() throws DBException {
+            PhysicalOperator plan = plan("a <= 10 OR b BETWEEN 16 AND 30");
+            assertThat(plan).extracting("child").isInstanceOf(BitmapIndexScanOperator.class);
+            assertThat(drain(plan, "t")).containsExactlyElementsOf(expected(id -> id <= 15));
+            assertThat(drain(plan("a = 3 OR b = 6"), "t")).containsExactly(3L);
+        }
+
+        @Test
+        @DisplayName("OR 的一侧没有匹配的行")
+        void orWithEmptySide() throws DBException {
+            PhysicalOperator plan = plan("a = 99 OR b <= 6");
+            assertThat(plan).extracting("child").isInstanceOf(BitmapIndexScanOperator.class);
+            assertThat(drain(plan, "t")).containsExactly(1L, 2L, 3L);
+            assertThat(drain(plan("a = 99 AND b <= 6"), "t")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("括号中的 OR 与其他条件 AND 连接")
+        void parenthesizedOr() throws DBException {
+            PhysicalOperator plan = plan("(a = 3 OR b = 40) AND id > 2");
+            assertThat(plan).extracting("child").isInstanceOf(BitmapIndexScanOperator.class);
+            assertThat(drain(plan, "t")).containsExactly(3L, 20L);
+            assertThat(drain(plan("(a = 1 OR b = 40) AND id > 2"), "t")).containsExactly(20L);
+        }
+
+        @Test
+        @DisplayName("OR 的一侧用不上索引时不使用位图扫描")
+        void orWithoutIndex() throws DBException {
+            PhysicalOperator plan = plan("a = 1 OR id = 2");
+            assertThat(plan).extracting("child").isNotInstanceOf(BitmapIndexScanOperator.class);
+            assertThat(drain(plan, "t")).containsExactly(1L, 2L);
+        }
+
+        @Test
+        @DisplayName("PAX 表上直接使用选出的索引扫描")
+        void paxTable() throws DBException {
+            createTable("p", " STORAGE = PAX");
+            LogicalOperator operator = LogicalPlanner.resolveAndPlan(dbManager,
+                    "SELECT p.id FROM p WHERE a <= 3 OR b = 8;");
+            PhysicalOperator plan = PhysicalPlanner.generateOperator(dbManager, operator);
+            assertThat(plan).extracting("child.child").isInstanceOf(BitmapIndexScanOperator.class);
+            assertThat(drain(plan, "p")).containsExactly(1L, 2L, 3L, 4L);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package physicalOperator;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.index.HashIndex;
+import edu.sustech.cs307.index.Index;
+import edu.sustech.cs307.logicalOperator.LogicalOperator;
+import edu.sustech.cs307.logicalOperator.LogicalProjectOperator;
+import edu.sustech.cs307.meta.MetaManager;
+import edu.sustech.cs307.meta.TabCol;
+import edu.sustech.cs307.optimizer.LogicalPlanner;
+import edu.sustech.cs307.optimizer.PhysicalPlanner;
+import edu.sustech.cs307.physicalOperator.BitmapIndexScanOperator;
+import edu.sustech.cs307.physicalOperator.IndexMultiProbeOperator;
+import edu.sustech.cs307.physicalOperator.PhysicalOperator;
+import edu.sustech.cs307.storage.BufferPool;
+import edu.sustech.cs307.storage.DiskManager;
+import edu.sustech.cs307.system.DBManager;
+import edu.sustech.cs307.system.RecordManager;
+import edu.sustech.cs307.value.Value;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class IndexMultiProbeOperatorTest {
+
+    private static final int ROWS = 100;
+
+    @TempDir
+    Path tempDir;
+
+    private DBManager dbManager;
+
+    @BeforeEach
+    void setUp() throws DBException {
+        DiskManager diskManager = new DiskManager(tempDir.toString(), new HashMap<>());
+        BufferPool bufferPool = new BufferPool(64, diskManager);
+        RecordManager recordManager = new RecordManager(diskManager, bufferPool);
+        MetaManager metaManager = new MetaManager(tempDir.resolve("meta").toString());
+        dbManager = new DBManager(diskManager, bufferPool, recordManager, metaManager);
+        LogicalPlanner.resolveAndPlan(dbManager, "CREATE TABLE t (id INT, v INT, h INT, name CHAR DICT);");
+        StringBuilder insert = new StringBuilder("INSERT INTO t VALUES ");
+        for (int i = 1; i <= ROWS; i++) {
+            insert.append(i > 1 ? ", " : "").append(String.format("(%d, %d, %d, 'n%03d')", i, i, 3 * i, i));
+        }
+        execute(insert.append(';').toString());
+        LogicalPlanner.resolveAndPlan(dbManager, "CREATE INDEX idx_v ON t (v);");
+        LogicalPlanner.resolveAndPlan(dbManager, "CREATE INDEX idx_h ON t USING HASH (h);");
+        LogicalPlanner.resolveAndPlan(dbManager, "CREATE INDEX idx_name ON t (name);");
+    }
+
+    private void execute(String sql) throws DBException {
+        LogicalOperator operator = LogicalPlanner.resolveAndPlan(dbManager, sql);
+        if (operator == null) {
+            return;
+        }
+        PhysicalOperator physicalOperator = PhysicalPlanner.generateOperator(dbManager, operator);
+        physicalOperator.Begin();
+        while (physicalOperator.hasNext()) {
+            physicalOperator.Next();
+            physicalOperator.Current();
+        }
+        physicalOperator.Close();
+    }
+
+    private static List<Long> drain(PhysicalOperator operator) throws DBException {
+        List<Long> ids = new ArrayList<>();
+        operator.Begin();
+        while (operator.hasNext()) {
+            operator.Next();
+            if (operator.Current() != null) {
+                ids.add((Long) operator.Current().getValue(new TabCol("t", "id")).value);
+            }
+        }
+        operator.Close();
+        return ids;
+    }
+
+    /**
+     * 为 {@code SELECT * FROM t WHERE ...} 生成过滤算子，即 {@code FilterOperator(扫描算子)}。
+     */
+    private PhysicalOperator plan(String where) throws DBException {
+        LogicalOperator operator = LogicalPlanner.resolveAndPlan(dbManager, "SELECT * FROM t WHERE " + where + ";");
+        assertThat(operator).isInstanceOf(LogicalProjectOperator.class);
+        return PhysicalPlanner.generateOperator(dbManager, ((LogicalProjectOperator) operator).getChild());
+    }
+
+    private IndexMultiProbeOperator probe(String column, Value... keys) throws DBException {
+        Index index = dbManager.getIndexManager().getIndex("t", column);
+        return new IndexMultiProbeOperator("t", dbManager, index, List.of(keys));
+    }
+
+    private static Value[] ints(long... keys) {
+        return LongStream.of(keys).mapToObj(Value::new).toArray(Value[]::new);
+    }
+
+    @Nested
+    @DisplayName("多点查找测试")
+    class ProbeTests {
+        @Test
+        @DisplayName("重复的键只查找一次，结果按键的顺序且不重复")
+        void duplicateKeys() throws DBException {
+            assertThat(drain(probe("v", ints(5, 3, 5, 3, 7, 5)))).containsExactly(3L, 5L, 7L);
+        }
+
+        @Test
+        @DisplayName("不存在的键被跳过")
+        void missingKeys() throws DBException {
+            assertThat(drain(probe("v", ints(0, 5, 1000, -1)))).containsExactly(5L);
+            assertThat(drain(probe("v", ints(0, 1000)))).isEmpty();
+            assertThat(drain(probe("v"))).isEmpty();
+        }
+
+        @Test
+        @DisplayName("有布隆过滤器时结果不变")
+        void withBloomFilter() throws DBException {
+            assertThat(dbManager.getIndexManager().ensureBloomFilter("t", "v")).isNotNull();
+            assertThat(drain(probe("v", ints(1000, 42, 2000, 42, 1)))).containsExactly(1L, 42L);
+        }
+
+        @Test
+        @DisplayName("哈希索引逐个查找")
+        void hashIndex() throws DBException {
+            assertThat(dbManager.getIndexManager().getIndex("t", "h")).isInstanceOf(HashIndex.class);
+            assertThat(drain(probe("h", ints(9, 3, 9, 4, 301)))).containsExactly(1L, 3L);
+        }
+
+        @Test
+        @DisplayName("字典编码 CHAR 列的键")
+        void dictionaryKeys() throws DBException {
+            assertThat(drain(probe("name", new Value("n005"), new Value("n003"), new Value("n005"),
+                    new Value("zzz")))).containsExactly(3L, 5L);
+            assertThat(drain(probe("name", new Value("absent")))).isEmpty();
+        }
+
+        @Test
+        @DisplayName("匹配的行数达到阈值时按页号排序回表，结果不变")
+        void sortedFetch() throws DBException {
+            long[] keys = LongStream.rangeClosed(1, BitmapIndexScanOperator.SORTED_FETCH_MIN_ROWS + 6)
+                    .map(i -> ROWS + 1 - i).toArray();
+            List<Long> ids = drain(probe("v", ints(keys)));
+            assertThat(ids).hasSize(keys.length).doesNotHaveDuplicates()
+                    .containsExactlyInAnyOrderElementsOf(LongStream.of(keys).boxed().toList());
+        }
+    }
+
+    @Nested
+    @DisplayName("规划测试")
+    class PlannerTests {
+        @Test
+        @DisplayName("索引列上的 IN 使用多点查找")
+        void inList() throws DBException {
+            PhysicalOperator plan = plan("v IN (3, 1, 3, 999)");
+            assertThat(plan).extracting("child").isInstanceOf(IndexMultiProbeOperator.class);
+            assertThat(drain(plan)).containsExactly(1L, 3L);
+        }
+
+        @Test
+        @DisplayName("哈希索引列与字典编码列上的 IN")
+        void hashAndDictionary() throws DBException {
+            PhysicalOperator hashPlan = plan("h IN (6, 6, 12, 7)");
+            assertThat(hashPlan).extracting("child").isInstanceOf(IndexMultiProbeOperator.class);
+            assertThat(drain(hashPlan)).containsExactly(2L, 4L);
+
+            PhysicalOperator dictPlan = plan("name IN ('n002', 'n002', 'nope', 'n010')");
+            assertThat(dictPlan).extracting("child").isInstanceOf(IndexMultiProbeOperator.class);
+            assertThat(drain(dictPlan)).containsExactly(2L, 10L);
+        }
+
+        @Test
+        @DisplayName("IN 与其他条件 AND 连接时由上层过滤其余条件")
+        void withOtherConditions() throws DBException {
+            PhysicalOperator plan = plan("v IN (2, 4, 6, 8) AND id > 4");
+            assertThat(plan).extracting("child").isInstanceOf(IndexMultiProbeOperator.class);
+            assertThat(drain(plan)).containsExactly(6L, 8L);
+        }
+
+        @Test
+        @DisplayName("NOT IN 不使用索引")
+        void notIn() throws DBException {
+            PhysicalOperator plan = plan("v NOT IN (1, 2, 3)");
+            assertThat(plan).extracting("child").isNotInstanceOf(IndexMultiProbeOperator.class);
+            assertThat(drain(plan)).hasSize(ROWS - 3).doesNotContain(1L, 2L, 3L);
+        }
+
+        @Test
+        @DisplayName("IN 列表中有与列类型不符的项时不使用索引，其余项照常匹配")
+        void mixedTypes() throws DBException {
+            PhysicalOperator plan = plan("v IN ('x', 4)");
+            assertThat(plan).extracting("child").isNotInstanceOf(IndexMultiProbeOperator.class);
+            assertThat(drain(plan)).containsExactly(4L);
+            assertThat(drain(plan("v NOT IN ('x', 4)"))).hasSize(ROWS - 1).doesNotContain(4L);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package physicalOperator;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.logicalOperator.LogicalOperator;
+import edu.sustech.cs307.meta.MetaManager;
+import edu.sustech.cs307.meta.TabCol;
+import edu.sustech.cs307.optimizer.LogicalPlanner;
+import edu.sustech.cs307.optimizer.PhysicalPlanner;
+import edu.sustech.cs307.physicalOperator.IndexOnlyScanOperator;
+import edu.sustech.cs307.physicalOperator.PhysicalOperator;
+import edu.sustech.cs307.physicalOperator.ProjectOperator;
+import edu.sustech.cs307.storage.BufferPool;
+import edu.sustech.cs307.storage.DiskManager;
+import edu.sustech.cs307.system.DBManager;
+import edu.sustech.cs307.system.RecordManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+import static org.assertj.core.api.Assertions.*;
+
+class IndexOnlyScanOperatorTest {
+
+    private static final int ROWS = 50;
+
+    @TempDir
+    Path tempDir;
+
+    private DBManager dbManager;
+
+    /**
+     * 表中 id = 1..ROWS、a = id % 5、b = id、c = 10 * id、d = 100 * id；
+     * 多列索引 (a, b) 带 INCLUDE 列 c，b 上另有单列索引。
+     */
+    @BeforeEach
+    void setUp() throws DBException {
+        DiskManager diskManager = new DiskManager(tempDir.toString(), new HashMap<>());
+        BufferPool bufferPool = new BufferPool(64, diskManager);
+        RecordManager recordManager = new RecordManager(diskManager, bufferPool);
+        MetaManager metaManager = new MetaManager(tempDir.resolve("meta").toString());
+        dbManager = new DBManager(diskManager, bufferPool, recordManager, metaManager);
+        LogicalPlanner.resolveAndPlan(dbManager, "CREATE TABLE t (id INT, a INT, b INT, c INT, d INT);");
+        StringBuilder insert = new StringBuilder("INSERT INTO t VALUES ");
+        for (int i = 1; i <= ROWS; i++) {
+            insert.append(i > 1 ? ", " : "")
+                    .append(String.format("(%d, %d, %d, %d, %d)", i, i % 5, i, 10 * i, 100 * i));
+        }
+        execute(insert.append(';').toString());
+        LogicalPlanner.resolveAndPlan(dbManager, "CREATE INDEX idx_ab ON t (a, b) INCLUDE (c);");
+        LogicalPlanner.resolveAndPlan(dbManager, "CREATE INDEX idx_b ON t (b);");
+    }
+
+    private void execute(String sql) throws DBException {
+        LogicalOperator operator = LogicalPlanner.resolveAndPlan(dbManager, sql);
+        if (operator == null) {
+            return;
+        }
+        PhysicalOperator physicalOperator = PhysicalPlanner.generateOperator(dbManager, operator);
+        physicalOperator.Begin();
+        while (physicalOperator.hasNext()) {
+            physicalOperator.Next();
+            physicalOperator.Current();
+        }
+        physicalOperator.Close();
+    }
+
+    private PhysicalOperator plan(String sql) throws DBException {
+        PhysicalOperator operator = PhysicalPlanner.generateOperator(dbManager,
+                LogicalPlanner.resolveAndPlan(dbManager, sql));
+        assertThat(operator).isInstanceOf(ProjectOperator.class);
+        return operator;
+    }
+
+    /**
+     * @return 每行中指定列的值
+     */
+    private static List<List<Object>> drain(PhysicalOperator operator, String... columns) throws DBException {
+        List<List<Object>> rows = new ArrayList<>();
+        operator.Begin();
+        while (operator.hasNext()) {
+            operator.Next();
+            if (operator.Current() == null) {
+                continue;
+            }
+            List<Object> row = new ArrayList<>();
+            for (String column : columns) {
+                row.add(operator.Current().getValue(new TabCol("t", column)).value);
+            }
+            rows.add(row);
+        }
+        operator.Close();
+        return rows;
+    }
+
+    private static List<List<Object>> expected(LongPredicate predicate, long... multipliers) {
+        List<List<Object>> rows = new ArrayList<>();
+        for (long id = 1; id <= ROWS; id++) {
+            if (!predicate.test(id)) {
+                continue;
+            }
+            List<Object> row = new ArrayList<>();
+            for (long multiplier : multipliers) {
+                row.add(multiplier == 0 ? id % 5 : multiplier * id);
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Nested
+    @DisplayName("覆盖查询测试")
+    class CoveredTests {
+        @Test
+        @DisplayName("投影只含键列和 INCLUDE 列时只读多列索引")
+        void keyAndInclude() throws DBException {
+            PhysicalOperator plan = plan("SELECT t.a, t.b, t.c FROM t WHERE a = 2 AND b > 20;");
+            assertThat(plan).extracting("child.child").isInstanceOf(IndexOnlyScanOperator.class);
+            assertThat(drain(plan, "a", "b", "c"))
+                    .containsExactlyElementsOf(expected(id -> id % 5 == 2 && id > 20, 0, 1, 10));
+        }
+
+        @Test
+        @DisplayName("只有等值前缀时按第二个键列的顺序输出")
+        void eqPrefixOnly() throws DBException {
+            PhysicalOperator plan = plan("SELECT t.b, t.c FROM t WHERE a = 4;");
+            assertThat(plan).extracting("child.child").isInstanceOf(IndexOnlyScanOperator.class);
+            assertThat(drain(plan, "b", "c")).containsExactlyElementsOf(expected(id -> id % 5 == 4, 1, 10));
+        }
+
+        @Test
+        @DisplayName("WHERE 中的非键条件只引用 INCLUDE 列时仍然只读索引")
+        void filterOnIncludeColumn() throws DBException {
+            PhysicalOperator plan = plan("SELECT t.b FROM t WHERE a = 1 AND c >= 300;");
+            assertThat(plan).extracting("child.child").isInstanceOf(IndexOnlyScanOperator.class);
+            assertThat(drain(plan, "b")).containsExactlyElementsOf(expected(id -> id % 5 == 1 && id >= 30, 1));
+        }
+
+        @Test
+        @DisplayName("只引用单列索引的键时只读该索引")
+        void singleColumnKey() throws DBException {
+            PhysicalOperator plan = plan("SELECT t.b FROM t WHERE b BETWEEN 5 AND 8;");
+            assertThat(plan).extracting("child.child").isInstanceOf(IndexOnlyScanOperator.class);
+            assertThat(drain(plan, "b")).containsExactly(List.of(5L), List.of(6L), List.of(7L), List.of(8L));
+        }
+    }
+
+    @Nested
+    @DisplayName("回表测试")
+    class FallbackTests {
+        @Test
+        @DisplayName("投影含索引以外的列时回表读取记录")
+        void uncoveredProjection() throws DBException {
+            PhysicalOperator plan = plan("SELECT t.a, t.d FROM t WHERE a = 2 AND b > 20;");
+            assertThat(plan).extracting("child.child").isNotInstanceOf(IndexOnlyScanOperator.class);
+            assertThat(drain(plan, "a", "d"))
+                    .containsExactlyElementsOf(expected(id -> id % 5 == 2 && id > 20, 0, 100));
+        }
+
+        @Test
+        @DisplayName("WHERE 引用索引以外的列时回表读取记录")
+        void uncoveredFilter() throws DBException {
+            PhysicalOperator plan = plan("SELECT t.b FROM t WHERE a = 3 AND d > 2000;");
+            assertThat(plan).extracting("child.child").isNotInstanceOf(IndexOnlyScanOperator.class);
+            assertThat(drain(plan, "b")).containsExactlyElementsOf(expected(id -> id % 5 == 3 && id > 20, 1));
+        }
+
+        @Test
+        @DisplayName("SELECT * 回表读取记录")
+        void selectAll() throws DBException {
+            PhysicalOperator plan = plan("SELECT * FROM t WHERE a = 2 AND b > 40;");
+            assertThat(plan).extracting("child.child").isNotInstanceOf(IndexOnlyScanOperator.class);
+            assertThat(drain(plan, "b", "c", "d"))
+                    .containsExactlyElementsOf(expected(id -> id % 5 == 2 && id > 40, 1, 10, 100));
+        }
+    }
+}
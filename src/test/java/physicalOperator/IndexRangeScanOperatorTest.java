@@ -0,0 +1,236 @@
+package physicalOperator;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.index.Index;
+import edu.sustech.cs307.logicalOperator.LogicalOperator;
+import edu.sustech.cs307.logicalOperator.LogicalProjectOperator;
+import edu.sustech.cs307.meta.MetaManager;
+import edu.sustech.cs307.meta.TabCol;
+import edu.sustech.cs307.optimizer.LogicalPlanner;
+import edu.sustech.cs307.optimizer.PhysicalPlanner;
+import edu.sustech.cs307.physicalOperator.BitmapIndexScanOperator;
+import edu.sustech.cs307.physicalOperator.IndexRangeScanOperator;
+import edu.sustech.cs307.physicalOperator.PhysicalOperator;
+import edu.sustech.cs307.storage.BufferPool;
+import edu.sustech.cs307.storage.DiskManager;
+import edu.sustech.cs307.system.DBManager;
+import edu.sustech.cs307.system.RecordManager;
+import edu.sustech.cs307.value.Value;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class IndexRangeScanOperatorTest {
+
+    private static final int ROWS = 100;
+
+    @TempDir
+    Path tempDir;
+
+    private DBManager dbManager;
+
+    @BeforeEach
+    void setUp() throws DBException {
+        DiskManager diskManager = new DiskManager(tempDir.toString(), new HashMap<>());
+        BufferPool bufferPool = new BufferPool(64, diskManager);
+        RecordManager recordManager = new RecordManager(diskManager, bufferPool);
+        MetaManager metaManager = new MetaManager(tempDir.resolve("meta").toString());
+        dbManager = new DBManager(diskManager, bufferPool, recordManager, metaManager);
+        LogicalPlanner.resolveAndPlan(dbManager, "CREATE TABLE t (id INT, v INT, name CHAR DICT);");
+        StringBuilder insert = new StringBuilder("INSERT INTO t VALUES ");
+        for (int i = 1; i <= ROWS; i++) {
+            insert.append(i > 1 ? ", " : "").append(String.format("(%d, %d, 'n%03d')", i, i, i));
+        }
+        execute(insert.append(';').toString());
+        LogicalPlanner.resolveAndPlan(dbManager, "CREATE INDEX idx_v ON t (v);");
+        LogicalPlanner.resolveAndPlan(dbManager, "CREATE INDEX idx_name ON t (name);");
+    }
+
+    private void execute(String sql) throws DBException {
+        LogicalOperator operator = LogicalPlanner.resolveAndPlan(dbManager, sql);
+        if (operator == null) {
+            return;
+        }
+        PhysicalOperator physicalOperator = PhysicalPlanner.generateOperator(dbManager, operator);
+        physicalOperator.Begin();
+        while (physicalOperator.hasNext()) {
+            physicalOperator.Next();
+            physicalOperator.Current();
+        }
+        physicalOperator.Close();
+    }
+
+    private static List<Long> drain(PhysicalOperator operator) throws DBException {
+        List<Long> ids = new ArrayList<>();
+        operator.Begin();
+        while (operator.hasNext()) {
+            operator.Next();
+            if (operator.Current() != null) {
+                ids.add((Long) operator.Current().getValue(new TabCol("t", "id")).value);
+            }
+        }
+        operator.Close();
+        return ids;
+    }
+
+    /**
+     * 为 {@code SELECT * FROM t WHERE ...} 生成过滤算子，即 {@code FilterOperator(扫描算子)}。
+     */
+    private PhysicalOperator plan(String where) throws DBException {
+        LogicalOperator operator = LogicalPlanner.resolveAndPlan(dbManager, "SELECT * FROM t WHERE " + where + ";");
+        assertThat(operator).isInstanceOf(LogicalProjectOperator.class);
+        return PhysicalPlanner.generateOperator(dbManager, ((LogicalProjectOperator) operator).getChild());
+    }
+
+    private static List<Long> range(long from, long to) {
+        List<Long> ids = new ArrayList<>();
+        for (long i = from; i <= to; i++) {
+            ids.add(i);
+        }
+        return ids;
+    }
+
+    @Nested
+    @DisplayName("区间端点测试")
+    class BoundTests {
+        @Test
+        @DisplayName("闭区间包含两个端点")
+        void closed() throws DBException {
+            PhysicalOperator plan = plan("v >= 5 AND v <= 8");
+            assertThat(plan).extracting("child").isInstanceOf(IndexRangeScanOperator.class);
+            assertThat(drain(plan)).containsExactlyElementsOf(range(5, 8));
+        }
+
+        @Test
+        @DisplayName("开区间不含端点")
+        void open() throws DBException {
+            PhysicalOperator plan = plan("v > 5 AND v < 8");
+            assertThat(plan).extracting("child").isInstanceOf(IndexRangeScanOperator.class);
+            assertThat(drain(plan)).containsExactly(6L, 7L);
+        }
+
+        @Test
+        @DisplayName("只有一侧端点时另一侧不受限")
+        void halfOpen() throws DBException {
+            assertThat(drain(plan("v < 4"))).containsExactly(1L, 2L, 3L);
+            assertThat(drain(plan("v >= 98"))).containsExactly(98L, 99L, 100L);
+        }
+
+        @Test
+        @DisplayName("常量写在左边时比较方向相反")
+        void flipped() throws DBException {
+            PhysicalOperator plan = plan("4 < v AND 7 >= v");
+            assertThat(plan).extracting("child").isInstanceOf(IndexRangeScanOperator.class);
+            assertThat(drain(plan)).containsExactly(5L, 6L, 7L);
+        }
+
+        @Test
+        @DisplayName("BETWEEN 转换为闭区间")
+        void between() throws DBException {
+            PhysicalOperator plan = plan("v BETWEEN 10 AND 12");
+            assertThat(plan).extracting("child").isInstanceOf(IndexRangeScanOperator.class);
+            assertThat(drain(plan)).containsExactly(10L, 11L, 12L);
+        }
+    }
+
+    @Nested
+    @DisplayName("区间归并测试")
+    class MergeTests {
+        @Test
+        @DisplayName("同一列上的多个范围条件取最紧的区间")
+        void merged() throws DBException {
+            PhysicalOperator plan = plan("v > 5 AND v < 10 AND v >= 7");
+            assertThat(plan).extracting("child").isInstanceOf(IndexRangeScanOperator.class);
+            assertThat(drain(plan)).containsExactly(7L, 8L, 9L);
+        }
+
+        @Test
+        @DisplayName("端点相同时开端点比闭端点更紧")
+        void exclusiveWins() throws DBException {
+            assertThat(drain(plan("v >= 5 AND v > 5 AND v <= 8 AND v < 8"))).containsExactly(6L, 7L);
+        }
+
+        @Test
+        @DisplayName("BETWEEN 与比较条件归并")
+        void betweenAndComparison() throws DBException {
+            assertThat(drain(plan("v BETWEEN 10 AND 20 AND v < 13"))).containsExactly(10L, 11L, 12L);
+        }
+
+        @Test
+        @DisplayName("下界大于上界时结果为空")
+        void emptyInterval() throws DBException {
+            PhysicalOperator plan = plan("v > 10 AND v < 5");
+            assertThat(plan).extracting("child").isInstanceOf(IndexRangeScanOperator.class);
+            assertThat(drain(plan)).isEmpty();
+            assertThat(drain(plan("v > 5 AND v < 5"))).isEmpty();
+            assertThat(drain(plan("v BETWEEN 20 AND 10"))).isEmpty();
+        }
+
+        @Test
+        @DisplayName("区间外的等值条件与区间一起求值")
+        void eqOutsideRange() throws DBException {
+            assertThat(drain(plan("v = 3 AND v > 5"))).isEmpty();
+            assertThat(drain(plan("v = 7 AND v > 5"))).containsExactly(7L);
+        }
+    }
+
+    @Nested
+    @DisplayName("字典编码列测试")
+    class DictionaryTests {
+        @Test
+        @DisplayName("字典编码 CHAR 列上的 BETWEEN 按字符串顺序扫描")
+        void betweenOnDictionaryColumn() throws DBException {
+            PhysicalOperator plan = plan("name BETWEEN 'n005' AND 'n008'");
+            assertThat(plan).extracting("child").isInstanceOf(IndexRangeScanOperator.class);
+            assertThat(drain(plan)).containsExactlyElementsOf(range(5, 8));
+        }
+
+        @Test
+        @DisplayName("字典编码 CHAR 列上的开区间与前缀 LIKE")
+        void openAndPrefix() throws DBException {
+            assertThat(drain(plan("name > 'n005' AND name < 'n008'"))).containsExactly(6L, 7L);
+            assertThat(drain(plan("name LIKE 'n01%'"))).containsExactlyElementsOf(range(10, 19));
+        }
+
+        @Test
+        @DisplayName("字典中不存在的端点值")
+        void absentEndpoints() throws DBException {
+            assertThat(drain(plan("name BETWEEN 'n0055' AND 'n0085'"))).containsExactly(6L, 7L, 8L);
+            assertThat(drain(plan("name BETWEEN 'x' AND 'z'"))).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("算子测试")
+    class OperatorTests {
+        @Test
+        @DisplayName("端点为 null 表示该侧不受限")
+        void unbounded() throws DBException {
+            Index index = dbManager.getIndexManager().getIndex("t", "v");
+            assertThat(drain(new IndexRangeScanOperator("t", dbManager, index, null, false, new Value(3L), true)))
+                    .containsExactly(1L, 2L, 3L);
+            assertThat(drain(new IndexRangeScanOperator("t", dbManager, index, new Value(99L), true, null, false)))
+                    .containsExactly(99L, 100L);
+            assertThat(drain(new IndexRangeScanOperator("t", dbManager, index, null, false, null, false)))
+                    .hasSize(ROWS);
+        }
+
+        @Test
+        @DisplayName("区间内的行数达到阈值时改为按页号排序后回表")
+        void sortedFetchForWideRange() throws DBException {
+            PhysicalOperator plan = plan("v > 10");
+            assertThat(ROWS - 10).isGreaterThanOrEqualTo(BitmapIndexScanOperator.SORTED_FETCH_MIN_ROWS);
+            assertThat(plan).extracting("child").isInstanceOf(BitmapIndexScanOperator.class);
+            assertThat(drain(plan)).containsExactlyInAnyOrderElementsOf(range(11, ROWS));
+        }
+    }
+}
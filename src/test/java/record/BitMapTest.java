@@ -91,4 +91,59 @@ class BitMapTest {
         assertThat(BitMap.isSet(bm, 16 * 8 - 1)).isTrue();
     }
 
+    @Test
+    @DisplayName("按字查找与逐位查找结果一致")
+    public void testNextBitMatchesBitwiseScan() {
+        java.util.Random random = new java.util.Random(307);
+        for (int maxN : new int[] { 1, 7, 31, 64, 65, 127, 200 }) {
+            ByteBuf bm = Unpooled.buffer((maxN + 7) / 8);
+            BitMap.init(bm);
+            for (int i = 0; i < maxN; i++) {
+                if (random.nextInt(5) == 0) {
+                    BitMap.set(bm, i);
+                }
+            }
+            for (int curr = -1; curr < maxN; curr++) {
+                assertThat(BitMap.nextBit(true, bm, maxN, curr)).isEqualTo(naiveNextBit(true, bm, maxN, curr));
+                assertThat(BitMap.nextBit(false, bm, maxN, curr)).isEqualTo(naiveNextBit(false, bm, maxN, curr));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("全满位图查找空位返回 maxN")
+    public void testNextClearBitOnFullBitmap() {
+        ByteBuf bm = Unpooled.buffer(16);
+        for (int i = 0; i < 16; i++) {
+            bm.setByte(i, 0xFF);
+        }
+        assertThat(BitMap.firstBit(false, bm, 100)).isEqualTo(100);
+        BitMap.reset(bm, 99);
+        assertThat(BitMap.firstBit(false, bm, 100)).isEqualTo(99);
+    }
+
+    @Test
+    @DisplayName("统计被设置的位数")
+    public void testCount() {
+        ByteBuf bm = Unpooled.buffer(16);
+        BitMap.init(bm);
+        assertThat(BitMap.count(bm, 100)).isZero();
+        BitMap.set(bm, 0);
+        BitMap.set(bm, 63);
+        BitMap.set(bm, 64);
+        BitMap.set(bm, 99);
+        // 超出 maxN 的位不计入
+        BitMap.set(bm, 100);
+        assertThat(BitMap.count(bm, 100)).isEqualTo(4);
+        assertThat(BitMap.count(bm, 101)).isEqualTo(5);
+    }
+
+    private static int naiveNextBit(boolean bit, ByteBuf bm, int maxN, int curr) {
+        for (int i = curr + 1; i < maxN; i++) {
+            if (BitMap.isSet(bm, i) == bit) {
+                return i;
+            }
+        }
+        return maxN;
+    }
 }
@@ -0,0 +1,90 @@
+package record;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.record.*;
+import edu.sustech.cs307.storage.BufferPool;
+import edu.sustech.cs307.storage.DiskManager;
+import edu.sustech.cs307.storage.PagePosition;
+import edu.sustech.cs307.system.RecordManager;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PaxLayoutTest {
+
+    static final String TEST_FILENAME = "pax_file";
+    // id INT(8) | score DOUBLE(8) | tag FLOAT(4)
+    static final int[] COLUMN_LENGTHS = { 8, 8, 4 };
+
+    RecordManager recordManager;
+    RecordFileHandle fileHandle;
+
+    @BeforeEach
+    void setup() throws DBException, IOException {
+        Path tempDir = Files.createTempDirectory("test-" + UUID.randomUUID());
+        DiskManager diskManager = new DiskManager(tempDir.toString(), new HashMap<>());
+        BufferPool bufferPool = new BufferPool(10, diskManager);
+        recordManager = new RecordManager(diskManager, bufferPool);
+        recordManager.CreatePaxFile(TEST_FILENAME, COLUMN_LENGTHS);
+        // OpenFile 会自动拼接 "/data"，这里直接构造句柄
+        fileHandle = new RecordFileHandle(diskManager, bufferPool, TEST_FILENAME,
+                new RecordFileHeader(bufferPool.FetchPage(new PagePosition(TEST_FILENAME, 0)).data));
+    }
+
+    private static ByteBuf row(long id, double score, float tag) {
+        return Unpooled.buffer(20).writeLong(id).writeDouble(score).writeFloat(tag);
+    }
+
+    @Test
+    @DisplayName("文件头记录 PAX 布局与列宽")
+    void headerStoresLayout() {
+        RecordFileHeader header = fileHandle.getFileHeader();
+        assertThat(header.isPax()).isTrue();
+        assertThat(header.getRecordSize()).isEqualTo(20);
+        assertThat(header.getColumnCount()).isEqualTo(3);
+        assertThat(header.getColumnLength(2)).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("插入、读取与更新整条记录")
+    void insertReadUpdate() throws DBException {
+        RID first = fileHandle.InsertRecord(row(1, 1.5, 2.5f));
+        RID second = fileHandle.InsertRecord(row(2, 3.5, 4.5f));
+
+        ByteBuf data = fileHandle.GetRecord(second).Serialize();
+        assertThat(data.getLong(0)).isEqualTo(2);
+        assertThat(data.getDouble(8)).isEqualTo(3.5);
+        assertThat(data.getFloat(16)).isEqualTo(4.5f);
+
+        fileHandle.UpdateRecord(first, row(10, 11.5, 12.5f));
+        data = fileHandle.GetRecord(first).Serialize();
+        assertThat(data.getLong(0)).isEqualTo(10);
+        assertThat(data.getFloat(16)).isEqualTo(12.5f);
+        assertThat(fileHandle.GetRecord(second).Serialize().getLong(0)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("同一列的值在页内连续存放")
+    void columnValuesAreContiguous() throws DBException {
+        int recordsPerPage = fileHandle.getFileHeader().getNumberOfRecordsPrePage();
+        for (int i = 0; i < 3; i++) {
+            fileHandle.InsertRecord(row(i, i * 2.0, i));
+        }
+        RecordPageHandle pageHandle = fileHandle.FetchPageHandle(1);
+        assertThat(pageHandle.columnPosition(1, 0, 8)).isEqualTo(8);
+        assertThat(pageHandle.columnPosition(0, 8, 8)).isEqualTo(8 * recordsPerPage);
+        assertThat(pageHandle.slots.getDouble(pageHandle.columnPosition(2, 8, 8))).isEqualTo(4.0);
+        assertThat(pageHandle.getColumn(1, 16, 4).getFloat(0)).isEqualTo(1.0f);
+        fileHandle.UnpinPageHandle(1, false);
+    }
+}
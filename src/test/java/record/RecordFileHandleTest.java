@@ -2,16 +2,24 @@ package record;
 
 import edu.sustech.cs307.exception.DBException;
 import edu.sustech.cs307.record.*;
+import edu.sustech.cs307.record.Record;
 import edu.sustech.cs307.storage.BufferPool;
 import edu.sustech.cs307.storage.DiskManager;
 import edu.sustech.cs307.storage.Page;
 import edu.sustech.cs307.storage.PagePosition;
+import edu.sustech.cs307.value.Value;
+import edu.sustech.cs307.value.ValueType;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
 import java.util.UUID;
 import java.io.IOException;
 import java.nio.file.Path;
@@ -133,6 +141,64 @@ class RecordFileHandleTest {
         }
     }
 
+    @Nested
+    @DisplayName("按 RID 回表测试")
+    class FetchCursorTests {
+        private static String read(Record record) {
+            return record.GetColumnValue(0, 8).toString(StandardCharsets.US_ASCII);
+        }
+
+        private List<RID> insertRows(int count) throws DBException {
+            List<RID> rids = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                rids.add(fileHandle.InsertRecord(Unpooled.buffer(128).writeBytes(
+                        String.format("row-%04d", i).getBytes(StandardCharsets.US_ASCII))));
+            }
+            bufferPool.FlushAllPages(TEST_FILENAME);
+            return rids;
+        }
+
+        @Test
+        @DisplayName("按页排序的 RID 每个页面只固定一次，预读后读出的记录正确")
+        void sortedRidsFetchEachPageOnce() throws DBException {
+            List<RID> rids = insertRows(100);
+            // 新的缓冲池中没有缓存任何页面，记录都要经过预读从磁盘读入
+            RecordFileHandle handle = new RecordFileHandle(diskManager, new BufferPool(10, diskManager),
+                    TEST_FILENAME, fileHandle.getFileHeader());
+            List<RID> shuffled = new ArrayList<>(rids);
+            Collections.shuffle(shuffled, new Random(7));
+            shuffled.sort(RID.PAGE_ORDER);
+
+            RecordFetchCursor cursor = handle.openFetchCursor(shuffled);
+            List<String> rows = new ArrayList<>();
+            while (cursor.next()) {
+                String row = read(cursor.getRecord());
+                assertThat(row).isEqualTo(String.format("row-%04d", rids.indexOf(cursor.getRID())));
+                rows.add(row);
+            }
+            cursor.close();
+
+            assertThat(rows).hasSize(100).isSorted();
+            assertThat(cursor.getPagesFetched()).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("未排序的 RID 按给定顺序读取")
+        void unsortedRidsKeepOrder() throws DBException {
+            List<RID> rids = insertRows(70);
+            List<RID> order = List.of(rids.get(65), rids.get(3), rids.get(40), rids.get(4), rids.get(65));
+
+            RecordFetchCursor cursor = fileHandle.openFetchCursor(order);
+            List<String> rows = new ArrayList<>();
+            while (cursor.next()) {
+                rows.add(read(cursor.getRecord()));
+            }
+            cursor.close();
+
+            assertThat(rows).containsExactly("row-0065", "row-0003", "row-0040", "row-0004", "row-0065");
+        }
+    }
+
     @Nested
     @DisplayName("元数据一致性测试")
     class MetadataConsistencyTests {
@@ -197,5 +263,420 @@ class RecordFileHandleTest {
         }
     }
 
+    @Nested
+    @DisplayName("零拷贝读取测试")
+    class ZeroCopyTests {
+        @Test
+        @DisplayName("记录视图直接引用页面帧")
+        void recordViewSharesPageFrame() throws DBException {
+            RID rid = fileHandle.InsertRecord(Unpooled.buffer(128).writeBytes("Original".getBytes()));
+            RecordPageHandle pageHandle = fileHandle.FetchPageHandle(rid.pageNum);
+
+            edu.sustech.cs307.record.Record view = fileHandle.GetRecordView(pageHandle, rid.slotNum);
+            edu.sustech.cs307.record.Record owned = view.materialize();
+            assertThat(view.isView()).isTrue();
+            assertThat(owned.isView()).isFalse();
+
+            // 修改页面后视图随之变化，物化后的副本保持不变
+            pageHandle.getSlot(rid.slotNum).setBytes(0, "Modified".getBytes());
+            assertThat(view.GetColumnValue(0, 8).toString(java.nio.charset.StandardCharsets.US_ASCII))
+                    .isEqualTo("Modified");
+            assertThat(owned.GetColumnValue(0, 8).toString(java.nio.charset.StandardCharsets.US_ASCII))
+                    .isEqualTo("Original");
+            fileHandle.UnpinPageHandle(rid.pageNum, false);
+        }
+    }
+
+    @Nested
+    @DisplayName("批量插入测试")
+    class BatchInsertTests {
+        @Test
+        @DisplayName("批量插入填满空闲槽位并返回有序 RID")
+        void insertBatchFillsFreeSlots() throws DBException {
+            RID first = fileHandle.InsertRecord(Unpooled.buffer(128));
+            RID second = fileHandle.InsertRecord(Unpooled.buffer(128));
+            fileHandle.DeleteRecord(first);
+
+            int recordsPerPage = fileHandle.getFileHeader().getNumberOfRecordsPrePage();
+            int rowCount = recordsPerPage + 4;
+            java.util.List<Integer> seen = new java.util.ArrayList<>();
+            java.util.List<RID> rids = fileHandle.insertBatch(rowCount, (row, slot) -> slot.writeInt(row * 10),
+                    (rid, record) -> seen.add(record.GetColumnValue(0, 4).getInt(0)));
+
+            assertThat(rids).hasSize(rowCount).doesNotHaveDuplicates().doesNotContain(second);
+            assertThat(rids.get(0)).isEqualTo(first);
+            assertThat(seen).hasSize(rowCount).startsWith(0, 10, 20);
+            for (int i = 0; i < rowCount; i++) {
+                assertThat(fileHandle.GetRecord(rids.get(i)).GetColumnValue(0, 4).getInt(0)).isEqualTo(i * 10);
+            }
+        }
+
+        @Test
+        @DisplayName("批量插入覆盖槽位中的旧数据")
+        void insertBatchClearsSlot() throws DBException {
+            RID rid = fileHandle.InsertRecord(Unpooled.buffer(128).writeBytes("Stale".getBytes()));
+            fileHandle.DeleteRecord(rid);
+
+            java.util.List<RID> rids = fileHandle.insertBatch(1, (row, slot) -> slot.writeByte('x'), null);
+
+            assertThat(rids).containsExactly(rid);
+            assertThat(fileHandle.GetRecord(rid).GetColumnValue(0, 5).getByte(1)).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("批量追加测试")
+    class AppendTests {
+        @Test
+        @DisplayName("批量追加的记录可按推算的 RID 读取")
+        void appendedRecordsReadable() throws DBException {
+            int recordsPerPage = fileHandle.getFileHeader().getNumberOfRecordsPrePage();
+            int rowCount = recordsPerPage * 2 + 5;
+            ByteBuf rows = Unpooled.buffer(rowCount * 128);
+            for (int i = 0; i < rowCount; i++) {
+                rows.writeInt(i).writeZero(124);
+            }
+
+            int firstPage = fileHandle.AppendRecords(rows, rowCount);
+
+            for (int i = 0; i < rowCount; i++) {
+                RID rid = new RID(firstPage + i / recordsPerPage, i % recordsPerPage);
+                assertThat(fileHandle.IsRecord(rid)).isTrue();
+                assertThat(fileHandle.GetRecord(rid).GetColumnValue(0, 4).getInt(0)).isEqualTo(i);
+            }
+        }
+
+        @Test
+        @DisplayName("未填满的最后一页进入空闲链表")
+        void partialPageJoinsFreeList() throws DBException {
+            int recordsPerPage = fileHandle.getFileHeader().getNumberOfRecordsPrePage();
+            int rowCount = recordsPerPage + 3;
+            int firstPage = fileHandle.AppendRecords(Unpooled.buffer(rowCount * 128).writeZero(rowCount * 128),
+                    rowCount);
+
+            RID next = fileHandle.InsertRecord(Unpooled.buffer(128));
+            assertThat(next.pageNum).isEqualTo(firstPage + 1);
+            assertThat(next.slotNum).isEqualTo(3);
+        }
+    }
+
+    @Nested
+    @DisplayName("页面游标测试")
+    class CursorTests {
+        @Test
+        @DisplayName("游标跨页产出全部有效记录")
+        void cursorYieldsAllLiveSlots() throws DBException {
+            java.util.List<RID> inserted = new java.util.ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                inserted.add(fileHandle.InsertRecord(Unpooled.buffer(128).writeInt(i)));
+            }
+            fileHandle.DeleteRecord(inserted.get(3));
+            fileHandle.DeleteRecord(inserted.get(35));
+
+            java.util.List<Integer> seen = new java.util.ArrayList<>();
+            RecordPageCursor cursor = fileHandle.openCursor();
+            try {
+                while (cursor.next()) {
+                    seen.add(cursor.getRecord().GetColumnValue(0, 4).getInt(0));
+                    assertThat(fileHandle.IsRecord(cursor.getRID())).isTrue();
+                }
+            } finally {
+                cursor.close();
+            }
+
+            assertThat(seen).hasSize(38).doesNotContain(3, 35);
+        }
+
+        @Test
+        @DisplayName("扫描结束后页面引脚计数归零")
+        void cursorReleasesPins() throws DBException {
+            for (int i = 0; i < 40; i++) {
+                fileHandle.InsertRecord(Unpooled.buffer(128).writeInt(i));
+            }
+            int before1 = pinCount(1);
+            int before2 = pinCount(2);
+
+            // 中途关闭与完整遍历两种情况都不应遗留固定
+            RecordPageCursor partial = fileHandle.openCursor();
+            partial.next();
+            partial.hasNext();
+            partial.close();
+
+            RecordPageCursor full = fileHandle.openCursor();
+            while (full.next()) {
+                // 遍历全部记录
+            }
+            full.close();
+
+            assertThat(pinCount(1)).isEqualTo(before1);
+            assertThat(pinCount(2)).isEqualTo(before2);
+        }
+
+        private int pinCount(int pageNum) throws DBException {
+            Page page = bufferPool.FetchPage(new PagePosition(TEST_FILENAME, pageNum * Page.DEFAULT_PAGE_SIZE));
+            int count = page.pin_count - 1;
+            bufferPool.unpin_page(page.position, false);
+            return count;
+        }
+    }
+
+    @Nested
+    @DisplayName("页摘要测试")
+    class ZoneMapTests {
+        private List<RID> insertRows(int from, int count) throws DBException {
+            List<RID> rids = new ArrayList<>();
+            for (int i = from; i < from + count; i++) {
+                rids.add(fileHandle.InsertRecord(Unpooled.buffer(128).writeLong(i).writeDouble(i / 2.0)));
+            }
+            return rids;
+        }
+
+        private ZoneMap attachZoneMap() throws DBException {
+            ZoneMap zoneMap = new ZoneMap(new int[] { 0, 8 }, new ValueType[] { ValueType.INTEGER, ValueType.DOUBLE });
+            zoneMap.rebuild(fileHandle);
+            fileHandle.setZoneMap(zoneMap);
+            return zoneMap;
+        }
+
+        private static ZoneMap.Bound between(long low, long high) throws DBException {
+            return new ZoneMap.Bound(0, ZoneMap.encode(new Value(low)), ZoneMap.encode(new Value(high)));
+        }
+
+        @Test
+        @DisplayName("带页面过滤的游标只读取最值与范围相交的页面")
+        void cursorSkipsPagesOutsideRange() throws DBException {
+            List<RID> rids = insertRows(0, 60);
+            ZoneMap zoneMap = attachZoneMap();
+            // 挂上摘要之后的插入随之维护摘要
+            rids.addAll(insertRows(60, 70));
+            assertThat(zoneMap.isCurrent(fileHandle.getFileHeader().getVersion())).isTrue();
+
+            List<ZoneMap.Bound> bounds = List.of(between(40, 50),
+                    new ZoneMap.Bound(8, ZoneMap.encode(new Value(0.0)), ZoneMap.encode(new Value(100.0))));
+            RecordPageCursor cursor = fileHandle.openCursor(pageId -> zoneMap.mayMatch(pageId, bounds));
+            List<Long> seen = new ArrayList<>();
+            java.util.Set<Integer> pagesRead = new java.util.HashSet<>();
+            while (cursor.next()) {
+                seen.add(cursor.getRecord().GetColumnValue(0, 8).getLong(0));
+                pagesRead.add(cursor.getRID().pageNum);
+            }
+            cursor.close();
+
+            java.util.Set<Integer> expectedPages = new java.util.HashSet<>();
+            for (int i = 40; i <= 50; i++) {
+                expectedPages.add(rids.get(i).pageNum);
+            }
+            assertThat(seen).contains(40L, 45L, 50L).doesNotContain(0L, 129L);
+            assertThat(pagesRead).isEqualTo(expectedPages);
+            assertThat(cursor.getPagesSkipped())
+                    .isEqualTo(fileHandle.getFileHeader().getNumberOfPages() - expectedPages.size());
+        }
+
+        @Test
+        @DisplayName("更新放宽页面的最值，页面清空后不再匹配，压缩后摘要过期")
+        void maintainedByWrites() throws DBException {
+            List<RID> rids = insertRows(0, 40);
+            ZoneMap zoneMap = attachZoneMap();
+            int firstPage = rids.get(0).pageNum;
+            int lastPage = rids.get(39).pageNum;
+
+            assertThat(zoneMap.mayMatch(firstPage, List.of(between(1000, 1000)))).isFalse();
+            fileHandle.UpdateRecord(rids.get(0), Unpooled.buffer(128).writeLong(1000));
+            assertThat(zoneMap.mayMatch(firstPage, List.of(between(1000, 1000)))).isTrue();
+
+            assertThat(zoneMap.mayMatch(lastPage, List.of(between(35, 35)))).isTrue();
+            for (RID rid : rids) {
+                if (rid.pageNum == lastPage) {
+                    fileHandle.DeleteRecord(rid);
+                }
+            }
+            assertThat(zoneMap.mayMatch(lastPage, List.of(between(Long.MIN_VALUE, Long.MAX_VALUE)))).isFalse();
+            assertThat(zoneMap.isCurrent(fileHandle.getFileHeader().getVersion())).isTrue();
+
+            fileHandle.compact(null);
+            assertThat(zoneMap.isCurrent(fileHandle.getFileHeader().getVersion())).isFalse();
+            // 过期的摘要不再随修改推进
+            fileHandle.InsertRecord(Unpooled.buffer(128).writeLong(5));
+            assertThat(zoneMap.isCurrent(fileHandle.getFileHeader().getVersion())).isFalse();
+            zoneMap.rebuild(fileHandle);
+            assertThat(zoneMap.isCurrent(fileHandle.getFileHeader().getVersion())).isTrue();
+        }
+
+        @Test
+        @DisplayName("摘要文件写出后按相同的列读回")
+        void writeAndLoad() throws DBException {
+            insertRows(0, 80);
+            ZoneMap zoneMap = attachZoneMap();
+            Path file = tempDir.resolve("zonemap");
+            zoneMap.write(file);
+
+            ZoneMap loaded = ZoneMap.load(file, new int[] { 0, 8 },
+                    new ValueType[] { ValueType.INTEGER, ValueType.DOUBLE });
+            assertThat(loaded).isNotNull();
+            assertThat(loaded.getVersion()).isEqualTo(zoneMap.getVersion());
+            for (int pageId = 0; pageId <= fileHandle.getFileHeader().getNumberOfPages(); pageId++) {
+                List<ZoneMap.Bound> bounds = List.of(between(70, 75));
+                assertThat(loaded.mayMatch(pageId, bounds)).isEqualTo(zoneMap.mayMatch(pageId, bounds));
+            }
+            assertThat(ZoneMap.load(file, new int[] { 0 }, new ValueType[] { ValueType.INTEGER })).isNull();
+            assertThat(ZoneMap.load(tempDir.resolve("missing"), new int[] { 0 },
+                    new ValueType[] { ValueType.INTEGER })).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("压缩测试")
+    class CompactTests {
+        @Test
+        @DisplayName("压缩后记录集中到前部页面并截断文件")
+        void compactMovesRecordsAndShrinksFile() throws DBException {
+            int recordsPerPage = fileHandle.getFileHeader().getNumberOfRecordsPrePage();
+            java.util.List<RID> inserted = new java.util.ArrayList<>();
+            for (int i = 0; i < recordsPerPage * 3; i++) {
+                inserted.add(fileHandle.InsertRecord(Unpooled.buffer(128).writeInt(i)));
+            }
+            // 每页只保留少量记录
+            Map<Integer, RID> survivors = new HashMap<>();
+            for (int i = 0; i < inserted.size(); i++) {
+                if (i % recordsPerPage < 5) {
+                    survivors.put(i, inserted.get(i));
+                } else {
+                    fileHandle.DeleteRecord(inserted.get(i));
+                }
+            }
+            int pagesBefore = fileHandle.getFileHeader().getNumberOfPages();
+            long sizeBefore = tempDir.resolve(TEST_FILENAME).toFile().length();
+
+            Map<RID, RID> moves = new HashMap<>();
+            int released = fileHandle.compact((from, to, record) -> moves.put(from, to));
+
+            assertThat(released).isEqualTo(pagesBefore - 1);
+            assertThat(fileHandle.getFileHeader().getNumberOfPages()).isEqualTo(1);
+            assertThat(tempDir.resolve(TEST_FILENAME).toFile().length())
+                    .isLessThan(sizeBefore)
+                    .isEqualTo(2L * Page.DEFAULT_PAGE_SIZE);
+            assertThat(fileHandle.countLiveRecords()).isEqualTo(survivors.size());
+            for (Map.Entry<Integer, RID> entry : survivors.entrySet()) {
+                RID rid = moves.getOrDefault(entry.getValue(), entry.getValue());
+                assertThat(rid.pageNum).isEqualTo(1);
+                assertThat(fileHandle.GetRecord(rid).GetColumnValue(0, 4).getInt(0)).isEqualTo(entry.getKey());
+            }
+        }
+
+        @Test
+        @DisplayName("压缩后新记录从截断处继续分配")
+        void insertAfterCompact() throws DBException {
+            int recordsPerPage = fileHandle.getFileHeader().getNumberOfRecordsPrePage();
+            java.util.List<RID> inserted = new java.util.ArrayList<>();
+            for (int i = 0; i < recordsPerPage * 2; i++) {
+                inserted.add(fileHandle.InsertRecord(Unpooled.buffer(128).writeInt(i)));
+            }
+            for (int i = 0; i < recordsPerPage; i++) {
+                fileHandle.DeleteRecord(inserted.get(i));
+            }
+
+            fileHandle.compact(null);
+
+            RID next = fileHandle.InsertRecord(Unpooled.buffer(128).writeInt(-1));
+            assertThat(next.pageNum).isEqualTo(2);
+            assertThat(fileHandle.GetRecord(next).GetColumnValue(0, 4).getInt(0)).isEqualTo(-1);
+        }
+
+        @Test
+        @DisplayName("尾部页面仍被固定时放弃压缩，记录不被搬动")
+        void pinnedTailPageAbortsCompact() throws DBException {
+            int recordsPerPage = fileHandle.getFileHeader().getNumberOfRecordsPrePage();
+            java.util.List<RID> inserted = new java.util.ArrayList<>();
+            for (int i = 0; i < recordsPerPage * 2; i++) {
+                inserted.add(fileHandle.InsertRecord(Unpooled.buffer(128).writeInt(i)));
+            }
+            for (int i = 0; i < recordsPerPage; i++) {
+                fileHandle.DeleteRecord(inserted.get(i));
+            }
+            int pagesBefore = fileHandle.getFileHeader().getNumberOfPages();
+            PagePosition tail = new PagePosition(TEST_FILENAME, pagesBefore * Page.DEFAULT_PAGE_SIZE);
+            bufferPool.FetchPage(tail);
+
+            assertThatThrownBy(() -> fileHandle.compact(null)).isInstanceOf(DBException.class);
+            assertThat(fileHandle.getFileHeader().getNumberOfPages()).isEqualTo(pagesBefore);
+            assertThat(fileHandle.GetRecord(inserted.get(recordsPerPage)).GetColumnValue(0, 4).getInt(0))
+                    .isEqualTo(recordsPerPage);
+
+            bufferPool.unpin_page(tail, false);
+            assertThat(fileHandle.compact(null)).isEqualTo(pagesBefore - 1);
+            assertThat(fileHandle.countLiveRecords()).isEqualTo(recordsPerPage);
+        }
+
+        @Test
+        @DisplayName("IsRecord 检查后不遗留页面固定，删除后仍可压缩")
+        void isRecordReleasesPin() throws DBException {
+            int recordsPerPage = fileHandle.getFileHeader().getNumberOfRecordsPrePage();
+            java.util.List<RID> inserted = new java.util.ArrayList<>();
+            for (int i = 0; i < recordsPerPage * 2; i++) {
+                inserted.add(fileHandle.InsertRecord(Unpooled.buffer(128).writeInt(i)));
+            }
+            int pagesBefore = fileHandle.getFileHeader().getNumberOfPages();
+            // 与按索引删除的路径相同：先检查记录存在再删除
+            for (int i = recordsPerPage; i < recordsPerPage * 2; i++) {
+                assertThat(fileHandle.IsRecord(inserted.get(i))).isTrue();
+                fileHandle.DeleteRecord(inserted.get(i));
+            }
+
+            RID last = inserted.get(inserted.size() - 1);
+            assertThat(bufferPool.isPinned(new PagePosition(TEST_FILENAME, last.pageNum * Page.DEFAULT_PAGE_SIZE)))
+                    .isFalse();
+            assertThat(fileHandle.compact(null)).isEqualTo(pagesBefore - 1);
+        }
+    }
+
+    @Nested
+    @DisplayName("记录计数测试")
+    class RecordCountTests {
+        @Test
+        @DisplayName("旧文件头在第一次读取时扫描得到计数")
+        void legacyHeaderCountedOnFirstRead() throws DBException {
+            for (int i = 0; i < 40; i++) {
+                fileHandle.InsertRecord(Unpooled.buffer(128).writeInt(i));
+            }
+            assertThat(fileHandle.getFileHeader().hasRecordCount()).isFalse();
+
+            assertThat(fileHandle.getRecordCount()).isEqualTo(40);
+            assertThat(fileHandle.getFileHeader().hasRecordCount()).isTrue();
+        }
+
+        @Test
+        @DisplayName("插入、删除与批量写入同步维护计数")
+        void countMaintainedByWrites() throws DBException {
+            assertThat(fileHandle.getRecordCount()).isZero();
+            RID first = fileHandle.InsertRecord(Unpooled.buffer(128));
+            fileHandle.InsertRecord(Unpooled.buffer(128));
+            fileHandle.insertBatch(5, (row, slot) -> slot.writeInt(row), null);
+            fileHandle.AppendRecords(Unpooled.buffer(3 * 128).writeZero(3 * 128), 3);
+            fileHandle.DeleteRecord(first);
+            // 重复删除不应再次减少计数
+            fileHandle.DeleteRecord(first);
+
+            assertThat(fileHandle.getFileHeader().getRecordCount()).isEqualTo(9);
+            assertThat(fileHandle.getRecordCount()).isEqualTo(fileHandle.countLiveRecords());
+        }
+
+        @Test
+        @DisplayName("每次修改记录都递增表版本号")
+        void versionBumpedByWrites() throws DBException {
+            long initial = fileHandle.getFileHeader().getVersion();
+            RID rid = fileHandle.InsertRecord(Unpooled.buffer(128));
+            fileHandle.UpdateRecord(rid, Unpooled.buffer(128).writeInt(1));
+            fileHandle.insertBatch(2, (row, slot) -> slot.writeInt(row), null);
+            fileHandle.DeleteRecord(rid);
+            long afterWrites = fileHandle.getFileHeader().getVersion();
+            // 删除不存在的记录和读取不改变版本号
+            fileHandle.DeleteRecord(rid);
+            fileHandle.getRecordCount();
+
+            assertThat(afterWrites).isEqualTo(initial + 4);
+            assertThat(fileHandle.getFileHeader().getVersion()).isEqualTo(afterWrites);
+        }
+    }
+
     // [...] 保留原有setup代码
 }
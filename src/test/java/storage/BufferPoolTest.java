@@ -14,6 +14,7 @@ import java.lang.reflect.Field;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.IntStream;
 
@@ -48,6 +49,19 @@ class BufferPoolTest {
         assertThat(page.pin_count).isEqualTo(1);
     }
 
+    @Test
+    @DisplayName("预读的页面不被固定，且不超过缓冲池的四分之一")
+    void testPrefetch_shouldLoadUnpinnedPages() throws DBException {
+        BufferPool pool = new BufferPool(8, diskManager);
+        int size = Page.DEFAULT_PAGE_SIZE;
+
+        assertThat(pool.Prefetch("test.db", List.of(5 * size, 6 * size, 7 * size, 9 * size))).isEqualTo(2);
+        assertThat(pool.Prefetch("test.db", List.of(5 * size, 6 * size))).isZero();
+        Page page = pool.FetchPage(new PagePosition("test.db", 6 * size));
+        assertThat(page.pin_count).isEqualTo(1);
+        assertThat(page.getPageID()).isEqualTo(6);
+    }
+
     @Test
     @DisplayName("取消固定页面应减少固定计数")
     void testUnpinPage_shouldDecreasePinCount() throws DBException {
@@ -231,6 +231,20 @@ public class LRUReplacerTest {
                 .hasMessageContaining("REPLACER IS FULL");
     }
 
+    @Test
+    @DisplayName("容量满时可以重新固定已在 LRU 中的页面")
+    void testRepinWhenFull() {
+        IntStream.range(0, 5).forEach(i -> {
+            replacer.Pin(i);
+            replacer.Unpin(i);
+        });
+
+        replacer.Pin(2);
+
+        assertThat(replacer.size()).isEqualTo(5);
+        assertThat(replacer.Victim()).isEqualTo(0);
+    }
+
     @Test
     @DisplayName("重复固定同一页面不应改变状态")
     void testDuplicatePin() {
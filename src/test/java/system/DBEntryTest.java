@@ -0,0 +1,89 @@
+package system;
+
+import edu.sustech.cs307.DBEntry;
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.logicalOperator.dml.CopyExecutor;
+import edu.sustech.cs307.meta.ColumnMeta;
+import edu.sustech.cs307.meta.MetaManager;
+import edu.sustech.cs307.storage.BufferPool;
+import edu.sustech.cs307.storage.DiskManager;
+import edu.sustech.cs307.system.DBManager;
+import edu.sustech.cs307.system.RecordManager;
+import edu.sustech.cs307.value.ValueType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DBEntryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private DBManager dbManager;
+
+    @BeforeEach
+    void setUp() throws DBException {
+        DiskManager diskManager = new DiskManager(tempDir.toString(), new HashMap<>());
+        BufferPool bufferPool = new BufferPool(64, diskManager);
+        RecordManager recordManager = new RecordManager(diskManager, bufferPool);
+        MetaManager metaManager = new MetaManager(tempDir.resolve("meta").toString());
+        dbManager = new DBManager(diskManager, bufferPool, recordManager, metaManager);
+        ArrayList<ColumnMeta> columns = new ArrayList<>();
+        columns.add(new ColumnMeta("t", "id", ValueType.INTEGER, 8, 0));
+        columns.add(new ColumnMeta("t", "v", ValueType.INTEGER, 8, 8));
+        dbManager.createTable("t", columns);
+    }
+
+    @Nested
+    @DisplayName("命令行命令分派测试")
+    class UtilityCommandTests {
+        @Test
+        @DisplayName("COPY 由命令行直接处理，不再交给 SQL 解析器")
+        void copyIsHandled() throws DBException, IOException {
+            Path csv = tempDir.resolve("t.csv");
+            Files.writeString(csv, "id,v\n1,10\n2,20\n3,30\n");
+
+            assertThat(DBEntry.handleUtilityCommand(dbManager,
+                    "COPY t FROM '" + csv + "' WITH CSV HEADER;")).isTrue();
+            assertThat(dbManager.getTableRowCount("t")).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("COPY 忽略文件末尾的空行，出错时报告文件中的行号且不写入数据")
+        void copyBlankLinesAndErrors() throws DBException, IOException {
+            Path csv = tempDir.resolve("blank.csv");
+            Files.writeString(csv, "id,v\n1,10\n2,20\n\n\n", StandardCharsets.UTF_8);
+            assertThat(DBEntry.handleUtilityCommand(dbManager,
+                    "COPY t FROM '" + csv + "' WITH CSV HEADER;")).isTrue();
+            assertThat(dbManager.getTableRowCount("t")).isEqualTo(2);
+
+            Path bad = tempDir.resolve("bad.csv");
+            Files.writeString(bad, "id,v\n3,30\n\n4,40\n", StandardCharsets.UTF_8);
+            assertThatThrownBy(() -> new CopyExecutor("COPY t FROM '" + bad + "' WITH CSV HEADER;", dbManager)
+                    .execute())
+                    .isInstanceOf(DBException.class)
+                    .hasMessageContaining("line 3");
+            assertThat(dbManager.getTableRowCount("t")).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("VACUUM 与 CHECKPOINT 由命令行处理，普通 SQL 交给解析器")
+        void otherCommands() throws DBException {
+            assertThat(DBEntry.handleUtilityCommand(dbManager, "VACUUM t;")).isTrue();
+            assertThat(DBEntry.handleUtilityCommand(dbManager, "CHECKPOINT;")).isTrue();
+            assertThat(DBEntry.handleUtilityCommand(dbManager, "SELECT * FROM t;")).isFalse();
+            assertThat(DBEntry.handleUtilityCommand(dbManager, "INSERT INTO t VALUES (1, 2);")).isFalse();
+        }
+    }
+}
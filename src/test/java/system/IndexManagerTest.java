@@ -0,0 +1,214 @@
+package system;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.index.BloomFilter;
+import edu.sustech.cs307.index.DiskBPlusTreeIndex;
+import edu.sustech.cs307.index.Index;
+import edu.sustech.cs307.meta.ColumnMeta;
+import edu.sustech.cs307.meta.MetaManager;
+import edu.sustech.cs307.meta.TableMeta;
+import edu.sustech.cs307.record.RID;
+import edu.sustech.cs307.record.RecordFileHandle;
+import edu.sustech.cs307.storage.BufferPool;
+import edu.sustech.cs307.storage.DiskManager;
+import edu.sustech.cs307.storage.Page;
+import edu.sustech.cs307.storage.PagePosition;
+import edu.sustech.cs307.system.DBManager;
+import edu.sustech.cs307.system.IndexManager;
+import edu.sustech.cs307.system.RecordManager;
+import edu.sustech.cs307.value.Value;
+import edu.sustech.cs307.value.ValueType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import static org.assertj.core.api.Assertions.*;
+
+class IndexManagerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private DBManager dbManager;
+    private HookedBufferPool bufferPool;
+
+    /**
+     * 扫描读到指定页面时执行一次回调，用来在重建扫描进行中插入新行。
+     */
+    private static class HookedBufferPool extends BufferPool {
+        private String hookFile;
+        private int hookPage;
+        private DBExceptionRunnable hook;
+
+        HookedBufferPool(int poolSize, DiskManager diskManager) {
+            super(poolSize, diskManager);
+        }
+
+        void onFetch(String filename, int pageNum, DBExceptionRunnable hook) {
+            this.hookFile = filename;
+            this.hookPage = pageNum;
+            this.hook = hook;
+        }
+
+        @Override
+        public Page FetchPage(PagePosition position) throws DBException {
+            Page page = super.FetchPage(position);
+            DBExceptionRunnable current = hook;
+            if (current != null && position.filename.equals(hookFile)
+                    && position.offset == hookPage * Page.DEFAULT_PAGE_SIZE) {
+                hook = null;
+                current.run();
+            }
+            return page;
+        }
+    }
+
+    private interface DBExceptionRunnable {
+        void run() throws DBException;
+    }
+
+    @BeforeEach
+    void setUp() throws DBException {
+        DiskManager diskManager = new DiskManager(tempDir.toString(), new HashMap<>());
+        bufferPool = new HookedBufferPool(64, diskManager);
+        RecordManager recordManager = new RecordManager(diskManager, bufferPool);
+        MetaManager metaManager = new MetaManager(tempDir.resolve("meta").toString());
+        dbManager = new DBManager(diskManager, bufferPool, recordManager, metaManager);
+        ArrayList<ColumnMeta> columns = new ArrayList<>();
+        columns.add(new ColumnMeta("t", "id", ValueType.INTEGER, 8, 0));
+        columns.add(new ColumnMeta("t", "v", ValueType.INTEGER, 8, 8));
+        dbManager.createTable("t", columns);
+        metaManager.getTable("t").addIndex("pk_t", "id", TableMeta.IndexType.BTREE);
+    }
+
+    private DBManager reopen() throws DBException {
+        DiskManager diskManager = new DiskManager(tempDir.toString(), new HashMap<>());
+        BufferPool pool = new BufferPool(64, diskManager);
+        RecordManager recordManager = new RecordManager(diskManager, pool);
+        MetaManager metaManager = new MetaManager(tempDir.resolve("meta").toString());
+        DBManager reopened = new DBManager(diskManager, pool, recordManager, metaManager);
+        reopened.getIndexManager().loadAllIndexes();
+        return reopened;
+    }
+
+    private long tableVersion(DBManager manager) throws DBException {
+        RecordFileHandle fileHandle = manager.getRecordManager().OpenFile("t");
+        try {
+            return fileHandle.getFileHeader().getVersion();
+        } finally {
+            manager.getRecordManager().CloseFile(fileHandle);
+        }
+    }
+
+    private void insert(long from, int count) throws DBException {
+        insert(dbManager, from, count);
+    }
+
+    private void insert(DBManager dbManager, long from, int count) throws DBException {
+        RecordManager recordManager = dbManager.getRecordManager();
+        TableMeta tableMeta = dbManager.getMetaManager().getTable("t");
+        RecordFileHandle fileHandle = recordManager.OpenFile("t");
+        try {
+            fileHandle.insertBatch(count, (row, slot) -> {
+                for (ColumnMeta columnMeta : tableMeta.columns_list) {
+                    columnMeta.encode(new Value(from + row), slot);
+                }
+            }, (rid, record) -> dbManager.getIndexSynchronizer().onRecordInserted("t", record, rid));
+        } finally {
+            recordManager.CloseFile(fileHandle);
+        }
+    }
+
+    @Nested
+    @DisplayName("布隆过滤器重建测试")
+    class BloomFilterRebuildTests {
+        @Test
+        @DisplayName("重建扫描越过新行所在位置后插入的键也出现在新过滤器中")
+        void insertDuringRebuild() throws DBException {
+            IndexManager indexManager = dbManager.getIndexManager();
+            RecordFileHandle fileHandle = dbManager.getRecordManager().OpenFile("t");
+            int recordsPerPage = fileHandle.getFileHeader().getNumberOfRecordsPrePage();
+            dbManager.getRecordManager().CloseFile(fileHandle);
+            // 先写满若干页，重建扫描开始后插入的行只能落在扫描不会读到的新页上
+            insert(0, recordsPerPage * 3);
+            BloomFilter before = indexManager.ensureBloomFilter("t", "id");
+            assertThat(before).isNotNull();
+
+            Value late = new Value(1_000_000L);
+            bufferPool.onFetch("t/data", 1, () -> insert(1_000_000L, 1));
+            indexManager.rebuildBloomFilters("t");
+
+            BloomFilter after = indexManager.getBloomFilter("t", "id");
+            assertThat(after).isNotSameAs(before);
+            assertThat(after.mightContain(late)).isTrue();
+            assertThat(after.mightContain(new Value(0L))).isTrue();
+            assertThat(dbManager.getTableRowCount("t")).isEqualTo(recordsPerPage * 3L + 1);
+        }
+
+        @Test
+        @DisplayName("首次构建过滤器期间插入的键不会丢失")
+        void insertDuringFirstBuild() throws DBException {
+            IndexManager indexManager = dbManager.getIndexManager();
+            RecordFileHandle fileHandle = dbManager.getRecordManager().OpenFile("t");
+            int recordsPerPage = fileHandle.getFileHeader().getNumberOfRecordsPrePage();
+            dbManager.getRecordManager().CloseFile(fileHandle);
+            insert(0, recordsPerPage * 2);
+            assertThat(indexManager.getBloomFilter("t", "id")).isNull();
+
+            bufferPool.onFetch("t/data", 1, () -> insert(2_000_000L, 1));
+            BloomFilter filter = indexManager.ensureBloomFilter("t", "id");
+
+            assertThat(filter.mightContain(new Value(2_000_000L))).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("页式索引重启测试")
+    class DiskIndexReopenTests {
+        @BeforeEach
+        void useDiskIndex() throws DBException {
+            dbManager.getMetaManager().getTable("t").addIndex("pk_t", "id", TableMeta.IndexType.DISK_BTREE);
+            dbManager.getIndexManager().createIndex("t", "id");
+            insert(0, 100);
+        }
+
+        @Test
+        @DisplayName("检查点之后正常重启直接打开索引文件")
+        void reopenAfterCheckpoint() throws DBException {
+            dbManager.checkpoint();
+
+            DBManager reopened = reopen();
+            Index index = reopened.getIndexManager().getIndex("t", "id");
+            assertThat(index).isInstanceOf(DiskBPlusTreeIndex.class);
+            assertThat(((DiskBPlusTreeIndex) index).getTableVersion()).isEqualTo(tableVersion(reopened));
+            assertThat(index.search(new Value(42L))).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("检查点之后表被修改过时即使条目数与行数一致也重建索引")
+        void rebuildAfterUnclosedWrite() throws DBException {
+            dbManager.checkpoint();
+            DBManager crashed = reopen();
+            RID first = crashed.getIndexManager().getIndex("t", "id").search(new Value(0L)).get(0);
+            RecordFileHandle fileHandle = crashed.getRecordManager().OpenFile("t");
+            fileHandle.DeleteRecord(first);
+            crashed.getRecordManager().CloseFile(fileHandle);
+            insert(crashed, 1000, 1);
+            // 模拟只有数据文件写回、索引文件没有写回就退出，此时索引条目数仍与行数相同
+            crashed.getBufferPool().FlushAllPages("t/data");
+
+            DBManager reopened = reopen();
+            DiskBPlusTreeIndex index = (DiskBPlusTreeIndex) reopened.getIndexManager().getIndex("t", "id");
+            assertThat(index.size()).isEqualTo(100);
+            assertThat(index.search(new Value(1000L))).hasSize(1);
+            assertThat(index.search(new Value(0L))).isEmpty();
+            assertThat(index.validateTree()).isTrue();
+        }
+    }
+}
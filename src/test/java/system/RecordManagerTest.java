@@ -115,4 +115,31 @@ public class RecordManagerTest {
         recordManager.CloseFile(recordFileHandle);
 
     }
+
+    @Test
+    @DisplayName("检查点之后第一次修改立即把清除了标记的文件头写回磁盘")
+    @Order(6)
+    void testCheckpointMarkerClearedOnFirstWrite() throws DBException {
+        recordManager.CreateFile("testFile/data", 100);
+        RecordFileHandle fileHandle = recordManager.OpenFile("testFile");
+        fileHandle.InsertRecord(io.netty.buffer.Unpooled.buffer(100).writeInt(1));
+        recordManager.CloseFile(fileHandle);
+        assertThat(readHeader("testFile/data").isCheckpointed()).isFalse();
+
+        recordManager.markCheckpointed("testFile");
+        assertThat(readHeader("testFile/data").isCheckpointed()).isTrue();
+
+        // 修改后尚未关闭文件，数据页仍在缓冲池中，磁盘上的文件头已不再有效
+        fileHandle = recordManager.OpenFile("testFile");
+        fileHandle.InsertRecord(io.netty.buffer.Unpooled.buffer(100).writeInt(2));
+        assertThat(fileHandle.getFileHeader().isCheckpointed()).isFalse();
+        assertThat(readHeader("testFile/data").isCheckpointed()).isFalse();
+        recordManager.CloseFile(fileHandle);
+    }
+
+    private RecordFileHeader readHeader(String filename) throws DBException {
+        Page page = new Page();
+        diskManager.ReadPage(page, filename, 0, Page.DEFAULT_PAGE_SIZE);
+        return new RecordFileHeader(page.data);
+    }
 }
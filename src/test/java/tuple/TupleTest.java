@@ -0,0 +1,198 @@
+package tuple;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.meta.TabCol;
+import edu.sustech.cs307.tuple.TempTuple;
+import edu.sustech.cs307.tuple.Tuple;
+import edu.sustech.cs307.value.Value;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TupleTest {
+
+    private static final TabCol[] SCHEMA = {
+            new TabCol("t", "id"), new TabCol("t", "name"), new TabCol("t", "score")
+    };
+
+    private static Tuple row(long id, String name, double score) {
+        return new TempTuple(List.of(new Value(id), new Value(name), new Value(score)), SCHEMA);
+    }
+
+    private static boolean eval(Tuple tuple, String condition) throws DBException, JSQLParserException {
+        return tuple.eval_expr(CCJSqlParserUtil.parseCondExpression(condition));
+    }
+
+    @Nested
+    @DisplayName("LIKE 求值测试")
+    class LikeTests {
+        @ParameterizedTest
+        @CsvSource(delimiter = '|', value = {
+                "apple  | a%     | true",
+                "apple  | %ple   | true",
+                "apple  | %pp%   | true",
+                "apple  | a_ple  | true",
+                "apple  | a_le   | false",
+                "apple  | _____  | true",
+                "apple  | ____   | false",
+                "apple  | %      | true",
+                "apple  | b%     | false",
+                "apple  | apple  | true",
+                "apple  | appl   | false"
+        })
+        @DisplayName("_ 匹配一个字符，% 匹配任意个字符")
+        void wildcards(String name, String pattern, boolean expected) throws Exception {
+            assertThat(eval(row(1, name, 0), "name LIKE '" + pattern + "'")).isEqualTo(expected);
+        }
+
+        @Test
+        @DisplayName("ESCAPE 指定的字符使其后的通配符按字面匹配")
+        void escape() throws Exception {
+            assertThat(eval(row(1, "50%", 0), "name LIKE '50!%' ESCAPE '!'")).isTrue();
+            assertThat(eval(row(1, "500", 0), "name LIKE '50!%' ESCAPE '!'")).isFalse();
+            assertThat(eval(row(1, "a_b", 0), "name LIKE 'a!_b' ESCAPE '!'")).isTrue();
+            assertThat(eval(row(1, "axb", 0), "name LIKE 'a!_b' ESCAPE '!'")).isFalse();
+            assertThat(eval(row(1, "a!b", 0), "name LIKE 'a!!b' ESCAPE '!'")).isTrue();
+        }
+
+        @Test
+        @DisplayName("未指定 ESCAPE 时没有转义字符")
+        void withoutEscape() throws Exception {
+            assertThat(eval(row(1, "50!abc", 0), "name LIKE '50!%'")).isTrue();
+            assertThat(eval(row(1, "50%", 0), "name LIKE '50!%'")).isFalse();
+        }
+
+        @Test
+        @DisplayName("LIKE 区分大小写，ILIKE 不区分")
+        void caseFolding() throws Exception {
+            Tuple tuple = row(1, "Apple", 0);
+            assertThat(eval(tuple, "name LIKE 'apple'")).isFalse();
+            assertThat(eval(tuple, "name LIKE 'A%'")).isTrue();
+            assertThat(eval(tuple, "name ILIKE 'apple'")).isTrue();
+            assertThat(eval(tuple, "name ILIKE 'AP_LE'")).isTrue();
+            assertThat(eval(tuple, "name ILIKE 'b%'")).isFalse();
+        }
+
+        @Test
+        @DisplayName("NOT LIKE 与 NOT ILIKE 取反")
+        void notForms() throws Exception {
+            Tuple tuple = row(1, "Apple", 0);
+            assertThat(eval(tuple, "name NOT LIKE 'A%'")).isFalse();
+            assertThat(eval(tuple, "name NOT LIKE 'a%'")).isTrue();
+            assertThat(eval(tuple, "name NOT ILIKE 'a%'")).isFalse();
+            assertThat(eval(tuple, "name NOT ILIKE 'b%'")).isTrue();
+        }
+
+        @Test
+        @DisplayName("同一模式重复求值结果一致")
+        void cachedPattern() throws Exception {
+            for (int i = 0; i < 3; i++) {
+                assertThat(eval(row(i, "item" + i, 0), "name LIKE 'item_'")).isTrue();
+                assertThat(eval(row(i, "item" + i + "x", 0), "name LIKE 'item_'")).isFalse();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("BETWEEN 求值测试")
+    class BetweenTests {
+        @ParameterizedTest
+        @CsvSource({
+                "4, false",
+                "5, true",
+                "7, true",
+                "10, true",
+                "11, false"
+        })
+        @DisplayName("BETWEEN 包含两个端点，NOT BETWEEN 与之相反")
+        void integerBounds(long id, boolean expected) throws Exception {
+            Tuple tuple = row(id, "x", 0);
+            assertThat(eval(tuple, "id BETWEEN 5 AND 10")).isEqualTo(expected);
+            assertThat(eval(tuple, "id NOT BETWEEN 5 AND 10")).isEqualTo(!expected);
+        }
+
+        @Test
+        @DisplayName("字符串与浮点列上的 BETWEEN")
+        void otherTypes() throws Exception {
+            assertThat(eval(row(1, "banana", 1.5), "name BETWEEN 'apple' AND 'cherry'")).isTrue();
+            assertThat(eval(row(1, "date", 1.5), "name BETWEEN 'apple' AND 'cherry'")).isFalse();
+            assertThat(eval(row(1, "x", 1.5), "score BETWEEN 1.0 AND 2.0")).isTrue();
+            assertThat(eval(row(1, "x", 2.5), "score NOT BETWEEN 1.0 AND 2.0")).isTrue();
+        }
+
+        @Test
+        @DisplayName("下界大于上界时没有值满足 BETWEEN")
+        void emptyRange() throws Exception {
+            assertThat(eval(row(7, "x", 0), "id BETWEEN 10 AND 5")).isFalse();
+            assertThat(eval(row(7, "x", 0), "id NOT BETWEEN 10 AND 5")).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("AND / OR 求值测试")
+    class LogicalTests {
+        @Test
+        @DisplayName("括号中的 OR 先于外层的 AND 求值")
+        void parenthesizedOr() throws Exception {
+            Tuple tuple = row(1, "y", 0);
+            assertThat(eval(tuple, "(id = 1 OR id = 2) AND name = 'x'")).isFalse();
+            assertThat(eval(tuple, "id = 1 OR id = 2 AND name = 'x'")).isTrue();
+            assertThat(eval(row(2, "x", 0), "(id = 1 OR id = 2) AND name = 'x'")).isTrue();
+            assertThat(eval(row(3, "x", 0), "(id = 1 OR id = 2) AND name = 'x'")).isFalse();
+        }
+
+        @Test
+        @DisplayName("多层括号与括号中的单个条件")
+        void nestedParentheses() throws Exception {
+            Tuple tuple = row(3, "x", 0);
+            assertThat(eval(tuple, "((id = 1) OR (id = 3))")).isTrue();
+            assertThat(eval(tuple, "((id = 1 OR id = 2)) OR (name LIKE 'x%' AND score < 1.0)")).isTrue();
+            assertThat(eval(tuple, "(id = 1 OR (id = 2 OR name = 'y'))")).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("IN 求值测试")
+    class InTests {
+        @Test
+        @DisplayName("IN 任一项相等即满足，NOT IN 与之相反")
+        void basic() throws Exception {
+            Tuple tuple = row(2, "abc", 1.5);
+            assertThat(eval(tuple, "id IN (1, 2, 3)")).isTrue();
+            assertThat(eval(tuple, "id IN (1, 3)")).isFalse();
+            assertThat(eval(tuple, "id NOT IN (1, 3)")).isTrue();
+            assertThat(eval(tuple, "id NOT IN (2)")).isFalse();
+            assertThat(eval(tuple, "name IN ('abd', 'abc')")).isTrue();
+            assertThat(eval(tuple, "id IN (2, 2, 2)")).isTrue();
+        }
+
+        @Test
+        @DisplayName("与列类型不符的项不相等，其余项照常比较")
+        void mixedTypes() throws Exception {
+            Tuple tuple = row(2, "abc", 1.5);
+            assertThat(eval(tuple, "id IN ('x', 2)")).isTrue();
+            assertThat(eval(tuple, "id IN ('x', 3)")).isFalse();
+            assertThat(eval(tuple, "id NOT IN ('x', 3)")).isTrue();
+            assertThat(eval(tuple, "id NOT IN ('x', 2)")).isFalse();
+            assertThat(eval(tuple, "name IN (1, 'abc')")).isTrue();
+            assertThat(eval(tuple, "name NOT IN (1, 2.5, 'abd')")).isTrue();
+            assertThat(eval(tuple, "score IN (1, 1.5)")).isTrue();
+            assertThat(eval(tuple, "score IN (1, 2.0)")).isFalse();
+        }
+
+        @Test
+        @DisplayName("小数常量按列类型转换后比较")
+        void doubleOnIntegerColumn() throws Exception {
+            assertThat(eval(row(2, "x", 0), "id IN (1, 2.0)")).isTrue();
+            assertThat(eval(row(2, "x", 0), "id NOT IN (1.0, 3.0)")).isTrue();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package value;
+
+import edu.sustech.cs307.exception.DBException;
+import edu.sustech.cs307.value.ColumnDictionary;
+import edu.sustech.cs307.value.Value;
+import edu.sustech.cs307.value.ValueComparer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ColumnDictionaryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Nested
+    @DisplayName("编码测试")
+    class EncodeTests {
+        @Test
+        @DisplayName("相同字符串得到相同编码，首尾空白不影响编码")
+        void encodeIsStable() throws DBException {
+            ColumnDictionary dictionary = new ColumnDictionary();
+
+            int shipped = dictionary.encode("shipped");
+            int pending = dictionary.encode("pending");
+
+            assertThat(shipped).isEqualTo(0);
+            assertThat(pending).isEqualTo(1);
+            assertThat(dictionary.encode("shipped  ")).isEqualTo(shipped);
+            assertThat(dictionary.decode(pending).toString()).isEqualTo("pending");
+            assertThat(dictionary.lookup("missing")).isEqualTo(-1);
+            assertThat(dictionary.size()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("重新加载后编码保持不变")
+        void reloadKeepsCodes() throws DBException {
+            Path file = tempDir.resolve("dict_status");
+            ColumnDictionary dictionary = ColumnDictionary.load(file);
+            dictionary.encode("a");
+            dictionary.encode("b");
+            dictionary.encode("a");
+            dictionary.encode("中文");
+
+            ColumnDictionary reloaded = ColumnDictionary.load(file);
+
+            assertThat(reloaded.size()).isEqualTo(3);
+            assertThat(reloaded.lookup("b")).isEqualTo(1);
+            assertThat(reloaded.decode(2).toString()).isEqualTo("中文");
+            assertThat(reloaded.encode("c")).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("越界编码抛出异常")
+        void decodeOutOfRange() {
+            ColumnDictionary dictionary = new ColumnDictionary();
+
+            assertThatThrownBy(() -> dictionary.decode(0)).isInstanceOf(DBException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("比较测试")
+    class CompareTests {
+        @Test
+        @DisplayName("字典值与普通字符串值比较结果一致")
+        void compareWithPlainValue() throws DBException {
+            ColumnDictionary dictionary = new ColumnDictionary();
+            Value shipped = dictionary.decode(dictionary.encode("shipped"));
+            Value pending = dictionary.decode(dictionary.encode("pending"));
+
+            assertThat(ValueComparer.compare(shipped, new Value("shipped"))).isZero();
+            assertThat(ValueComparer.compare(new Value("shipped"), shipped)).isZero();
+            assertThat(ValueComparer.compare(shipped, pending)).isPositive();
+            assertThat(ValueComparer.compare(pending, new Value("zzz"))).isNegative();
+        }
+
+        @Test
+        @DisplayName("字典值的相等与哈希与普通值一致")
+        void equalsAndHashCode() throws DBException {
+            ColumnDictionary dictionary = new ColumnDictionary();
+            Value shipped = dictionary.decode(dictionary.encode("shipped"));
+
+            assertThat(shipped).isEqualTo(dictionary.decode(0));
+            assertThat(shipped).isEqualTo(new Value("shipped"));
+            assertThat(shipped.hashCode()).isEqualTo(new Value("shipped").hashCode());
+            assertThat(shipped).isNotEqualTo(dictionary.decode(dictionary.encode("pending")));
+        }
+    }
+}